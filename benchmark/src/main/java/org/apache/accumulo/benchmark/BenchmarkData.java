@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.ColumnVisibility;
+
+/**
+ * Generates the data the benchmarks run against. Everything is derived from a seed so that every fork of a benchmark, and every run of the suite, sees the
+ * same keys.
+ */
+public class BenchmarkData {
+
+  public static final long SEED = 0x5eed;
+
+  /**
+   * Visibility expressions attached to generated keys, from simple to nested. {@link #AUTHS} satisfies roughly half of them.
+   */
+  public static final String[] VISIBILITIES = {"", "A", "B", "A&B", "A|C", "(A|B)&(C|D)", "(A&B)|(C&D)|(E&F)", "D&E&F", "((A|B)&C)|((D|E)&F)"};
+
+  public static final String[] AUTHS = {"A", "B", "C"};
+
+  private static final String[] FAMILIES = {"attr", "data", "edge", "meta"};
+
+  private final Random random;
+  private final int valueSize;
+
+  public BenchmarkData(int valueSize) {
+    this.random = new Random(SEED);
+    this.valueSize = valueSize;
+  }
+
+  public static String row(int i) {
+    return String.format("r%010d", i);
+  }
+
+  private String visibility() {
+    return VISIBILITIES[random.nextInt(VISIBILITIES.length)];
+  }
+
+  private Value value() {
+    byte[] val = new byte[valueSize];
+    random.nextBytes(val);
+    return new Value(val);
+  }
+
+  /**
+   * @return a random key with a row in [0, rows)
+   */
+  public Key randomKey(int rows) {
+    return new Key(row(random.nextInt(rows)), FAMILIES[random.nextInt(FAMILIES.length)], String.format("q%04d", random.nextInt(1000)), visibility(),
+        random.nextLong() & Long.MAX_VALUE);
+  }
+
+  /**
+   * @return a sorted map with columnsPerRow entries for each of rows rows
+   */
+  public TreeMap<Key,Value> sortedData(int rows, int columnsPerRow) {
+    return sortedData(0, 1, rows, columnsPerRow);
+  }
+
+  /**
+   * @return a sorted map holding the rows congruent to offset modulo stride, so that stride maps generated with different offsets interleave
+   */
+  public TreeMap<Key,Value> sortedData(int offset, int stride, int rows, int columnsPerRow) {
+    return sortedRuns(offset, stride, 1, rows, columnsPerRow);
+  }
+
+  /**
+   * @return a sorted map holding runs of runLength consecutive rows, taking every stride'th run starting with run offset
+   */
+  public TreeMap<Key,Value> sortedRuns(int offset, int stride, int runLength, int rows, int columnsPerRow) {
+    TreeMap<Key,Value> data = new TreeMap<Key,Value>();
+    for (int r = offset * runLength; r < rows; r++) {
+      if ((r / runLength) % stride != offset)
+        continue;
+      String row = row(r);
+      for (int c = 0; c < columnsPerRow; c++) {
+        data.put(new Key(row, FAMILIES[c % FAMILIES.length], String.format("q%04d", c), visibility(), 1000), value());
+      }
+    }
+    return data;
+  }
+
+  /**
+   * @return count mutations, each updating columnsPerRow columns of a random row
+   */
+  public List<Mutation> mutations(int count, int columnsPerRow) {
+    List<Mutation> mutations = new ArrayList<Mutation>(count);
+    for (int i = 0; i < count; i++) {
+      Mutation m = new Mutation(row(random.nextInt(Integer.MAX_VALUE)));
+      for (int c = 0; c < columnsPerRow; c++) {
+        m.put(FAMILIES[c % FAMILIES.length], String.format("q%04d", c), new ColumnVisibility(visibility()), value());
+      }
+      mutations.add(m);
+    }
+    return mutations;
+  }
+}
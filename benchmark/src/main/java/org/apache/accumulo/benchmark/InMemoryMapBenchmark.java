@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.tserver.InMemoryMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures applying batches of mutations to a tablet's {@link InMemoryMap}. A new map is created for every iteration so that its size, and so the depth of
+ * its sorted structure, is comparable between runs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Thread)
+public class InMemoryMapBenchmark {
+
+  private static final int MUTATIONS = 1 << 14;
+
+  /**
+   * The map implementation, default, offheap or native. The native map needs the accumulo native library on java.library.path, pass {@code -p map=native} to
+   * measure it.
+   */
+  @Param({"default", "offheap"})
+  public String map;
+
+  @Param({"1", "100"})
+  public int batchSize;
+
+  @Param({"1", "10"})
+  public int columns;
+
+  private List<Mutation> mutations;
+  private InMemoryMap imm;
+  private int next;
+
+  @Setup
+  public void generate() {
+    mutations = new BenchmarkData(20).mutations(MUTATIONS, columns);
+  }
+
+  @Setup(Level.Iteration)
+  public void createMap() {
+    imm = new InMemoryMap(new HashMap<String,Set<ByteSequence>>(), map.equals("native"), map.equals("offheap"), System.getProperty("java.io.tmpdir"));
+  }
+
+  @TearDown(Level.Iteration)
+  public void deleteMap() {
+    imm.delete(0);
+  }
+
+  @Benchmark
+  public long mutate() {
+    if (next + batchSize > MUTATIONS)
+      next = 0;
+    imm.mutate(mutations.subList(next, next + batchSize));
+    next += batchSize;
+    return imm.getNumEntries();
+  }
+}
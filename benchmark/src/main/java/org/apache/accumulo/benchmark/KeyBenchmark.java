@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.PartialKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Key#compareTo(Key)}, the comparison every sorted structure and merge in the tablet server is built on.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class KeyBenchmark {
+
+  private static final int KEYS = 1 << 12;
+
+  private Key[] keys;
+  private Key[] copies;
+  private int next;
+
+  @Setup
+  public void setup() {
+    BenchmarkData data = new BenchmarkData(0);
+    keys = new Key[KEYS];
+    copies = new Key[KEYS];
+    for (int i = 0; i < KEYS; i++) {
+      // few rows, so that neighbouring keys often share a row and the comparison has to look at the columns
+      keys[i] = data.randomKey(64);
+      copies[i] = new Key(keys[i]);
+    }
+  }
+
+  private int next() {
+    next = (next + 1) & (KEYS - 1);
+    return next;
+  }
+
+  /**
+   * Compares distinct but equal keys, the worst case where every field is examined.
+   */
+  @Benchmark
+  public int compareEqual() {
+    int i = next();
+    return keys[i].compareTo(copies[i]);
+  }
+
+  @Benchmark
+  public int compareRandom() {
+    int i = next();
+    return keys[i].compareTo(keys[(i + 1) & (KEYS - 1)]);
+  }
+
+  @Benchmark
+  public int compareRowColfam() {
+    int i = next();
+    return keys[i].compareTo(keys[(i + 1) & (KEYS - 1)], PartialKey.ROW_COLFAM);
+  }
+}
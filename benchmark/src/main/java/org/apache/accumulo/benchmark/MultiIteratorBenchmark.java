@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.iterators.SortedMapIterator;
+import org.apache.accumulo.core.iterators.system.MultiIterator;
+import org.apache.accumulo.core.util.LocalityGroupUtil;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures merging sorted sources through {@link MultiIterator} and the loser tree in {@link org.apache.accumulo.core.iterators.system.HeapIterator}, as a
+ * scan over a tablet with many files and in memory maps does. With a run length of one the sources interleave row by row, so the top source changes on nearly
+ * every call to next; longer runs let the same source keep winning.
+ *
+ * <p>
+ * {@link #countComparisons(Comparisons)} also reports the number of keys merged and the number of key comparisons made, so that comparisons per key can be
+ * read off the two counters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MultiIteratorBenchmark {
+
+  private static final int ROWS = 4096;
+  private static final int COLUMNS_PER_ROW = 4;
+
+  @Param({"1", "2", "8", "32", "64"})
+  public int sources;
+
+  @Param({"1", "16"})
+  public int runLength;
+
+  private MultiIterator iterator;
+  private MultiIterator countingIterator;
+
+  private static long comparisons = 0;
+
+  /**
+   * A key that counts how often it is compared, for the keys of {@link MultiIteratorBenchmark#countingIterator}.
+   */
+  private static class CountingKey extends Key {
+    CountingKey(Key key) {
+      super(key);
+    }
+
+    @Override
+    public int compareTo(Key other) {
+      comparisons++;
+      return super.compareTo(other);
+    }
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters
+  public static class Comparisons {
+    public long keys;
+    public long comparisons;
+  }
+
+  @Setup
+  public void setup() {
+    BenchmarkData data = new BenchmarkData(10);
+    List<SortedKeyValueIterator<Key,Value>> iters = new ArrayList<SortedKeyValueIterator<Key,Value>>(sources);
+    List<SortedKeyValueIterator<Key,Value>> countingIters = new ArrayList<SortedKeyValueIterator<Key,Value>>(sources);
+    for (int i = 0; i < sources; i++) {
+      TreeMap<Key,Value> sorted = data.sortedRuns(i, sources, runLength, ROWS, COLUMNS_PER_ROW);
+      iters.add(new SortedMapIterator(sorted));
+
+      TreeMap<Key,Value> counting = new TreeMap<Key,Value>();
+      for (Entry<Key,Value> entry : sorted.entrySet()) {
+        counting.put(new CountingKey(entry.getKey()), entry.getValue());
+      }
+      countingIters.add(new SortedMapIterator(counting));
+    }
+    iterator = new MultiIterator(iters, false);
+    countingIterator = new MultiIterator(countingIters, false);
+  }
+
+  private static int scan(MultiIterator iter) throws IOException {
+    iter.seek(new Range(), LocalityGroupUtil.EMPTY_CF_SET, false);
+    int count = 0;
+    while (iter.hasTop()) {
+      count++;
+      iter.next();
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int merge() throws IOException {
+    return scan(iterator);
+  }
+
+  @Benchmark
+  public int countComparisons(Comparisons counters) throws IOException {
+    long before = comparisons;
+    int count = scan(countingIterator);
+    counters.keys += count;
+    counters.comparisons += comparisons - before;
+    return count;
+  }
+}
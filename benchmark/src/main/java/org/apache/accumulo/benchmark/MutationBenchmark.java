@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures building a {@link Mutation} and its {@link Mutation#write(java.io.DataOutput)} / {@link Mutation#readFields(java.io.DataInput)} round trip, which
+ * every update pays on its way through the client, the write ahead log and the tablet server.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MutationBenchmark {
+
+  private static final int MUTATIONS = 1 << 10;
+
+  @Param({"1", "10", "100"})
+  public int columns;
+
+  @Param({"10", "1000"})
+  public int valueSize;
+
+  private List<Mutation> mutations;
+  private byte[][] serialized;
+  private String[] qualifiers;
+  private byte[] value;
+  private int next;
+
+  private final DataOutputBuffer out = new DataOutputBuffer();
+  private final DataInputBuffer in = new DataInputBuffer();
+
+  @Setup
+  public void setup() throws IOException {
+    mutations = new BenchmarkData(valueSize).mutations(MUTATIONS, columns);
+    serialized = new byte[MUTATIONS][];
+    for (int i = 0; i < MUTATIONS; i++) {
+      out.reset();
+      mutations.get(i).write(out);
+      serialized[i] = new byte[out.getLength()];
+      System.arraycopy(out.getData(), 0, serialized[i], 0, out.getLength());
+    }
+    qualifiers = new String[columns];
+    for (int c = 0; c < columns; c++) {
+      qualifiers[c] = String.format("q%04d", c);
+    }
+    value = new byte[valueSize];
+  }
+
+  private int next() {
+    next = (next + 1) & (MUTATIONS - 1);
+    return next;
+  }
+
+  @Benchmark
+  public int write() throws IOException {
+    out.reset();
+    mutations.get(next()).write(out);
+    return out.getLength();
+  }
+
+  @Benchmark
+  public Mutation readFields() throws IOException {
+    byte[] bytes = serialized[next()];
+    in.reset(bytes, bytes.length);
+    Mutation m = new Mutation();
+    m.readFields(in);
+    return m;
+  }
+
+  @Benchmark
+  public int buildAndWrite() throws IOException {
+    Mutation m = new Mutation(BenchmarkData.row(next()));
+    for (int c = 0; c < columns; c++) {
+      m.put("data", qualifiers[c], new Value(value));
+    }
+    out.reset();
+    m.write(out);
+    return out.getLength();
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.conf.AccumuloConfiguration;
+import org.apache.accumulo.core.conf.ConfigurationCopy;
+import org.apache.accumulo.core.conf.Property;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.file.FileOperations;
+import org.apache.accumulo.core.file.FileSKVIterator;
+import org.apache.accumulo.core.file.FileSKVWriter;
+import org.apache.accumulo.core.util.LocalityGroupUtil;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading an RFile on the local file system, both a full sequential scan and seeks to random rows. The file is generated in the trial setup and
+ * read without a block cache, so every seek pays for reading and decompressing its block.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class RFileBenchmark {
+
+  private static final int ROWS = 10000;
+  private static final int COLUMNS_PER_ROW = 10;
+
+  @Param({"none", "gz"})
+  public String compression;
+
+  @Param({"0", "16"})
+  public int restartInterval;
+
+  @Param({"0"})
+  public int dictionarySize;
+
+  private File dir;
+  private FileSKVIterator reader;
+  private Random random;
+
+  @Setup
+  public void setup() throws IOException {
+    ConfigurationCopy acuconf = new ConfigurationCopy(AccumuloConfiguration.getDefaultConfiguration());
+    acuconf.set(Property.TABLE_FILE_COMPRESSION_TYPE, compression);
+    acuconf.set(Property.TABLE_FILE_RESTART_INTERVAL, Integer.toString(restartInterval));
+    acuconf.set(Property.TABLE_FILE_DICTIONARY_SIZE, Integer.toString(dictionarySize));
+
+    Configuration conf = new Configuration();
+    FileSystem fs = FileSystem.getLocal(conf);
+
+    dir = File.createTempFile("rfile-benchmark", "");
+    if (!dir.delete() || !dir.mkdir())
+      throw new IOException("Unable to create " + dir);
+    String file = new File(dir, "bench.rf").getAbsolutePath();
+
+    FileSKVWriter writer = FileOperations.getInstance().openWriter(file, fs, conf, acuconf);
+    writer.startDefaultLocalityGroup();
+    for (Entry<Key,Value> entry : new BenchmarkData(50).sortedData(ROWS, COLUMNS_PER_ROW).entrySet()) {
+      writer.append(entry.getKey(), entry.getValue());
+    }
+    writer.close();
+
+    reader = FileOperations.getInstance().openReader(file, false, fs, conf, acuconf);
+    random = new Random(BenchmarkData.SEED);
+  }
+
+  @TearDown
+  public void teardown() throws IOException {
+    reader.close();
+    for (File f : dir.listFiles()) {
+      f.delete();
+    }
+    dir.delete();
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public int sequentialScan() throws IOException {
+    reader.seek(new Range(), LocalityGroupUtil.EMPTY_CF_SET, false);
+    int count = 0;
+    while (reader.hasTop()) {
+      count++;
+      reader.next();
+    }
+    return count;
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public Key randomSeek() throws IOException {
+    // seek into the middle of a row, so the seek can not simply land on a block boundary
+    Key start = new Key(BenchmarkData.row(random.nextInt(ROWS)), "edge");
+    reader.seek(new Range(start, null), LocalityGroupUtil.EMPTY_CF_SET, false);
+    return reader.getTopKey();
+  }
+}
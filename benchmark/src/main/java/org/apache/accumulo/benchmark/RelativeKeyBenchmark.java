@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.file.rfile.ColumnDictionary;
+import org.apache.accumulo.core.file.rfile.RelativeKey;
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.DataOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the prefix compressed key encoding RFile uses inside data blocks, with and without a column dictionary.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class RelativeKeyBenchmark {
+
+  private static final int KEYS = 1 << 12;
+
+  @Param({"false", "true"})
+  public boolean dictionary;
+
+  private Key[] keys;
+  private byte[][] encoded;
+  private ColumnDictionary columnDictionary;
+  private int next;
+
+  private final DataOutputBuffer out = new DataOutputBuffer();
+  private final DataInputBuffer in = new DataInputBuffer();
+
+  @Setup
+  public void setup() throws IOException {
+    keys = new BenchmarkData(0).sortedData(KEYS / 8, 8).keySet().toArray(new Key[0]);
+    columnDictionary = dictionary ? new ColumnDictionary(256) : null;
+    encoded = new byte[keys.length][];
+    for (int i = 0; i < keys.length; i++) {
+      out.reset();
+      new RelativeKey(i == 0 ? null : keys[i - 1], keys[i], columnDictionary).write(out);
+      encoded[i] = new byte[out.getLength()];
+      System.arraycopy(out.getData(), 0, encoded[i], 0, out.getLength());
+    }
+  }
+
+  private int next() {
+    // skip the first key, it is written without a previous key
+    next = next + 1 == keys.length ? 1 : next + 1;
+    return next;
+  }
+
+  @Benchmark
+  public int encode() throws IOException {
+    int i = next();
+    out.reset();
+    new RelativeKey(keys[i - 1], keys[i], columnDictionary).write(out);
+    return out.getLength();
+  }
+
+  @Benchmark
+  public Key decode() throws IOException {
+    int i = next();
+    in.reset(encoded[i], encoded[i].length);
+    RelativeKey rk = new RelativeKey();
+    rk.setPrevKey(keys[i - 1]);
+    rk.setDictionary(columnDictionary);
+    rk.readFields(in);
+    return rk.getKey();
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.benchmark;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.data.Column;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.iterators.SortedMapIterator;
+import org.apache.accumulo.core.iterators.system.BatchingIterator;
+import org.apache.accumulo.core.iterators.system.ColumnFamilySkippingIterator;
+import org.apache.accumulo.core.iterators.system.ColumnQualifierFilter;
+import org.apache.accumulo.core.iterators.system.DeletingIterator;
+import org.apache.accumulo.core.iterators.system.FilteredBatchIterator;
+import org.apache.accumulo.core.iterators.system.UnbatchingIterator;
+import org.apache.accumulo.core.iterators.system.VisibilityFilter;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.util.LocalityGroupUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a full scan through the system iterators a tablet server places under every scan, as CollectTabletStats does against a tablet, with the column
+ * and visibility filters applied per entry or to batches of entries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ScanStackBenchmark {
+
+  private static final int ROWS = 16384;
+  private static final int COLUMNS_PER_ROW = 4;
+
+  @Param({"perEntry", "batched"})
+  public String stack;
+
+  @Param({"false", "true"})
+  public boolean fetchColumns;
+
+  private SortedKeyValueIterator<Key,Value> iterator;
+
+  @Setup
+  public void setup() throws IOException {
+    TreeMap<Key,Value> data = new BenchmarkData(10).sortedData(ROWS, COLUMNS_PER_ROW);
+
+    Set<Column> columns = new HashSet<Column>();
+    if (fetchColumns) {
+      columns.add(new Column("attr".getBytes(), "q0000".getBytes(), null));
+      columns.add(new Column("data".getBytes(), "q0001".getBytes(), null));
+    }
+    Authorizations auths = new Authorizations(BenchmarkData.AUTHS);
+
+    ColumnFamilySkippingIterator cfsi = new ColumnFamilySkippingIterator(new DeletingIterator(new SortedMapIterator(data), false));
+    if (stack.equals("batched")) {
+      iterator = new UnbatchingIterator(new FilteredBatchIterator(new BatchingIterator(cfsi), new ColumnQualifierFilter(null, columns), new VisibilityFilter(
+          null, auths, new byte[0])));
+    } else {
+      iterator = new VisibilityFilter(new ColumnQualifierFilter(cfsi, columns), auths, new byte[0]);
+    }
+  }
+
+  @Benchmark
+  public int scan() throws IOException {
+    iterator.seek(new Range(), LocalityGroupUtil.EMPTY_CF_SET, false);
+    int count = 0;
+    while (iterator.hasTop()) {
+      count++;
+      iterator.next();
+    }
+    return count;
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.tserver.CommitCounter;
+import org.apache.accumulo.tserver.InMemoryMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures many threads committing small batches to one tablet. Each commit registers with the tablet and its commit session, applies the batch to the
+ * shared {@link InMemoryMap} and then deregisters, either with the atomic counters the tablet uses or with the tablet monitor it used to take. A Tablet can
+ * not be created outside of a running tablet server, so the bookkeeping is reproduced here around the same {@link CommitCounter} and map. Use {@code -t} to
+ * change the number of writing threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+@Threads(16)
+@State(Scope.Benchmark)
+public class TabletCommitBenchmark {
+
+  private static final int MUTATIONS = 1 << 14;
+
+  @Param({"1", "10"})
+  public int batchSize;
+
+  private List<Mutation> mutations;
+  private InMemoryMap imm;
+
+  private final Object tabletLock = new Object();
+  private final AtomicInteger writesInProgress = new AtomicInteger();
+  private final CommitCounter commitCounter = new CommitCounter();
+  private int lockedWritesInProgress;
+  private int lockedCommitsInProgress;
+
+  @State(Scope.Thread)
+  public static class Position {
+    int next;
+  }
+
+  @Setup
+  public void generate() {
+    mutations = new BenchmarkData(20).mutations(MUTATIONS, 1);
+  }
+
+  @Setup(Level.Iteration)
+  public void createMap() {
+    imm = new InMemoryMap(new HashMap<String,Set<ByteSequence>>(), false, false, System.getProperty("java.io.tmpdir"));
+  }
+
+  @TearDown(Level.Iteration)
+  public void deleteMap() {
+    imm.delete(0);
+  }
+
+  private List<Mutation> nextBatch(Position position) {
+    if (position.next + batchSize > MUTATIONS)
+      position.next = 0;
+    List<Mutation> batch = mutations.subList(position.next, position.next + batchSize);
+    position.next += batchSize;
+    return batch;
+  }
+
+  @Benchmark
+  public int atomicCounters(Position position) {
+    writesInProgress.incrementAndGet();
+    if (!commitCounter.tryIncrement())
+      throw new IllegalStateException();
+
+    imm.mutate(nextBatch(position));
+
+    writesInProgress.decrementAndGet();
+    commitCounter.decrement();
+    return writesInProgress.get();
+  }
+
+  @Benchmark
+  public int tabletMonitor(Position position) {
+    synchronized (tabletLock) {
+      lockedWritesInProgress++;
+      lockedCommitsInProgress++;
+    }
+
+    imm.mutate(nextBatch(position));
+
+    synchronized (tabletLock) {
+      lockedWritesInProgress--;
+      lockedCommitsInProgress--;
+      if (lockedCommitsInProgress == 0)
+        tabletLock.notifyAll();
+      return lockedWritesInProgress;
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.iterators.SortedMapIterator;
+import org.apache.accumulo.core.iterators.system.VisibilityFilter;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.apache.accumulo.core.security.CompiledVisibility;
+import org.apache.accumulo.core.security.VisibilityEvaluator;
+import org.apache.accumulo.core.security.VisibilityParseException;
+import org.apache.accumulo.core.util.LocalityGroupUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures column visibility checks, both through {@link VisibilityFilter}, which caches the result for each distinct expression, and by parsing and
+ * evaluating an expression directly. A new filter is created for every scan in {@code newFilterScan}, as the tablet server does, and evaluating a
+ * {@link CompiledVisibility} is what a cache miss costs once the expression is compiled.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class VisibilityFilterBenchmark {
+
+  private static final int ROWS = 4096;
+  private static final int COLUMNS_PER_ROW = 4;
+
+  private SortedMapIterator data;
+  private Authorizations auths;
+  private VisibilityFilter filter;
+  private VisibilityEvaluator evaluator;
+  private byte[][] expressions;
+  private CompiledVisibility[] compiled;
+  private int next;
+
+  @Setup
+  public void setup() throws VisibilityParseException {
+    auths = new Authorizations(BenchmarkData.AUTHS);
+    data = new SortedMapIterator(new BenchmarkData(10).sortedData(ROWS, COLUMNS_PER_ROW));
+    filter = new VisibilityFilter(data, auths, new byte[0]);
+    evaluator = new VisibilityEvaluator(auths);
+    expressions = new byte[BenchmarkData.VISIBILITIES.length][];
+    compiled = new CompiledVisibility[expressions.length];
+    for (int i = 0; i < expressions.length; i++) {
+      expressions[i] = BenchmarkData.VISIBILITIES[i].getBytes();
+      compiled[i] = CompiledVisibility.compile(expressions[i]);
+    }
+  }
+
+  private static int scan(VisibilityFilter filter) throws IOException {
+    filter.seek(new Range(), LocalityGroupUtil.EMPTY_CF_SET, false);
+    int count = 0;
+    while (filter.hasTop()) {
+      count++;
+      filter.next();
+    }
+    return count;
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int filterScan() throws IOException {
+    return scan(filter);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public int newFilterScan() throws IOException {
+    return scan(new VisibilityFilter(data, auths, new byte[0]));
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public boolean parseAndEvaluate() throws VisibilityParseException {
+    next = next + 1 == expressions.length ? 0 : next + 1;
+    return evaluator.evaluate(new ColumnVisibility(expressions[next]));
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public boolean evaluateCompiled() {
+    next = next + 1 == expressions.length ? 0 : next + 1;
+    return evaluator.evaluate(compiled[next]);
+  }
+}
@@ -90,6 +90,9 @@ public class Constants {
   // fetching the next batch.
   public static final long SCANNER_DEFAULT_READAHEAD_THRESHOLD = 3l;
 
+  // Once read ahead has started, scanners keep requesting batches until this many are waiting to be consumed.
+  public static final int SCANNER_DEFAULT_READAHEAD_BATCHES = 1;
+
   // Security configuration
   public static final String PW_HASH_ALGORITHM = "SHA-256";
 
@@ -18,9 +18,11 @@ package org.apache.accumulo.core.cli;
 
 import java.util.concurrent.TimeUnit;
 
+import org.apache.accumulo.core.cli.ClientOpts.DurabilityConverter;
 import org.apache.accumulo.core.cli.ClientOpts.MemoryConverter;
 import org.apache.accumulo.core.cli.ClientOpts.TimeConverter;
 import org.apache.accumulo.core.client.BatchWriterConfig;
+import org.apache.accumulo.core.client.Durability;
 
 import com.beust.jcommander.Parameter;
 
@@ -30,6 +32,9 @@ public class BatchWriterOpts {
   @Parameter(names="--batchThreads", description="Number of threads to use when writing large batches")
   public Integer batchThreads = BWDEFAULTS.getMaxWriteThreads();
 
+  @Parameter(names="--batchThreadsPerServer", description="Number of batches that may be sent to a single tablet server at the same time")
+  public Integer batchThreadsPerServer = BWDEFAULTS.getMaxWriteThreadsPerServer();
+
   @Parameter(names="--batchLatency", converter=TimeConverter.class, description="The maximum time to wait before flushing data to servers when writing")
   public Long batchLatency = BWDEFAULTS.getMaxLatency(TimeUnit.MILLISECONDS);
   
@@ -39,11 +44,16 @@ public class BatchWriterOpts {
   @Parameter(names="--batchTimeout", converter=TimeConverter.class, description="timeout used to fail a batch write")
   public Long batchTimeout = BWDEFAULTS.getTimeout(TimeUnit.MILLISECONDS);
   
+  @Parameter(names="--durability", converter=DurabilityConverter.class, description="durability used for writes (default, none, log, flush, sync)")
+  public Durability durability = BWDEFAULTS.getDurability();
+  
   public BatchWriterConfig getBatchWriterConfig() {
     BatchWriterConfig config = new BatchWriterConfig();
     config.setMaxLatency(this.batchLatency, TimeUnit.MILLISECONDS);
     config.setMaxMemory(this.batchMemory);
     config.setTimeout(this.batchTimeout, TimeUnit.MILLISECONDS);
+    config.setMaxWriteThreadsPerServer(this.batchThreadsPerServer);
+    config.setDurability(this.durability);
     return config;
   }
   
@@ -26,9 +26,11 @@ import org.apache.accumulo.core.client.AccumuloException;
 import org.apache.accumulo.core.client.AccumuloSecurityException;
 import org.apache.accumulo.core.client.ClientConfiguration;
 import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.Durability;
 import org.apache.accumulo.core.client.Instance;
 import org.apache.accumulo.core.client.ZooKeeperInstance;
 import org.apache.accumulo.core.client.ClientConfiguration.ClientProperty;
+import org.apache.accumulo.core.client.impl.DurabilityImpl;
 import org.apache.accumulo.core.client.impl.thrift.SecurityErrorCode;
 import org.apache.accumulo.core.client.mapreduce.AccumuloInputFormat;
 import org.apache.accumulo.core.client.mapreduce.AccumuloOutputFormat;
@@ -69,6 +71,13 @@ public class ClientOpts extends Help {
     }
   }
   
+  public static class DurabilityConverter implements IStringConverter<Durability> {
+    @Override
+    public Durability convert(String value) {
+      return DurabilityImpl.fromString(value);
+    }
+  }
+  
   public static class AuthConverter implements IStringConverter<Authorizations> {
     @Override
     public Authorizations convert(String value) {
@@ -46,6 +46,11 @@ public class BatchWriterConfig implements Writable {
   private static final Integer DEFAULT_MAX_WRITE_THREADS = 3;
   private Integer maxWriteThreads = null;
   
+  private static final Integer DEFAULT_MAX_WRITE_THREADS_PER_SERVER = 1;
+  private Integer maxWriteThreadsPerServer = null;
+  
+  private Durability durability = Durability.DEFAULT;
+  
   /**
    * Sets the maximum memory to batch before writing. The smaller this value, the more frequently the {@link BatchWriter} will write.<br />
    * If set to a value smaller than a single mutation, then it will {@link BatchWriter#flush()} after each added mutation. Must be non-negative.
@@ -150,6 +155,48 @@ public class BatchWriterConfig implements Writable {
     return this;
   }
   
+  /**
+   * Sets the maximum number of batches that may be sent to a single tablet server at the same time. Allowing more than one batch in flight keeps a tablet
+   * server busy while the next batch is being sent, but mutations in concurrent batches may be applied by the tablet server in any order. Concurrent batches
+   * to one server also count against {@link #setMaxWriteThreads(int)}.
+   * 
+   * <p>
+   * <b>Default:</b> 1
+   * 
+   * @param maxWriteThreadsPerServer
+   *          the maximum number of concurrent batches per tablet server
+   * @throws IllegalArgumentException
+   *           if {@code maxWriteThreadsPerServer} is non-positive
+   * @return {@code this} to allow chaining of set methods
+   * @since 1.7.0
+   */
+  public BatchWriterConfig setMaxWriteThreadsPerServer(int maxWriteThreadsPerServer) {
+    if (maxWriteThreadsPerServer <= 0)
+      throw new IllegalArgumentException("Max threads per server must be positive " + maxWriteThreadsPerServer);
+    
+    this.maxWriteThreadsPerServer = maxWriteThreadsPerServer;
+    return this;
+  }
+  
+  /**
+   * Change the durability for the BatchWriter session. The default durability is "default" which is the table's durability setting. If the durability is set
+   * to something other than the default, it will override the durability setting of the table.
+   * 
+   * <p>
+   * <b>Default:</b> {@link Durability#DEFAULT}
+   * 
+   * @param durability
+   *          the Durability to be used by the BatchWriter
+   * @return {@code this} to allow chaining of set methods
+   * @since 1.7.0
+   */
+  public BatchWriterConfig setDurability(Durability durability) {
+    if (durability == null)
+      throw new IllegalArgumentException("Durability must not be null");
+    this.durability = durability;
+    return this;
+  }
+  
   public long getMaxMemory() {
     return maxMemory != null ? maxMemory : DEFAULT_MAX_MEMORY;
   }
@@ -166,6 +213,22 @@ public class BatchWriterConfig implements Writable {
     return maxWriteThreads != null ? maxWriteThreads : DEFAULT_MAX_WRITE_THREADS;
   }
   
+  /**
+   * @since 1.7.0
+   * @return the maximum number of batches sent to a single tablet server at the same time
+   */
+  public int getMaxWriteThreadsPerServer() {
+    return maxWriteThreadsPerServer != null ? maxWriteThreadsPerServer : DEFAULT_MAX_WRITE_THREADS_PER_SERVER;
+  }
+  
+  /**
+   * @since 1.7.0
+   * @return the durability to be used by the BatchWriter
+   */
+  public Durability getDurability() {
+    return durability;
+  }
+  
   @Override
   public void write(DataOutput out) throws IOException {
     // write this out in a human-readable way
@@ -176,8 +239,12 @@ public class BatchWriterConfig implements Writable {
       addField(fields, "maxLatency", maxLatency);
     if (maxWriteThreads != null)
       addField(fields, "maxWriteThreads", maxWriteThreads);
+    if (maxWriteThreadsPerServer != null)
+      addField(fields, "maxWriteThreadsPerServer", maxWriteThreadsPerServer);
     if (timeout != null)
       addField(fields, "timeout", timeout);
+    if (durability != Durability.DEFAULT)
+      addField(fields, "durability", durability);
     String output = StringUtils.join(",", fields);
     
     byte[] bytes = output.getBytes(Constants.UTF8);
@@ -216,8 +283,12 @@ public class BatchWriterConfig implements Writable {
         maxLatency = Long.valueOf(value);
       } else if ("maxWriteThreads".equals(key)) {
         maxWriteThreads = Integer.valueOf(value);
+      } else if ("maxWriteThreadsPerServer".equals(key)) {
+        maxWriteThreadsPerServer = Integer.valueOf(value);
       } else if ("timeout".equals(key)) {
         timeout = Long.valueOf(value);
+      } else if ("durability".equals(key)) {
+        durability = Durability.valueOf(value);
       } else {
         /* ignore any other properties */
       }
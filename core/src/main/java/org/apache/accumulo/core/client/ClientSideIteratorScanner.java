@@ -139,6 +139,7 @@ public class ClientSideIteratorScanner extends ScannerOptions implements Scanner
     this.range = scanner.getRange();
     this.size = scanner.getBatchSize();
     this.timeOut = scanner.getTimeout(TimeUnit.MILLISECONDS);
+    this.populateBlockCache = scanner.getBlockCachePopulation();
     this.readaheadThreshold = scanner.getReadaheadThreshold();
   }
   
@@ -156,6 +157,7 @@ public class ClientSideIteratorScanner extends ScannerOptions implements Scanner
     smi.scanner.setBatchSize(size);
     smi.scanner.setTimeout(timeOut, TimeUnit.MILLISECONDS);
     smi.scanner.setReadaheadThreshold(readaheadThreshold);
+    smi.scanner.setBlockCachePopulation(populateBlockCache);
     if (isolated)
       smi.scanner.enableIsolation();
     else
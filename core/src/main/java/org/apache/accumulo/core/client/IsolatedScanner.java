@@ -225,6 +225,7 @@ public class IsolatedScanner extends ScannerOptions implements Scanner {
     this.scanner = scanner;
     this.range = scanner.getRange();
     this.timeOut = scanner.getTimeout(TimeUnit.MILLISECONDS);
+    this.populateBlockCache = scanner.getBlockCachePopulation();
     this.batchSize = scanner.getBatchSize();
     this.readaheadThreshold = scanner.getReadaheadThreshold();
     this.bufferFactory = bufferFactory;
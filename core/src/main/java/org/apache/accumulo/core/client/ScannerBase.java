@@ -122,6 +122,25 @@ public interface ScannerBase extends Iterable<Entry<Key,Value>> {
    */
   long getTimeout(TimeUnit timeUnit);
 
+  /**
+   * Determines if data blocks read by this scanner are added to the tablet servers block cache. Blocks already in the cache are always used. Disabling cache
+   * population is useful for large one time scans, such as exports or map reduce jobs, which would otherwise evict data that other scans are actively
+   * using. By default blocks are cached.
+   * 
+   * @param populate
+   *          false to stop this scanner from adding blocks to the cache
+   * @since 1.7.0
+   */
+  void setBlockCachePopulation(boolean populate);
+
+  /**
+   * Returns the setting for whether data blocks read by this scanner are added to the tablet servers block cache.
+   * 
+   * @return true if blocks read by this scanner are cached
+   * @since 1.7.0
+   */
+  boolean getBlockCachePopulation();
+
   /**
    * Closes any underlying connections on the scanner
    * @since 1.5.0
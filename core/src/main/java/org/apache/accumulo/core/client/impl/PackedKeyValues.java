@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.client.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.KeyValue;
+import org.apache.accumulo.core.file.rfile.RelativeKey;
+import org.apache.accumulo.core.util.ByteBufferUtil;
+import org.apache.hadoop.io.WritableUtils;
+
+/**
+ * A batch of scan results packed into a single buffer, sent in place of a list of TKeyValue. Each key is written relative to the one before it as RFile
+ * writes keys, so the row and columns repeated by consecutive keys cost a few bits, and the entries may be deflated as one block.
+ *
+ * <p>
+ * The buffer starts with a flags byte, the number of entries and the last key, so that a scanner can continue after the batch without decoding it. The
+ * entries are decoded as the list is iterated.
+ */
+public class PackedKeyValues extends AbstractList<KeyValue> {
+
+  private static final byte DEFLATED = 0x01;
+
+  private final byte[] packed;
+  private final int entriesOffset;
+  private final boolean deflated;
+  private final int size;
+  private final Key lastKey;
+
+  // every entry, decoded on the first call to get
+  private List<KeyValue> decoded;
+
+  /**
+   * @param compress
+   *          deflate the entries, trading tablet server and client cpu for less data on the wire
+   */
+  public static ByteBuffer pack(List<? extends KeyValue> results, boolean compress) {
+    try {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(buffer);
+      out.writeByte(compress ? DEFLATED : 0);
+      WritableUtils.writeVInt(out, results.size());
+      if (results.size() > 0)
+        results.get(results.size() - 1).key.write(out);
+      out.flush();
+
+      Deflater deflater = null;
+      DeflaterOutputStream deflaterOut = null;
+      if (compress) {
+        deflater = new Deflater(Deflater.BEST_SPEED);
+        deflaterOut = new DeflaterOutputStream(buffer, deflater);
+        out = new DataOutputStream(deflaterOut);
+      }
+
+      Key prevKey = null;
+      for (KeyValue kv : results) {
+        new RelativeKey(prevKey, kv.key).write(out);
+        WritableUtils.writeVInt(out, kv.value.length);
+        out.write(kv.value);
+        prevKey = kv.key;
+      }
+
+      out.flush();
+      if (deflater != null) {
+        deflaterOut.finish();
+        deflater.end();
+      }
+      return ByteBuffer.wrap(buffer.toByteArray());
+    } catch (IOException e) {
+      // only written to memory
+      throw new RuntimeException(e);
+    }
+  }
+
+  public PackedKeyValues(ByteBuffer buffer) {
+    this.packed = ByteBufferUtil.toBytes(buffer);
+    try {
+      ByteArrayInputStream bytes = new ByteArrayInputStream(packed);
+      DataInputStream in = new DataInputStream(bytes);
+      deflated = (in.readByte() & DEFLATED) == DEFLATED;
+      size = WritableUtils.readVInt(in);
+      if (size > 0) {
+        lastKey = new Key();
+        lastKey.readFields(in);
+      } else {
+        lastKey = null;
+      }
+      entriesOffset = packed.length - bytes.available();
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Bad packed results", e);
+    }
+  }
+
+  /**
+   * @return the last key of the batch, or null when it is empty
+   */
+  public Key getLastKey() {
+    return lastKey;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public KeyValue get(int index) {
+    if (decoded == null) {
+      List<KeyValue> all = new ArrayList<KeyValue>(size);
+      for (KeyValue kv : this)
+        all.add(kv);
+      decoded = all;
+    }
+    return decoded.get(index);
+  }
+
+  @Override
+  public Iterator<KeyValue> iterator() {
+    if (decoded != null)
+      return decoded.iterator();
+
+    InputStream entries = new ByteArrayInputStream(packed, entriesOffset, packed.length - entriesOffset);
+    if (deflated)
+      entries = new InflaterInputStream(entries);
+    final DataInputStream in = new DataInputStream(entries);
+
+    return new Iterator<KeyValue>() {
+      private final RelativeKey rk = new RelativeKey();
+      private int read = 0;
+
+      @Override
+      public boolean hasNext() {
+        return read < size;
+      }
+
+      @Override
+      public KeyValue next() {
+        if (!hasNext())
+          throw new NoSuchElementException();
+        try {
+          rk.readFields(in);
+          byte[] value = new byte[WritableUtils.readVInt(in)];
+          in.readFully(value);
+          read++;
+          return new KeyValue(rk.getKey(), value);
+        } catch (IOException e) {
+          throw new IllegalStateException("Bad packed results", e);
+        }
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+}
@@ -56,6 +56,7 @@ public class ScannerImpl extends ScannerOptions implements Scanner {
   private Range range;
   private boolean isolated = false;
   private long readaheadThreshold = Constants.SCANNER_DEFAULT_READAHEAD_THRESHOLD;
+  private int readaheadBatches = Constants.SCANNER_DEFAULT_READAHEAD_BATCHES;
   
   public ScannerImpl(Instance instance, Credentials credentials, String table, Authorizations authorizations) {
     ArgumentChecker.notNull(instance, credentials, table, authorizations);
@@ -98,7 +99,7 @@ public class ScannerImpl extends ScannerOptions implements Scanner {
    */
   @Override
   public synchronized Iterator<Entry<Key,Value>> iterator() {
-    return new ScannerIterator(instance, credentials, table, authorizations, range, size, getTimeOut(), this, isolated, readaheadThreshold);
+    return new ScannerIterator(instance, credentials, table, authorizations, range, size, getTimeOut(), this, isolated, readaheadThreshold, readaheadBatches);
   }
   
   @Override
@@ -142,4 +143,20 @@ public class ScannerImpl extends ScannerOptions implements Scanner {
   public synchronized long getReadaheadThreshold() {
     return readaheadThreshold;
   }
+  
+  /**
+   * Sets how many batches read ahead may be waiting to be consumed before the scanner stops requesting more. One, the default, reads a single batch ahead.
+   * Batches are still requested one at a time.
+   */
+  public synchronized void setReadaheadBatches(int batches) {
+    if (batches < 1) {
+      throw new IllegalArgumentException("Number of batches to read ahead must be positive");
+    }
+    
+    readaheadBatches = batches;
+  }
+  
+  public synchronized int getReadaheadBatches() {
+    return readaheadBatches;
+  }
 }
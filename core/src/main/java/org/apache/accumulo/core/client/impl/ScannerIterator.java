@@ -61,27 +61,41 @@ public class ScannerIterator implements Iterator<Entry<Key,Value>> {
   
   private ScannerOptions options;
   
+  // batches read but not yet consumed, followed by the end of the scan or the exception that ended it
   private ArrayBlockingQueue<Object> synchQ;
   
   private boolean finished = false;
   
+  // guarded by this, true while a reader owns the scan state
   private boolean readaheadInProgress = false;
   private long batchCount = 0;
   private long readaheadThreshold;
+  private int readaheadBatches;
   
   private static final List<KeyValue> EMPTY_LIST = Collections.emptyList();
   
   private static ThreadPoolExecutor readaheadPool = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 3l, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(),
       new NamingThreadFactory("Accumulo scanner read ahead thread"));
   
+  /**
+   * Reads batches into the queue. A read ahead reader keeps requesting batches, one request at a time, until readaheadBatches batches are waiting, so a
+   * consumer that falls behind does not stop the scan from making progress. The consumer starts a new reader after taking a batch, so the batches consumed act
+   * as credit for the reader. Once the scan ends or fails the reader leaves the end marker or exception in the queue and no new reader is started.
+   */
   private class Reader implements Runnable {
     
+    private final boolean readahead;
+    
+    Reader(boolean readahead) {
+      this.readahead = readahead;
+    }
+    
     @Override
     public void run() {
       
       try {
         while (true) {
-          List<KeyValue> currentBatch = ThriftScanner.scan(instance, credentials, scanState, timeOut, ServerConfigurationUtil.getConfiguration(instance));
+          List<KeyValue> currentBatch = readBatch();
           
           if (currentBatch == null) {
             synchQ.add(EMPTY_LIST);
@@ -91,8 +105,19 @@ public class ScannerIterator implements Iterator<Entry<Key,Value>> {
           if (currentBatch.size() == 0)
             continue;
           
-          synchQ.add(currentBatch);
-          return;
+          if (!readahead) {
+            synchQ.add(currentBatch);
+            return;
+          }
+          
+          synchronized (ScannerIterator.this) {
+            synchQ.add(currentBatch);
+            if (synchQ.size() >= readaheadBatches) {
+              // out of credit, the queue keeps room for the end of the scan
+              readaheadInProgress = false;
+              return;
+            }
+          }
         }
       } catch (IsolationException e) {
         synchQ.add(e);
@@ -125,20 +150,23 @@ public class ScannerIterator implements Iterator<Entry<Key,Value>> {
   
   ScannerIterator(Instance instance, Credentials credentials, Text table, Authorizations authorizations, Range range, int size, int timeOut,
       ScannerOptions options, boolean isolated) {
-    this(instance, credentials, table, authorizations, range, size, timeOut, options, isolated, Constants.SCANNER_DEFAULT_READAHEAD_THRESHOLD);
+    this(instance, credentials, table, authorizations, range, size, timeOut, options, isolated, Constants.SCANNER_DEFAULT_READAHEAD_THRESHOLD,
+        Constants.SCANNER_DEFAULT_READAHEAD_BATCHES);
   }
   
   ScannerIterator(Instance instance, Credentials credentials, Text table, Authorizations authorizations, Range range, int size, int timeOut,
-      ScannerOptions options, boolean isolated, long readaheadThreshold) {
+      ScannerOptions options, boolean isolated, long readaheadThreshold, int readaheadBatches) {
     this.instance = instance;
     this.tableId = new Text(table);
     this.timeOut = timeOut;
     this.credentials = credentials;
     this.readaheadThreshold = readaheadThreshold;
+    this.readaheadBatches = readaheadBatches;
     
     this.options = new ScannerOptions(options);
     
-    synchQ = new ArrayBlockingQueue<Object>(1);
+    // one more than the batches read ahead, for the end of the scan
+    synchQ = new ArrayBlockingQueue<Object>(readaheadBatches + 1);
     
     if (this.options.fetchedColumns.size() > 0) {
       range = range.bound(this.options.fetchedColumns.first(), this.options.fetchedColumns.last());
@@ -146,6 +174,7 @@ public class ScannerIterator implements Iterator<Entry<Key,Value>> {
     
     scanState = new ScanState(instance, credentials, tableId, authorizations, new Range(range), options.fetchedColumns, size, options.serverSideIteratorList,
         options.serverSideIteratorOptions, isolated, readaheadThreshold);
+    scanState.populateBlockCache = this.options.populateBlockCache;
     
     // If we want to start readahead immediately, don't wait for hasNext to be called
     if (0l == readaheadThreshold) {
@@ -154,9 +183,34 @@ public class ScannerIterator implements Iterator<Entry<Key,Value>> {
     iter = null;
   }
   
-  private void initiateReadAhead() {
-    readaheadInProgress = true;
-    readaheadPool.execute(new Reader());
+  /**
+   * Read the next batch from the tablet server. Only one reader calls this at a time.
+   * 
+   * @return the next batch, possibly empty, or null at the end of the scan
+   */
+  List<KeyValue> readBatch() throws ScanTimedOutException, AccumuloException, AccumuloSecurityException, TableNotFoundException {
+    return ThriftScanner.scan(instance, credentials, scanState, timeOut, ServerConfigurationUtil.getConfiguration(instance));
+  }
+  
+  // visible for testing
+  int getQueuedBatches() {
+    return synchQ.size();
+  }
+  
+  // visible for testing
+  boolean getPopulateBlockCache() {
+    return scanState.populateBlockCache;
+  }
+  
+  private synchronized void initiateReadAhead() {
+    if (!readaheadInProgress) {
+      readaheadInProgress = true;
+      readaheadPool.execute(new Reader(true));
+    }
+  }
+  
+  synchronized boolean isReadaheadInProgress() {
+    return readaheadInProgress;
   }
   
   @Override
@@ -172,9 +226,9 @@ public class ScannerIterator implements Iterator<Entry<Key,Value>> {
     // this is done in order to find see if there is another batch to get
     
     try {
-      if (!readaheadInProgress) {
+      if (!isReadaheadInProgress() && synchQ.isEmpty()) {
         // no read ahead run, fetch the next batch right now
-        new Reader().run();
+        new Reader(false).run();
       }
       
       Object obj = synchQ.take();
@@ -198,7 +252,7 @@ public class ScannerIterator implements Iterator<Entry<Key,Value>> {
       batchCount++;
       
       if (batchCount > readaheadThreshold) {
-        // start a thread to read the next batch
+        // start a thread to read the next batches, unless one is still running
         initiateReadAhead();
       }
       
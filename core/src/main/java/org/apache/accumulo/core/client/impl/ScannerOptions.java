@@ -47,6 +47,8 @@ public class ScannerOptions implements ScannerBase {
   
   protected long timeOut = Long.MAX_VALUE;
   
+  protected boolean populateBlockCache = true;
+  
   private String regexIterName = null;
   
   protected ScannerOptions() {}
@@ -169,6 +171,7 @@ public class ScannerOptions implements ScannerBase {
     synchronized (dst) {
       synchronized (src) {
         dst.regexIterName = src.regexIterName;
+        dst.populateBlockCache = src.populateBlockCache;
         dst.fetchedColumns = new TreeSet<Column>(src.fetchedColumns);
         dst.serverSideIteratorList = new ArrayList<IterInfo>(src.serverSideIteratorList);
         
@@ -202,6 +205,16 @@ public class ScannerOptions implements ScannerBase {
     return timeunit.convert(timeOut, TimeUnit.MILLISECONDS);
   }
   
+  @Override
+  public synchronized void setBlockCachePopulation(boolean populate) {
+    this.populateBlockCache = populate;
+  }
+  
+  @Override
+  public synchronized boolean getBlockCachePopulation() {
+    return populateBlockCache;
+  }
+  
   @Override
   public void close() {
     // Nothing needs to be closed
@@ -60,6 +60,7 @@ import org.apache.accumulo.core.security.Credentials;
 import org.apache.accumulo.core.tabletserver.thrift.ConstraintViolationException;
 import org.apache.accumulo.core.tabletserver.thrift.NoSuchScanIDException;
 import org.apache.accumulo.core.tabletserver.thrift.NotServingTabletException;
+import org.apache.accumulo.core.tabletserver.thrift.TDurability;
 import org.apache.accumulo.core.tabletserver.thrift.TabletClientService;
 import org.apache.accumulo.core.util.SimpleThreadPool;
 import org.apache.accumulo.core.util.ThriftUtil;
@@ -83,12 +84,20 @@ import org.apache.thrift.transport.TTransportException;
  *      processing in the background
  *   + Failed mutations are held for 1000ms and then re-added to the unprocessed queue
  *   + Flush holds adding of new mutations so it does not wait indefinitely
+ *   + Mutations are binned by a single background thread, so threads adding mutations never wait on tablet 
+ *      location lookups; adding threads only block when the memory budget is used up
+ *   + Up to a configured number of batches may be in flight to the same tablet server
+ *   + Tablet servers report their memory pressure and commit hold time when an update session closes. The size 
+ *      of update sessions and the number of concurrent sessions to a server shrink when it is under pressure 
+ *      and grow back once it recovers
  * 
  * Considerations
  *   + All background threads must catch and note Throwable
- *   + mutations for a single tablet server are only processed by one thread concurrently (if new mutations 
- *      come in for a tablet server while one thread is processing mutations for it, no other thread should 
- *      start processing those mutations)
+ *   + mutations for a single tablet server are only processed by a limited number of threads concurrently (if new 
+ *      mutations come in for a tablet server while that many threads are processing mutations for it, no other 
+ *      thread should start processing those mutations)
+ *   + only the binning thread bins mutations with the tablet locators, but send threads invalidate cached locations 
+ *      when a write fails; tablet locators are thread safe, so this needs no coordination with the binning thread
  *   
  * Memory accounting
  *   + when a mutation enters the system memory is incremented
@@ -125,6 +134,8 @@ public class TabletServerBatchWriter {
   
   private long timeout;
   
+  private final TDurability durability;
+  
   private long lastProcessingStartTime;
   
   private long totalAdded = 0;
@@ -187,12 +198,55 @@ public class TabletServerBatchWriter {
     }
   }
   
+  /**
+   * Adapts how much is sent to a tablet server at once to the load the server reports after each update session. Sessions and concurrency are halved when
+   * the server is close to holding commits, and grow back once its memory pressure drops, so that fewer write threads sit blocked on a server that is
+   * waiting for minor compactions.
+   */
+  static class ServerLoad {
+    
+    static final long MIN_SESSION_BYTES = 1 << 20;
+    static final double HIGH_PRESSURE = 0.90;
+    static final double LOW_PRESSURE = 0.75;
+    
+    private final int maxSenders;
+    private final long maxSessionBytes;
+    private int senders;
+    private long sessionBytes;
+    
+    ServerLoad(int maxSenders, long maxSessionBytes) {
+      this.maxSenders = maxSenders;
+      this.maxSessionBytes = Math.max(MIN_SESSION_BYTES, maxSessionBytes);
+      this.senders = maxSenders;
+      this.sessionBytes = this.maxSessionBytes;
+    }
+    
+    synchronized void update(double memoryPressure, long holdTime) {
+      if (holdTime > 0 || memoryPressure >= HIGH_PRESSURE) {
+        senders = Math.max(1, senders / 2);
+        sessionBytes = Math.max(MIN_SESSION_BYTES, sessionBytes / 2);
+      } else if (memoryPressure < LOW_PRESSURE) {
+        senders = Math.min(maxSenders, senders + 1);
+        sessionBytes = Math.min(maxSessionBytes, sessionBytes * 2);
+      }
+    }
+    
+    synchronized int getSenders() {
+      return senders;
+    }
+    
+    synchronized long getSessionBytes() {
+      return sessionBytes;
+    }
+  }
+  
   public TabletServerBatchWriter(Instance instance, Credentials credentials, BatchWriterConfig config) {
     this.instance = instance;
     this.maxMem = config.getMaxMemory();
     this.maxLatency = config.getMaxLatency(TimeUnit.MILLISECONDS) <= 0 ? Long.MAX_VALUE : config.getMaxLatency(TimeUnit.MILLISECONDS);
     this.credentials = credentials;
     this.timeout = config.getTimeout(TimeUnit.MILLISECONDS);
+    this.durability = DurabilityImpl.toThrift(config.getDurability());
     mutations = new MutationSet();
     
     violations = new Violations();
@@ -204,7 +258,7 @@ public class TabletServerBatchWriter {
     
     jtimer = new Timer("BatchWriterLatencyTimer", true);
     
-    writer = new MutationWriter(config.getMaxWriteThreads());
+    writer = new MutationWriter(config.getMaxWriteThreads(), config.getMaxWriteThreadsPerServer());
     failedMutations = new FailedMutations();
     
     timeoutTrackers = Collections.synchronizedMap(new HashMap<String,TabletServerBatchWriter.TimeoutTracker>());
@@ -230,7 +284,7 @@ public class TabletServerBatchWriter {
     if (mutations.getMemoryUsed() == 0)
       return;
     lastProcessingStartTime = System.currentTimeMillis();
-    writer.addMutations(mutations);
+    writer.queueMutations(mutations);
     mutations = new MutationSet();
   }
   
@@ -239,13 +293,25 @@ public class TabletServerBatchWriter {
     this.notifyAll();
   }
   
-  public synchronized void addMutation(String table, Mutation m) throws MutationsRejectedException {
+  public void addMutation(String table, Mutation m) throws MutationsRejectedException {
     
-    if (closed)
-      throw new IllegalStateException("Closed");
     if (m.size() == 0)
       throw new IllegalArgumentException("Can not add empty mutations");
     
+    // create a copy of mutation so that after this method returns the user
+    // is free to reuse the mutation object, like calling readFields... this
+    // is important for the case where a mutation is passed from map to reduce
+    // to batch writer... the map reduce code will keep passing the same mutation
+    // object into the reduce method. The copy is made before taking the lock
+    // so that threads adding mutations only contend on the memory accounting.
+    addCopiedMutation(table, new Mutation(m));
+  }
+  
+  private synchronized void addCopiedMutation(String table, Mutation m) throws MutationsRejectedException {
+    
+    if (closed)
+      throw new IllegalStateException("Closed");
+    
     checkForFailures();
     
     while ((totalMemUsed > maxMem || flushing) && !somethingFailed) {
@@ -273,13 +339,6 @@ public class TabletServerBatchWriter {
       initialSystemLoad = ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage();
     }
     
-    // create a copy of mutation so that after this method returns the user
-    // is free to reuse the mutation object, like calling readFields... this
-    // is important for the case where a mutation is passed from map to reduce
-    // to batch writer... the map reduce code will keep passing the same mutation
-    // object into the reduce method
-    m = new Mutation(m);
-    
     totalMemUsed += m.estimatedMemoryUsed();
     mutations.addMutation(table, m);
     totalAdded++;
@@ -354,6 +413,7 @@ public class TabletServerBatchWriter {
       checkForFailures();
     } finally {
       // make a best effort to release these resources
+      writer.binningThreadPool.shutdownNow();
       writer.sendThreadPool.shutdownNow();
       jtimer.cancel();
       span.stop();
@@ -616,14 +676,21 @@ public class TabletServerBatchWriter {
   private class MutationWriter {
     
     private static final int MUTATION_BATCH_SIZE = 1 << 17;
+    private ExecutorService binningThreadPool;
     private ExecutorService sendThreadPool;
     private Map<String,TabletServerMutations<Mutation>> serversMutations;
-    private Set<String> queued;
+    private Map<String,Integer> sendersPerServer;
+    private int maxSendersPerServer;
+    private Map<String,ServerLoad> serverLoads;
     private Map<String,TabletLocator> locators;
     
-    public MutationWriter(int numSendThreads) {
+    public MutationWriter(int numSendThreads, int maxSendersPerServer) {
       serversMutations = new HashMap<String,TabletServerMutations<Mutation>>();
-      queued = new HashSet<String>();
+      sendersPerServer = new HashMap<String,Integer>();
+      this.maxSendersPerServer = maxSendersPerServer;
+      serverLoads = new HashMap<String,ServerLoad>();
+      // a single binning thread keeps batches in the order they were queued
+      binningThreadPool = new SimpleThreadPool(1, "BinMutations");
       sendThreadPool = new SimpleThreadPool(numSendThreads, this.getClass().getName());
       locators = new HashMap<String,TabletLocator>();
     }
@@ -686,7 +753,20 @@ public class TabletServerBatchWriter {
       
     }
     
-    void addMutations(MutationSet mutationsToSend) {
+    void queueMutations(final MutationSet mutationsToSend) {
+      binningThreadPool.execute(Trace.wrap(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            addMutations(mutationsToSend);
+          } catch (Throwable t) {
+            updateUnknownErrors("Failed to bin " + mutationsToSend.size() + " mutations : " + t.getMessage(), t);
+          }
+        }
+      }));
+    }
+    
+    private void addMutations(MutationSet mutationsToSend) {
       Map<String,TabletServerMutations<Mutation>> binnedMutations = new HashMap<String,TabletServerMutations<Mutation>>();
       Span span = Trace.start("binMutations");
       try {
@@ -733,21 +813,76 @@ public class TabletServerBatchWriter {
       ArrayList<String> servers = new ArrayList<String>(binnedMutations.keySet());
       Collections.shuffle(servers);
       
-      for (String server : servers)
-        if (!queued.contains(server)) {
+      for (String server : servers) {
+        Integer senders = sendersPerServer.get(server);
+        if (senders == null || senders < getServerLoad(server).getSenders()) {
           sendThreadPool.submit(Trace.wrap(new SendTask(server)));
-          queued.add(server);
+          sendersPerServer.put(server, senders == null ? 1 : senders + 1);
         }
+      }
     }
     
     private synchronized TabletServerMutations<Mutation> getMutationsToSend(String server) {
       TabletServerMutations<Mutation> tsmuts = serversMutations.remove(server);
-      if (tsmuts == null)
-        queued.remove(server);
+      if (tsmuts == null) {
+        int senders = sendersPerServer.get(server) - 1;
+        if (senders == 0)
+          sendersPerServer.remove(server);
+        else
+          sendersPerServer.put(server, senders);
+      } else {
+        TabletServerMutations<Mutation> remaining = splitSession(tsmuts, getServerLoad(server).getSessionBytes());
+        if (remaining != null)
+          serversMutations.put(server, remaining);
+      }
       
       return tsmuts;
     }
     
+    private synchronized ServerLoad getServerLoad(String server) {
+      ServerLoad load = serverLoads.get(server);
+      if (load == null) {
+        load = new ServerLoad(maxSendersPerServer, maxMem);
+        serverLoads.put(server, load);
+      }
+      return load;
+    }
+    
+    /**
+     * Removes the mutations past the first maxBytes from tsmuts.
+     * 
+     * @return the removed mutations, or null if all the mutations fit
+     */
+    private TabletServerMutations<Mutation> splitSession(TabletServerMutations<Mutation> tsmuts, long maxBytes) {
+      TabletServerMutations<Mutation> remaining = null;
+      long bytes = 0;
+      
+      Iterator<Entry<KeyExtent,List<Mutation>>> iter = tsmuts.getMutations().entrySet().iterator();
+      while (iter.hasNext()) {
+        Entry<KeyExtent,List<Mutation>> entry = iter.next();
+        List<Mutation> tabletMutations = entry.getValue();
+        
+        int keep = 0;
+        while (keep < tabletMutations.size() && bytes < maxBytes) {
+          bytes += tabletMutations.get(keep++).numBytes();
+        }
+        
+        if (keep < tabletMutations.size()) {
+          if (remaining == null)
+            remaining = new TabletServerMutations<Mutation>(tsmuts.getSession());
+          List<Mutation> rest = tabletMutations.subList(keep, tabletMutations.size());
+          for (Mutation m : rest)
+            remaining.addMutation(entry.getKey(), m);
+          if (keep == 0)
+            iter.remove();
+          else
+            rest.clear();
+        }
+      }
+      
+      return remaining;
+    }
+    
     class SendTask implements Runnable {
       
       private String location;
@@ -867,7 +1002,7 @@ public class TabletServerBatchWriter {
             Entry<KeyExtent,List<Mutation>> entry = tabMuts.entrySet().iterator().next();
             
             try {
-              client.update(tinfo, credentials.toThrift(instance), entry.getKey().toThrift(), entry.getValue().get(0).toThrift());
+              client.update(tinfo, credentials.toThrift(instance), entry.getKey().toThrift(), entry.getValue().get(0).toThrift(), durability);
             } catch (NotServingTabletException e) {
               allFailures.addAll(entry.getKey().getTableId().toString(), entry.getValue());
               TabletLocator.getLocator(instance, new Text(entry.getKey().getTableId())).invalidateCache(entry.getKey());
@@ -877,7 +1012,7 @@ public class TabletServerBatchWriter {
             timeoutTracker.madeProgress();
           } else {
             
-            long usid = client.startUpdate(tinfo, credentials.toThrift(instance));
+            long usid = client.startUpdate(tinfo, credentials.toThrift(instance), durability);
             
             List<TMutation> updates = new ArrayList<TMutation>();
             for (Entry<KeyExtent,List<Mutation>> entry : tabMuts.entrySet()) {
@@ -897,6 +1032,7 @@ public class TabletServerBatchWriter {
             }
             
             UpdateErrors updateErrors = client.closeUpdate(tinfo, usid);
+            getServerLoad(location).update(updateErrors.memoryPressure, updateErrors.holdTime);
             
             Map<KeyExtent,Long> failures = Translator.translate(updateErrors.failedExtents, Translator.TKET);
             updatedConstraintViolations(Translator.translate(updateErrors.violationSummaries, Translator.TCVST));
@@ -98,7 +98,8 @@ public class ThriftScanner {
         boolean waitForWrites = !serversWaitedForWrites.get(ttype).contains(server);
         InitialScan isr = client.startScan(tinfo, scanState.credentials.toThrift(instance), extent.toThrift(), scanState.range.toThrift(),
             Translator.translate(scanState.columns, Translator.CT), scanState.size, scanState.serverSideIteratorList, scanState.serverSideIteratorOptions,
-            scanState.authorizations.getAuthorizationsBB(), waitForWrites, scanState.isolated, scanState.readaheadThreshold);
+            scanState.authorizations.getAuthorizationsBB(), waitForWrites, scanState.isolated, scanState.readaheadThreshold,
+            !scanState.populateBlockCache, false);
         if (waitForWrites)
           serversWaitedForWrites.get(ttype).add(server);
         
@@ -134,6 +135,7 @@ public class ThriftScanner {
     Text startRow;
     boolean skipStartRow;
     long readaheadThreshold;
+    boolean populateBlockCache = true;
     
     Range range;
     
@@ -398,7 +400,8 @@ public class ThriftScanner {
         boolean waitForWrites = !serversWaitedForWrites.get(ttype).contains(loc.tablet_location);
         InitialScan is = client.startScan(tinfo, scanState.credentials.toThrift(scanState.instance), loc.tablet_extent.toThrift(), scanState.range.toThrift(),
             Translator.translate(scanState.columns, Translator.CT), scanState.size, scanState.serverSideIteratorList, scanState.serverSideIteratorOptions,
-            scanState.authorizations.getAuthorizationsBB(), waitForWrites, scanState.isolated, scanState.readaheadThreshold);
+            scanState.authorizations.getAuthorizationsBB(), waitForWrites, scanState.isolated, scanState.readaheadThreshold,
+            !scanState.populateBlockCache, true);
         if (waitForWrites)
           serversWaitedForWrites.get(ttype).add(loc.tablet_location);
         
@@ -422,31 +425,40 @@ public class ThriftScanner {
         }
       }
       
+      // servers that do not know about packed results send a list
+      List<KeyValue> results;
+      Key lastKey;
+      if (sr.isSetPackedResults()) {
+        PackedKeyValues packed = new PackedKeyValues(sr.packedResults);
+        results = packed;
+        lastKey = packed.getLastKey();
+      } else {
+        Key.decompress(sr.results);
+        results = new ArrayList<KeyValue>(sr.results.size());
+        for (TKeyValue tkv : sr.results)
+          results.add(new KeyValue(new Key(tkv.key), tkv.value));
+        lastKey = results.size() > 0 ? results.get(results.size() - 1).key : null;
+      }
+      
       if (!sr.more) {
         // log.debug("No more : tab end row = "+loc.tablet_extent.getEndRow()+" range = "+scanState.range);
         if (loc.tablet_extent.getEndRow() == null) {
           scanState.finished = true;
-          opTimer.stop("Completely finished scan in %DURATION% #results=" + sr.results.size());
+          opTimer.stop("Completely finished scan in %DURATION% #results=" + results.size());
         } else if (scanState.range.getEndKey() == null || !scanState.range.afterEndKey(new Key(loc.tablet_extent.getEndRow()).followingKey(PartialKey.ROW))) {
           scanState.startRow = loc.tablet_extent.getEndRow();
           scanState.skipStartRow = true;
-          opTimer.stop("Finished scanning tablet in %DURATION% #results=" + sr.results.size());
+          opTimer.stop("Finished scanning tablet in %DURATION% #results=" + results.size());
         } else {
           scanState.finished = true;
-          opTimer.stop("Completely finished scan in %DURATION% #results=" + sr.results.size());
+          opTimer.stop("Completely finished scan in %DURATION% #results=" + results.size());
         }
       } else {
-        opTimer.stop("Finished scan in %DURATION% #results=" + sr.results.size() + " scanid=" + scanState.scanID);
+        opTimer.stop("Finished scan in %DURATION% #results=" + results.size() + " scanid=" + scanState.scanID);
       }
       
-      Key.decompress(sr.results);
-      
-      if (sr.results.size() > 0 && !scanState.finished)
-        scanState.range = new Range(new Key(sr.results.get(sr.results.size() - 1).key), false, scanState.range.getEndKey(), scanState.range.isEndKeyInclusive());
-      
-      List<KeyValue> results = new ArrayList<KeyValue>(sr.results.size());
-      for (TKeyValue tkv : sr.results)
-        results.add(new KeyValue(new Key(tkv.key), tkv.value));
+      if (lastKey != null && !scanState.finished)
+        scanState.range = new Range(lastKey, false, scanState.range.getEndKey(), scanState.range.isEndKeyInclusive());
       
       return results;
       
@@ -175,6 +175,35 @@ public enum Property {
   TSERV_DEFAULT_BLOCKSIZE("tserver.default.blocksize", "1M", PropertyType.MEMORY, "Specifies a default blocksize for the tserver caches"),
   TSERV_DATACACHE_SIZE("tserver.cache.data.size", "128M", PropertyType.MEMORY, "Specifies the size of the cache for file data blocks."),
   TSERV_INDEXCACHE_SIZE("tserver.cache.index.size", "512M", PropertyType.MEMORY, "Specifies the size of the cache for file indices."),
+  TSERV_DATACACHE_TYPE("tserver.cache.data.type", "lru", PropertyType.STRING,
+      "The block cache implementation used for file data blocks. One of lru, offheap.  The offheap cache stores blocks in direct memory, which must be "
+          + "allowed for with the JVM's -XX:MaxDirectMemorySize option."),
+  TSERV_INDEXCACHE_TYPE("tserver.cache.index.type", "lru", PropertyType.STRING,
+      "The block cache implementation used for file indices. One of lru, offheap.  The offheap cache stores blocks in direct memory, which must be "
+          + "allowed for with the JVM's -XX:MaxDirectMemorySize option."),
+  TSERV_DATACACHE_POLICY("tserver.cache.data.policy", "lru", PropertyType.STRING,
+      "The admission policy for the file data block cache. One of lru, tinylfu.  With lru every block read is cached.  With tinylfu, once the cache is "
+          + "full a block is only cached if it was requested more than once recently, which keeps large scans from evicting frequently used blocks."),
+  TSERV_INDEXCACHE_POLICY("tserver.cache.index.policy", "lru", PropertyType.STRING,
+      "The admission policy for the file index cache. One of lru, tinylfu.  See tserver.cache.data.policy."),
+  TSERV_CACHE_WARMUP_DIR("tserver.cache.warmup.dir", "", PropertyType.PATH,
+      "A local directory where the tablet server periodically saves the names of the blocks in its index and data caches.  When the tablet server restarts, "
+          + "the saved blocks of each tablet it is assigned are read back into the caches in the background.  Leave blank to disable cache warm up."),
+  TSERV_CACHE_WARMUP_SAVE_INTERVAL("tserver.cache.warmup.save.interval", "5m", PropertyType.TIMEDURATION,
+      "How often the names of the cached blocks are saved for cache warm up."),
+  TSERV_CACHE_WARMUP_BLOCKS_MAX("tserver.cache.warmup.blocks.max", "10000", PropertyType.COUNT,
+      "The maximum number of block names saved for each cache, most valuable blocks first."),
+  TSERV_CACHE_WARMUP_RATE("tserver.cache.warmup.rate", "16M", PropertyType.MEMORY,
+      "The maximum number of bytes per second read from files when warming up the caches, so warm up does not compete with scans.  Zero means unlimited."),
+  TSERV_VISIBILITY_CACHE_EXPRESSIONS_MAX("tserver.visibility.cache.expressions.max", "10000", PropertyType.COUNT,
+      "The maximum number of compiled column visibility expressions cached by the tablet server and shared by all scans.  A compiled expression takes "
+          + "roughly 250 bytes plus twice the length of the expression."),
+  TSERV_VISIBILITY_CACHE_AUTHORIZATIONS_MAX("tserver.visibility.cache.authorizations.max", "64", PropertyType.COUNT,
+      "The maximum number of distinct scan authorizations whose column visibility results are cached.  Scans with the same authorizations share their "
+          + "results.  The results cache can hold up to this times tserver.visibility.cache.results.max entries."),
+  TSERV_VISIBILITY_CACHE_RESULTS_MAX("tserver.visibility.cache.results.max", "1000", PropertyType.COUNT,
+      "The maximum number of column visibility results cached for each scan authorizations.  A result takes roughly 100 bytes plus the length of "
+          + "the expression."),
   TSERV_PORTSEARCH("tserver.port.search", "false", PropertyType.BOOLEAN, "if the ports above are in use, search higher ports until one is available"),
   TSERV_CLIENTPORT("tserver.port.client", "9997", PropertyType.PORT, "The port used for handling client connections on the tablet servers"),
   TSERV_MUTATION_QUEUE_MAX("tserver.mutation.queue.max", "1M", PropertyType.MEMORY,
@@ -196,8 +225,16 @@ public enum Property {
       "Maximum total files that all tablets in a tablet server can open for scans. "),
   TSERV_MAX_IDLE("tserver.files.open.idle", "1m", PropertyType.TIMEDURATION, "Tablet servers leave previously used files open for future queries. "
       + "This setting determines how much time an unused file should be kept open until it is closed."),
+  TSERV_FILES_MMAP("tserver.files.mmap.enabled", "false", PropertyType.BOOLEAN,
+      "When files are on the local filesystem and written without compression (table.file.compress.type=none), memory map them and read data blocks in "
+          + "place rather than through the data block cache.  This avoids copying every block through input streams and relies on the operating system's "
+          + "page cache.  Checksums kept by the local filesystem are not verified for these reads."),
   TSERV_NATIVEMAP_ENABLED("tserver.memory.maps.native.enabled", "true", PropertyType.BOOLEAN,
       "An in-memory data store for accumulo implemented in c++ that increases the amount of data accumulo can hold in memory and avoids Java GC pauses."),
+  TSERV_OFFHEAPMAP_ENABLED("tserver.memory.maps.offheap.enabled", "false", PropertyType.BOOLEAN,
+      "An in-memory data store written in java that keeps data outside of the java heap, used when the native map is disabled or can not be loaded.  Like the "
+          + "native map it avoids Java GC pauses, but without a native build.  Its memory is allocated from the JVM's direct memory, so "
+          + "-XX:MaxDirectMemorySize must allow for tserver.memory.maps.max."),
   TSERV_MAXMEM("tserver.memory.maps.max", "1G", PropertyType.MEMORY,
       "Maximum amount of memory that can be used to buffer data written to a tablet server. There are two other properties that can effectively limit memory"
           + " usage table.compaction.minor.logs.threshold and tserver.walog.max.size. Ensure that table.compaction.minor.logs.threshold *"
@@ -208,10 +245,16 @@ public enum Property {
   TSERV_READ_AHEAD_MAXCONCURRENT("tserver.readahead.concurrent.max", "16", PropertyType.COUNT,
       "The maximum number of concurrent read ahead that will execute.  This effectively"
           + " limits the number of long running scans that can run concurrently per tserver."),
+  TSERV_SCAN_RESULTS_COMPRESS("tserver.scan.results.compress", "false", PropertyType.BOOLEAN,
+      "Deflate the batches of scan results sent to scanners that accept packed results. Saves network bandwidth at the cost of tablet server and client"
+          + " cpu, which pays off for large scans over slow networks."),
   TSERV_METADATA_READ_AHEAD_MAXCONCURRENT("tserver.metadata.readahead.concurrent.max", "8", PropertyType.COUNT,
       "The maximum number of concurrent metadata read ahead that will execute."),
   TSERV_MIGRATE_MAXCONCURRENT("tserver.migrations.concurrent.max", "1", PropertyType.COUNT,
       "The maximum number of concurrent tablet migrations for a tablet server"),
+  TSERV_ASSIGNMENT_MAXCONCURRENT("tserver.assignment.concurrent.max", "2", PropertyType.COUNT,
+      "The maximum number of tablets a tablet server loads concurrently, including replaying their write-ahead logs. Tablets recovering from the same logs"
+          + " share the sorted logs."),
   TSERV_MAJC_MAXCONCURRENT("tserver.compaction.major.concurrent.max", "3", PropertyType.COUNT,
       "The maximum number of concurrent major compactions for a tablet server"),
   TSERV_MINC_MAXCONCURRENT("tserver.compaction.minor.concurrent.max", "4", PropertyType.COUNT,
@@ -251,11 +294,16 @@ public enum Property {
   TSERV_RECOVERY_MAX_CONCURRENT("tserver.recovery.concurrent.max", "2", PropertyType.COUNT, "The maximum number of threads to use to sort logs during"
       + " recovery"),
   TSERV_SORT_BUFFER_SIZE("tserver.sort.buffer.size", "200M", PropertyType.MEMORY, "The amount of memory to use when sorting logs during recovery."),
+  TSERV_SORT_THREADS("tserver.sort.threads", "2", PropertyType.COUNT, "The number of threads used to sort and write the runs of each log sorted during"
+      + " recovery. The sort buffer is divided evenly between them."),
   TSERV_ARCHIVE_WALOGS("tserver.archive.walogs", "false", PropertyType.BOOLEAN, "Keep copies of the WALOGs for debugging purposes"),
   TSERV_WORKQ_THREADS("tserver.workq.threads", "2", PropertyType.COUNT,
       "The number of threads for the distributed workq.  These threads are used for copying failed bulk files."),
   TSERV_WAL_SYNC("tserver.wal.sync", "true", PropertyType.BOOLEAN,
       "Use the SYNC_BLOCK create flag to sync WAL writes to disk. Prevents problems recovering from sudden system resets."),
+  TSERV_WAL_COUNT("tserver.wal.count", "1", PropertyType.COUNT,
+      "The number of write-ahead logs a tablet server keeps open at once. Tablets are spread across the logs by hashing their extent, so each tablet"
+          + " writes to exactly one of them. Using more than one allows ingest to use several HDFS pipelines concurrently."),
 
   // properties that are specific to logger server behavior
   LOGGER_PREFIX("logger.", null, PropertyType.PREFIX, "Properties in this category affect the behavior of the write-ahead logger servers"),
@@ -329,16 +377,28 @@ public enum Property {
   TABLE_SCAN_MAXMEM("table.scan.max.memory", "512K", PropertyType.MEMORY,
       "The maximum amount of memory that will be used to cache results of a client query/scan. "
           + "Once this limit is reached, the buffered data is sent to the client."),
+  TABLE_SCAN_BATCHED_FILTERS("table.scan.filters.batched", "false", PropertyType.BOOLEAN,
+      "Apply the column and visibility filters of a scan to batches of up to 256 entries instead of one entry at a time.  Batches are read ahead of the "
+          + "table's iterators, so a scan may read more entries from its files than it returns."),
   TABLE_FILE_TYPE("table.file.type", RFile.EXTENSION, PropertyType.STRING, "Change the type of file a table writes"),
   TABLE_LOAD_BALANCER("table.balancer", "org.apache.accumulo.server.master.balancer.DefaultLoadBalancer", PropertyType.STRING,
       "This property can be set to allow the LoadBalanceByTable load balancer to change the called Load Balancer for this table"),
-  TABLE_FILE_COMPRESSION_TYPE("table.file.compress.type", "gz", PropertyType.STRING, "One of gz,lzo,none"),
+  TABLE_FILE_COMPRESSION_TYPE("table.file.compress.type", "gz", PropertyType.STRING,
+      "One of gz,lzo,snappy,lz4,zstd,none, or the name of another algorithm whose hadoop codec class is set as io.compression.codec.<name>.class in the"
+          + " hadoop configuration of every server"),
   TABLE_FILE_COMPRESSED_BLOCK_SIZE("table.file.compress.blocksize", "100K", PropertyType.MEMORY,
       "Similar to the hadoop io.seqfile.compress.blocksize setting, so that files have better query performance. The maximum value for this is "
           + Integer.MAX_VALUE + ". (This setting is the size threshold prior to compression, and applies even compression is disabled.)"),
   TABLE_FILE_COMPRESSED_BLOCK_SIZE_INDEX("table.file.compress.blocksize.index", "128K", PropertyType.MEMORY,
       "Determines how large index blocks can be in files that support multilevel indexes. The maximum value for this is " + Integer.MAX_VALUE + "."
           + " (This setting is the size threshold prior to compression, and applies even compression is disabled.)"),
+  TABLE_FILE_RESTART_INTERVAL("table.file.restart.interval", "0", PropertyType.COUNT,
+      "When greater than zero, every Nth key in a data block is written in full and its offset is stored at the end of the block, so that seeks can binary"
+          + " search within a block instead of reading it from the start. Files written with this setting can not be read by versions that do not support it."
+          + " When 0, files are written in the older format."),
+  TABLE_FILE_DICTIONARY_SIZE("table.file.dictionary.size", "0", PropertyType.COUNT,
+      "When greater than zero, each locality group of a file keeps a dictionary of up to this many column families, qualifiers, and visibilities, and"
+          + " writes repeated values as small ids instead of their bytes. Files written with this setting can not be read by versions that do not support it."),
   TABLE_FILE_BLOCK_SIZE("table.file.blocksize", "0B", PropertyType.MEMORY,
       "Overrides the hadoop dfs.block.size setting so that files have better query performance. The maximum value for this is " + Integer.MAX_VALUE),
   TABLE_FILE_REPLICATION("table.file.replication", "0", PropertyType.COUNT, "Determines how many replicas to keep of a tables' files in HDFS. "
@@ -348,6 +408,10 @@ public enum Property {
           + " table.compaction.major.ratio also.  Setting this property to 0 will make it default to tserver.scan.files.open.max-1, this will prevent a"
           + " tablet from having more files than can be opened.  Setting this property low may throttle ingest and increase query performance."),
   TABLE_WALOG_ENABLED("table.walog.enabled", "true", PropertyType.BOOLEAN, "Use the write-ahead log to prevent the loss of data."),
+  TABLE_DURABILITY("table.durability", "sync", PropertyType.DURABILITY, "The durability used to write to the write-ahead log."
+      + " Legal values are: none, which skips the write-ahead log; log, which writes to the write-ahead log but does not flush it; flush, which pushes"
+      + " data to the datanodes; and sync, which makes sure data is saved to disk. Batch writers may request a different durability. Ignored if"
+      + " table.walog.enabled is false."),
   TABLE_BLOOM_ENABLED("table.bloom.enabled", "false", PropertyType.BOOLEAN, "Use bloom filters on this table."),
   TABLE_BLOOM_LOAD_THRESHOLD("table.bloom.load.threshold", "1", PropertyType.COUNT,
       "This number of seeks that would actually use a bloom filter must occur before a file's bloom filter is loaded."
@@ -641,7 +705,8 @@ public enum Property {
   }
 
   private static final EnumSet<Property> fixedProperties = EnumSet.of(Property.TSERV_CLIENTPORT, Property.TSERV_NATIVEMAP_ENABLED,
-      Property.TSERV_SCAN_MAX_OPENFILES, Property.MASTER_CLIENTPORT, Property.GC_PORT);
+      Property.TSERV_OFFHEAPMAP_ENABLED, Property.TSERV_SCAN_MAX_OPENFILES, Property.TSERV_WAL_COUNT, Property.TSERV_VISIBILITY_CACHE_EXPRESSIONS_MAX,
+      Property.TSERV_VISIBILITY_CACHE_AUTHORIZATIONS_MAX, Property.TSERV_VISIBILITY_CACHE_RESULTS_MAX, Property.MASTER_CLIENTPORT, Property.GC_PORT);
 
   /**
    * Checks if the given property may be changed via Zookeeper, but not
@@ -19,6 +19,7 @@ package org.apache.accumulo.core.data;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -76,7 +77,10 @@ public class Mutation implements Writable {
   
   private boolean useOldDeserialize = false;
   private byte[] row;
+  // the serialized updates are the dataLength bytes of data starting at dataOffset, so that data can be shared with the buffer it was built in or received in
   private byte[] data;
+  private int dataOffset;
+  private int dataLength;
   private int entries;
   private List<byte[]> values;
   
@@ -88,11 +92,23 @@ public class Mutation implements Writable {
   
   private void serialize() {
     if (buffer != null) {
-      data = buffer.toArray();
+      ByteBuffer bb = buffer.toByteBuffer();
+      if (bb.remaining() >= bb.capacity() - bb.capacity() / 4) {
+        // the buffer is mostly full, so use it in place rather than copying it
+        setData(bb.array(), 0, bb.remaining());
+      } else {
+        setData(buffer.toArray(), 0, bb.remaining());
+      }
       buffer = null;
     }
   }
   
+  private void setData(byte[] data, int offset, int length) {
+    this.data = data;
+    this.dataOffset = offset;
+    this.dataLength = length;
+  }
+  
   /**
    * Creates a new mutation. A defensive copy is made.
    *
@@ -118,6 +134,33 @@ public class Mutation implements Writable {
     buffer = new UnsynchronizedBuffer.Writer();
   }
   
+  /**
+   * Creates a new mutation. A defensive copy is made. If the serialized updates fit in the initial buffer, they are not copied again when the mutation is sent.
+   *
+   * @param row row ID
+   * @param initialBufferSize the initial size, in bytes, of the internal buffer for serializing updates
+   * @since 1.7.0
+   */
+  public Mutation(byte[] row, int initialBufferSize) {
+    this(row, 0, row.length, initialBufferSize);
+  }
+  
+  /**
+   * Creates a new mutation. A defensive copy is made. If the serialized updates fit in the initial buffer, they are not copied again when the mutation is sent.
+   *
+   * @param row byte array containing row ID
+   * @param start starting index of row ID in byte array
+   * @param length length of row ID in byte array
+   * @param initialBufferSize the initial size, in bytes, of the internal buffer for serializing updates
+   * @throws IndexOutOfBoundsException if start or length is invalid
+   * @since 1.7.0
+   */
+  public Mutation(byte[] row, int start, int length, int initialBufferSize) {
+    this.row = new byte[length];
+    System.arraycopy(row, start, this.row, 0, length);
+    buffer = new UnsynchronizedBuffer.Writer(initialBufferSize);
+  }
+  
   /**
    * Creates a new mutation. A defensive copy is made.
    *
@@ -136,28 +179,59 @@ public class Mutation implements Writable {
     this(new Text(row.toString()));
   }
   
+  /**
+   * Creates a new mutation. A defensive copy is made.
+   *
+   * @param row row ID
+   * @param initialBufferSize the initial size, in bytes, of the internal buffer for serializing updates
+   * @since 1.7.0
+   */
+  public Mutation(Text row, int initialBufferSize) {
+    this(row.getBytes(), 0, row.getLength(), initialBufferSize);
+  }
+  
+  /**
+   * Creates a new mutation.
+   *
+   * @param row row ID
+   * @param initialBufferSize the initial size, in bytes, of the internal buffer for serializing updates
+   * @since 1.7.0
+   */
+  public Mutation(CharSequence row, int initialBufferSize) {
+    this(new Text(row.toString()), initialBufferSize);
+  }
+  
   /**
    * Creates a new mutation.
    */
   public Mutation() {}
   
   /**
-   * Creates a new mutation from a Thrift mutation.
+   * Creates a new mutation from a Thrift mutation. The serialized updates are not copied, so the mutation shares them with the Thrift mutation. When a tablet
+   * server reads a batch of mutations, they all refer to the one buffer the batch was received in.
    *
    * @param tmutation Thrift mutation
    */
   public Mutation(TMutation tmutation) {
     this.row = ByteBufferUtil.toBytes(tmutation.row);
-    this.data = ByteBufferUtil.toBytes(tmutation.data);
     this.entries = tmutation.entries;
     this.values = ByteBufferUtil.toBytesList(tmutation.values);
     
     if (this.row == null) {
       throw new IllegalArgumentException("null row");
     }
-    if (this.data == null) {
+    if (tmutation.data == null) {
       throw new IllegalArgumentException("null serialized data");
     }
+    
+    ByteBuffer tdata = tmutation.data;
+    if (tdata.hasArray()) {
+      setData(tdata.array(), tdata.arrayOffset() + tdata.position(), tdata.remaining());
+    } else {
+      byte[] copy = new byte[tdata.remaining()];
+      tdata.duplicate().get(copy);
+      setData(copy, 0, copy.length);
+    }
   }
   
   /**
@@ -168,7 +242,7 @@ public class Mutation implements Writable {
   public Mutation(Mutation m) {
     m.serialize();
     this.row = m.row;
-    this.data = m.data;
+    setData(m.data, m.dataOffset, m.dataLength);
     this.entries = m.entries;
     this.values = m.values;
   }
@@ -643,7 +717,7 @@ public class Mutation implements Writable {
   public List<ColumnUpdate> getUpdates() {
     serialize();
     
-    UnsynchronizedBuffer.Reader in = new UnsynchronizedBuffer.Reader(data);
+    UnsynchronizedBuffer.Reader in = new UnsynchronizedBuffer.Reader(ByteBuffer.wrap(data, dataOffset, dataLength));
     
     if (updates == null) {
       if (entries == 1) {
@@ -721,7 +795,7 @@ public class Mutation implements Writable {
    */
   public long numBytes() {
     serialize();
-    return row.length + data.length + getValueLengths();
+    return row.length + dataLength + getValueLengths();
   }
   
   /**
@@ -765,8 +839,9 @@ public class Mutation implements Writable {
     row = new byte[len];
     in.readFully(row);
     len = WritableUtils.readVInt(in);
-    data = new byte[len];
-    in.readFully(data);
+    byte[] localData = new byte[len];
+    in.readFully(localData);
+    setData(localData, 0, len);
     entries = WritableUtils.readVInt(in);
     
     boolean valuesPresent = (first & 0x01) == 0x01;
@@ -857,8 +932,8 @@ public class Mutation implements Writable {
     WritableUtils.writeVInt(out, row.length);
     out.write(row);
 
-    WritableUtils.writeVInt(out, data.length);
-    out.write(data);
+    WritableUtils.writeVInt(out, dataLength);
+    out.write(data, dataOffset, dataLength);
     WritableUtils.writeVInt(out, entries);
     
     if (hasValues > 0) {
@@ -901,7 +976,8 @@ public class Mutation implements Writable {
   private boolean equalMutation(Mutation m) {
     serialize();
     m.serialize();
-    if (Arrays.equals(row, m.row) && entries == m.entries && Arrays.equals(data, m.data)) {
+    if (Arrays.equals(row, m.row) && entries == m.entries
+        && ByteBuffer.wrap(data, dataOffset, dataLength).equals(ByteBuffer.wrap(m.data, m.dataOffset, m.dataLength))) {
       if (values == null && m.values == null)
         return true;
       
@@ -926,7 +1002,7 @@ public class Mutation implements Writable {
    */
   public TMutation toThrift() {
     serialize();
-    return new TMutation(java.nio.ByteBuffer.wrap(row), java.nio.ByteBuffer.wrap(data), ByteBufferUtil.toByteBuffers(values), entries);
+    return new TMutation(ByteBuffer.wrap(row), ByteBuffer.wrap(data, dataOffset, dataLength), ByteBufferUtil.toByteBuffers(values), entries);
   }
   
   /**
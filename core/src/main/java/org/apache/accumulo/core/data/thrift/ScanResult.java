@@ -51,6 +51,7 @@ import org.slf4j.LoggerFactory;
 
   private static final org.apache.thrift.protocol.TField RESULTS_FIELD_DESC = new org.apache.thrift.protocol.TField("results", org.apache.thrift.protocol.TType.LIST, (short)1);
   private static final org.apache.thrift.protocol.TField MORE_FIELD_DESC = new org.apache.thrift.protocol.TField("more", org.apache.thrift.protocol.TType.BOOL, (short)2);
+  private static final org.apache.thrift.protocol.TField PACKED_RESULTS_FIELD_DESC = new org.apache.thrift.protocol.TField("packedResults", org.apache.thrift.protocol.TType.STRING, (short)3);
 
   private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
   static {
@@ -60,11 +61,13 @@ import org.slf4j.LoggerFactory;
 
   public List<TKeyValue> results; // required
   public boolean more; // required
+  public ByteBuffer packedResults; // required
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   @SuppressWarnings("all") public enum _Fields implements org.apache.thrift.TFieldIdEnum {
     RESULTS((short)1, "results"),
-    MORE((short)2, "more");
+    MORE((short)2, "more"),
+    PACKED_RESULTS((short)3, "packedResults");
 
     private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -83,6 +86,8 @@ import org.slf4j.LoggerFactory;
           return RESULTS;
         case 2: // MORE
           return MORE;
+        case 3: // PACKED_RESULTS
+          return PACKED_RESULTS;
         default:
           return null;
       }
@@ -133,6 +138,8 @@ import org.slf4j.LoggerFactory;
             new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TKeyValue.class))));
     tmpMap.put(_Fields.MORE, new org.apache.thrift.meta_data.FieldMetaData("more", org.apache.thrift.TFieldRequirementType.DEFAULT, 
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.BOOL)));
+    tmpMap.put(_Fields.PACKED_RESULTS, new org.apache.thrift.meta_data.FieldMetaData("packedResults", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING              , true)));
     metaDataMap = Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(ScanResult.class, metaDataMap);
   }
@@ -142,12 +149,14 @@ import org.slf4j.LoggerFactory;
 
   public ScanResult(
     List<TKeyValue> results,
-    boolean more)
+    boolean more,
+    ByteBuffer packedResults)
   {
     this();
     this.results = results;
     this.more = more;
     setMoreIsSet(true);
+    this.packedResults = org.apache.thrift.TBaseHelper.copyBinary(packedResults);
   }
 
   /**
@@ -163,6 +172,10 @@ import org.slf4j.LoggerFactory;
       this.results = __this__results;
     }
     this.more = other.more;
+    if (other.isSetPackedResults()) {
+      this.packedResults = org.apache.thrift.TBaseHelper.copyBinary(other.packedResults);
+;
+    }
   }
 
   public ScanResult deepCopy() {
@@ -174,6 +187,7 @@ import org.slf4j.LoggerFactory;
     this.results = null;
     setMoreIsSet(false);
     this.more = false;
+    this.packedResults = null;
   }
 
   public int getResultsSize() {
@@ -238,6 +252,40 @@ import org.slf4j.LoggerFactory;
     __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __MORE_ISSET_ID, value);
   }
 
+  public byte[] getPackedResults() {
+    setPackedResults(org.apache.thrift.TBaseHelper.rightSize(packedResults));
+    return packedResults == null ? null : packedResults.array();
+  }
+
+  public ByteBuffer bufferForPackedResults() {
+    return packedResults;
+  }
+
+  public ScanResult setPackedResults(byte[] packedResults) {
+    setPackedResults(packedResults == null ? (ByteBuffer)null : ByteBuffer.wrap(packedResults));
+    return this;
+  }
+
+  public ScanResult setPackedResults(ByteBuffer packedResults) {
+    this.packedResults = packedResults;
+    return this;
+  }
+
+  public void unsetPackedResults() {
+    this.packedResults = null;
+  }
+
+  /** Returns true if field packedResults is set (has been assigned a value) and false otherwise */
+  public boolean isSetPackedResults() {
+    return this.packedResults != null;
+  }
+
+  public void setPackedResultsIsSet(boolean value) {
+    if (!value) {
+      this.packedResults = null;
+    }
+  }
+
   public void setFieldValue(_Fields field, Object value) {
     switch (field) {
     case RESULTS:
@@ -256,6 +304,14 @@ import org.slf4j.LoggerFactory;
       }
       break;
 
+    case PACKED_RESULTS:
+      if (value == null) {
+        unsetPackedResults();
+      } else {
+        setPackedResults((ByteBuffer)value);
+      }
+      break;
+
     }
   }
 
@@ -267,6 +323,9 @@ import org.slf4j.LoggerFactory;
     case MORE:
       return Boolean.valueOf(isMore());
 
+    case PACKED_RESULTS:
+      return getPackedResults();
+
     }
     throw new IllegalStateException();
   }
@@ -282,6 +341,8 @@ import org.slf4j.LoggerFactory;
       return isSetResults();
     case MORE:
       return isSetMore();
+    case PACKED_RESULTS:
+      return isSetPackedResults();
     }
     throw new IllegalStateException();
   }
@@ -317,6 +378,15 @@ import org.slf4j.LoggerFactory;
         return false;
     }
 
+    boolean this_present_packedResults = true && this.isSetPackedResults();
+    boolean that_present_packedResults = true && that.isSetPackedResults();
+    if (this_present_packedResults || that_present_packedResults) {
+      if (!(this_present_packedResults && that_present_packedResults))
+        return false;
+      if (!this.packedResults.equals(that.packedResults))
+        return false;
+    }
+
     return true;
   }
 
@@ -353,6 +423,16 @@ import org.slf4j.LoggerFactory;
         return lastComparison;
       }
     }
+    lastComparison = Boolean.valueOf(isSetPackedResults()).compareTo(typedOther.isSetPackedResults());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetPackedResults()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.packedResults, typedOther.packedResults);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -384,6 +464,14 @@ import org.slf4j.LoggerFactory;
     sb.append("more:");
     sb.append(this.more);
     first = false;
+    if (!first) sb.append(", ");
+    sb.append("packedResults:");
+    if (this.packedResults == null) {
+      sb.append("null");
+    } else {
+      org.apache.thrift.TBaseHelper.toString(this.packedResults, sb);
+    }
+    first = false;
     sb.append(")");
     return sb.toString();
   }
@@ -456,6 +544,14 @@ import org.slf4j.LoggerFactory;
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 3: // PACKED_RESULTS
+            if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+              struct.packedResults = iprot.readBinary();
+              struct.setPackedResultsIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -486,6 +582,11 @@ import org.slf4j.LoggerFactory;
       oprot.writeFieldBegin(MORE_FIELD_DESC);
       oprot.writeBool(struct.more);
       oprot.writeFieldEnd();
+      if (struct.packedResults != null) {
+        oprot.writeFieldBegin(PACKED_RESULTS_FIELD_DESC);
+        oprot.writeBinary(struct.packedResults);
+        oprot.writeFieldEnd();
+      }
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -510,7 +611,10 @@ import org.slf4j.LoggerFactory;
       if (struct.isSetMore()) {
         optionals.set(1);
       }
-      oprot.writeBitSet(optionals, 2);
+      if (struct.isSetPackedResults()) {
+        optionals.set(2);
+      }
+      oprot.writeBitSet(optionals, 3);
       if (struct.isSetResults()) {
         {
           oprot.writeI32(struct.results.size());
@@ -523,12 +627,15 @@ import org.slf4j.LoggerFactory;
       if (struct.isSetMore()) {
         oprot.writeBool(struct.more);
       }
+      if (struct.isSetPackedResults()) {
+        oprot.writeBinary(struct.packedResults);
+      }
     }
 
     @Override
     public void read(org.apache.thrift.protocol.TProtocol prot, ScanResult struct) throws org.apache.thrift.TException {
       TTupleProtocol iprot = (TTupleProtocol) prot;
-      BitSet incoming = iprot.readBitSet(2);
+      BitSet incoming = iprot.readBitSet(3);
       if (incoming.get(0)) {
         {
           org.apache.thrift.protocol.TList _list13 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, iprot.readI32());
@@ -547,6 +654,10 @@ import org.slf4j.LoggerFactory;
         struct.more = iprot.readBool();
         struct.setMoreIsSet(true);
       }
+      if (incoming.get(2)) {
+        struct.packedResults = iprot.readBinary();
+        struct.setPackedResultsIsSet(true);
+      }
     }
   }
 
@@ -52,6 +52,8 @@ import org.slf4j.LoggerFactory;
   private static final org.apache.thrift.protocol.TField FAILED_EXTENTS_FIELD_DESC = new org.apache.thrift.protocol.TField("failedExtents", org.apache.thrift.protocol.TType.MAP, (short)1);
   private static final org.apache.thrift.protocol.TField VIOLATION_SUMMARIES_FIELD_DESC = new org.apache.thrift.protocol.TField("violationSummaries", org.apache.thrift.protocol.TType.LIST, (short)2);
   private static final org.apache.thrift.protocol.TField AUTHORIZATION_FAILURES_FIELD_DESC = new org.apache.thrift.protocol.TField("authorizationFailures", org.apache.thrift.protocol.TType.MAP, (short)3);
+  private static final org.apache.thrift.protocol.TField MEMORY_PRESSURE_FIELD_DESC = new org.apache.thrift.protocol.TField("memoryPressure", org.apache.thrift.protocol.TType.DOUBLE, (short)4);
+  private static final org.apache.thrift.protocol.TField HOLD_TIME_FIELD_DESC = new org.apache.thrift.protocol.TField("holdTime", org.apache.thrift.protocol.TType.I64, (short)5);
 
   private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
   static {
@@ -62,12 +64,16 @@ import org.slf4j.LoggerFactory;
   public Map<TKeyExtent,Long> failedExtents; // required
   public List<TConstraintViolationSummary> violationSummaries; // required
   public Map<TKeyExtent,org.apache.accumulo.core.client.impl.thrift.SecurityErrorCode> authorizationFailures; // required
+  public double memoryPressure; // required
+  public long holdTime; // required
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   @SuppressWarnings("all") public enum _Fields implements org.apache.thrift.TFieldIdEnum {
     FAILED_EXTENTS((short)1, "failedExtents"),
     VIOLATION_SUMMARIES((short)2, "violationSummaries"),
-    AUTHORIZATION_FAILURES((short)3, "authorizationFailures");
+    AUTHORIZATION_FAILURES((short)3, "authorizationFailures"),
+    MEMORY_PRESSURE((short)4, "memoryPressure"),
+    HOLD_TIME((short)5, "holdTime");
 
     private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -88,6 +94,10 @@ import org.slf4j.LoggerFactory;
           return VIOLATION_SUMMARIES;
         case 3: // AUTHORIZATION_FAILURES
           return AUTHORIZATION_FAILURES;
+        case 4: // MEMORY_PRESSURE
+          return MEMORY_PRESSURE;
+        case 5: // HOLD_TIME
+          return HOLD_TIME;
         default:
           return null;
       }
@@ -128,6 +138,9 @@ import org.slf4j.LoggerFactory;
   }
 
   // isset id assignments
+  private static final int __MEMORYPRESSURE_ISSET_ID = 0;
+  private static final int __HOLDTIME_ISSET_ID = 1;
+  private byte __isset_bitfield = 0;
   public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
     Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
@@ -142,6 +155,10 @@ import org.slf4j.LoggerFactory;
         new org.apache.thrift.meta_data.MapMetaData(org.apache.thrift.protocol.TType.MAP, 
             new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TKeyExtent.class), 
             new org.apache.thrift.meta_data.EnumMetaData(org.apache.thrift.protocol.TType.ENUM, org.apache.accumulo.core.client.impl.thrift.SecurityErrorCode.class))));
+    tmpMap.put(_Fields.MEMORY_PRESSURE, new org.apache.thrift.meta_data.FieldMetaData("memoryPressure", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.DOUBLE)));
+    tmpMap.put(_Fields.HOLD_TIME, new org.apache.thrift.meta_data.FieldMetaData("holdTime", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
     metaDataMap = Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(UpdateErrors.class, metaDataMap);
   }
@@ -152,18 +169,25 @@ import org.slf4j.LoggerFactory;
   public UpdateErrors(
     Map<TKeyExtent,Long> failedExtents,
     List<TConstraintViolationSummary> violationSummaries,
-    Map<TKeyExtent,org.apache.accumulo.core.client.impl.thrift.SecurityErrorCode> authorizationFailures)
+    Map<TKeyExtent,org.apache.accumulo.core.client.impl.thrift.SecurityErrorCode> authorizationFailures,
+    double memoryPressure,
+    long holdTime)
   {
     this();
     this.failedExtents = failedExtents;
     this.violationSummaries = violationSummaries;
     this.authorizationFailures = authorizationFailures;
+    this.memoryPressure = memoryPressure;
+    setMemoryPressureIsSet(true);
+    this.holdTime = holdTime;
+    setHoldTimeIsSet(true);
   }
 
   /**
    * Performs a deep copy on <i>other</i>.
    */
   public UpdateErrors(UpdateErrors other) {
+    __isset_bitfield = other.__isset_bitfield;
     if (other.isSetFailedExtents()) {
       Map<TKeyExtent,Long> __this__failedExtents = new HashMap<TKeyExtent,Long>();
       for (Map.Entry<TKeyExtent, Long> other_element : other.failedExtents.entrySet()) {
@@ -201,6 +225,8 @@ import org.slf4j.LoggerFactory;
       }
       this.authorizationFailures = __this__authorizationFailures;
     }
+    this.memoryPressure = other.memoryPressure;
+    this.holdTime = other.holdTime;
   }
 
   public UpdateErrors deepCopy() {
@@ -212,6 +238,10 @@ import org.slf4j.LoggerFactory;
     this.failedExtents = null;
     this.violationSummaries = null;
     this.authorizationFailures = null;
+    setMemoryPressureIsSet(false);
+    this.memoryPressure = 0.0;
+    setHoldTimeIsSet(false);
+    this.holdTime = 0;
   }
 
   public int getFailedExtentsSize() {
@@ -323,6 +353,52 @@ import org.slf4j.LoggerFactory;
     }
   }
 
+  public double getMemoryPressure() {
+    return this.memoryPressure;
+  }
+
+  public UpdateErrors setMemoryPressure(double memoryPressure) {
+    this.memoryPressure = memoryPressure;
+    setMemoryPressureIsSet(true);
+    return this;
+  }
+
+  public void unsetMemoryPressure() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __MEMORYPRESSURE_ISSET_ID);
+  }
+
+  /** Returns true if field memoryPressure is set (has been assigned a value) and false otherwise */
+  public boolean isSetMemoryPressure() {
+    return EncodingUtils.testBit(__isset_bitfield, __MEMORYPRESSURE_ISSET_ID);
+  }
+
+  public void setMemoryPressureIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __MEMORYPRESSURE_ISSET_ID, value);
+  }
+
+  public long getHoldTime() {
+    return this.holdTime;
+  }
+
+  public UpdateErrors setHoldTime(long holdTime) {
+    this.holdTime = holdTime;
+    setHoldTimeIsSet(true);
+    return this;
+  }
+
+  public void unsetHoldTime() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __HOLDTIME_ISSET_ID);
+  }
+
+  /** Returns true if field holdTime is set (has been assigned a value) and false otherwise */
+  public boolean isSetHoldTime() {
+    return EncodingUtils.testBit(__isset_bitfield, __HOLDTIME_ISSET_ID);
+  }
+
+  public void setHoldTimeIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __HOLDTIME_ISSET_ID, value);
+  }
+
   public void setFieldValue(_Fields field, Object value) {
     switch (field) {
     case FAILED_EXTENTS:
@@ -349,6 +425,22 @@ import org.slf4j.LoggerFactory;
       }
       break;
 
+    case MEMORY_PRESSURE:
+      if (value == null) {
+        unsetMemoryPressure();
+      } else {
+        setMemoryPressure((Double)value);
+      }
+      break;
+
+    case HOLD_TIME:
+      if (value == null) {
+        unsetHoldTime();
+      } else {
+        setHoldTime((Long)value);
+      }
+      break;
+
     }
   }
 
@@ -363,6 +455,12 @@ import org.slf4j.LoggerFactory;
     case AUTHORIZATION_FAILURES:
       return getAuthorizationFailures();
 
+    case MEMORY_PRESSURE:
+      return Double.valueOf(getMemoryPressure());
+
+    case HOLD_TIME:
+      return Long.valueOf(getHoldTime());
+
     }
     throw new IllegalStateException();
   }
@@ -380,6 +478,10 @@ import org.slf4j.LoggerFactory;
       return isSetViolationSummaries();
     case AUTHORIZATION_FAILURES:
       return isSetAuthorizationFailures();
+    case MEMORY_PRESSURE:
+      return isSetMemoryPressure();
+    case HOLD_TIME:
+      return isSetHoldTime();
     }
     throw new IllegalStateException();
   }
@@ -424,6 +526,24 @@ import org.slf4j.LoggerFactory;
         return false;
     }
 
+    boolean this_present_memoryPressure = true;
+    boolean that_present_memoryPressure = true;
+    if (this_present_memoryPressure || that_present_memoryPressure) {
+      if (!(this_present_memoryPressure && that_present_memoryPressure))
+        return false;
+      if (this.memoryPressure != that.memoryPressure)
+        return false;
+    }
+
+    boolean this_present_holdTime = true;
+    boolean that_present_holdTime = true;
+    if (this_present_holdTime || that_present_holdTime) {
+      if (!(this_present_holdTime && that_present_holdTime))
+        return false;
+      if (this.holdTime != that.holdTime)
+        return false;
+    }
+
     return true;
   }
 
@@ -470,6 +590,26 @@ import org.slf4j.LoggerFactory;
         return lastComparison;
       }
     }
+    lastComparison = Boolean.valueOf(isSetMemoryPressure()).compareTo(typedOther.isSetMemoryPressure());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetMemoryPressure()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.memoryPressure, typedOther.memoryPressure);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
+    lastComparison = Boolean.valueOf(isSetHoldTime()).compareTo(typedOther.isSetHoldTime());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetHoldTime()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.holdTime, typedOther.holdTime);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -513,6 +653,14 @@ import org.slf4j.LoggerFactory;
       sb.append(this.authorizationFailures);
     }
     first = false;
+    if (!first) sb.append(", ");
+    sb.append("memoryPressure:");
+    sb.append(this.memoryPressure);
+    first = false;
+    if (!first) sb.append(", ");
+    sb.append("holdTime:");
+    sb.append(this.holdTime);
+    first = false;
     sb.append(")");
     return sb.toString();
   }
@@ -532,6 +680,8 @@ import org.slf4j.LoggerFactory;
 
   private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
     try {
+      // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+      __isset_bitfield = 0;
       read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
     } catch (org.apache.thrift.TException te) {
       throw new java.io.IOException(te);
@@ -617,6 +767,22 @@ import org.slf4j.LoggerFactory;
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 4: // MEMORY_PRESSURE
+            if (schemeField.type == org.apache.thrift.protocol.TType.DOUBLE) {
+              struct.memoryPressure = iprot.readDouble();
+              struct.setMemoryPressureIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
+          case 5: // HOLD_TIME
+            if (schemeField.type == org.apache.thrift.protocol.TType.I64) {
+              struct.holdTime = iprot.readI64();
+              struct.setHoldTimeIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -670,6 +836,12 @@ import org.slf4j.LoggerFactory;
         }
         oprot.writeFieldEnd();
       }
+      oprot.writeFieldBegin(MEMORY_PRESSURE_FIELD_DESC);
+      oprot.writeDouble(struct.memoryPressure);
+      oprot.writeFieldEnd();
+      oprot.writeFieldBegin(HOLD_TIME_FIELD_DESC);
+      oprot.writeI64(struct.holdTime);
+      oprot.writeFieldEnd();
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -697,7 +869,13 @@ import org.slf4j.LoggerFactory;
       if (struct.isSetAuthorizationFailures()) {
         optionals.set(2);
       }
-      oprot.writeBitSet(optionals, 3);
+      if (struct.isSetMemoryPressure()) {
+        optionals.set(3);
+      }
+      if (struct.isSetHoldTime()) {
+        optionals.set(4);
+      }
+      oprot.writeBitSet(optionals, 5);
       if (struct.isSetFailedExtents()) {
         {
           oprot.writeI32(struct.failedExtents.size());
@@ -727,12 +905,18 @@ import org.slf4j.LoggerFactory;
           }
         }
       }
+      if (struct.isSetMemoryPressure()) {
+        oprot.writeDouble(struct.memoryPressure);
+      }
+      if (struct.isSetHoldTime()) {
+        oprot.writeI64(struct.holdTime);
+      }
     }
 
     @Override
     public void read(org.apache.thrift.protocol.TProtocol prot, UpdateErrors struct) throws org.apache.thrift.TException {
       TTupleProtocol iprot = (TTupleProtocol) prot;
-      BitSet incoming = iprot.readBitSet(3);
+      BitSet incoming = iprot.readBitSet(5);
       if (incoming.get(0)) {
         {
           org.apache.thrift.protocol.TMap _map67 = new org.apache.thrift.protocol.TMap(org.apache.thrift.protocol.TType.STRUCT, org.apache.thrift.protocol.TType.I64, iprot.readI32());
@@ -779,6 +963,14 @@ import org.slf4j.LoggerFactory;
         }
         struct.setAuthorizationFailuresIsSet(true);
       }
+      if (incoming.get(3)) {
+        struct.memoryPressure = iprot.readDouble();
+        struct.setMemoryPressureIsSet(true);
+      }
+      if (incoming.get(4)) {
+        struct.holdTime = iprot.readI64();
+        struct.setHoldTimeIsSet(true);
+      }
     }
   }
 
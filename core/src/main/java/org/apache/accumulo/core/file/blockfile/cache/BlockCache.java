@@ -19,6 +19,10 @@
  */
 package org.apache.accumulo.core.file.blockfile.cache;
 
+import java.util.List;
+
+import org.apache.accumulo.core.file.blockfile.cache.LruBlockCache.CacheStats;
+
 /**
  * Block cache interface.
  */
@@ -65,4 +69,20 @@ public interface BlockCache {
    * @return max size in bytes
    */
   long getMaxSize();
+  
+  /**
+   * Get counter statistics for this cache.
+   * 
+   * @return statistics
+   */
+  CacheStats getStats();
+  
+  /**
+   * Get the names of the blocks currently in this cache, most valuable first. Used to save the contents of a cache so it can be warmed up again later.
+   * 
+   * @param max
+   *          the maximum number of names to return
+   * @return block names
+   */
+  List<String> getHotBlockNames(int max);
 }
@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.file.blockfile.cache;
+
+/**
+ * Decides which blocks are worth caching once a {@link BlockCache} is full.
+ *
+ * <p>
+ * A cache consults its policy only when adding a block would force other blocks out. Blocks that are rejected are read from the file as if the cache were
+ * disabled, so one large scan can not flush the blocks that other scans are repeatedly reading.
+ */
+public interface CacheAdmissionPolicy {
+
+  /**
+   * Called on every cache lookup, whether or not the block was found.
+   */
+  void recordAccess(String blockName);
+
+  /**
+   * @return true if the block should be added to a full cache, evicting other blocks to make room for it
+   */
+  boolean admit(String blockName);
+}
@@ -103,6 +103,10 @@ public class CachedBlock implements HeapSize, Comparable<CachedBlock>, CacheEntr
     return this.priority;
   }
   
+  long getAccessTime() {
+    return this.accessTime;
+  }
+  
   @Override
   public Object getIndex() {
     return index;
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.file.blockfile.cache;
+
+/**
+ * An admission policy that only lets a block into a full cache if it has been requested more than once recently.
+ *
+ * <p>
+ * Block requests are counted in a {@link FrequencySketch}, including requests that miss the cache. A block that is read once, as is typical of a large
+ * sequential scan, is never admitted once the cache is full, while blocks that are read repeatedly get in on their second miss. The counts decay over time so
+ * the policy adapts when the working set changes.
+ */
+public class FrequencyAdmissionPolicy implements CacheAdmissionPolicy {
+
+  static final int DEFAULT_ADMIT_FREQUENCY = 2;
+
+  private final FrequencySketch sketch;
+  private final int admitFrequency;
+
+  /**
+   * @param expectedEntries
+   *          approximate number of blocks the cache holds
+   */
+  public FrequencyAdmissionPolicy(long expectedEntries) {
+    this(expectedEntries, DEFAULT_ADMIT_FREQUENCY);
+  }
+
+  /**
+   * @param expectedEntries
+   *          approximate number of blocks the cache holds
+   * @param admitFrequency
+   *          how many recent requests a block needs before it is admitted
+   */
+  public FrequencyAdmissionPolicy(long expectedEntries, int admitFrequency) {
+    if (admitFrequency < 1 || admitFrequency > FrequencySketch.MAX_FREQUENCY)
+      throw new IllegalArgumentException("admitFrequency must be between 1 and " + FrequencySketch.MAX_FREQUENCY + " : " + admitFrequency);
+    this.sketch = new FrequencySketch(expectedEntries);
+    this.admitFrequency = admitFrequency;
+  }
+
+  @Override
+  public void recordAccess(String blockName) {
+    sketch.increment(blockName);
+  }
+
+  @Override
+  public boolean admit(String blockName) {
+    return sketch.frequency(blockName) >= admitFrequency;
+  }
+}
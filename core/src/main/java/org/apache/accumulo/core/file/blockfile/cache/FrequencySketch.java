@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.file.blockfile.cache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A count-min sketch that estimates how often a key has been seen recently, using a small fixed amount of memory.
+ *
+ * <p>
+ * Each long in the table holds sixteen 4 bit counters. A key is mapped to four counters, one in each of four different longs, and its frequency is the minimum
+ * of those counters. Counters saturate at 15. After a number of increments proportional to the size of the table, every counter is halved so that the sketch
+ * reflects recent history rather than all time popularity.
+ *
+ * <p>
+ * Increments are lock free, and concurrent resets may lose a few increments. This is acceptable as the counts are only estimates.
+ */
+public class FrequencySketch {
+
+  private static final long[] SEEDS = new long[] {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+  /** Clears the high bit of each counter after the table is shifted right by one */
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  private static final long COUNTER_MASK = 0xfL;
+
+  static final int MAX_FREQUENCY = 15;
+
+  private final AtomicLongArray table;
+  private final int tableMask;
+  private final int sampleSize;
+  private final AtomicInteger additions = new AtomicInteger(0);
+
+  /**
+   * @param expectedEntries
+   *          approximately how many distinct keys are expected to be tracked, such as the number of blocks that fit in the cache
+   */
+  public FrequencySketch(long expectedEntries) {
+    int entries = (int) Math.min(Math.max(expectedEntries, 16), 1 << 30);
+    int tableSize = Integer.highestOneBit(entries - 1) << 1;
+    this.table = new AtomicLongArray(tableSize);
+    this.tableMask = tableSize - 1;
+    this.sampleSize = (int) Math.min(10L * tableSize, Integer.MAX_VALUE);
+  }
+
+  /**
+   * @return the estimated number of times the key was seen recently, up to 15
+   */
+  public int frequency(String key) {
+    int hash = spread(key.hashCode());
+    int start = (hash & 3) << 2;
+    int frequency = MAX_FREQUENCY;
+    for (int i = 0; i < SEEDS.length; i++) {
+      int offset = (start + i) << 2;
+      int count = (int) ((table.get(indexOf(hash, i)) >>> offset) & COUNTER_MASK);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /**
+   * Record an occurrence of the key.
+   */
+  public void increment(String key) {
+    int hash = spread(key.hashCode());
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < SEEDS.length; i++) {
+      added |= incrementAt(indexOf(hash, i), start + i);
+    }
+
+    if (added && additions.incrementAndGet() >= sampleSize) {
+      reset();
+    }
+  }
+
+  private boolean incrementAt(int index, int counter) {
+    int offset = counter << 2;
+    long mask = COUNTER_MASK << offset;
+    while (true) {
+      long value = table.get(index);
+      if ((value & mask) == mask)
+        return false;
+      if (table.compareAndSet(index, value, value + (1L << offset)))
+        return true;
+    }
+  }
+
+  /**
+   * Halve every counter.
+   */
+  private synchronized void reset() {
+    // another thread may have already reset the table
+    if (additions.get() < sampleSize)
+      return;
+
+    for (int i = 0; i < table.length(); i++) {
+      while (true) {
+        long value = table.get(i);
+        if (table.compareAndSet(i, value, (value >>> 1) & RESET_MASK))
+          break;
+      }
+    }
+    additions.addAndGet(-(sampleSize >>> 1));
+  }
+
+  private int indexOf(int hash, int i) {
+    long h = (hash + SEEDS[i]) * SEEDS[i];
+    h += h >>> 32;
+    return ((int) h) & tableMask;
+  }
+
+  /**
+   * Improve the distribution of String.hashCode() so nearby block names do not share counters.
+   */
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+}
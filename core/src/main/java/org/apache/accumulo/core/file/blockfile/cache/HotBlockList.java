@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.file.blockfile.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.accumulo.core.file.blockfile.cache.CachedBlock.BlockPriority;
+
+/**
+ * Collects the names of cached blocks and orders them from most to least worth keeping: in-memory blocks first, then blocks accessed more than once, then
+ * blocks accessed once, most recently used first within each priority.
+ *
+ * <p>
+ * Access times and priorities change while blocks are being added, so they are copied when a block is added rather than read while sorting.
+ */
+class HotBlockList {
+
+  private static class HotBlock {
+    final String name;
+    final BlockPriority priority;
+    final long accessTime;
+
+    HotBlock(String name, BlockPriority priority, long accessTime) {
+      this.name = name;
+      this.priority = priority;
+      this.accessTime = accessTime;
+    }
+  }
+
+  private static final Comparator<HotBlock> HOTTEST_FIRST = new Comparator<HotBlock>() {
+    @Override
+    public int compare(HotBlock b1, HotBlock b2) {
+      int cmp = b2.priority.compareTo(b1.priority);
+      if (cmp != 0)
+        return cmp;
+      if (b1.accessTime == b2.accessTime)
+        return 0;
+      return b1.accessTime < b2.accessTime ? 1 : -1;
+    }
+  };
+
+  private final List<HotBlock> blocks = new ArrayList<HotBlock>();
+
+  void add(String name, BlockPriority priority, long accessTime) {
+    blocks.add(new HotBlock(name, priority, accessTime));
+  }
+
+  List<String> getNames(int max) {
+    Collections.sort(blocks, HOTTEST_FIRST);
+    int count = Math.min(Math.max(max, 0), blocks.size());
+    List<String> names = new ArrayList<String>(count);
+    for (int i = 0; i < count; i++)
+      names.add(blocks.get(i).name);
+    return names;
+  }
+}
@@ -20,6 +20,7 @@
 package org.apache.accumulo.core.file.blockfile.cache;
 
 import java.lang.ref.WeakReference;
+import java.util.List;
 import java.util.PriorityQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
@@ -135,6 +136,9 @@ public class LruBlockCache implements BlockCache, HeapSize {
   /** Overhead of the structure itself */
   private long overhead;
   
+  /** Decides which blocks may displace others once the cache is full, null to admit every block */
+  private volatile CacheAdmissionPolicy admissionPolicy;
+  
   /**
    * Default constructor. Specify maximum size and expected average block size (approximation is fine).
    * 
@@ -225,6 +229,16 @@ public class LruBlockCache implements BlockCache, HeapSize {
     this.scheduleThreadPool.scheduleAtFixedRate(new StatisticsThread(this), statThreadPeriod, statThreadPeriod, TimeUnit.SECONDS);
   }
   
+  /**
+   * Set the policy that decides whether a block is worth caching when adding it would cause an eviction. In-memory blocks are always cached.
+   * 
+   * @param admissionPolicy
+   *          the policy, or null to cache every block
+   */
+  public void setAdmissionPolicy(CacheAdmissionPolicy admissionPolicy) {
+    this.admissionPolicy = admissionPolicy;
+  }
+  
   public void setMaxSize(long maxSize) {
     this.maxSize = maxSize;
     if (this.size.get() > acceptableSize() && !evictionInProgress) {
@@ -246,6 +260,7 @@ public class LruBlockCache implements BlockCache, HeapSize {
    *          block buffer
    * @param inMemory
    *          if block is in-memory
+   * @return the cached block, or null if the admission policy rejected it
    */
   public CacheEntry cacheBlock(String blockName, byte buf[], boolean inMemory) {
     CachedBlock cb = map.get(blockName);
@@ -255,6 +270,11 @@ public class LruBlockCache implements BlockCache, HeapSize {
       
     } else {
       cb = new CachedBlock(blockName, buf, count.incrementAndGet(), inMemory);
+      CacheAdmissionPolicy policy = admissionPolicy;
+      if (policy != null && !inMemory && size.get() + cb.heapSize() > acceptableSize() && !policy.admit(blockName)) {
+        stats.rejected();
+        return null;
+      }
       long newSize = size.addAndGet(cb.heapSize());
       map.put(blockName, cb);
       elements.incrementAndGet();
@@ -290,6 +310,9 @@ public class LruBlockCache implements BlockCache, HeapSize {
    */
   
   public CachedBlock getBlock(String blockName) {
+    CacheAdmissionPolicy policy = admissionPolicy;
+    if (policy != null)
+      policy.recordAccess(blockName);
     CachedBlock cb = map.get(blockName);
     if (cb == null) {
       stats.miss();
@@ -572,7 +595,7 @@ public class LruBlockCache implements BlockCache, HeapSize {
         + maxMB + "MB (" + maxSize + ")" + ", Counts: " + "Blocks=" + size() + ", " + "Access=" + stats.getRequestCount() + ", " + "Hit=" + stats.getHitCount()
         + ", " + "Miss=" + stats.getMissCount() + ", " + "Evictions=" + stats.getEvictionCount() + ", " + "Evicted=" + stats.getEvictedCount() + ", Ratios: "
         + "Hit Ratio=" + stats.getHitRatio() * 100 + "%, " + "Miss Ratio=" + stats.getMissRatio() * 100 + "%, " + "Evicted/Run=" + stats.evictedPerEviction()
-        + ", " + "Duplicate Reads=" + stats.getDuplicateReads());
+        + ", " + "Duplicate Reads=" + stats.getDuplicateReads() + ", " + "Rejected=" + stats.getRejectedCount());
   }
   
   /**
@@ -585,6 +608,14 @@ public class LruBlockCache implements BlockCache, HeapSize {
     return this.stats;
   }
   
+  @Override
+  public List<String> getHotBlockNames(int max) {
+    HotBlockList hot = new HotBlockList();
+    for (CachedBlock cb : map.values())
+      hot.add(cb.getName(), cb.getPriority(), cb.getAccessTime());
+    return hot.getNames(max);
+  }
+  
   public static class CacheStats {
     private final AtomicLong accessCount = new AtomicLong(0);
     private final AtomicLong hitCount = new AtomicLong(0);
@@ -592,6 +623,7 @@ public class LruBlockCache implements BlockCache, HeapSize {
     private final AtomicLong evictionCount = new AtomicLong(0);
     private final AtomicLong evictedCount = new AtomicLong(0);
     private final AtomicLong duplicateReads = new AtomicLong(0);
+    private final AtomicLong rejectedCount = new AtomicLong(0);
     
     public void miss() {
       missCount.incrementAndGet();
@@ -615,6 +647,10 @@ public class LruBlockCache implements BlockCache, HeapSize {
       evictedCount.incrementAndGet();
     }
     
+    public void rejected() {
+      rejectedCount.incrementAndGet();
+    }
+    
     public long getRequestCount() {
       return accessCount.get();
     }
@@ -639,6 +675,10 @@ public class LruBlockCache implements BlockCache, HeapSize {
       return evictedCount.get();
     }
     
+    public long getRejectedCount() {
+      return rejectedCount.get();
+    }
+    
     public double getHitRatio() {
       return ((float) getHitCount() / (float) getRequestCount());
     }
@@ -652,7 +692,7 @@ public class LruBlockCache implements BlockCache, HeapSize {
     }
   }
   
-  public final static long CACHE_FIXED_OVERHEAD = ClassSize.align((3 * SizeConstants.SIZEOF_LONG) + (8 * ClassSize.REFERENCE)
+  public final static long CACHE_FIXED_OVERHEAD = ClassSize.align((3 * SizeConstants.SIZEOF_LONG) + (9 * ClassSize.REFERENCE)
       + (5 * SizeConstants.SIZEOF_FLOAT) + SizeConstants.SIZEOF_BOOLEAN + ClassSize.OBJECT);
   
   // HeapSize implementation
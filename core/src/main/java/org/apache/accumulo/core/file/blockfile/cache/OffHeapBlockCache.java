@@ -0,0 +1,709 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.file.blockfile.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.accumulo.core.file.blockfile.cache.CachedBlock.BlockPriority;
+import org.apache.accumulo.core.file.blockfile.cache.LruBlockCache.CacheStats;
+import org.apache.accumulo.core.util.NamingThreadFactory;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * A block cache that keeps block contents in direct memory, outside of the java heap, so that large caches do not lengthen garbage collection pauses.
+ * <p>
+ *
+ * Memory is carved into fixed size slabs which are allocated lazily, up to the maximum size of the cache. When a slab is first used it is assigned to a size
+ * class and split into equally sized chunks; each cached block occupies the smallest chunk that can hold it. Size classes grow by a factor of 1.5 or 2 starting
+ * at {@link #MIN_CHUNK_SIZE}, so at most a third of a chunk is wasted. A slab whose chunks are all free is returned to the pool and may be reassigned to
+ * another size class. Blocks larger than a slab are not cached.
+ * <p>
+ *
+ * When a size class runs out of chunks, a fraction of its blocks are evicted in least recently used order, evicting single access blocks before multiple
+ * access blocks and those before in-memory blocks, in the same spirit as {@link LruBlockCache}. If instead every block in some other size class's slab is
+ * older than the oldest block in the class needing space, that slab is emptied and handed over.
+ * <p>
+ *
+ * Entries returned by this cache implement {@link OffHeapCacheEntry}. Because chunks are reused, an evicted entry's memory is only freed once every reader
+ * that pinned it has released it.
+ * <p>
+ *
+ * Direct memory is bounded by the JVM's -XX:MaxDirectMemorySize setting, which must be large enough to hold every off-heap cache on the tablet server.
+ */
+public class OffHeapBlockCache implements BlockCache {
+
+  static final Log LOG = LogFactory.getLog(OffHeapBlockCache.class);
+
+  /** Smallest chunk handed out by the slab allocator */
+  static final int MIN_CHUNK_SIZE = 1024;
+
+  /** Default slab size, increased for large block sizes */
+  static final int DEFAULT_SLAB_SIZE = 4 * 1024 * 1024;
+
+  /** Fraction of a size class's blocks to evict when it runs out of chunks */
+  static final float EVICTION_FACTOR = 0.10f;
+
+  /** Statistics thread */
+  static final int statThreadPeriod = 60;
+
+  /** Blocks with lower priority are evicted first, least recently used first within a priority */
+  private static final Comparator<Candidate> EVICTION_ORDER = new Comparator<Candidate>() {
+    @Override
+    public int compare(Candidate e1, Candidate e2) {
+      int cmp = e1.priority.compareTo(e2.priority);
+      if (cmp != 0)
+        return cmp;
+      if (e1.accessTime == e2.accessTime)
+        return 0;
+      return e1.accessTime < e2.accessTime ? -1 : 1;
+    }
+  };
+
+  /** Concurrent map (the cache) */
+  private final ConcurrentHashMap<String,OffHeapEntry> map = new ConcurrentHashMap<String,OffHeapEntry>();
+
+  /** Guards the slab allocator: slabs, size classes and their entries */
+  private final Object allocationLock = new Object();
+
+  private final SizeClass[] sizeClasses;
+
+  /** Slabs that have been allocated but are not assigned to a size class */
+  private final List<Slab> freeSlabs = new ArrayList<Slab>();
+
+  private int allocatedSlabs = 0;
+
+  private final int maxSlabs;
+
+  private final int slabSize;
+
+  private final long maxSize;
+
+  /** Bytes of chunks currently in use */
+  private final AtomicLong size = new AtomicLong(0);
+
+  /** Current number of cached elements */
+  private final AtomicLong elements = new AtomicLong(0);
+
+  /** Cache access count (sequential ID) */
+  private final AtomicLong count = new AtomicLong(0);
+
+  /** Cache statistics */
+  private final CacheStats stats = new CacheStats();
+
+  /** Decides which blocks may displace others once the cache is full, null to admit every block */
+  private volatile CacheAdmissionPolicy admissionPolicy;
+
+  /** Statistics thread schedule pool */
+  private final ScheduledExecutorService scheduleThreadPool = Executors.newScheduledThreadPool(1, new NamingThreadFactory("OffHeapBlockCacheStats"));
+
+  /**
+   * Default constructor. Specify maximum size and expected average block size (approximation is fine).
+   *
+   * @param maxSize
+   *          maximum size of cache, in bytes
+   * @param blockSize
+   *          approximate size of each block, in bytes
+   */
+  public OffHeapBlockCache(long maxSize, long blockSize) {
+    this(maxSize, defaultSlabSize(maxSize, blockSize));
+  }
+
+  /**
+   * @param maxSize
+   *          maximum size of cache, in bytes
+   * @param slabSize
+   *          size of each slab of direct memory, in bytes. This is also the largest block that can be cached.
+   */
+  public OffHeapBlockCache(long maxSize, int slabSize) {
+    if (slabSize < MIN_CHUNK_SIZE) {
+      throw new IllegalArgumentException("slabSize must be at least " + MIN_CHUNK_SIZE);
+    }
+    this.maxSize = maxSize;
+    this.slabSize = slabSize;
+    this.maxSlabs = (int) Math.min(Integer.MAX_VALUE, maxSize / slabSize);
+
+    List<Integer> chunkSizes = computeChunkSizes(slabSize);
+    this.sizeClasses = new SizeClass[chunkSizes.size()];
+    for (int i = 0; i < sizeClasses.length; i++) {
+      sizeClasses[i] = new SizeClass(chunkSizes.get(i));
+    }
+
+    this.scheduleThreadPool.scheduleAtFixedRate(new Runnable() {
+      @Override
+      public void run() {
+        logStats();
+      }
+    }, statThreadPeriod, statThreadPeriod, TimeUnit.SECONDS);
+  }
+
+  static int defaultSlabSize(long maxSize, long blockSize) {
+    long slab = Math.max(DEFAULT_SLAB_SIZE, 4 * blockSize);
+    slab = Math.min(slab, Math.min(maxSize, Integer.MAX_VALUE));
+    return (int) Math.max(slab, MIN_CHUNK_SIZE);
+  }
+
+  static List<Integer> computeChunkSizes(int slabSize) {
+    List<Integer> sizes = new ArrayList<Integer>();
+    for (long chunk = MIN_CHUNK_SIZE; chunk < slabSize; chunk *= 2) {
+      sizes.add((int) chunk);
+      long between = chunk + chunk / 2;
+      if (between < slabSize)
+        sizes.add((int) between);
+    }
+    sizes.add(slabSize);
+    return sizes;
+  }
+
+  private SizeClass getSizeClass(int length) {
+    int low = 0;
+    int high = sizeClasses.length - 1;
+    if (length > sizeClasses[high].chunkSize)
+      return null;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (sizeClasses[mid].chunkSize < length)
+        low = mid + 1;
+      else
+        high = mid;
+    }
+    return sizeClasses[low];
+  }
+
+  /**
+   * Set the policy that decides whether a block is worth caching when adding it would cause an eviction. In-memory blocks are always cached.
+   *
+   * @param admissionPolicy
+   *          the policy, or null to cache every block
+   */
+  public void setAdmissionPolicy(CacheAdmissionPolicy admissionPolicy) {
+    this.admissionPolicy = admissionPolicy;
+  }
+
+  // BlockCache implementation
+
+  /**
+   * Cache the block with the specified name and buffer. The block is copied into direct memory.
+   *
+   * @return the cached entry, or null if the block could not be cached
+   */
+  @Override
+  public CacheEntry cacheBlock(String blockName, byte buf[], boolean inMemory) {
+    OffHeapEntry cb = map.get(blockName);
+    if (cb != null) {
+      stats.duplicateReads();
+      cb.access(count.incrementAndGet());
+      return cb;
+    }
+
+    // the new entry is pinned, so it can not be freed while it is being written
+    cb = allocate(blockName, buf.length, inMemory);
+    if (cb == null)
+      return null;
+
+    try {
+      cb.write(buf);
+      OffHeapEntry existing = map.putIfAbsent(blockName, cb);
+      if (existing != null) {
+        stats.duplicateReads();
+        synchronized (allocationLock) {
+          remove(cb);
+        }
+        existing.access(count.incrementAndGet());
+        return existing;
+      }
+      // eviction may have selected the entry before it was in the map
+      if (cb.isEvicted())
+        map.remove(blockName, cb);
+      return cb;
+    } finally {
+      cb.release();
+    }
+  }
+
+  @Override
+  public CacheEntry cacheBlock(String blockName, byte buf[]) {
+    return cacheBlock(blockName, buf, false);
+  }
+
+  @Override
+  public CacheEntry getBlock(String blockName) {
+    CacheAdmissionPolicy policy = admissionPolicy;
+    if (policy != null)
+      policy.recordAccess(blockName);
+    OffHeapEntry cb = map.get(blockName);
+    if (cb == null) {
+      stats.miss();
+      return null;
+    }
+    stats.hit();
+    cb.access(count.incrementAndGet());
+    return cb;
+  }
+
+  private OffHeapEntry allocate(String blockName, int length, boolean inMemory) {
+    SizeClass sc = getSizeClass(length);
+    if (sc == null)
+      return null;
+
+    synchronized (allocationLock) {
+      OffHeapEntry cb = allocate(sc, blockName, length, inMemory);
+      if (cb != null)
+        return cb;
+      CacheAdmissionPolicy policy = admissionPolicy;
+      if (policy != null && !inMemory && !policy.admit(blockName)) {
+        stats.rejected();
+        return null;
+      }
+    }
+
+    // scan the cache without holding the allocation lock, so other blocks can be cached and released meanwhile
+    List<Candidate> candidates = new ArrayList<Candidate>();
+    int toEvict = planEviction(sc, candidates);
+
+    synchronized (allocationLock) {
+      // another thread may have freed a chunk while the eviction was planned
+      OffHeapEntry cb = allocate(sc, blockName, length, inMemory);
+      if (cb != null)
+        return cb;
+      evict(sc, candidates, toEvict);
+      return allocate(sc, blockName, length, inMemory);
+    }
+  }
+
+  /**
+   * Take a chunk from a slab of the size class without evicting anything. Must be called while holding the allocation lock.
+   *
+   * @return the new pinned entry, or null if there are no free chunks
+   */
+  private OffHeapEntry allocate(SizeClass sc, String blockName, int length, boolean inMemory) {
+    Slab slab = sc.findFree();
+    if (slab == null)
+      slab = assignSlab(sc);
+    if (slab == null)
+      return null;
+
+    OffHeapEntry cb = new OffHeapEntry(blockName, slab, slab.take(), length, count.incrementAndGet(), inMemory);
+    sc.entries.add(cb);
+    size.addAndGet(sc.chunkSize);
+    elements.incrementAndGet();
+    return cb;
+  }
+
+  private Slab assignSlab(SizeClass sc) {
+    Slab slab;
+    if (!freeSlabs.isEmpty()) {
+      slab = freeSlabs.remove(freeSlabs.size() - 1);
+    } else if (allocatedSlabs < maxSlabs) {
+      slab = new Slab(ByteBuffer.allocateDirect(slabSize));
+      allocatedSlabs++;
+    } else {
+      return null;
+    }
+    slab.assign(sc);
+    sc.slabs.add(slab);
+    return slab;
+  }
+
+  /**
+   * Choose the blocks to evict to free chunks for the given size class. Called without holding the allocation lock, so it works from a snapshot of each
+   * block's access time and priority taken as the cache is scanned.
+   *
+   * @param candidates
+   *          filled with the blocks to evict, in the order they should be evicted
+   * @return the number of candidates to evict
+   */
+  private int planEviction(SizeClass sc, List<Candidate> candidates) {
+    // find the slab whose most recently used block is the oldest
+    Map<Slab,Candidate> newestInSlab = new HashMap<Slab,Candidate>();
+    long oldestInClass = Long.MAX_VALUE;
+    List<Candidate> all = new ArrayList<Candidate>();
+    for (OffHeapEntry cb : map.values()) {
+      Candidate candidate = new Candidate(cb);
+      all.add(candidate);
+      Candidate newest = newestInSlab.get(cb.slab);
+      if (newest == null || candidate.accessTime > newest.accessTime)
+        newestInSlab.put(cb.slab, candidate);
+      if (candidate.sizeClass == sc)
+        oldestInClass = Math.min(oldestInClass, candidate.accessTime);
+    }
+
+    Candidate victim = null;
+    for (Candidate newest : newestInSlab.values()) {
+      if (victim == null || newest.accessTime < victim.accessTime)
+        victim = newest;
+    }
+
+    if (victim != null && victim.sizeClass != sc && victim.accessTime < oldestInClass) {
+      // every block in the victim slab is older than any block in this size class, so take the whole slab
+      for (Candidate candidate : all) {
+        if (candidate.entry.slab == victim.entry.slab)
+          candidates.add(candidate);
+      }
+      return candidates.size();
+    }
+
+    for (Candidate candidate : all) {
+      if (candidate.sizeClass == sc)
+        candidates.add(candidate);
+    }
+    Collections.sort(candidates, EVICTION_ORDER);
+    return Math.max(1, (int) Math.ceil(candidates.size() * EVICTION_FACTOR));
+  }
+
+  /**
+   * Evict the blocks chosen by {@link #planEviction(SizeClass, List)}. Must be called while holding the allocation lock.
+   */
+  private void evict(SizeClass sc, List<Candidate> candidates, int toEvict) {
+    stats.evict();
+
+    int evicted = 0;
+    int freed = 0;
+    for (Candidate candidate : candidates) {
+      if (evicted >= toEvict && freed > 0)
+        break;
+      // skip blocks removed since the eviction was planned
+      if (candidate.entry.isEvicted())
+        continue;
+      if (remove(candidate.entry))
+        freed++;
+      evicted++;
+      stats.evicted();
+    }
+
+    if (LOG.isDebugEnabled())
+      LOG.debug("Off-heap block cache eviction for " + sc.chunkSize + " byte chunks evicted " + evicted + " blocks, freed " + freed + " chunks");
+  }
+
+  /**
+   * Remove an entry from the cache. Must be called while holding the allocation lock.
+   *
+   * @return true if the entry's chunk was freed, false if it is pinned and will be freed on release
+   */
+  private boolean remove(OffHeapEntry cb) {
+    cb.slab.owner.entries.remove(cb);
+    elements.decrementAndGet();
+    // mark before removing from the map, see cacheBlock
+    boolean free = cb.markEvicted();
+    map.remove(cb.name, cb);
+    if (free)
+      freeChunk(cb);
+    return free;
+  }
+
+  /**
+   * Must be called while holding the allocation lock.
+   */
+  private void freeChunk(OffHeapEntry cb) {
+    Slab slab = cb.slab;
+    SizeClass owner = slab.owner;
+    size.addAndGet(-owner.chunkSize);
+    slab.give(cb.offset);
+    if (slab.isEmpty()) {
+      owner.slabs.remove(slab);
+      slab.owner = null;
+      freeSlabs.add(slab);
+    }
+  }
+
+  private static class Slab {
+    final ByteBuffer buffer;
+    SizeClass owner;
+    int[] freeOffsets;
+    int freeCount;
+
+    Slab(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    void assign(SizeClass owner) {
+      this.owner = owner;
+      int chunks = buffer.capacity() / owner.chunkSize;
+      freeOffsets = new int[chunks];
+      for (int i = 0; i < chunks; i++) {
+        freeOffsets[i] = (chunks - 1 - i) * owner.chunkSize;
+      }
+      freeCount = chunks;
+    }
+
+    boolean hasFree() {
+      return freeCount > 0;
+    }
+
+    int take() {
+      return freeOffsets[--freeCount];
+    }
+
+    void give(int offset) {
+      freeOffsets[freeCount++] = offset;
+    }
+
+    boolean isEmpty() {
+      return freeCount == freeOffsets.length;
+    }
+  }
+
+  private static class SizeClass {
+    final int chunkSize;
+    final List<Slab> slabs = new ArrayList<Slab>();
+    final Set<OffHeapEntry> entries = new HashSet<OffHeapEntry>();
+
+    SizeClass(int chunkSize) {
+      this.chunkSize = chunkSize;
+    }
+
+    Slab findFree() {
+      for (Slab slab : slabs) {
+        if (slab.hasFree())
+          return slab;
+      }
+      return null;
+    }
+  }
+
+  /**
+   * A block considered for eviction. The access time and priority are copied when the candidate is created, so that they do not change while candidates are
+   * sorted.
+   */
+  private class Candidate {
+    final OffHeapEntry entry;
+    final SizeClass sizeClass;
+    final long accessTime;
+    final BlockPriority priority;
+
+    Candidate(OffHeapEntry entry) {
+      this.entry = entry;
+      this.sizeClass = getSizeClass(entry.length);
+      this.accessTime = entry.accessTime;
+      this.priority = entry.priority;
+    }
+  }
+
+  private class OffHeapEntry implements OffHeapCacheEntry {
+    private final String name;
+    private final Slab slab;
+    private final int offset;
+    private final int length;
+    private volatile long accessTime;
+    private volatile BlockPriority priority;
+    private volatile Object index;
+
+    private int refCount = 1;
+    private boolean evicted = false;
+    private boolean freed = false;
+
+    OffHeapEntry(String name, Slab slab, int offset, int length, long accessTime, boolean inMemory) {
+      this.name = name;
+      this.slab = slab;
+      this.offset = offset;
+      this.length = length;
+      this.accessTime = accessTime;
+      this.priority = inMemory ? BlockPriority.MEMORY : BlockPriority.SINGLE;
+    }
+
+    void access(long accessTime) {
+      this.accessTime = accessTime;
+      if (this.priority == BlockPriority.SINGLE) {
+        this.priority = BlockPriority.MULTI;
+      }
+    }
+
+    void write(byte[] buf) {
+      ByteBuffer bb = slab.buffer.duplicate();
+      bb.position(offset);
+      bb.put(buf, 0, length);
+    }
+
+    synchronized boolean isEvicted() {
+      return evicted;
+    }
+
+    synchronized boolean isPinned() {
+      return refCount > 0;
+    }
+
+    /**
+     * @return true if the caller must free the chunk
+     */
+    synchronized boolean markEvicted() {
+      evicted = true;
+      if (refCount == 0 && !freed) {
+        freed = true;
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public synchronized boolean pin() {
+      if (freed)
+        return false;
+      refCount++;
+      return true;
+    }
+
+    @Override
+    public void release() {
+      boolean free;
+      synchronized (this) {
+        if (refCount <= 0)
+          throw new IllegalStateException("Block " + name + " released more times than it was pinned");
+        refCount--;
+        free = evicted && refCount == 0 && !freed;
+        if (free)
+          freed = true;
+      }
+      // never acquire the allocation lock while holding the entry lock
+      if (free) {
+        synchronized (allocationLock) {
+          freeChunk(this);
+        }
+      }
+    }
+
+    @Override
+    public ByteBuffer getByteBuffer() {
+      ByteBuffer bb = slab.buffer.duplicate();
+      bb.limit(offset + length);
+      bb.position(offset);
+      return bb.slice().asReadOnlyBuffer();
+    }
+
+    @Override
+    public byte[] getBuffer() {
+      if (!pin())
+        throw new IllegalStateException("Block " + name + " was evicted");
+      try {
+        byte[] copy = new byte[length];
+        getByteBuffer().get(copy);
+        return copy;
+      } finally {
+        release();
+      }
+    }
+
+    @Override
+    public Object getIndex() {
+      return index;
+    }
+
+    @Override
+    public void setIndex(Object idx) {
+      this.index = idx;
+    }
+  }
+
+  /**
+   * Get the maximum size of this cache.
+   *
+   * @return max size in bytes
+   */
+  @Override
+  public long getMaxSize() {
+    return this.maxSize;
+  }
+
+  /**
+   * Get the number of bytes of direct memory held by cached blocks, including chunk padding.
+   *
+   * @return current size in bytes
+   */
+  public long getCurrentSize() {
+    return this.size.get();
+  }
+
+  /**
+   * Get the size of this cache (number of cached blocks)
+   *
+   * @return number of cached blocks
+   */
+  public long size() {
+    return this.elements.get();
+  }
+
+  /**
+   * Get the number of eviction runs that have occurred
+   */
+  public long getEvictionCount() {
+    return this.stats.getEvictionCount();
+  }
+
+  /**
+   * Get the number of blocks that have been evicted during the lifetime of this cache.
+   */
+  public long getEvictedCount() {
+    return this.stats.getEvictedCount();
+  }
+
+  /**
+   * Get the number of cached blocks that are pinned by open readers and can not be freed.
+   */
+  public long getPinnedCount() {
+    long pinned = 0;
+    for (OffHeapEntry cb : map.values()) {
+      if (cb.isPinned())
+        pinned++;
+    }
+    return pinned;
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return this.stats;
+  }
+
+  @Override
+  public List<String> getHotBlockNames(int max) {
+    HotBlockList hot = new HotBlockList();
+    for (OffHeapEntry cb : map.values())
+      hot.add(cb.name, cb.priority, cb.accessTime);
+    return hot.getNames(max);
+  }
+
+  public void logStats() {
+    long totalSize = getCurrentSize();
+    float sizeMB = ((float) totalSize) / ((float) (1024 * 1024));
+    float maxMB = ((float) maxSize) / ((float) (1024 * 1024));
+    int slabs;
+    synchronized (allocationLock) {
+      slabs = allocatedSlabs;
+    }
+    LOG.debug("Cache Stats: Sizes: " + "Total=" + sizeMB + "MB (" + totalSize + "), " + "Max=" + maxMB + "MB (" + maxSize + "), " + "Slabs=" + slabs + ", "
+        + "Counts: " + "Blocks=" + size() + ", " + "Access=" + stats.getRequestCount() + ", " + "Hit=" + stats.getHitCount() + ", " + "Miss="
+        + stats.getMissCount() + ", " + "Evictions=" + stats.getEvictionCount() + ", " + "Evicted=" + stats.getEvictedCount() + ", Ratios: " + "Hit Ratio="
+        + stats.getHitRatio() * 100 + "%, " + "Miss Ratio=" + stats.getMissRatio() * 100 + "%, " + "Evicted/Run=" + stats.evictedPerEviction() + ", "
+        + "Duplicate Reads=" + stats.getDuplicateReads() + ", " + "Rejected=" + stats.getRejectedCount());
+  }
+
+  @Override
+  public void shutdown() {
+    this.scheduleThreadPool.shutdown();
+  }
+}
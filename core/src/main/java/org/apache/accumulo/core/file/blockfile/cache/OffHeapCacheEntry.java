@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.file.blockfile.cache;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A cache entry whose contents live outside of the java heap.
+ *
+ * <p>
+ * The memory backing an entry is reused once the entry is evicted, so readers must {@link #pin()} the entry before calling {@link #getByteBuffer()} and
+ * {@link #release()} it once they are done reading. Calling {@link #getBuffer()} copies the block onto the heap.
+ */
+public interface OffHeapCacheEntry extends CacheEntry {
+
+  /**
+   * Prevent the memory backing this entry from being reused until {@link #release()} is called.
+   *
+   * @return false if the entry was already evicted and its memory freed, in which case it must not be read
+   */
+  boolean pin();
+
+  /**
+   * Undo a successful call to {@link #pin()}.
+   */
+  void release();
+
+  /**
+   * @return a read only view of the block, positioned at zero. Only valid while the entry is pinned.
+   */
+  ByteBuffer getByteBuffer();
+}
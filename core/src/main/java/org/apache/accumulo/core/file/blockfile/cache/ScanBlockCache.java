@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.file.blockfile.cache;
+
+import java.util.List;
+
+import org.apache.accumulo.core.file.blockfile.cache.LruBlockCache.CacheStats;
+
+/**
+ * A view of a shared {@link BlockCache} that can stop new blocks from being added, used to honor a scan's request not to populate the cache.
+ *
+ * <p>
+ * Blocks already in the shared cache are still returned by {@link #getBlock(String)}. Each open file reader gets its own view, and the populate setting is
+ * changed when the reader is reserved for a scan. Shutting down the view does not shut down the shared cache.
+ */
+public class ScanBlockCache implements BlockCache {
+
+  private final BlockCache cache;
+  private volatile boolean populate = true;
+
+  public ScanBlockCache(BlockCache cache) {
+    if (cache == null)
+      throw new IllegalArgumentException("cache is null");
+    this.cache = cache;
+  }
+
+  public void setPopulate(boolean populate) {
+    this.populate = populate;
+  }
+
+  public boolean getPopulate() {
+    return populate;
+  }
+
+  @Override
+  public CacheEntry cacheBlock(String blockName, byte[] buf, boolean inMemory) {
+    if (!populate)
+      return null;
+    return cache.cacheBlock(blockName, buf, inMemory);
+  }
+
+  @Override
+  public CacheEntry cacheBlock(String blockName, byte[] buf) {
+    if (!populate)
+      return null;
+    return cache.cacheBlock(blockName, buf);
+  }
+
+  @Override
+  public CacheEntry getBlock(String blockName) {
+    return cache.getBlock(blockName);
+  }
+
+  @Override
+  public void shutdown() {}
+
+  @Override
+  public long getMaxSize() {
+    return cache.getMaxSize();
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return cache.getStats();
+  }
+
+  @Override
+  public List<String> getHotBlockNames(int max) {
+    return cache.getHotBlockNames(max);
+  }
+}
@@ -20,9 +20,13 @@ package org.apache.accumulo.core.file.blockfile.cache;
 
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import org.apache.accumulo.core.file.blockfile.cache.LruBlockCache.CacheStats;
+
 /**
  * Simple one RFile soft reference cache.
  */
@@ -67,6 +71,7 @@ public class SimpleBlockCache implements BlockCache {
   
   private ReferenceQueue<SimpleCacheEntry> q = new ReferenceQueue<SimpleCacheEntry>();
   public int dumps = 0;
+  private final CacheStats stats = new CacheStats();
   
   /**
    * Constructor
@@ -94,9 +99,12 @@ public class SimpleBlockCache implements BlockCache {
   public synchronized SimpleCacheEntry getBlock(String blockName) {
     processQueue(); // clear out some crap.
     Ref ref = cache.get(blockName);
-    if (ref == null)
-      return null;
-    return ref.get();
+    SimpleCacheEntry sce = ref == null ? null : ref.get();
+    if (sce == null)
+      stats.miss();
+    else
+      stats.hit();
+    return sce;
   }
   
   public synchronized SimpleCacheEntry cacheBlock(String blockName, byte buf[]) {
@@ -119,4 +127,21 @@ public class SimpleBlockCache implements BlockCache {
   public long getMaxSize() {
     return Long.MAX_VALUE;
   }
+  
+  @Override
+  public CacheStats getStats() {
+    return stats;
+  }
+  
+  @Override
+  public synchronized List<String> getHotBlockNames(int max) {
+    processQueue();
+    List<String> names = new ArrayList<String>();
+    for (String name : cache.keySet()) {
+      if (names.size() >= max)
+        break;
+      names.add(name);
+    }
+    return names;
+  }
 }
@@ -19,9 +19,16 @@ package org.apache.accumulo.core.file.blockfile.impl;
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.apache.accumulo.core.file.blockfile.ABlockReader;
 import org.apache.accumulo.core.file.blockfile.ABlockWriter;
@@ -29,6 +36,7 @@ import org.apache.accumulo.core.file.blockfile.BlockFileReader;
 import org.apache.accumulo.core.file.blockfile.BlockFileWriter;
 import org.apache.accumulo.core.file.blockfile.cache.BlockCache;
 import org.apache.accumulo.core.file.blockfile.cache.CacheEntry;
+import org.apache.accumulo.core.file.blockfile.cache.OffHeapCacheEntry;
 import org.apache.accumulo.core.file.rfile.bcfile.BCFile;
 import org.apache.accumulo.core.file.rfile.bcfile.BCFile.Reader.BlockReader;
 import org.apache.accumulo.core.file.rfile.bcfile.BCFile.Writer.BlockAppender;
@@ -141,6 +149,8 @@ public class CachableBlockFile {
    * 
    */
   public static class Reader implements BlockFileReader {
+    private static final int MAX_MAPPED_BLOCKS = 32;
+    
     private BCFile.Reader _bc;
     private String fileName = "not_available";
     private BlockCache _dCache = null;
@@ -149,6 +159,10 @@ public class CachableBlockFile {
     private FileSystem fs;
     private Configuration conf;
     private boolean closed = false;
+    private final boolean mapLocalFile;
+    private MappedByteBuffer mappedFile = null;
+    // recently read mapped blocks, kept so the index built to seek within a block is reused
+    private Map<Long,MappedBlock> mappedBlocks = null;
     
     private interface BlockLoader {
       BlockReader get() throws IOException;
@@ -219,6 +233,15 @@ public class CachableBlockFile {
     }
     
     public Reader(FileSystem fs, Path dataFile, Configuration conf, BlockCache data, BlockCache index) throws IOException {
+      this(fs, dataFile, conf, data, index, false);
+    }
+    
+    /**
+     * @param mapLocalFile
+     *          if the file is on the local filesystem and its data blocks are neither compressed nor encrypted, memory map the file and read data blocks in
+     *          place instead of through the data cache
+     */
+    public Reader(FileSystem fs, Path dataFile, Configuration conf, BlockCache data, BlockCache index, boolean mapLocalFile) throws IOException {
       
       /*
        * Grab path create input stream grab len create file
@@ -229,16 +252,19 @@ public class CachableBlockFile {
       this._iCache = index;
       this.fs = fs;
       this.conf = conf;
+      this.mapLocalFile = mapLocalFile;
     }
     
     public Reader(FSDataInputStream fsin, long len, Configuration conf, BlockCache data, BlockCache index) throws IOException {
       this._dCache = data;
       this._iCache = index;
+      this.mapLocalFile = false;
       init(fsin, len, conf);
     }
 
     public Reader(FSDataInputStream fsin, long len, Configuration conf) throws IOException {
       // this.fin = fsin;
+      this.mapLocalFile = false;
       init(fsin, len, conf);
     }
     
@@ -254,12 +280,61 @@ public class CachableBlockFile {
         // lazily open file if needed
         Path path = new Path(fileName);
         fin = fs.open(path);
-        init(fin, fs.getFileStatus(path).getLen(), conf);
+        long len = fs.getFileStatus(path).getLen();
+        init(fin, len, conf);
+        if (mapLocalFile)
+          mapFile(path, len);
       }
       
       return _bc;
     }
     
+    /**
+     * Memory maps the file if it is on the local filesystem and its data blocks can be read as they are stored. Reading blocks from the mapping skips the
+     * copies made by the filesystem input stream and by the data cache, and leaves caching to the operating system's page cache. Checksums kept by the local
+     * filesystem are not verified for mapped reads.
+     */
+    private void mapFile(Path path, long len) throws IOException {
+      if (!"file".equals(fs.getUri().getScheme()) || len > Integer.MAX_VALUE || !_bc.isDataStoredPlain())
+        return;
+      
+      RandomAccessFile raf = new RandomAccessFile(new File(path.toUri().getPath()), "r");
+      try {
+        // the mapping stays valid after the channel is closed
+        mappedFile = raf.getChannel().map(MapMode.READ_ONLY, 0, len);
+        mappedBlocks = new LinkedHashMap<Long,MappedBlock>(16, 0.75f, true) {
+          private static final long serialVersionUID = 1L;
+          
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Long,MappedBlock> eldest) {
+            return size() > MAX_MAPPED_BLOCKS;
+          }
+        };
+      } finally {
+        raf.close();
+      }
+    }
+    
+    /**
+     * @return the block read in place from the memory mapped file, or null if the file is not mapped
+     */
+    private synchronized MappedBlock getMappedBlock(long offset, long compressedSize, long rawSize) throws IOException {
+      getBCFile();
+      
+      if (mappedFile == null || compressedSize != rawSize || offset + rawSize > mappedFile.limit())
+        return null;
+      
+      MappedBlock block = mappedBlocks.get(offset);
+      if (block == null) {
+        ByteBuffer bb = mappedFile.duplicate();
+        bb.position((int) offset);
+        bb.limit((int) (offset + rawSize));
+        block = new MappedBlock(bb.slice());
+        mappedBlocks.put(offset, block);
+      }
+      return block;
+    }
+    
     public BlockRead getCachedMetaBlock(String blockName) throws IOException {
       String _lookup = fileName + "M" + blockName;
       
@@ -267,7 +342,7 @@ public class CachableBlockFile {
         CacheEntry cacheEntry = _iCache.getBlock(_lookup);
         
         if (cacheEntry != null) {
-          return new CachedBlockRead(cacheEntry, cacheEntry.getBuffer());
+          return newCachedBlockRead(cacheEntry);
         }
         
       }
@@ -302,7 +377,9 @@ public class CachableBlockFile {
         cb = cache.getBlock(_lookup);
         
         if (cb != null) {
-          return new CachedBlockRead(cb, cb.getBuffer());
+          BlockRead cachedBlock = newCachedBlockRead(cb);
+          if (cachedBlock != null)
+            return cachedBlock;
         }
         
       }
@@ -347,14 +424,33 @@ public class CachableBlockFile {
           log.warn("Already cached block: " + _lookup, e);
         }
         
-        if (ce == null)
+        BlockRead cachedBlock = null;
+        if (ce != null)
+          cachedBlock = newCachedBlockRead(ce);
+        
+        if (cachedBlock == null)
           return new BlockRead(new DataInputStream(new ByteArrayInputStream(b)), b.length);
         else
-          return new CachedBlockRead(ce, ce.getBuffer());
+          return cachedBlock;
         
       }
     }
     
+    /**
+     * Blocks in an off-heap cache are read in place, and the block is pinned in the cache until the returned reader is closed.
+     * 
+     * @return a reader over the cached block, or null if the block was evicted from an off-heap cache before it could be pinned
+     */
+    private BlockRead newCachedBlockRead(CacheEntry ce) {
+      if (ce instanceof OffHeapCacheEntry) {
+        OffHeapCacheEntry oce = (OffHeapCacheEntry) ce;
+        if (!oce.pin())
+          return null;
+        return new OffHeapCachedBlockRead(oce);
+      }
+      return new CachedBlockRead(ce, ce.getBuffer());
+    }
+    
     /**
      * It is intended that once the BlockRead object is returned to the caller, that the caller will read the entire block and then call close on the BlockRead
      * class.
@@ -389,6 +485,12 @@ public class CachableBlockFile {
     
     @Override
     public ABlockReader getDataBlock(long offset, long compressedSize, long rawSize) throws IOException {
+      if (mapLocalFile) {
+        MappedBlock block = getMappedBlock(offset, compressedSize, rawSize);
+        if (block != null)
+          return new MappedBlockRead(block);
+      }
+      
       String _lookup = this.fileName + "R" + offset;
       return getBlock(_lookup, _dCache, new RawBlockLoader(offset, compressedSize, rawSize));
     }
@@ -399,6 +501,9 @@ public class CachableBlockFile {
       
       closed = true;
       
+      mappedFile = null;
+      mappedBlocks = null;
+      
       if (_bc != null)
         _bc.close();
       
@@ -464,24 +569,203 @@ public class CachableBlockFile {
     
     @Override
     public <T> T getIndex(Class<T> clazz) {
-      T bi = null;
-      synchronized (cb) {
-        @SuppressWarnings("unchecked")
-        SoftReference<T> softRef = (SoftReference<T>) cb.getIndex();
-        if (softRef != null)
-          bi = softRef.get();
-        
-        if (bi == null) {
-          try {
-            bi = clazz.newInstance();
-          } catch (Exception e) {
-            throw new RuntimeException(e);
-          }
-          cb.setIndex(new SoftReference<T>(bi));
+      return CachableBlockFile.getIndex(cb, clazz);
+    }
+  }
+  
+  static <T> T getIndex(CacheEntry cb, Class<T> clazz) {
+    T bi = null;
+    synchronized (cb) {
+      @SuppressWarnings("unchecked")
+      SoftReference<T> softRef = (SoftReference<T>) cb.getIndex();
+      if (softRef != null)
+        bi = softRef.get();
+      
+      if (bi == null) {
+        try {
+          bi = clazz.newInstance();
+        } catch (Exception e) {
+          throw new RuntimeException(e);
         }
+        cb.setIndex(new SoftReference<T>(bi));
       }
-      
-      return bi;
+    }
+    
+    return bi;
+  }
+  
+  static class SeekableByteBufferInputStream extends InputStream {
+    
+    private final ByteBuffer buf;
+    
+    public SeekableByteBufferInputStream(ByteBuffer buf) {
+      this.buf = buf;
+    }
+    
+    @Override
+    public int read() {
+      return buf.hasRemaining() ? buf.get() & 0xff : -1;
+    }
+    
+    @Override
+    public int read(byte b[], int off, int len) {
+      if (len == 0)
+        return 0;
+      if (!buf.hasRemaining())
+        return -1;
+      len = Math.min(len, buf.remaining());
+      buf.get(b, off, len);
+      return len;
+    }
+    
+    @Override
+    public long skip(long n) {
+      if (n <= 0)
+        return 0;
+      int skipped = (int) Math.min(n, buf.remaining());
+      buf.position(buf.position() + skipped);
+      return skipped;
+    }
+    
+    @Override
+    public int available() {
+      return buf.remaining();
+    }
+    
+    public void seek(int position) {
+      if (position < 0 || position >= buf.limit())
+        throw new IllegalArgumentException("pos = " + position + " buf.limit = " + buf.limit());
+      buf.position(position);
+    }
+    
+    public int getPosition() {
+      return buf.position();
+    }
+  }
+  
+  /**
+   * A data block of a memory mapped file. Holds the index built for the block, the way a cache entry does for cached blocks.
+   */
+  static class MappedBlock implements CacheEntry {
+    private final ByteBuffer buffer;
+    private Object index;
+    
+    MappedBlock(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+    
+    ByteBuffer getByteBuffer() {
+      return buffer.duplicate();
+    }
+    
+    @Override
+    public byte[] getBuffer() {
+      ByteBuffer bb = getByteBuffer();
+      byte[] copy = new byte[bb.remaining()];
+      bb.get(copy);
+      return copy;
+    }
+    
+    @Override
+    public Object getIndex() {
+      return index;
+    }
+    
+    @Override
+    public void setIndex(Object idx) {
+      this.index = idx;
+    }
+  }
+  
+  /**
+   * Reads a block in place from a memory mapped file. Keys and values are copied straight from the mapped pages into the arrays that hold them.
+   */
+  public static class MappedBlockRead extends BlockRead {
+    private SeekableByteBufferInputStream seekableInput;
+    private final MappedBlock block;
+    
+    MappedBlockRead(MappedBlock block) {
+      this(new SeekableByteBufferInputStream(block.getByteBuffer()), block);
+    }
+    
+    private MappedBlockRead(SeekableByteBufferInputStream seekableInput, MappedBlock block) {
+      super(seekableInput, seekableInput.available());
+      this.seekableInput = seekableInput;
+      this.block = block;
+    }
+    
+    @Override
+    public void seek(int position) {
+      seekableInput.seek(position);
+    }
+    
+    @Override
+    public int getPosition() {
+      return seekableInput.getPosition();
+    }
+    
+    @Override
+    public boolean isIndexable() {
+      return true;
+    }
+    
+    @Override
+    public <T> T getIndex(Class<T> clazz) {
+      return CachableBlockFile.getIndex(block, clazz);
+    }
+  }
+  
+  /**
+   * Reads a block directly from an off-heap cache, without copying it onto the heap. The block stays pinned in the cache until this reader is closed.
+   */
+  public static class OffHeapCachedBlockRead extends BlockRead {
+    private SeekableByteBufferInputStream seekableInput;
+    private final OffHeapCacheEntry cb;
+    private boolean released = false;
+    
+    /**
+     * @param cb
+     *          an entry that the caller has already pinned
+     */
+    public OffHeapCachedBlockRead(OffHeapCacheEntry cb) {
+      this(new SeekableByteBufferInputStream(cb.getByteBuffer()), cb);
+    }
+    
+    private OffHeapCachedBlockRead(SeekableByteBufferInputStream seekableInput, OffHeapCacheEntry cb) {
+      super(seekableInput, seekableInput.available());
+      this.seekableInput = seekableInput;
+      this.cb = cb;
+    }
+    
+    @Override
+    public void seek(int position) {
+      seekableInput.seek(position);
+    }
+    
+    @Override
+    public int getPosition() {
+      return seekableInput.getPosition();
+    }
+    
+    @Override
+    public boolean isIndexable() {
+      return true;
+    }
+    
+    @Override
+    public <T> T getIndex(Class<T> clazz) {
+      return CachableBlockFile.getIndex(cb, clazz);
+    }
+    
+    @Override
+    public void close() throws IOException {
+      super.close();
+      synchronized (this) {
+        if (released)
+          return;
+        released = true;
+      }
+      cb.release();
     }
   }
 
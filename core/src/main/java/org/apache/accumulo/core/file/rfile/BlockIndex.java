@@ -32,6 +32,10 @@ import org.apache.accumulo.core.file.rfile.MultiLevelIndex.IndexEntry;
 public class BlockIndex {
   
   public static BlockIndex getIndex(ABlockReader cacheBlock, IndexEntry indexEntry) throws IOException {
+    return getIndex(cacheBlock, indexEntry, null);
+  }
+  
+  public static BlockIndex getIndex(ABlockReader cacheBlock, IndexEntry indexEntry, ColumnDictionary dictionary) throws IOException {
     
     BlockIndex blockIndex = cacheBlock.getIndex(BlockIndex.class);
     
@@ -39,7 +43,7 @@ public class BlockIndex {
     
     // 1 is a power of two, but do not care about it
     if (accessCount >= 2 && isPowerOfTwo(accessCount)) {
-      blockIndex.buildIndex(accessCount, cacheBlock, indexEntry);
+      blockIndex.buildIndex(accessCount, cacheBlock, indexEntry, dictionary);
     }
     
     if (blockIndex.blockIndex != null)
@@ -150,10 +154,11 @@ public class BlockIndex {
     return bie;
   }
   
-  private synchronized void buildIndex(int indexEntries, ABlockReader cacheBlock, IndexEntry indexEntry) throws IOException {
+  private synchronized void buildIndex(int indexEntries, ABlockReader cacheBlock, IndexEntry indexEntry, ColumnDictionary dictionary) throws IOException {
     cacheBlock.seek(0);
     
     RelativeKey rk = new RelativeKey();
+    rk.setDictionary(dictionary);
     Value val = new Value();
     
     int interval = indexEntry.getNumEntries() / indexEntries;
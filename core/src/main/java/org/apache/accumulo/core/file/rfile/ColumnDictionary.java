@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.file.rfile;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import org.apache.accumulo.core.data.ArrayByteSequence;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.io.WritableUtils;
+
+/**
+ * Maps column families, qualifiers, and visibilities that repeat throughout a locality group to small ids, which {@link RelativeKey} writes in place of the
+ * bytes.
+ * 
+ * <p>
+ * While writing, byte strings are added the first time they are seen until the dictionary is full. The dictionary is stored in the file once all data is
+ * written, so readers have every id before reading any data block.
+ */
+public class ColumnDictionary implements Writable {
+  
+  /**
+   * Byte strings longer than this are never added, so that a few large unique values do not make the dictionary expensive to hold in memory.
+   */
+  static final int MAX_ENTRY_LENGTH = 256;
+  
+  private int maxEntries;
+  private ArrayList<ByteSequence> entries = new ArrayList<ByteSequence>();
+  private HashMap<ByteSequence,Integer> ids;
+  
+  // fields written to data blocks and how many of those were written as ids
+  private long lookups = 0;
+  private long hits = 0;
+  
+  /**
+   * This constructor is used when one needs to read from an input stream
+   */
+  public ColumnDictionary() {}
+  
+  /**
+   * This constructor is used when writing a file
+   * 
+   * @param maxEntries
+   *          the most byte strings that will be assigned ids
+   */
+  public ColumnDictionary(int maxEntries) {
+    this.maxEntries = maxEntries;
+    this.ids = new HashMap<ByteSequence,Integer>();
+  }
+  
+  /**
+   * @return the id of the byte string, or -1 if it is not in the dictionary and can not be added
+   */
+  int encode(ByteSequence bs) {
+    lookups++;
+    
+    Integer id = ids.get(bs);
+    if (id == null) {
+      if (entries.size() >= maxEntries || bs.length() > MAX_ENTRY_LENGTH)
+        return -1;
+      
+      ByteSequence copy = new ArrayByteSequence(bs.toArray());
+      id = entries.size();
+      entries.add(copy);
+      ids.put(copy, id);
+    }
+    
+    hits++;
+    return id;
+  }
+  
+  ByteSequence decode(int id) throws IOException {
+    if (id < 0 || id >= entries.size())
+      throw new IOException("Invalid column dictionary id " + id + ", dictionary size " + entries.size());
+    return entries.get(id);
+  }
+  
+  public int size() {
+    return entries.size();
+  }
+  
+  /**
+   * @return the fraction of column fields written to data blocks as ids, fields that were the same as the previous key are not counted
+   */
+  public double getHitRate() {
+    if (lookups == 0)
+      return 0;
+    return hits / (double) lookups;
+  }
+  
+  @Override
+  public void write(DataOutput out) throws IOException {
+    WritableUtils.writeVLong(out, lookups);
+    WritableUtils.writeVLong(out, hits);
+    WritableUtils.writeVInt(out, entries.size());
+    for (ByteSequence entry : entries) {
+      WritableUtils.writeVInt(out, entry.length());
+      out.write(entry.getBackingArray(), entry.offset(), entry.length());
+    }
+  }
+  
+  @Override
+  public void readFields(DataInput in) throws IOException {
+    lookups = WritableUtils.readVLong(in);
+    hits = WritableUtils.readVLong(in);
+    int size = WritableUtils.readVInt(in);
+    entries = new ArrayList<ByteSequence>(size);
+    for (int i = 0; i < size; i++) {
+      byte[] data = new byte[WritableUtils.readVInt(in)];
+      in.readFully(data);
+      entries.add(new ArrayByteSequence(data));
+    }
+    ids = null;
+  }
+}
@@ -54,6 +54,7 @@ import org.apache.accumulo.core.file.rfile.BlockIndex.BlockIndexEntry;
 import org.apache.accumulo.core.file.rfile.MultiLevelIndex.IndexEntry;
 import org.apache.accumulo.core.file.rfile.MultiLevelIndex.Reader.IndexIterator;
 import org.apache.accumulo.core.file.rfile.RelativeKey.SkippR;
+import org.apache.accumulo.core.file.rfile.RestartIndex.Restart;
 import org.apache.accumulo.core.file.rfile.bcfile.MetaBlockDoesNotExist;
 import org.apache.accumulo.core.iterators.IterationInterruptedException;
 import org.apache.accumulo.core.iterators.IteratorEnvironment;
@@ -76,6 +77,8 @@ public class RFile {
   private RFile() {}
   
   private static final int RINDEX_MAGIC = 0x20637474;
+  static final int RINDEX_VER_9 = 9;
+  static final int RINDEX_VER_8 = 8;
   static final int RINDEX_VER_7 = 7;
   static final int RINDEX_VER_6 = 6;
   // static final int RINDEX_VER_5 = 5; // unreleased
@@ -95,6 +98,9 @@ public class RFile {
     private MultiLevelIndex.BufferedWriter indexWriter;
     private MultiLevelIndex.Reader indexReader;
     
+    // stored in its own meta block, null when the file does not use a column dictionary
+    private ColumnDictionary dictionary;
+    
     public LocalityGroupMetadata(int version, BlockFileReader br) {
       columnFamilies = new HashMap<ByteSequence,MutableLong>();
       indexReader = new MultiLevelIndex.Reader(br, version);
@@ -274,6 +280,10 @@ public class RFile {
       
       out.println("\tNum entries          : " + String.format("%,d", numKeys));
       out.println("\tColumn families      : " + (isDefaultLG && columnFamilies == null ? "<UNKNOWN>" : columnFamilies.keySet()));
+      if (dictionary != null) {
+        out.println("\tDictionary entries   : " + String.format("%,d", dictionary.size()));
+        out.println("\tDictionary hit rate  : " + String.format("%.1f%%", dictionary.getHitRate() * 100));
+      }
     }
     
   }
@@ -290,6 +300,13 @@ public class RFile {
     private int indexBlockSize;
     private int entries = 0;
     
+    // when greater than zero, every restartInterval entries a full key is written and its offset recorded at the end of the block
+    private final int restartInterval;
+    private ArrayList<Integer> restartOffsets = new ArrayList<Integer>();
+    
+    // when greater than zero, each locality group encodes repeated column fields with a dictionary of up to this many entries
+    private final int dictionarySize;
+    
     private ArrayList<LocalityGroupMetadata> localityGroups = new ArrayList<LocalityGroupMetadata>();
     private LocalityGroupMetadata currentLocalityGroup = null;
     private int nextBlock = 0;
@@ -308,8 +325,22 @@ public class RFile {
     }
     
     public Writer(BlockFileWriter bfw, int blockSize, int indexBlockSize) throws IOException {
+      this(bfw, blockSize, indexBlockSize, 0);
+    }
+    
+    public Writer(BlockFileWriter bfw, int blockSize, int indexBlockSize, int restartInterval) throws IOException {
+      this(bfw, blockSize, indexBlockSize, restartInterval, 0);
+    }
+    
+    public Writer(BlockFileWriter bfw, int blockSize, int indexBlockSize, int restartInterval, int dictionarySize) throws IOException {
+      if (restartInterval < 0)
+        throw new IllegalArgumentException("Restart interval must not be negative : " + restartInterval);
+      if (dictionarySize < 0)
+        throw new IllegalArgumentException("Dictionary size must not be negative : " + dictionarySize);
       this.blockSize = blockSize;
       this.indexBlockSize = indexBlockSize;
+      this.restartInterval = restartInterval;
+      this.dictionarySize = dictionarySize;
       this.fileWriter = bfw;
       this.blockWriter = null;
       previousColumnFamilies = new HashSet<ByteSequence>();
@@ -327,7 +358,12 @@ public class RFile {
       ABlockWriter mba = fileWriter.prepareMetaBlock("RFile.index");
       
       mba.writeInt(RINDEX_MAGIC);
-      mba.writeInt(RINDEX_VER_7);
+      if (dictionarySize > 0) {
+        mba.writeInt(RINDEX_VER_9);
+        mba.writeInt(restartInterval);
+      } else {
+        mba.writeInt(restartInterval > 0 ? RINDEX_VER_8 : RINDEX_VER_7);
+      }
       
       if (currentLocalityGroup != null)
         localityGroups.add(currentLocalityGroup);
@@ -340,6 +376,14 @@ public class RFile {
       
       mba.close();
       
+      if (dictionarySize > 0) {
+        ABlockWriter dictBlock = fileWriter.prepareMetaBlock("RFile.dictionary");
+        for (LocalityGroupMetadata lc : localityGroups) {
+          lc.dictionary.write(dictBlock);
+        }
+        dictBlock.close();
+      }
+      
       fileWriter.close();
       
       closed = true;
@@ -382,7 +426,13 @@ public class RFile {
         blockWriter = fileWriter.prepareDataBlock();
       }
       
-      RelativeKey rk = new RelativeKey(lastKeyInBlock, key);
+      RelativeKey rk;
+      if (restartInterval > 0 && entries > 0 && entries % restartInterval == 0) {
+        restartOffsets.add((int) blockWriter.getRawSize());
+        rk = new RelativeKey(null, key, currentLocalityGroup.dictionary);
+      } else {
+        rk = new RelativeKey(lastKeyInBlock, key, currentLocalityGroup.dictionary);
+      }
       
       rk.write(blockWriter);
       value.write(blockWriter);
@@ -394,6 +444,14 @@ public class RFile {
     }
     
     private void closeBlock(Key key, boolean lastBlock) throws IOException {
+      if (restartInterval > 0) {
+        for (Integer offset : restartOffsets)
+          blockWriter.writeInt(offset);
+        blockWriter.writeInt(restartInterval);
+        blockWriter.writeInt(restartOffsets.size());
+        restartOffsets.clear();
+      }
+      
       blockWriter.close();
       
       if (lastBlock)
@@ -444,6 +502,9 @@ public class RFile {
         previousColumnFamilies.addAll(columnFamilies);
       }
       
+      if (dictionarySize > 0)
+        currentLocalityGroup.dictionary = new ColumnDictionary(dictionarySize);
+      
       prevKey = new Key();
     }
     
@@ -475,15 +536,19 @@ public class RFile {
     private int startBlock;
     private boolean closed = false;
     private int version;
+    private boolean restarts;
+    private ColumnDictionary dictionary;
     private boolean checkRange = true;
     
-    private LocalityGroupReader(BlockFileReader reader, LocalityGroupMetadata lgm, int version) throws IOException {
+    private LocalityGroupReader(BlockFileReader reader, LocalityGroupMetadata lgm, int version, boolean restarts) throws IOException {
       super(lgm.columnFamilies, lgm.isDefaultLG);
       this.firstKey = lgm.firstKey;
       this.index = lgm.indexReader;
       this.startBlock = lgm.startBlock;
       blockCount = index.size();
       this.version = version;
+      this.restarts = restarts;
+      this.dictionary = lgm.dictionary;
       
       this.reader = reader;
       
@@ -497,6 +562,8 @@ public class RFile {
       this.blockCount = lgr.blockCount;
       this.reader = lgr.reader;
       this.version = lgr.version;
+      this.restarts = lgr.restarts;
+      this.dictionary = lgr.dictionary;
     }
     
     Iterator<IndexEntry> getIndex() throws IOException {
@@ -672,7 +739,7 @@ public class RFile {
           // and speed up others.
 
           MutableByteSequence valbs = new MutableByteSequence(new byte[64], 0, 0);
-          SkippR skippr = RelativeKey.fastSkip(currBlock, startKey, valbs, prevKey, getTopKey());
+          SkippR skippr = RelativeKey.fastSkip(currBlock, startKey, valbs, prevKey, getTopKey(), dictionary);
           if (skippr.skipped > 0) {
             entriesLeft -= skippr.skipped;
             val = new Value(valbs.toArray());
@@ -722,8 +789,20 @@ public class RFile {
 
           Key currKey = null;
 
-          if (currBlock.isIndexable()) {
-            BlockIndex blockIndex = BlockIndex.getIndex(currBlock, indexEntry);
+          if (currBlock.isIndexable() && restarts) {
+            Restart restart = RestartIndex.getIndex(currBlock, dictionary).seekBlock(startKey, currBlock);
+            if (restart != null) {
+              // positioned just after the closest restart key before the start key, so only the keys after it need to be read
+              val = restart.getValue();
+              valbs = new MutableByteSequence(val.get(), 0, val.getSize());
+              
+              // the key before the restart key is not known, using the restart key itself keeps later seeks from relying on it
+              entriesLeft = indexEntry.getNumEntries() - restart.getEntry() - 1;
+              prevKey = new Key(restart.getKey());
+              currKey = restart.getKey();
+            }
+          } else if (currBlock.isIndexable()) {
+            BlockIndex blockIndex = BlockIndex.getIndex(currBlock, indexEntry, dictionary);
             if (blockIndex != null) {
               BlockIndexEntry bie = blockIndex.seekBlock(startKey, currBlock);
               if (bie != null) {
@@ -731,6 +810,7 @@ public class RFile {
                 // need to prime the read process and read this key from the block
                 RelativeKey tmpRk = new RelativeKey();
                 tmpRk.setPrevKey(bie.getPrevKey());
+                tmpRk.setDictionary(dictionary);
                 tmpRk.readFields(currBlock);
                 val = new Value();
 
@@ -745,7 +825,7 @@ public class RFile {
             }
           }
 
-          SkippR skippr = RelativeKey.fastSkip(currBlock, startKey, valbs, prevKey, currKey);
+          SkippR skippr = RelativeKey.fastSkip(currBlock, startKey, valbs, prevKey, currKey, dictionary);
           prevKey = skippr.prevKey;
           entriesLeft -= skippr.skipped;
           val = new Value(valbs.toArray());
@@ -829,9 +909,13 @@ public class RFile {
       
       if (magic != RINDEX_MAGIC)
         throw new IOException("Did not see expected magic number, saw " + magic);
-      if (ver != RINDEX_VER_7 && ver != RINDEX_VER_6 && ver != RINDEX_VER_4 && ver != RINDEX_VER_3)
+      if (ver != RINDEX_VER_9 && ver != RINDEX_VER_8 && ver != RINDEX_VER_7 && ver != RINDEX_VER_6 && ver != RINDEX_VER_4 && ver != RINDEX_VER_3)
         throw new IOException("Did not see expected version, saw " + ver);
       
+      boolean restarts = ver == RINDEX_VER_8;
+      if (ver == RINDEX_VER_9)
+        restarts = mb.readInt() > 0;
+      
       int size = mb.readInt();
       lgReaders = new LocalityGroupReader[size];
       
@@ -841,12 +925,23 @@ public class RFile {
         LocalityGroupMetadata lgm = new LocalityGroupMetadata(ver, rdr);
         lgm.readFields(mb);
         localityGroups.add(lgm);
-        
-        lgReaders[i] = new LocalityGroupReader(reader, lgm, ver);
       }
       
       mb.close();
       
+      if (ver == RINDEX_VER_9) {
+        ABlockReader dictBlock = reader.getMetaBlock("RFile.dictionary");
+        for (LocalityGroupMetadata lgm : localityGroups) {
+          lgm.dictionary = new ColumnDictionary();
+          lgm.dictionary.readFields(dictBlock);
+        }
+        dictBlock.close();
+      }
+      
+      for (int i = 0; i < size; i++) {
+        lgReaders[i] = new LocalityGroupReader(reader, localityGroups.get(i), ver, restarts);
+      }
+      
       nonDefaultColumnFamilies = new HashSet<ByteSequence>();
       for (LocalityGroupMetadata lgm : localityGroups) {
         if (!lgm.isDefaultLG)
@@ -994,6 +1089,40 @@ public class RFile {
       return new MultiIndexIterator(this, indexes);
     }
     
+    /**
+     * Finds the index entries of the data blocks starting at the given offsets. Walks the entire index of every locality group, so as a side effect all of
+     * the index blocks of the file are loaded into the index cache.
+     * 
+     * @param offsets
+     *          file offsets of data blocks
+     * @return the index entries of the data blocks found, which hold the sizes needed to read the blocks
+     */
+    public List<IndexEntry> findDataBlocks(Set<Long> offsets) throws IOException {
+      List<IndexEntry> found = new ArrayList<IndexEntry>();
+      
+      for (LocalityGroupReader lgr : lgReaders) {
+        // the index of old files does not record block offsets
+        if (lgr.version == RINDEX_VER_3 || lgr.version == RINDEX_VER_4 || lgr.blockCount == 0)
+          continue;
+        
+        Iterator<IndexEntry> iter = lgr.getIndex();
+        while (iter.hasNext()) {
+          IndexEntry ie = iter.next();
+          if (offsets.contains(ie.getOffset()))
+            found.add(ie);
+        }
+      }
+      
+      return found;
+    }
+    
+    /**
+     * @return the block file this reader reads from, which caches the blocks read through it
+     */
+    public BlockFileReader getBlockFileReader() {
+      return reader;
+    }
+    
     public void printInfo() throws IOException {
       for (LocalityGroupMetadata lgm : localityGroups) {
         lgm.printInfo();
@@ -75,7 +75,8 @@ public class RFileOperations extends FileOperations {
       BlockCache dataCache, BlockCache indexCache) throws IOException {
     Path path = new Path(file);
     
-    CachableBlockFile.Reader _cbr = new CachableBlockFile.Reader(fs, path, conf, dataCache, indexCache);
+    boolean mapLocalFile = acuconf != null && acuconf.getBoolean(Property.TSERV_FILES_MMAP);
+    CachableBlockFile.Reader _cbr = new CachableBlockFile.Reader(fs, path, conf, dataCache, indexCache, mapLocalFile);
     Reader iter = new RFile.Reader(_cbr);
     
     if (seekToBeginning) {
@@ -118,11 +119,13 @@ public class RFileOperations extends FileOperations {
     
     long blockSize = acuconf.getMemoryInBytes(Property.TABLE_FILE_COMPRESSED_BLOCK_SIZE);
     long indexBlockSize = acuconf.getMemoryInBytes(Property.TABLE_FILE_COMPRESSED_BLOCK_SIZE_INDEX);
+    int restartInterval = acuconf.getCount(Property.TABLE_FILE_RESTART_INTERVAL);
+    int dictionarySize = acuconf.getCount(Property.TABLE_FILE_DICTIONARY_SIZE);
     
     String compression = acuconf.get(Property.TABLE_FILE_COMPRESSION_TYPE);
     
     CachableBlockFile.Writer _cbw = new CachableBlockFile.Writer(fs.create(new Path(file), false, bufferSize, (short) rep, block), compression, conf);
-    Writer writer = new RFile.Writer(_cbw, (int) blockSize, (int) indexBlockSize);
+    Writer writer = new RFile.Writer(_cbw, (int) blockSize, (int) indexBlockSize, restartInterval, dictionarySize);
     return writer;
   }
 }
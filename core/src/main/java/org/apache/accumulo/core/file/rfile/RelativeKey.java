@@ -33,6 +33,7 @@ public class RelativeKey implements Writable {
   
   private Key key;
   private Key prevKey;
+  private ColumnDictionary dictionary;
   
   private byte fieldsSame;
   private byte fieldsPrefixed;
@@ -54,9 +55,10 @@ public class RelativeKey implements Writable {
   private static final byte CV_COMMON_PREFIX = BIT << 3;
   private static final byte TS_DIFF = BIT << 4;
   
-  // private static final byte UNUSED_2_5 = BIT << 5;
-  // private static final byte UNUSED_2_6 = BIT << 6;
-  // private static final byte UNUSED_2_7 = (byte) (BIT << 7);
+  // Column dictionary ids (second byte)
+  private static final byte CF_DICT = BIT << 5;
+  private static final byte CQ_DICT = BIT << 6;
+  private static final byte CV_DICT = (byte) (BIT << 7);
   
   // Values for prefix compression
   int rowCommonPrefixLen;
@@ -65,6 +67,11 @@ public class RelativeKey implements Writable {
   int cvCommonPrefixLen;
   long tsDiff;
   
+  // Values for dictionary encoding
+  int cfId;
+  int cqId;
+  int cvId;
+  
   /**
    * This constructor is used when one needs to read from an input stream
    */
@@ -76,6 +83,14 @@ public class RelativeKey implements Writable {
    * This constructor is used when constructing a key for writing to an output stream
    */
   public RelativeKey(Key prevKey, Key key) {
+    this(prevKey, key, null);
+  }
+  
+  /**
+   * This constructor is used when constructing a key for writing to an output stream, encoding column fields that differ from the previous key with the
+   * dictionary when it has or can add them
+   */
+  public RelativeKey(Key prevKey, Key key, ColumnDictionary dictionary) {
     
     this.key = key;
     
@@ -124,10 +139,19 @@ public class RelativeKey implements Writable {
         fieldsSame |= TS_SAME;
       else
         fieldsPrefixed |= TS_DIFF;
-      
-      fieldsSame |= fieldsPrefixed == 0 ? 0 : PREFIX_COMPRESSION_ENABLED;
     }
     
+    if (dictionary != null) {
+      if ((fieldsSame & CF_SAME) != CF_SAME && (cfId = dictionary.encode(key.getColumnFamilyData())) >= 0)
+        fieldsPrefixed = (byte) ((fieldsPrefixed & ~CF_COMMON_PREFIX) | CF_DICT);
+      if ((fieldsSame & CQ_SAME) != CQ_SAME && (cqId = dictionary.encode(key.getColumnQualifierData())) >= 0)
+        fieldsPrefixed = (byte) ((fieldsPrefixed & ~CQ_COMMON_PREFIX) | CQ_DICT);
+      if ((fieldsSame & CV_SAME) != CV_SAME && (cvId = dictionary.encode(key.getColumnVisibilityData())) >= 0)
+        fieldsPrefixed = (byte) ((fieldsPrefixed & ~CV_COMMON_PREFIX) | CV_DICT);
+    }
+    
+    fieldsSame |= fieldsPrefixed == 0 ? 0 : PREFIX_COMPRESSION_ENABLED;
+    
     // stored deleted information in bit vector instead of its own byte
     if (key.isDeleted())
       fieldsSame |= DELETED;
@@ -162,6 +186,13 @@ public class RelativeKey implements Writable {
     this.prevKey = pk;
   }
   
+  /**
+   * Sets the dictionary used to decode column fields written as ids
+   */
+  public void setDictionary(ColumnDictionary dictionary) {
+    this.dictionary = dictionary;
+  }
+  
   @Override
   public void readFields(DataInput in) throws IOException {
     fieldsSame = in.readByte();
@@ -184,6 +215,8 @@ public class RelativeKey implements Writable {
     
     if ((fieldsSame & CF_SAME) == CF_SAME) {
       cf = prevKey.getColumnFamilyData().toArray();
+    } else if ((fieldsPrefixed & CF_DICT) == CF_DICT) {
+      cf = readId(in, dictionary).toArray();
     } else if ((fieldsPrefixed & CF_COMMON_PREFIX) == CF_COMMON_PREFIX) {
       cf = readPrefix(in, prevKey.getColumnFamilyData());
     } else {
@@ -192,6 +225,8 @@ public class RelativeKey implements Writable {
     
     if ((fieldsSame & CQ_SAME) == CQ_SAME) {
       cq = prevKey.getColumnQualifierData().toArray();
+    } else if ((fieldsPrefixed & CQ_DICT) == CQ_DICT) {
+      cq = readId(in, dictionary).toArray();
     } else if ((fieldsPrefixed & CQ_COMMON_PREFIX) == CQ_COMMON_PREFIX) {
       cq = readPrefix(in, prevKey.getColumnQualifierData());
     } else {
@@ -200,6 +235,8 @@ public class RelativeKey implements Writable {
     
     if ((fieldsSame & CV_SAME) == CV_SAME) {
       cv = prevKey.getColumnVisibilityData().toArray();
+    } else if ((fieldsPrefixed & CV_DICT) == CV_DICT) {
+      cv = readId(in, dictionary).toArray();
     } else if ((fieldsPrefixed & CV_COMMON_PREFIX) == CV_COMMON_PREFIX) {
       cv = readPrefix(in, prevKey.getColumnVisibilityData());
     } else {
@@ -231,6 +268,11 @@ public class RelativeKey implements Writable {
   }
   
   public static SkippR fastSkip(DataInput in, Key seekKey, MutableByteSequence value, Key prevKey, Key currKey) throws IOException {
+    return fastSkip(in, seekKey, value, prevKey, currKey, null);
+  }
+  
+  public static SkippR fastSkip(DataInput in, Key seekKey, MutableByteSequence value, Key prevKey, Key currKey, ColumnDictionary dictionary)
+      throws IOException {
     // this method assumes that fast skip is being called on a compressed block where the last key
     // in the compressed block is >= seekKey... therefore this method shouldn't go past the end of the
     // compressed block... if it does, there is probably an error in the caller's logic
@@ -272,6 +314,7 @@ public class RelativeKey implements Writable {
         if (rowCmp > 0) {
           RelativeKey rk = new RelativeKey();
           rk.key = rk.prevKey = new Key(currKey);
+          rk.dictionary = dictionary;
           return new SkippR(rk, 0, prevKey);
         }
         
@@ -279,12 +322,14 @@ public class RelativeKey implements Writable {
           if (cfCmp > 0) {
             RelativeKey rk = new RelativeKey();
             rk.key = rk.prevKey = new Key(currKey);
+            rk.dictionary = dictionary;
             return new SkippR(rk, 0, prevKey);
           }
           
           if (cqCmp >= 0) {
             RelativeKey rk = new RelativeKey();
             rk.key = rk.prevKey = new Key(currKey);
+            rk.dictionary = dictionary;
             return new SkippR(rk, 0, prevKey);
           }
         }
@@ -341,7 +386,9 @@ public class RelativeKey implements Writable {
         pcf = cf;
         cf = tmp;
         
-        if ((fieldsPrefixed & CF_COMMON_PREFIX) == CF_COMMON_PREFIX)
+        if ((fieldsPrefixed & CF_DICT) == CF_DICT)
+          readId(in, cf, dictionary);
+        else if ((fieldsPrefixed & CF_COMMON_PREFIX) == CF_COMMON_PREFIX)
           readPrefix(in, cf, pcf);
         else
         read(in, cf);
@@ -356,7 +403,9 @@ public class RelativeKey implements Writable {
         pcq = cq;
         cq = tmp;
         
-        if ((fieldsPrefixed & CQ_COMMON_PREFIX) == CQ_COMMON_PREFIX)
+        if ((fieldsPrefixed & CQ_DICT) == CQ_DICT)
+          readId(in, cq, dictionary);
+        else if ((fieldsPrefixed & CQ_COMMON_PREFIX) == CQ_COMMON_PREFIX)
           readPrefix(in, cq, pcq);
         else
         read(in, cq);
@@ -371,7 +420,9 @@ public class RelativeKey implements Writable {
         pcv = cv;
         cv = tmp;
         
-        if ((fieldsPrefixed & CV_COMMON_PREFIX) == CV_COMMON_PREFIX)
+        if ((fieldsPrefixed & CV_DICT) == CV_DICT)
+          readId(in, cv, dictionary);
+        else if ((fieldsPrefixed & CV_COMMON_PREFIX) == CV_COMMON_PREFIX)
           readPrefix(in, cv, pcv);
         else
         read(in, cv);
@@ -434,6 +485,7 @@ public class RelativeKey implements Writable {
         cq.length(), cv.getBackingArray(), cv.offset(), cv.length(), ts);
     result.key.setDeleted((fieldsSame & DELETED) != 0);
     result.prevKey = result.key;
+    result.dictionary = dictionary;
     
     return new SkippR(result, count, newPrevKey);
   }
@@ -490,6 +542,23 @@ public class RelativeKey implements Writable {
     dest.setLength(len);
   }
   
+  private static ByteSequence readId(DataInput in, ColumnDictionary dictionary) throws IOException {
+    int id = WritableUtils.readVInt(in);
+    if (dictionary == null)
+      throw new IOException("Saw column dictionary id " + id + " but no dictionary was set");
+    return dictionary.decode(id);
+  }
+  
+  private static void readId(DataInput in, MutableByteSequence dest, ColumnDictionary dictionary) throws IOException {
+    // copy the bytes, since the destination's backing array is reused for later reads
+    ByteSequence entry = readId(in, dictionary);
+    if (dest.getBackingArray().length < entry.length()) {
+      dest.setArray(new byte[UnsynchronizedBuffer.nextArraySize(entry.length())], 0, 0);
+    }
+    System.arraycopy(entry.getBackingArray(), entry.offset(), dest.getBackingArray(), 0, entry.length());
+    dest.setLength(entry.length());
+  }
+  
   private static byte[] read(DataInput in) throws IOException {
     int len = WritableUtils.readVInt(in);
     byte[] data = new byte[len];
@@ -533,6 +602,9 @@ public class RelativeKey implements Writable {
     
     if ((fieldsSame & CF_SAME) == CF_SAME) {
       // same, write nothing
+    } else if ((fieldsPrefixed & CF_DICT) == CF_DICT) {
+      // in the dictionary, write its id
+      WritableUtils.writeVInt(out, cfId);
     } else if ((fieldsPrefixed & CF_COMMON_PREFIX) == CF_COMMON_PREFIX) {
       // similar, write what's common
       writePrefix(out, key.getColumnFamilyData(), cfCommonPrefixLen);
@@ -543,6 +615,9 @@ public class RelativeKey implements Writable {
     
     if ((fieldsSame & CQ_SAME) == CQ_SAME) {
       // same, write nothing
+    } else if ((fieldsPrefixed & CQ_DICT) == CQ_DICT) {
+      // in the dictionary, write its id
+      WritableUtils.writeVInt(out, cqId);
     } else if ((fieldsPrefixed & CQ_COMMON_PREFIX) == CQ_COMMON_PREFIX) {
       // similar, write what's common
       writePrefix(out, key.getColumnQualifierData(), cqCommonPrefixLen);
@@ -553,6 +628,9 @@ public class RelativeKey implements Writable {
     
     if ((fieldsSame & CV_SAME) == CV_SAME) {
       // same, write nothing
+    } else if ((fieldsPrefixed & CV_DICT) == CV_DICT) {
+      // in the dictionary, write its id
+      WritableUtils.writeVInt(out, cvId);
     } else if ((fieldsPrefixed & CV_COMMON_PREFIX) == CV_COMMON_PREFIX) {
       // similar, write what's common
       writePrefix(out, key.getColumnVisibilityData(), cvCommonPrefixLen);
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.file.rfile;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.file.blockfile.ABlockReader;
+
+/**
+ * The restart points of a data block written with a restart interval. Every restart interval entries, a key is written in full instead of relative to the
+ * key before it, and the offsets of those keys are stored at the end of the block followed by the interval and the number of restart points. Seeking
+ * within a block binary searches the restart points and only decodes keys from the closest one.
+ * 
+ * <p>
+ * Restart keys are decoded as they are needed and kept with the cached block, so later seeks into the same block decode fewer keys.
+ */
+public class RestartIndex {
+  
+  public static RestartIndex getIndex(ABlockReader cacheBlock) throws IOException {
+    return getIndex(cacheBlock, null);
+  }
+  
+  /**
+   * @param dictionary
+   *          decodes column fields that were written as ids, null if the file has no dictionary
+   */
+  public static RestartIndex getIndex(ABlockReader cacheBlock, ColumnDictionary dictionary) throws IOException {
+    RestartIndex restartIndex = cacheBlock.getIndex(RestartIndex.class);
+    restartIndex.init(cacheBlock, dictionary);
+    return restartIndex;
+  }
+  
+  public static class Restart {
+    private final Key key;
+    private final Value value;
+    private final int entry;
+    
+    Restart(Key key, Value value, int entry) {
+      this.key = key;
+      this.value = value;
+      this.entry = entry;
+    }
+    
+    public Key getKey() {
+      return key;
+    }
+    
+    public Value getValue() {
+      return value;
+    }
+    
+    /**
+     * @return the position of the restart key among the entries of the block, starting at zero
+     */
+    public int getEntry() {
+      return entry;
+    }
+  }
+  
+  private volatile int[] offsets = null;
+  private int interval;
+  private AtomicReferenceArray<Key> keys;
+  private ColumnDictionary dictionary;
+  
+  private synchronized void init(ABlockReader cacheBlock, ColumnDictionary dictionary) throws IOException {
+    if (offsets != null)
+      return;
+    
+    int end = (int) cacheBlock.getRawSize();
+    cacheBlock.seek(end - 8);
+    int restartInterval = cacheBlock.readInt();
+    int numRestarts = cacheBlock.readInt();
+    
+    int[] restartOffsets = new int[numRestarts];
+    cacheBlock.seek(end - 8 - 4 * numRestarts);
+    for (int i = 0; i < numRestarts; i++)
+      restartOffsets[i] = cacheBlock.readInt();
+    
+    cacheBlock.seek(0);
+    
+    this.interval = restartInterval;
+    this.dictionary = dictionary;
+    this.keys = new AtomicReferenceArray<Key>(numRestarts);
+    this.offsets = restartOffsets;
+  }
+  
+  private Key getKey(int restart, ABlockReader cacheBlock) throws IOException {
+    Key key = keys.get(restart);
+    if (key == null) {
+      cacheBlock.seek(offsets[restart]);
+      RelativeKey rk = new RelativeKey();
+      rk.setDictionary(dictionary);
+      rk.readFields(cacheBlock);
+      key = rk.getKey();
+      keys.set(restart, key);
+    }
+    return key;
+  }
+  
+  /**
+   * Positions the block just after the last restart key that sorts before the start key.
+   * 
+   * @return the restart key and its value, or null if no restart key sorts before the start key, in which case the block is positioned at its beginning
+   */
+  public Restart seekBlock(Key startKey, ABlockReader cacheBlock) throws IOException {
+    int[] offsets = this.offsets;
+    
+    // find the last restart key that is less than the start key, equal keys may precede a restart point so they can not be used
+    int low = 0;
+    int high = offsets.length - 1;
+    int found = -1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (getKey(mid, cacheBlock).compareTo(startKey) < 0) {
+        found = mid;
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    
+    if (found == -1) {
+      cacheBlock.seek(0);
+      return null;
+    }
+    
+    cacheBlock.seek(offsets[found]);
+    RelativeKey rk = new RelativeKey();
+    rk.setDictionary(dictionary);
+    rk.readFields(cacheBlock);
+    Value val = new Value();
+    val.readFields(cacheBlock);
+    
+    return new Restart(rk.getKey(), val, (found + 1) * interval);
+  }
+}
@@ -826,135 +826,149 @@ public final class BCFile {
       this.in = fin;
       this.conf = conf;
 
-      BlockRead cachedMetaIndex = cache.getCachedMetaBlock(META_NAME);
-      BlockRead cachedDataIndex = cache.getCachedMetaBlock(DataIndex.BLOCK_NAME);
-      BlockRead cachedCryptoParams = cache.getCachedMetaBlock(CRYPTO_BLOCK_NAME);
-
-      if (cachedMetaIndex == null || cachedDataIndex == null || cachedCryptoParams == null) {
-        // move the cursor to the beginning of the tail, containing: offset to the
-        // meta block index, version and magic
-        // Move the cursor to grab the version and the magic first
-        fin.seek(fileLength - Magic.size() - Version.size());
-        version = new Version(fin);
-        Magic.readAndVerify(fin);
-
-        // Do a version check
-        if (!version.compatibleWith(BCFile.API_VERSION) && !version.equals(BCFile.API_VERSION_1)) {
-          throw new RuntimeException("Incompatible BCFile fileBCFileVersion.");
-        }
+      // blocks read from an off-heap cache stay pinned until closed, so close them all once they are copied onto the heap
+      BlockRead cachedMetaIndex = null;
+      BlockRead cachedDataIndex = null;
+      BlockRead cachedCryptoParams = null;
+      try {
+        cachedMetaIndex = cache.getCachedMetaBlock(META_NAME);
+        cachedDataIndex = cache.getCachedMetaBlock(DataIndex.BLOCK_NAME);
+        cachedCryptoParams = cache.getCachedMetaBlock(CRYPTO_BLOCK_NAME);
+
+        if (cachedMetaIndex == null || cachedDataIndex == null || cachedCryptoParams == null) {
+          // move the cursor to the beginning of the tail, containing: offset to the
+          // meta block index, version and magic
+          // Move the cursor to grab the version and the magic first
+          fin.seek(fileLength - Magic.size() - Version.size());
+          version = new Version(fin);
+          Magic.readAndVerify(fin);
+
+          // Do a version check
+          if (!version.compatibleWith(BCFile.API_VERSION) && !version.equals(BCFile.API_VERSION_1)) {
+            throw new RuntimeException("Incompatible BCFile fileBCFileVersion.");
+          }
 
-        // Read the right number offsets based on version
-        long offsetIndexMeta = 0;
-        long offsetCryptoParameters = 0;
+          // Read the right number offsets based on version
+          long offsetIndexMeta = 0;
+          long offsetCryptoParameters = 0;
 
-        if (version.equals(API_VERSION_1)) {
-          fin.seek(fileLength - Magic.size() - Version.size() - (Long.SIZE / Byte.SIZE));
-          offsetIndexMeta = fin.readLong();
+          if (version.equals(API_VERSION_1)) {
+            fin.seek(fileLength - Magic.size() - Version.size() - (Long.SIZE / Byte.SIZE));
+            offsetIndexMeta = fin.readLong();
 
-        } else {
-          fin.seek(fileLength - Magic.size() - Version.size() - (2 * (Long.SIZE / Byte.SIZE)));
-          offsetIndexMeta = fin.readLong();
-          offsetCryptoParameters = fin.readLong();
-        }
+          } else {
+            fin.seek(fileLength - Magic.size() - Version.size() - (2 * (Long.SIZE / Byte.SIZE)));
+            offsetIndexMeta = fin.readLong();
+            offsetCryptoParameters = fin.readLong();
+          }
 
-        // read meta index
-        fin.seek(offsetIndexMeta);
-        metaIndex = new MetaIndex(fin);
+          // read meta index
+          fin.seek(offsetIndexMeta);
+          metaIndex = new MetaIndex(fin);
 
-        // If they exist, read the crypto parameters
-        if (!version.equals(BCFile.API_VERSION_1) && cachedCryptoParams == null) {
+          // If they exist, read the crypto parameters
+          if (!version.equals(BCFile.API_VERSION_1) && cachedCryptoParams == null) {
 
-          @SuppressWarnings("deprecation")
-          AccumuloConfiguration accumuloConfiguration = AccumuloConfiguration.getSiteConfiguration();
+            @SuppressWarnings("deprecation")
+            AccumuloConfiguration accumuloConfiguration = AccumuloConfiguration.getSiteConfiguration();
 
-          // read crypto parameters
-          fin.seek(offsetCryptoParameters);
-          cryptoParams = new BCFileCryptoModuleParameters();
-          cryptoParams.read(fin);
+            // read crypto parameters
+            fin.seek(offsetCryptoParameters);
+            cryptoParams = new BCFileCryptoModuleParameters();
+            cryptoParams.read(fin);
 
-          if (accumuloConfiguration.getBoolean(Property.CRYPTO_OVERRIDE_KEY_STRATEGY_WITH_CONFIGURED_STRATEGY)) {
-            Map<String,String> cryptoConfFromAccumuloConf = accumuloConfiguration.getAllPropertiesWithPrefix(Property.CRYPTO_PREFIX);
-            Map<String,String> instanceConf = accumuloConfiguration.getAllPropertiesWithPrefix(Property.INSTANCE_PREFIX);
+            if (accumuloConfiguration.getBoolean(Property.CRYPTO_OVERRIDE_KEY_STRATEGY_WITH_CONFIGURED_STRATEGY)) {
+              Map<String,String> cryptoConfFromAccumuloConf = accumuloConfiguration.getAllPropertiesWithPrefix(Property.CRYPTO_PREFIX);
+              Map<String,String> instanceConf = accumuloConfiguration.getAllPropertiesWithPrefix(Property.INSTANCE_PREFIX);
 
-            cryptoConfFromAccumuloConf.putAll(instanceConf);
+              cryptoConfFromAccumuloConf.putAll(instanceConf);
 
-            for (String name : cryptoParams.getAllOptions().keySet()) {
-              if (!name.equals(Property.CRYPTO_SECRET_KEY_ENCRYPTION_STRATEGY_CLASS.getKey())) {
-                cryptoConfFromAccumuloConf.put(name, cryptoParams.getAllOptions().get(name));
-              } else {
-                cryptoParams.setKeyEncryptionStrategyClass(cryptoConfFromAccumuloConf.get(Property.CRYPTO_SECRET_KEY_ENCRYPTION_STRATEGY_CLASS.getKey()));
+              for (String name : cryptoParams.getAllOptions().keySet()) {
+                if (!name.equals(Property.CRYPTO_SECRET_KEY_ENCRYPTION_STRATEGY_CLASS.getKey())) {
+                  cryptoConfFromAccumuloConf.put(name, cryptoParams.getAllOptions().get(name));
+                } else {
+                  cryptoParams.setKeyEncryptionStrategyClass(cryptoConfFromAccumuloConf.get(Property.CRYPTO_SECRET_KEY_ENCRYPTION_STRATEGY_CLASS.getKey()));
+                }
               }
+
+              cryptoParams.setAllOptions(cryptoConfFromAccumuloConf);
             }
 
-            cryptoParams.setAllOptions(cryptoConfFromAccumuloConf);
-          }
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            DataOutputStream dos = new DataOutputStream(baos);
+            cryptoParams.write(dos);
+            dos.close();
+            cache.cacheMetaBlock(CRYPTO_BLOCK_NAME, baos.toByteArray());
 
-          ByteArrayOutputStream baos = new ByteArrayOutputStream();
-          DataOutputStream dos = new DataOutputStream(baos);
-          cryptoParams.write(dos);
-          dos.close();
-          cache.cacheMetaBlock(CRYPTO_BLOCK_NAME, baos.toByteArray());
+            this.cryptoModule = CryptoModuleFactory.getCryptoModule(cryptoParams.getAllOptions().get(Property.CRYPTO_MODULE_CLASS.getKey()));
+            this.secretKeyEncryptionStrategy = CryptoModuleFactory.getSecretKeyEncryptionStrategy(cryptoParams.getKeyEncryptionStrategyClass());
 
-          this.cryptoModule = CryptoModuleFactory.getCryptoModule(cryptoParams.getAllOptions().get(Property.CRYPTO_MODULE_CLASS.getKey()));
-          this.secretKeyEncryptionStrategy = CryptoModuleFactory.getSecretKeyEncryptionStrategy(cryptoParams.getKeyEncryptionStrategyClass());
+            // This call should put the decrypted session key within the cryptoParameters object
+            // secretKeyEncryptionStrategy.decryptSecretKey(cryptoParameters);
 
-          // This call should put the decrypted session key within the cryptoParameters object
-          // secretKeyEncryptionStrategy.decryptSecretKey(cryptoParameters);
+            cryptoParams = (BCFileCryptoModuleParameters) secretKeyEncryptionStrategy.decryptSecretKey(cryptoParams);
 
-          cryptoParams = (BCFileCryptoModuleParameters) secretKeyEncryptionStrategy.decryptSecretKey(cryptoParams);
+          } else if (cachedCryptoParams != null) {
+            cryptoParams = new BCFileCryptoModuleParameters();
+            cryptoParams.read(cachedCryptoParams);
 
-        } else if (cachedCryptoParams != null) {
-          cryptoParams = new BCFileCryptoModuleParameters();
-          cryptoParams.read(cachedCryptoParams);
+            this.cryptoModule = CryptoModuleFactory.getCryptoModule(cryptoParams.getAllOptions().get(Property.CRYPTO_MODULE_CLASS.getKey()));
+            this.secretKeyEncryptionStrategy = CryptoModuleFactory.getSecretKeyEncryptionStrategy(cryptoParams.getKeyEncryptionStrategyClass());
 
-          this.cryptoModule = CryptoModuleFactory.getCryptoModule(cryptoParams.getAllOptions().get(Property.CRYPTO_MODULE_CLASS.getKey()));
-          this.secretKeyEncryptionStrategy = CryptoModuleFactory.getSecretKeyEncryptionStrategy(cryptoParams.getKeyEncryptionStrategyClass());
+            // This call should put the decrypted session key within the cryptoParameters object
+            // secretKeyEncryptionStrategy.decryptSecretKey(cryptoParameters);
 
-          // This call should put the decrypted session key within the cryptoParameters object
-          // secretKeyEncryptionStrategy.decryptSecretKey(cryptoParameters);
+            cryptoParams = (BCFileCryptoModuleParameters) secretKeyEncryptionStrategy.decryptSecretKey(cryptoParams);
 
-          cryptoParams = (BCFileCryptoModuleParameters) secretKeyEncryptionStrategy.decryptSecretKey(cryptoParams);
+          }
 
-        }
+          if (cachedMetaIndex == null) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            DataOutputStream dos = new DataOutputStream(baos);
+            metaIndex.write(dos);
+            dos.close();
+            cache.cacheMetaBlock(META_NAME, baos.toByteArray());
+          }
 
-        if (cachedMetaIndex == null) {
-          ByteArrayOutputStream baos = new ByteArrayOutputStream();
-          DataOutputStream dos = new DataOutputStream(baos);
-          metaIndex.write(dos);
-          dos.close();
-          cache.cacheMetaBlock(META_NAME, baos.toByteArray());
-        }
+          // read data:BCFile.index, the data block index
+          if (cachedDataIndex == null) {
+            BlockReader blockR = getMetaBlock(DataIndex.BLOCK_NAME);
+            cachedDataIndex = cache.cacheMetaBlock(DataIndex.BLOCK_NAME, blockR);
+          }
 
-        // read data:BCFile.index, the data block index
-        if (cachedDataIndex == null) {
-          BlockReader blockR = getMetaBlock(DataIndex.BLOCK_NAME);
-          cachedDataIndex = cache.cacheMetaBlock(DataIndex.BLOCK_NAME, blockR);
-        }
+          try {
+            dataIndex = new DataIndex(cachedDataIndex);
+          } catch (IOException e) {
+            LOG.error("Got IOException when trying to create DataIndex block");
+            throw e;
+          }
 
-        try {
-          dataIndex = new DataIndex(cachedDataIndex);
-        } catch (IOException e) {
-          LOG.error("Got IOException when trying to create DataIndex block");
-          throw e;
-        }
-        cachedDataIndex.close();
+        } else {
+          // We have cached versions of the metaIndex, dataIndex and cryptoParams objects.
+          // Use them to fill out this reader's members.
+          version = null;
 
-      } else {
-        // We have cached versions of the metaIndex, dataIndex and cryptoParams objects.
-        // Use them to fill out this reader's members.
-        version = null;
+          metaIndex = new MetaIndex(cachedMetaIndex);
+          dataIndex = new DataIndex(cachedDataIndex);
+          cryptoParams = new BCFileCryptoModuleParameters();
+          cryptoParams.read(cachedCryptoParams);
 
-        metaIndex = new MetaIndex(cachedMetaIndex);
-        dataIndex = new DataIndex(cachedDataIndex);
-        cryptoParams = new BCFileCryptoModuleParameters();
-        cryptoParams.read(cachedCryptoParams);
+          this.cryptoModule = CryptoModuleFactory.getCryptoModule(cryptoParams.getAllOptions().get(Property.CRYPTO_MODULE_CLASS.getKey()));
+          this.secretKeyEncryptionStrategy = CryptoModuleFactory.getSecretKeyEncryptionStrategy(cryptoParams.getKeyEncryptionStrategyClass());
 
-        this.cryptoModule = CryptoModuleFactory.getCryptoModule(cryptoParams.getAllOptions().get(Property.CRYPTO_MODULE_CLASS.getKey()));
-        this.secretKeyEncryptionStrategy = CryptoModuleFactory.getSecretKeyEncryptionStrategy(cryptoParams.getKeyEncryptionStrategyClass());
+          // This call should put the decrypted session key within the cryptoParameters object
+          cryptoParams = (BCFileCryptoModuleParameters) secretKeyEncryptionStrategy.decryptSecretKey(cryptoParams);
 
-        // This call should put the decrypted session key within the cryptoParameters object
-        cryptoParams = (BCFileCryptoModuleParameters) secretKeyEncryptionStrategy.decryptSecretKey(cryptoParams);
+        }
+      } finally {
+        close(cachedMetaIndex, cachedDataIndex, cachedCryptoParams);
+      }
+    }
 
+    private static void close(BlockRead... blocks) throws IOException {
+      for (BlockRead block : blocks) {
+        if (block != null)
+          block.close();
       }
     }
 
@@ -992,6 +1006,15 @@ public final class BCFile {
       // nothing to be done now
     }
 
+    /**
+     * Check whether data blocks are stored exactly as they are read, neither compressed nor encrypted, so they can be read directly from the file.
+     * 
+     * @return true if data blocks are stored uncompressed and unencrypted
+     */
+    public boolean isDataStoredPlain() {
+      return dataIndex.getDefaultCompressionAlgorithm() == Algorithm.NONE && cryptoParams == null;
+    }
+
     /**
      * Get the number of data blocks.
      * 
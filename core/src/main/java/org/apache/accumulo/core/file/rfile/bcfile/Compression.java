@@ -18,22 +18,32 @@ package org.apache.accumulo.core.file.rfile.bcfile;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
+import org.apache.accumulo.core.Constants;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.io.compress.CodecPool;
 import org.apache.hadoop.io.compress.CompressionCodec;
 import org.apache.hadoop.io.compress.CompressionInputStream;
 import org.apache.hadoop.io.compress.CompressionOutputStream;
 import org.apache.hadoop.io.compress.Compressor;
+import org.apache.hadoop.io.compress.CompressorStream;
 import org.apache.hadoop.io.compress.Decompressor;
+import org.apache.hadoop.io.compress.DecompressorStream;
 import org.apache.hadoop.io.compress.DefaultCodec;
+import org.apache.hadoop.io.compress.DoNotPool;
 import org.apache.hadoop.util.ReflectionUtils;
 
 /**
@@ -74,112 +84,71 @@ public final class Compression {
   public static final String COMPRESSION_GZ = "gz";
   /** compression: lzo */
   public static final String COMPRESSION_LZO = "lzo";
+  /** compression: lz4 */
+  public static final String COMPRESSION_LZ4 = "lz4";
+  /** compression: zstandard */
+  public static final String COMPRESSION_ZSTD = "zstd";
   /** compression: none */
   public static final String COMPRESSION_NONE = "none";
   
   /**
-   * Compression algorithms.
+   * Compression algorithms. Besides the built in algorithms, any algorithm with a hadoop codec can be used by setting {@code io.compression.codec.<name>.class}
+   * in the hadoop configuration or as a system property, or by calling {@link Compression#registerAlgorithm(Algorithm)}.
    */
-  public static enum Algorithm {
-    LZO(COMPRESSION_LZO) {
-      private transient boolean checked = false;
-      private static final String defaultClazz = "org.apache.hadoop.io.compress.LzoCodec";
-      private transient CompressionCodec codec = null;
-      
-      @Override
-      public synchronized boolean isSupported() {
-        if (!checked) {
-          checked = true;
-          String extClazz = (conf.get(CONF_LZO_CLASS) == null ? System.getProperty(CONF_LZO_CLASS) : null);
-          String clazz = (extClazz != null) ? extClazz : defaultClazz;
-          try {
-            LOG.info("Trying to load Lzo codec class: " + clazz);
-            codec = (CompressionCodec) ReflectionUtils.newInstance(Class.forName(clazz), conf);
-          } catch (ClassNotFoundException e) {
-            // that is okay
-          }
-        }
-        return codec != null;
-      }
+  public static abstract class Algorithm {
+    // We require that all compression related settings are configured
+    // statically in the Configuration object.
+    protected static final Configuration conf = new Configuration();
+    // data input buffer size to absorb small reads from application.
+    private static final int DATA_IBUF_SIZE = 1 * 1024;
+    // data output buffer size to absorb small writes from application.
+    private static final int DATA_OBUF_SIZE = 4 * 1024;
+    public static final String CONF_LZO_CLASS = "io.compression.codec.lzo.class";
+    public static final String CONF_SNAPPY_CLASS = "io.compression.codec.snappy.class";
+    public static final String CONF_LZ4_CLASS = "io.compression.codec.lz4.class";
+    public static final String CONF_ZSTD_CLASS = "io.compression.codec.zstd.class";
+    /** the zstandard compression level, read by the hadoop zstandard codec when it creates a compressor */
+    public static final String CONF_ZSTD_LEVEL = "io.compression.codec.zstd.level";
+    
+    public static final Algorithm LZO = new CodecAlgorithm(COMPRESSION_LZO, CONF_LZO_CLASS, "io.compression.codec.lzo.buffersize",
+        "org.apache.hadoop.io.compress.LzoCodec");
+    
+    public static final Algorithm GZ = new Algorithm(COMPRESSION_GZ) {
+      private final DefaultCodec codec = newCodec();
       
-      @Override
-      CompressionCodec getCodec() throws IOException {
-        if (!isSupported()) {
-          throw new IOException("LZO codec class not specified. Did you forget to set property " + CONF_LZO_CLASS + "?");
-        }
-        
+      private DefaultCodec newCodec() {
+        DefaultCodec codec = new DefaultCodec();
+        codec.setConf(conf);
         return codec;
       }
       
       @Override
-      public synchronized InputStream createDecompressionStream(InputStream downStream, Decompressor decompressor, int downStreamBufferSize) throws IOException {
-        if (!isSupported()) {
-          throw new IOException("LZO codec class not specified. Did you forget to set property " + CONF_LZO_CLASS + "?");
-        }
-        InputStream bis1 = null;
-        if (downStreamBufferSize > 0) {
-          bis1 = new BufferedInputStream(downStream, downStreamBufferSize);
-        } else {
-          bis1 = downStream;
-        }
-        conf.setInt("io.compression.codec.lzo.buffersize", 64 * 1024);
-        CompressionInputStream cis = codec.createInputStream(bis1, decompressor);
-        BufferedInputStream bis2 = new BufferedInputStream(cis, DATA_IBUF_SIZE);
-        return bis2;
-      }
-      
-      @Override
-      public synchronized OutputStream createCompressionStream(OutputStream downStream, Compressor compressor, int downStreamBufferSize) throws IOException {
-        if (!isSupported()) {
-          throw new IOException("LZO codec class not specified. Did you forget to set property " + CONF_LZO_CLASS + "?");
-        }
-        OutputStream bos1 = null;
-        if (downStreamBufferSize > 0) {
-          bos1 = new BufferedOutputStream(downStream, downStreamBufferSize);
-        } else {
-          bos1 = downStream;
-        }
-        conf.setInt("io.compression.codec.lzo.buffersize", 64 * 1024);
-        CompressionOutputStream cos = codec.createOutputStream(bos1, compressor);
-        BufferedOutputStream bos2 = new BufferedOutputStream(new FinishOnFlushCompressionStream(cos), DATA_OBUF_SIZE);
-        return bos2;
-      }
-    },
-    
-    GZ(COMPRESSION_GZ) {
-      private transient DefaultCodec codec;
-      
-      @Override
-      synchronized CompressionCodec getCodec() {
-        if (codec == null) {
-          codec = new DefaultCodec();
-          codec.setConf(conf);
-        }
-        
+      CompressionCodec getCodec() {
         return codec;
       }
       
       @Override
-      public synchronized InputStream createDecompressionStream(InputStream downStream, Decompressor decompressor, int downStreamBufferSize) throws IOException {
-        // Set the internal buffer size to read from down stream.
-        if (downStreamBufferSize > 0) {
-          codec.getConf().setInt("io.file.buffer.size", downStreamBufferSize);
-        }
-        CompressionInputStream cis = codec.createInputStream(downStream, decompressor);
+      public InputStream createDecompressionStream(InputStream downStream, Decompressor decompressor, int downStreamBufferSize) throws IOException {
+        // Set the internal buffer size to read from down stream, on the stream instead of the shared configuration so no lock is needed
+        if (decompressor == null)
+          decompressor = codec.createDecompressor();
+        int bufferSize = downStreamBufferSize > 0 ? downStreamBufferSize : conf.getInt("io.file.buffer.size", 4 * 1024);
+        CompressionInputStream cis = new DecompressorStream(downStream, decompressor, bufferSize);
         BufferedInputStream bis2 = new BufferedInputStream(cis, DATA_IBUF_SIZE);
         return bis2;
       }
       
       @Override
-      public synchronized OutputStream createCompressionStream(OutputStream downStream, Compressor compressor, int downStreamBufferSize) throws IOException {
+      public OutputStream createCompressionStream(OutputStream downStream, Compressor compressor, int downStreamBufferSize) throws IOException {
         OutputStream bos1 = null;
         if (downStreamBufferSize > 0) {
           bos1 = new BufferedOutputStream(downStream, downStreamBufferSize);
         } else {
           bos1 = downStream;
         }
-        codec.getConf().setInt("io.file.buffer.size", 32 * 1024);
-        CompressionOutputStream cos = codec.createOutputStream(bos1, compressor);
+        if (compressor == null)
+          compressor = codec.createCompressor();
+        CompressionOutputStream cos = new CompressorStream(bos1, compressor, 32 * 1024);
         BufferedOutputStream bos2 = new BufferedOutputStream(new FinishOnFlushCompressionStream(cos), DATA_OBUF_SIZE);
         return bos2;
       }
@@ -188,16 +157,16 @@ public final class Compression {
       public boolean isSupported() {
         return true;
       }
-    },
+    };
     
-    NONE(COMPRESSION_NONE) {
+    public static final Algorithm NONE = new Algorithm(COMPRESSION_NONE) {
       @Override
       CompressionCodec getCodec() {
         return null;
       }
       
       @Override
-      public synchronized InputStream createDecompressionStream(InputStream downStream, Decompressor decompressor, int downStreamBufferSize) throws IOException {
+      public InputStream createDecompressionStream(InputStream downStream, Decompressor decompressor, int downStreamBufferSize) throws IOException {
         if (downStreamBufferSize > 0) {
           return new BufferedInputStream(downStream, downStreamBufferSize);
         }
@@ -205,7 +174,7 @@ public final class Compression {
       }
       
       @Override
-      public synchronized OutputStream createCompressionStream(OutputStream downStream, Compressor compressor, int downStreamBufferSize) throws IOException {
+      public OutputStream createCompressionStream(OutputStream downStream, Compressor compressor, int downStreamBufferSize) throws IOException {
         if (downStreamBufferSize > 0) {
           return new BufferedOutputStream(downStream, downStreamBufferSize);
         }
@@ -217,80 +186,24 @@ public final class Compression {
       public boolean isSupported() {
         return true;
       }
-    },
-    
-    SNAPPY(COMPRESSION_SNAPPY) {
-      // Use base type to avoid compile-time dependencies.
-      private transient CompressionCodec snappyCodec = null;
-      private transient boolean checked = false;
-      private static final String defaultClazz = "org.apache.hadoop.io.compress.SnappyCodec";
-      
-      public CompressionCodec getCodec() throws IOException {
-        if (!isSupported()) {
-          throw new IOException("SNAPPY codec class not specified. Did you forget to set property " + CONF_SNAPPY_CLASS + "?");
-        }
-        return snappyCodec;
-      }
-      
-      @Override
-      public synchronized OutputStream createCompressionStream(OutputStream downStream, Compressor compressor, int downStreamBufferSize) throws IOException {
-        
-        if (!isSupported()) {
-          throw new IOException("SNAPPY codec class not specified. Did you forget to set property " + CONF_SNAPPY_CLASS + "?");
-        }
-        OutputStream bos1 = null;
-        if (downStreamBufferSize > 0) {
-          bos1 = new BufferedOutputStream(downStream, downStreamBufferSize);
-        } else {
-          bos1 = downStream;
-        }
-        conf.setInt("io.compression.codec.snappy.buffersize", 64 * 1024);
-        CompressionOutputStream cos = snappyCodec.createOutputStream(bos1, compressor);
-        BufferedOutputStream bos2 = new BufferedOutputStream(new FinishOnFlushCompressionStream(cos), DATA_OBUF_SIZE);
-        return bos2;
-      }
-      
-      @Override
-      public synchronized InputStream createDecompressionStream(InputStream downStream, Decompressor decompressor, int downStreamBufferSize) throws IOException {
-        if (!isSupported()) {
-          throw new IOException("SNAPPY codec class not specified. Did you forget to set property " + CONF_SNAPPY_CLASS + "?");
-        }
-        if (downStreamBufferSize > 0) {
-          conf.setInt("io.file.buffer.size", downStreamBufferSize);
-        }
-        CompressionInputStream cis = snappyCodec.createInputStream(downStream, decompressor);
-        BufferedInputStream bis2 = new BufferedInputStream(cis, DATA_IBUF_SIZE);
-        return bis2;
-      }
-      
-      @Override
-      public synchronized boolean isSupported() {
-        if (!checked) {
-          checked = true;
-          String extClazz = (conf.get(CONF_SNAPPY_CLASS) == null ? System.getProperty(CONF_SNAPPY_CLASS) : null);
-          String clazz = (extClazz != null) ? extClazz : defaultClazz;
-          try {
-            LOG.info("Trying to load snappy codec class: " + clazz);
-            snappyCodec = (CompressionCodec) ReflectionUtils.newInstance(Class.forName(clazz), conf);
-          } catch (ClassNotFoundException e) {
-            // that is okay
-          }
-        }
-        return snappyCodec != null;
-      }
     };
-    // We require that all compression related settings are configured
-    // statically in the Configuration object.
-    protected static final Configuration conf = new Configuration();
+    
+    public static final Algorithm SNAPPY = new CodecAlgorithm(COMPRESSION_SNAPPY, CONF_SNAPPY_CLASS, "io.compression.codec.snappy.buffersize",
+        "org.apache.hadoop.io.compress.SnappyCodec", "io.airlift.compress.snappy.SnappyCodec");
+    
+    public static final Algorithm LZ4 = new CodecAlgorithm(COMPRESSION_LZ4, CONF_LZ4_CLASS, null, "org.apache.hadoop.io.compress.Lz4Codec",
+        "io.airlift.compress.lz4.Lz4Codec");
+    
+    public static final Algorithm ZSTANDARD = new CodecAlgorithm(COMPRESSION_ZSTD, CONF_ZSTD_CLASS, null, "org.apache.hadoop.io.compress.ZStandardCodec",
+        "io.airlift.compress.zstd.ZstdCodec");
+    
     private final String compressName;
-    // data input buffer size to absorb small reads from application.
-    private static final int DATA_IBUF_SIZE = 1 * 1024;
-    // data output buffer size to absorb small writes from application.
-    private static final int DATA_OBUF_SIZE = 4 * 1024;
-    public static final String CONF_LZO_CLASS = "io.compression.codec.lzo.class";
-    public static final String CONF_SNAPPY_CLASS = "io.compression.codec.snappy.class";
     
-    Algorithm(String name) {
+    // compressors and decompressors not in use, pooled per algorithm without a lock instead of in hadoop's synchronized CodecPool
+    private final ConcurrentLinkedQueue<Compressor> compressors = new ConcurrentLinkedQueue<Compressor>();
+    private final ConcurrentLinkedQueue<Decompressor> decompressors = new ConcurrentLinkedQueue<Decompressor>();
+    
+    protected Algorithm(String name) {
       this.compressName = name;
     }
     
@@ -305,18 +218,20 @@ public final class Compression {
     public Compressor getCompressor() throws IOException {
       CompressionCodec codec = getCodec();
       if (codec != null) {
-        Compressor compressor = CodecPool.getCompressor(codec);
-        if (compressor != null) {
+        Compressor compressor = compressors.poll();
+        if (compressor == null) {
+          try {
+            compressor = codec.createCompressor();
+          } catch (UnsupportedOperationException e) {
+            // some pure java codecs only support streams that manage their own compressor
+            return null;
+          }
+        } else {
           if (compressor.finished()) {
-            // Somebody returns the compressor to CodecPool but is still using
+            // Somebody returns the compressor to the pool but is still using
             // it.
-            LOG.warn("Compressor obtained from CodecPool already finished()");
-          } else {
-            LOG.debug("Got a compressor: " + compressor.hashCode());
+            LOG.warn("Compressor obtained from pool already finished()");
           }
-          /**
-           * Following statement is necessary to get around bugs in 0.18 where a compressor is referenced after returned back to the codec pool.
-           */
           compressor.reset();
         }
         return compressor;
@@ -326,26 +241,31 @@ public final class Compression {
     
     public void returnCompressor(Compressor compressor) {
       if (compressor != null) {
-        LOG.debug("Return a compressor: " + compressor.hashCode());
-        CodecPool.returnCompressor(compressor);
+        if (compressor.getClass().isAnnotationPresent(DoNotPool.class)) {
+          compressor.end();
+        } else {
+          compressors.offer(compressor);
+        }
       }
     }
     
     public Decompressor getDecompressor() throws IOException {
       CompressionCodec codec = getCodec();
       if (codec != null) {
-        Decompressor decompressor = CodecPool.getDecompressor(codec);
-        if (decompressor != null) {
+        Decompressor decompressor = decompressors.poll();
+        if (decompressor == null) {
+          try {
+            decompressor = codec.createDecompressor();
+          } catch (UnsupportedOperationException e) {
+            // some pure java codecs only support streams that manage their own decompressor
+            return null;
+          }
+        } else {
           if (decompressor.finished()) {
-            // Somebody returns the decompressor to CodecPool but is still using
+            // Somebody returns the decompressor to the pool but is still using
             // it.
-            LOG.warn("Decompressor obtained from CodecPool already finished()");
-          } else {
-            LOG.debug("Got a decompressor: " + decompressor.hashCode());
+            LOG.warn("Decompressor obtained from pool already finished()");
           }
-          /**
-           * Following statement is necessary to get around bugs in 0.18 where a decompressor is referenced after returned back to the codec pool.
-           */
           decompressor.reset();
         }
         return decompressor;
@@ -356,33 +276,186 @@ public final class Compression {
     
     public void returnDecompressor(Decompressor decompressor) {
       if (decompressor != null) {
-        LOG.debug("Returned a decompressor: " + decompressor.hashCode());
-        CodecPool.returnDecompressor(decompressor);
+        if (decompressor.getClass().isAnnotationPresent(DoNotPool.class)) {
+          decompressor.end();
+        } else {
+          decompressors.offer(decompressor);
+        }
       }
     }
     
     public String getName() {
       return compressName;
     }
+    
+    @Override
+    public String toString() {
+      return compressName;
+    }
   }
   
-  static Algorithm getCompressionAlgorithmByName(String compressName) {
-    Algorithm[] algos = Algorithm.class.getEnumConstants();
+  /**
+   * An algorithm backed by a hadoop codec, which is loaded by name the first time the algorithm is used so there is no compile time dependency on it. The codec
+   * class named by the algorithm's configuration key is tried first, then each default class in order, and the first that loads and can compress and
+   * decompress data is used. Later default classes serve as fallbacks, such as pure java implementations of a native codec, and must write the same format.
+   */
+  static class CodecAlgorithm extends Algorithm {
+    private static final byte[] PROBE = "Probe data used to check that a compression codec is usable. Probe data used to check that a compression codec is usable."
+        .getBytes(Constants.UTF8);
+    
+    private final String classKey;
+    private final String bufferSizeKey;
+    private final List<String> defaultClasses;
+    
+    private volatile boolean checked = false;
+    private volatile CompressionCodec codec = null;
+    
+    /**
+     * @param bufferSizeKey
+     *          configuration key for the codec's internal buffer size, which is set to 64k unless configured. May be null.
+     */
+    CodecAlgorithm(String name, String classKey, String bufferSizeKey, String... defaultClasses) {
+      super(name);
+      this.classKey = classKey;
+      this.bufferSizeKey = bufferSizeKey;
+      this.defaultClasses = Arrays.asList(defaultClasses);
+    }
+    
+    @Override
+    public boolean isSupported() {
+      if (!checked)
+        loadCodec();
+      return codec != null;
+    }
     
-    for (Algorithm a : algos) {
-      if (a.getName().equals(compressName)) {
-        return a;
+    private synchronized void loadCodec() {
+      if (checked)
+        return;
+      
+      if (bufferSizeKey != null && conf.get(bufferSizeKey) == null)
+        conf.setInt(bufferSizeKey, 64 * 1024);
+      
+      List<String> candidates = new ArrayList<String>();
+      String extClazz = conf.get(classKey) != null ? conf.get(classKey) : System.getProperty(classKey);
+      if (extClazz != null)
+        candidates.add(extClazz);
+      candidates.addAll(defaultClasses);
+      
+      for (String clazz : candidates) {
+        try {
+          LOG.info("Trying to load " + getName() + " codec class: " + clazz);
+          CompressionCodec candidate = (CompressionCodec) ReflectionUtils.newInstance(Class.forName(clazz), conf);
+          if (isUsable(candidate)) {
+            codec = candidate;
+            break;
+          }
+        } catch (ClassNotFoundException e) {
+          // that is okay
+        } catch (Exception e) {
+          LOG.info("Unable to use " + getName() + " codec class " + clazz + " : " + e);
+        } catch (LinkageError e) {
+          // native libraries that are missing or do not match
+          LOG.info("Unable to use " + getName() + " codec class " + clazz + " : " + e);
+        }
       }
+      
+      checked = true;
     }
     
-    throw new IllegalArgumentException("Unsupported compression algorithm name: " + compressName);
+    /**
+     * Native codecs load even when their native library is missing, and only fail once used.
+     */
+    private static boolean isUsable(CompressionCodec candidate) throws IOException {
+      ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+      CompressionOutputStream cos = candidate.createOutputStream(compressed);
+      cos.write(PROBE);
+      cos.finish();
+      cos.close();
+      
+      DataInputStream in = new DataInputStream(candidate.createInputStream(new ByteArrayInputStream(compressed.toByteArray())));
+      byte[] decompressed = new byte[PROBE.length];
+      in.readFully(decompressed);
+      in.close();
+      
+      return Arrays.equals(PROBE, decompressed);
+    }
+    
+    @Override
+    CompressionCodec getCodec() throws IOException {
+      if (!isSupported()) {
+        throw new IOException(getName() + " codec class not found or not usable. Did you forget to set property " + classKey + "?");
+      }
+      return codec;
+    }
+    
+    @Override
+    public InputStream createDecompressionStream(InputStream downStream, Decompressor decompressor, int downStreamBufferSize) throws IOException {
+      CompressionCodec codec = getCodec();
+      InputStream bis1 = null;
+      if (downStreamBufferSize > 0) {
+        bis1 = new BufferedInputStream(downStream, downStreamBufferSize);
+      } else {
+        bis1 = downStream;
+      }
+      CompressionInputStream cis = decompressor == null ? codec.createInputStream(bis1) : codec.createInputStream(bis1, decompressor);
+      BufferedInputStream bis2 = new BufferedInputStream(cis, DATA_IBUF_SIZE);
+      return bis2;
+    }
+    
+    @Override
+    public OutputStream createCompressionStream(OutputStream downStream, Compressor compressor, int downStreamBufferSize) throws IOException {
+      CompressionCodec codec = getCodec();
+      OutputStream bos1 = null;
+      if (downStreamBufferSize > 0) {
+        bos1 = new BufferedOutputStream(downStream, downStreamBufferSize);
+      } else {
+        bos1 = downStream;
+      }
+      CompressionOutputStream cos = compressor == null ? codec.createOutputStream(bos1) : codec.createOutputStream(bos1, compressor);
+      BufferedOutputStream bos2 = new BufferedOutputStream(new FinishOnFlushCompressionStream(cos), DATA_OBUF_SIZE);
+      return bos2;
+    }
+  }
+  
+  private static final ConcurrentHashMap<String,Algorithm> algorithms = new ConcurrentHashMap<String,Algorithm>();
+  
+  static {
+    for (Algorithm a : new Algorithm[] {Algorithm.LZO, Algorithm.GZ, Algorithm.NONE, Algorithm.SNAPPY, Algorithm.LZ4, Algorithm.ZSTANDARD}) {
+      algorithms.put(a.getName(), a);
+    }
   }
   
-  static String[] getSupportedAlgorithms() {
-    Algorithm[] algos = Algorithm.class.getEnumConstants();
+  /**
+   * Makes an algorithm available by its name, for example as the value of table.file.compress.type. Must be called the same way in every process that reads
+   * files written with the algorithm.
+   * 
+   * @throws IllegalArgumentException
+   *           if a different algorithm is already registered with the same name
+   */
+  public static void registerAlgorithm(Algorithm algorithm) {
+    Algorithm existing = algorithms.putIfAbsent(algorithm.getName(), algorithm);
+    if (existing != null && existing != algorithm)
+      throw new IllegalArgumentException("Compression algorithm already registered with name " + algorithm.getName());
+  }
+  
+  public static Algorithm getCompressionAlgorithmByName(String compressName) {
+    Algorithm algorithm = algorithms.get(compressName);
+    if (algorithm != null)
+      return algorithm;
     
+    // an algorithm that is not built in, whose codec class is configured
+    String classKey = "io.compression.codec." + compressName + ".class";
+    if (Algorithm.conf.get(classKey) != null || System.getProperty(classKey) != null) {
+      algorithms.putIfAbsent(compressName, new CodecAlgorithm(compressName, classKey, null));
+      return algorithms.get(compressName);
+    }
+    
+    throw new IllegalArgumentException("Unsupported compression algorithm name: " + compressName);
+  }
+  
+  public static String[] getSupportedAlgorithms() {
     ArrayList<String> ret = new ArrayList<String>();
-    for (Algorithm a : algos) {
+    for (Algorithm a : algorithms.values()) {
       if (a.isSupported()) {
         ret.add(a.getName());
       }
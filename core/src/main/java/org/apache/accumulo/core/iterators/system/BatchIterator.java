@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.iterators.system;
+
+import java.io.IOException;
+import java.util.Collection;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+
+/**
+ * An iterator that hands out a {@link KeyValueBatch} of sorted entries at a time, instead of one entry per call as a
+ * {@link org.apache.accumulo.core.iterators.SortedKeyValueIterator} does. Each stage of a batch pipeline makes one call per batch and loops over the entries
+ * itself, rather than every entry passing through a chain of hasTop, getTopKey and next calls.
+ *
+ * <p>
+ * {@link BatchingIterator} and {@link UnbatchingIterator} convert to and from the per entry API.
+ */
+public interface BatchIterator {
+
+  /**
+   * @see org.apache.accumulo.core.iterators.SortedKeyValueIterator#seek(Range, Collection, boolean)
+   */
+  void seek(Range range, Collection<ByteSequence> columnFamilies, boolean inclusive) throws IOException;
+
+  /**
+   * Clear the batch and fill it with the entries following the previous batch, up to the limit of the batch.
+   *
+   * @return false when there are no more entries, in which case the batch is empty. A batch may be partly full before the end.
+   */
+  boolean nextBatch(KeyValueBatch batch) throws IOException;
+
+  BatchIterator deepCopy(IteratorEnvironment env);
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.iterators.system;
+
+import java.io.IOException;
+import java.util.Collection;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.iterators.Filter;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+
+/**
+ * Applies filters to each batch of its source, one filter at a time over the whole batch. The filters are only used as predicates, so they need no source,
+ * and they are shared with deep copies, so their accept method must not depend on state changed by earlier calls.
+ */
+public class FilteredBatchIterator implements BatchIterator {
+
+  private final BatchIterator source;
+  private final Filter[] filters;
+
+  public FilteredBatchIterator(BatchIterator source, Filter... filters) {
+    this.source = source;
+    this.filters = filters;
+  }
+
+  @Override
+  public void seek(Range range, Collection<ByteSequence> columnFamilies, boolean inclusive) throws IOException {
+    source.seek(range, columnFamilies, inclusive);
+  }
+
+  @Override
+  public boolean nextBatch(KeyValueBatch batch) throws IOException {
+    while (source.nextBatch(batch)) {
+      for (Filter filter : filters) {
+        batch.retain(filter);
+      }
+      if (batch.size() > 0)
+        return true;
+    }
+    return false;
+  }
+
+  @Override
+  public BatchIterator deepCopy(IteratorEnvironment env) {
+    return new FilteredBatchIterator(source.deepCopy(env), filters);
+  }
+}
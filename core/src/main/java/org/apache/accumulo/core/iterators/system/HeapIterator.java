@@ -17,99 +17,196 @@
 package org.apache.accumulo.core.iterators.system;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
-import org.apache.commons.collections.buffer.PriorityBuffer;
 
+/**
+ * Merges sorted sources with a loser tree. Each internal node of the tree holds the source that lost the match played there, so advancing the winner only
+ * replays the matches on the path from its leaf to the root. The key of the best source other than the winner is kept, and as long as the winner's next key
+ * still sorts before it, the winner is advanced with a single comparison and the tree is left untouched.
+ *
+ * <p>
+ * Sources are added after they are seeked and the tree is built on the first call to next. The top keys of the sources are cached, so a source must only be
+ * advanced through this iterator once it is added.
+ */
 public abstract class HeapIterator implements SortedKeyValueIterator<Key,Value> {
-  private PriorityBuffer heap;
+  private SortedKeyValueIterator<Key,Value>[] sources;
+  // the top key of each source, null once the source is exhausted
+  private Key[] tops;
+  // tree[0] holds the overall winner and tree[1..size-1] the loser of each match, the leaf of source i is node size + i
+  private int[] tree;
+  private int[] winners;
+  private int size = 0;
+  private int live = 0;
+  private boolean built = false;
+
+  private int winner;
   private SortedKeyValueIterator<Key,Value> currentIter;
-  
-  private static class Index implements Comparable<Index> {
-    SortedKeyValueIterator<Key,Value> iter;
-    
-    public Index(SortedKeyValueIterator<Key,Value> iter) {
-      this.iter = iter;
-    }
-    
-    public int compareTo(Index o) {
-      return iter.getTopKey().compareTo(o.iter.getTopKey());
-    }
-  }
-  
+  // the best source other than the winner and its top key, null when the winner is the only source left
+  private int runnerUp;
+  private Key runnerUpKey;
+
   protected HeapIterator() {
-    heap = null;
+    sources = null;
   }
-  
+
   protected HeapIterator(int maxSize) {
     createHeap(maxSize);
   }
-  
+
+  @SuppressWarnings("unchecked")
   protected void createHeap(int maxSize) {
-    if (heap != null)
+    if (sources != null)
       throw new IllegalStateException("heap already exist");
-    
-    heap = new PriorityBuffer(maxSize == 0 ? 1 : maxSize);
+
+    int capacity = maxSize == 0 ? 1 : maxSize;
+    sources = new SortedKeyValueIterator[capacity];
+    tops = new Key[capacity];
+    tree = new int[capacity];
+    winners = new int[2 * capacity];
   }
-  
+
   @Override
   final public Key getTopKey() {
     return currentIter.getTopKey();
   }
-  
+
   @Override
   final public Value getTopValue() {
     return currentIter.getTopValue();
   }
-  
+
   @Override
   final public boolean hasTop() {
-    return heap.size() > 0;
+    return currentIter != null;
   }
-  
+
   @Override
   final public void next() throws IOException {
-    switch (heap.size()) {
-      case 0:
-        throw new IllegalStateException("Called next() when there is no top");
-      case 1:
-        // optimization for case when heap contains one entry,
-        // avoids remove and add
-        currentIter.next();
-        if (!currentIter.hasTop()) {
-          heap.remove();
-          currentIter = null;
-        }
-        break;
-      default:
-        Index idx = (Index) heap.remove();
-        idx.iter.next();
-        if (idx.iter.hasTop()) {
-          heap.add(idx);
-        }
-        // to get to the default case heap has at least
-        // two entries, therefore there must be at least
-        // one entry when get() is called below
-        currentIter = ((Index) heap.get()).iter;
+    if (currentIter == null)
+      throw new IllegalStateException("Called next() when there is no top");
+
+    if (!built)
+      build();
+
+    currentIter.next();
+    if (currentIter.hasTop()) {
+      Key top = currentIter.getTopKey();
+      tops[winner] = top;
+      if (runnerUpKey == null)
+        return;
+      int cmp = top.compareTo(runnerUpKey);
+      if (cmp < 0 || (cmp == 0 && winner < runnerUp)) {
+        // the winner still beats every other source, so the tree does not change
+        return;
+      }
+    } else {
+      tops[winner] = null;
+      if (--live == 0) {
+        currentIter = null;
+        runnerUpKey = null;
+        return;
+      }
     }
+
+    replay();
+  }
+
+  // true when source a must be returned before source b. Equal keys are returned in the order their sources were added, which keeps the winner picked by
+  // addSource and the tree in agreement. Exhausted sources lose to every other source.
+  private boolean beats(int a, int b) {
+    Key ka = tops[a];
+    if (ka == null)
+      return false;
+    Key kb = tops[b];
+    if (kb == null)
+      return true;
+    int cmp = ka.compareTo(kb);
+    return cmp < 0 || (cmp == 0 && a < b);
   }
-  
+
+  private void build() {
+    for (int i = 0; i < size; i++)
+      winners[size + i] = i;
+
+    for (int node = size - 1; node > 0; node--) {
+      int left = winners[2 * node];
+      int right = winners[2 * node + 1];
+      if (beats(right, left)) {
+        winners[node] = right;
+        tree[node] = left;
+      } else {
+        winners[node] = left;
+        tree[node] = right;
+      }
+    }
+
+    setWinner(size == 1 ? 0 : winners[1]);
+    built = true;
+  }
+
+  private void replay() {
+    int w = winner;
+    for (int node = (w + size) >>> 1; node > 0; node >>>= 1) {
+      int loser = tree[node];
+      if (beats(loser, w)) {
+        tree[node] = w;
+        w = loser;
+      }
+    }
+    setWinner(w);
+  }
+
+  private void setWinner(int w) {
+    winner = w;
+    tree[0] = w;
+    currentIter = sources[w];
+
+    // the runner up lost its last match to the winner, so it is one of the losers on the winner's path
+    int best = -1;
+    for (int node = (w + size) >>> 1; node > 0; node >>>= 1) {
+      int loser = tree[node];
+      if (tops[loser] != null && (best == -1 || beats(loser, best)))
+        best = loser;
+    }
+    runnerUp = best;
+    runnerUpKey = best == -1 ? null : tops[best];
+  }
+
   final protected void clear() {
-    heap.clear();
+    Arrays.fill(sources, 0, size, null);
+    Arrays.fill(tops, 0, size, null);
+    size = 0;
+    live = 0;
+    built = false;
     currentIter = null;
+    runnerUpKey = null;
   }
-  
+
   final protected void addSource(SortedKeyValueIterator<Key,Value> source) {
-    
-    if (source.hasTop())
-      heap.add(new Index(source));
-    
-    if (heap.size() > 0)
-      currentIter = ((Index) heap.get()).iter;
-    else
-      currentIter = null;
+
+    if (source.hasTop()) {
+      if (size == sources.length) {
+        sources = Arrays.copyOf(sources, size * 2);
+        tops = Arrays.copyOf(tops, size * 2);
+        tree = new int[size * 2];
+        winners = new int[size * 4];
+      }
+
+      Key top = source.getTopKey();
+      sources[size] = source;
+      tops[size] = top;
+      if (currentIter == null || top.compareTo(tops[winner]) < 0) {
+        winner = size;
+        currentIter = source;
+      }
+      size++;
+      live++;
+      built = false;
+    }
   }
-  
+
 }
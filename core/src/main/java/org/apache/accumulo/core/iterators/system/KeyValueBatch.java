@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.iterators.system;
+
+import java.util.Arrays;
+
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.Filter;
+
+/**
+ * A block of sorted key/value pairs passed between {@link BatchIterator}s.
+ *
+ * <p>
+ * Keys are held by reference. Each value added is wrapped in a new {@link Value} over the same bytes, because sources such as file iterators reuse their
+ * top value object. A value handed out by the batch is never changed when the batch is refilled, as with the per entry iterators.
+ */
+public class KeyValueBatch {
+
+  private final Key[] keys;
+  private final Value[] values;
+  private int size = 0;
+  private int limit;
+
+  public KeyValueBatch(int capacity) {
+    if (capacity < 1)
+      throw new IllegalArgumentException("capacity must be positive " + capacity);
+    keys = new Key[capacity];
+    values = new Value[capacity];
+    limit = capacity;
+  }
+
+  public int capacity() {
+    return keys.length;
+  }
+
+  /**
+   * @return the number of entries a source should add before the batch is considered full
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * Lower the number of entries added before the batch is full, so that a short lookup does not read a whole batch ahead. The limit is kept between one and
+   * the capacity.
+   */
+  public void setLimit(int limit) {
+    this.limit = Math.max(1, Math.min(limit, keys.length));
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isFull() {
+    return size >= limit;
+  }
+
+  public void clear() {
+    Arrays.fill(keys, 0, size, null);
+    Arrays.fill(values, 0, size, null);
+    size = 0;
+  }
+
+  public void add(Key key, Value value) {
+    keys[size] = key;
+    values[size] = new Value(value.get());
+    size++;
+  }
+
+  public Key getKey(int i) {
+    return keys[i];
+  }
+
+  public Value getValue(int i) {
+    return values[i];
+  }
+
+  /**
+   * Remove the entries the filter does not accept, keeping the order of the rest. Only {@link Filter#accept(Key, Value)} is called, so the filter does not
+   * need a source.
+   */
+  public void retain(Filter filter) {
+    int kept = 0;
+    for (int i = 0; i < size; i++) {
+      if (filter.accept(keys[i], values[i])) {
+        if (kept != i) {
+          keys[kept] = keys[i];
+          values[kept] = values[i];
+        }
+        kept++;
+      }
+    }
+    Arrays.fill(keys, kept, size, null);
+    Arrays.fill(values, kept, size, null);
+    size = kept;
+  }
+}
@@ -67,6 +67,13 @@ public class StatsIterator extends WrappingIterator {
     numRead = 0;
   }
   
+  /**
+   * Leave out entries that were read but not used, such as entries a batching iterator above read ahead and discarded.
+   */
+  public void unread(long count) {
+    numRead -= count;
+  }
+  
   public void report() {
     readCounter.addAndGet(numRead);
     numRead = 0;
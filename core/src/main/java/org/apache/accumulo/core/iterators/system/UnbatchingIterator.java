@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.iterators.system;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+
+/**
+ * Presents a {@link BatchIterator} as a per entry iterator, so that the iterators configured on a table can read from a batch pipeline.
+ *
+ * <p>
+ * After a seek the first batch is small and each following batch doubles up to the capacity, so a lookup that only reads a few entries does not read a full
+ * batch ahead. Entries read ahead and then discarded by a seek, or still buffered, are counted by {@link #getUnconsumedCount()} so that scan statistics can
+ * leave them out.
+ */
+public class UnbatchingIterator implements SortedKeyValueIterator<Key,Value> {
+
+  public static final int DEFAULT_CAPACITY = 256;
+  static final int INITIAL_LIMIT = 8;
+
+  private final BatchIterator source;
+  private final KeyValueBatch batch;
+  private int pos = 0;
+  private long unconsumed = 0;
+
+  public UnbatchingIterator(BatchIterator source) {
+    this(source, DEFAULT_CAPACITY);
+  }
+
+  public UnbatchingIterator(BatchIterator source, int capacity) {
+    this.source = source;
+    this.batch = new KeyValueBatch(capacity);
+  }
+
+  private void fill() throws IOException {
+    pos = 0;
+    source.nextBatch(batch);
+    batch.setLimit(batch.getLimit() * 2);
+  }
+
+  @Override
+  public void init(SortedKeyValueIterator<Key,Value> source, Map<String,String> options, IteratorEnvironment env) throws IOException {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean hasTop() {
+    return pos < batch.size();
+  }
+
+  @Override
+  public void next() throws IOException {
+    if (!hasTop())
+      throw new IllegalStateException();
+    pos++;
+    if (pos == batch.size())
+      fill();
+  }
+
+  @Override
+  public void seek(Range range, Collection<ByteSequence> columnFamilies, boolean inclusive) throws IOException {
+    unconsumed += batch.size() - pos;
+    pos = 0;
+    batch.clear();
+    source.seek(range, columnFamilies, inclusive);
+    batch.setLimit(INITIAL_LIMIT);
+    fill();
+  }
+
+  @Override
+  public Key getTopKey() {
+    return batch.getKey(pos);
+  }
+
+  @Override
+  public Value getTopValue() {
+    return batch.getValue(pos);
+  }
+
+  /**
+   * @return the number of entries read ahead and never returned, including those still buffered
+   */
+  public long getUnconsumedCount() {
+    return unconsumed + batch.size() - pos;
+  }
+
+  @Override
+  public SortedKeyValueIterator<Key,Value> deepCopy(IteratorEnvironment env) {
+    return new UnbatchingIterator(source.deepCopy(env), batch.capacity());
+  }
+}
@@ -16,13 +16,17 @@
  */
 package org.apache.accumulo.core.iterators.system;
 
+import java.util.concurrent.ExecutionException;
+
+import org.apache.accumulo.core.data.ArrayByteSequence;
+import org.apache.accumulo.core.data.ByteSequence;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.iterators.Filter;
 import org.apache.accumulo.core.iterators.IteratorEnvironment;
 import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
 import org.apache.accumulo.core.security.Authorizations;
-import org.apache.accumulo.core.security.ColumnVisibility;
+import org.apache.accumulo.core.security.CompiledVisibility;
 import org.apache.accumulo.core.security.VisibilityEvaluator;
 import org.apache.accumulo.core.security.VisibilityParseException;
 import org.apache.accumulo.core.util.BadArgumentException;
@@ -31,47 +35,141 @@ import org.apache.commons.collections.map.LRUMap;
 import org.apache.hadoop.io.Text;
 import org.apache.log4j.Logger;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+/**
+ * Filters out entries whose column visibility is not satisfied by a set of authorizations.
+ *
+ * <p>
+ * Expressions are compiled once per process and the result of evaluating an expression is shared by every filter using the same authorizations, so that
+ * scans and their deep copies do not each parse and evaluate the same expressions again.
+ *
+ * <p>
+ * The shared caches are bounded by {@link #setCacheSizes(int, int, int)}, which the tablet server calls with its configured limits. A cached result takes
+ * roughly 100 bytes plus the length of its expression and a compiled expression roughly 250 bytes plus twice its length, so with the defaults and 100 byte
+ * expressions the caches hold at most about 20 MB.
+ */
 public class VisibilityFilter extends Filter {
   protected VisibilityEvaluator ve;
   protected Text defaultVisibility;
+  // no longer used here, kept for subclasses
   protected LRUMap cache;
   protected Text tmpVis;
   protected Authorizations authorizations;
-  
+
   private static final Logger log = Logger.getLogger(VisibilityFilter.class);
-  
+
+  // keep in sync with the defaults of the tserver.visibility.cache properties
+  public static final int DEFAULT_MAX_COMPILED_EXPRESSIONS = 10000;
+  public static final int DEFAULT_MAX_CACHED_AUTHORIZATIONS = 64;
+  public static final int DEFAULT_MAX_RESULTS_PER_AUTHORIZATIONS = 1000;
+
+  private static volatile int maxResultsPerAuthorizations;
+  private static volatile Cache<ByteSequence,CompiledVisibility> compiledExpressions;
+  private static volatile LoadingCache<Authorizations,Cache<ByteSequence,Boolean>> resultsByAuthorizations;
+
+  static {
+    setCacheSizes(DEFAULT_MAX_COMPILED_EXPRESSIONS, DEFAULT_MAX_CACHED_AUTHORIZATIONS, DEFAULT_MAX_RESULTS_PER_AUTHORIZATIONS);
+  }
+
+  /**
+   * Replaces the caches shared by all filters in this process with empty caches of the given sizes. Filters that already looked up their results keep using
+   * the old results cache until they are discarded.
+   *
+   * @param maxExpressions
+   *          the maximum number of compiled expressions
+   * @param maxAuthorizations
+   *          the maximum number of authorizations whose results are cached
+   * @param maxResultsPerAuthorizations
+   *          the maximum number of results cached for each authorizations
+   */
+  public static synchronized void setCacheSizes(int maxExpressions, int maxAuthorizations, final int maxResultsPerAuthorizations) {
+    if (maxExpressions < 1 || maxAuthorizations < 1 || maxResultsPerAuthorizations < 1)
+      throw new IllegalArgumentException("cache sizes must be positive " + maxExpressions + " " + maxAuthorizations + " " + maxResultsPerAuthorizations);
+
+    VisibilityFilter.maxResultsPerAuthorizations = maxResultsPerAuthorizations;
+    compiledExpressions = CacheBuilder.newBuilder().maximumSize(maxExpressions).build();
+    resultsByAuthorizations = CacheBuilder.newBuilder().maximumSize(maxAuthorizations)
+        .build(new CacheLoader<Authorizations,Cache<ByteSequence,Boolean>>() {
+          @Override
+          public Cache<ByteSequence,Boolean> load(Authorizations auths) {
+            return CacheBuilder.newBuilder().maximumSize(maxResultsPerAuthorizations).build();
+          }
+        });
+  }
+
+  // visible for testing
+  static long getCachedExpressionCount() {
+    return compiledExpressions.size();
+  }
+
+  // visible for testing
+  static long getCachedAuthorizationsCount() {
+    return resultsByAuthorizations.size();
+  }
+
+  // the results for this filter's authorizations, looked up on first use because subclasses set the authorizations in init
+  private Cache<ByteSequence,Boolean> results;
+
   public VisibilityFilter() {}
-  
+
   public VisibilityFilter(SortedKeyValueIterator<Key,Value> iterator, Authorizations authorizations, byte[] defaultVisibility) {
     setSource(iterator);
     this.ve = new VisibilityEvaluator(authorizations);
     this.authorizations = authorizations;
     this.defaultVisibility = new Text(defaultVisibility);
-    this.cache = new LRUMap(1000);
-    this.tmpVis = new Text();
   }
-  
+
   @Override
   public SortedKeyValueIterator<Key,Value> deepCopy(IteratorEnvironment env) {
     return new VisibilityFilter(getSource().deepCopy(env), authorizations, TextUtil.getBytes(defaultVisibility));
   }
-  
+
+  private Cache<ByteSequence,Boolean> getResults() {
+    if (results == null && authorizations == null) {
+      // a subclass that only set the evaluator, its results can not be shared
+      results = CacheBuilder.newBuilder().maximumSize(maxResultsPerAuthorizations).build();
+    } else if (results == null) {
+      try {
+        results = resultsByAuthorizations.get(authorizations);
+      } catch (ExecutionException e) {
+        throw new RuntimeException(e);
+      }
+    }
+    return results;
+  }
+
+  private static CompiledVisibility compile(ByteSequence expression) throws VisibilityParseException {
+    Cache<ByteSequence,CompiledVisibility> expressions = compiledExpressions;
+    CompiledVisibility compiled = expressions.getIfPresent(expression);
+    if (compiled == null) {
+      byte[] copy = expression.toArray();
+      compiled = CompiledVisibility.compile(copy);
+      expressions.put(new ArrayByteSequence(copy), compiled);
+    }
+    return compiled;
+  }
+
   @Override
   public boolean accept(Key k, Value v) {
-    Text testVis = k.getColumnVisibility(tmpVis);
-    
-    if (testVis.getLength() == 0 && defaultVisibility.getLength() == 0)
+    ByteSequence testVis = k.getColumnVisibilityData();
+
+    if (testVis.length() == 0 && defaultVisibility.getLength() == 0)
       return true;
-    else if (testVis.getLength() == 0)
-      testVis = defaultVisibility;
-    
-    Boolean b = (Boolean) cache.get(testVis);
+    else if (testVis.length() == 0)
+      testVis = new ArrayByteSequence(defaultVisibility.getBytes(), 0, defaultVisibility.getLength());
+
+    Cache<ByteSequence,Boolean> results = getResults();
+    Boolean b = results.getIfPresent(testVis);
     if (b != null)
       return b;
-    
+
     try {
-      Boolean bb = ve.evaluate(new ColumnVisibility(testVis));
-      cache.put(new Text(testVis), bb);
+      boolean bb = ve.evaluate(compile(testVis));
+      results.put(new ArrayByteSequence(testVis.toArray()), bb);
       return bb;
     } catch (VisibilityParseException e) {
       log.error("Parse Error", e);
@@ -60,6 +60,7 @@ public class VisibilityFilter extends org.apache.accumulo.core.iterators.system.
       String auths = options.get(AUTHS);
       Authorizations authObj = auths == null || auths.isEmpty() ? new Authorizations() : new Authorizations(auths.getBytes(Constants.UTF8));
       this.ve = new VisibilityEvaluator(authObj);
+      this.authorizations = authObj;
       this.defaultVisibility = new Text();
     }
     this.cache = new LRUMap(1000);
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.security;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.accumulo.core.data.ArrayByteSequence;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.security.ColumnVisibility.Node;
+
+/**
+ * A column visibility expression compiled into a flat program, so that it can be evaluated by {@link VisibilityEvaluator#evaluate(CompiledVisibility)}
+ * without parsing the expression again, walking a tree of nodes or allocating. A compiled visibility is immutable and may be shared by threads evaluating it
+ * against different authorizations.
+ *
+ * @since 1.7.0
+ */
+public final class CompiledVisibility {
+
+  // The program lists the nodes of the parse tree in pre-order. A term is stored as its index into terms. An AND or OR node is stored as its operator,
+  // followed by the length of the node including its children, followed by its children.
+  private static final int AND = -1;
+  private static final int OR = -2;
+
+  // authorizations are checked for at most this many distinct terms up front and kept as bits
+  private static final int MAX_TERM_BITS = 64;
+
+  private final ByteSequence[] terms;
+  private final int[] program;
+
+  private CompiledVisibility(ByteSequence[] terms, int[] program) {
+    this.terms = terms;
+    this.program = program;
+  }
+
+  /**
+   * @param expression
+   *          a column visibility expression, as UTF-8 encoded bytes
+   * @throws org.apache.accumulo.core.util.BadArgumentException
+   *           if the expression is not a valid column visibility
+   */
+  public static CompiledVisibility compile(byte[] expression) throws VisibilityParseException {
+    return compile(new ColumnVisibility(expression));
+  }
+
+  public static CompiledVisibility compile(ColumnVisibility visibility) throws VisibilityParseException {
+    byte[] expression = visibility.getExpression();
+    List<ByteSequence> terms = new ArrayList<ByteSequence>();
+    List<Integer> program = new ArrayList<Integer>();
+    if (expression.length > 0)
+      compile(expression, visibility.getParseTree(), terms, new HashMap<ByteSequence,Integer>(), program);
+
+    int[] compiled = new int[program.size()];
+    for (int i = 0; i < compiled.length; i++)
+      compiled[i] = program.get(i);
+    return new CompiledVisibility(terms.toArray(new ByteSequence[terms.size()]), compiled);
+  }
+
+  private static void compile(byte[] expression, Node node, List<ByteSequence> terms, Map<ByteSequence,Integer> termIndexes, List<Integer> program)
+      throws VisibilityParseException {
+    switch (node.type) {
+      case TERM:
+        ByteSequence term = node.getTerm(expression);
+        Integer index = termIndexes.get(term);
+        if (index == null) {
+          // copy the term, so the compiled visibility does not hold on to the whole expression
+          term = new ArrayByteSequence(term.toArray());
+          index = terms.size();
+          terms.add(term);
+          termIndexes.put(term, index);
+        }
+        program.add(index);
+        break;
+      case AND:
+      case OR:
+        if (node.children == null || node.children.size() < 2)
+          throw new VisibilityParseException(node.type + " has less than 2 children", expression, node.start);
+        int start = program.size();
+        program.add(node.type == ColumnVisibility.NodeType.AND ? AND : OR);
+        // filled in once the children are compiled
+        program.add(0);
+        for (Node child : node.children)
+          compile(expression, child, terms, termIndexes, program);
+        program.set(start + 1, program.size() - start);
+        break;
+      default:
+        throw new VisibilityParseException("No such node type", expression, node.start);
+    }
+  }
+
+  boolean evaluate(AuthorizationContainer auths) {
+    if (program.length == 0)
+      return true;
+
+    if (terms.length <= MAX_TERM_BITS) {
+      long bits = 0;
+      for (int i = 0; i < terms.length; i++)
+        if (auths.contains(terms[i]))
+          bits |= 1L << i;
+      return evaluate(bits, 0);
+    }
+
+    return evaluate(auths, 0);
+  }
+
+  private int length(int pc) {
+    return program[pc] >= 0 ? 1 : program[pc + 1];
+  }
+
+  private boolean evaluate(long bits, int pc) {
+    int op = program[pc];
+    if (op >= 0)
+      return (bits & (1L << op)) != 0;
+
+    int end = pc + program[pc + 1];
+    // an AND is decided by the first false child and an OR by the first true child
+    boolean decisive = op == OR;
+    for (int child = pc + 2; child < end; child += length(child)) {
+      if (evaluate(bits, child) == decisive)
+        return decisive;
+    }
+    return !decisive;
+  }
+
+  private boolean evaluate(AuthorizationContainer auths, int pc) {
+    int op = program[pc];
+    if (op >= 0)
+      return auths.contains(terms[op]);
+
+    int end = pc + program[pc + 1];
+    boolean decisive = op == OR;
+    for (int child = pc + 2; child < end; child += length(child)) {
+      if (evaluate(auths, child) == decisive)
+        return decisive;
+    }
+    return !decisive;
+  }
+}
@@ -113,6 +113,18 @@ public class VisibilityEvaluator {
     return evaluate(visibility.getExpression(), visibility.getParseTree());
   }
   
+  /**
+   * Evaluates a compiled column visibility against the authorizations provided to this evaluator. This gives the same result as evaluating the
+   * {@link ColumnVisibility} it was compiled from, without walking its parse tree.
+   *
+   * @param visibility compiled column visibility to evaluate
+   * @return true if visibility passes evaluation
+   * @since 1.7.0
+   */
+  public boolean evaluate(CompiledVisibility visibility) {
+    return visibility.evaluate(auths);
+  }
+  
   private final boolean evaluate(final byte[] expression, final Node root) throws VisibilityParseException {
     if (expression.length == 0)
       return true;
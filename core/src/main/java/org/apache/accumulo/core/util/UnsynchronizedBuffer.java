@@ -183,7 +183,7 @@ public class UnsynchronizedBuffer {
      */
     public Reader(ByteBuffer buffer) {
       if (buffer.hasArray()) {
-        offset = buffer.arrayOffset();
+        offset = buffer.arrayOffset() + buffer.position();
         data = buffer.array();
       } else {
         data = new byte[buffer.remaining()];
@@ -57,7 +57,8 @@ struct TKeyValue {
 
 struct ScanResult {
 	1:list<TKeyValue> results,
-	2:bool more
+	2:bool more,
+	3:binary packedResults
 }
 
 struct TRange {
@@ -107,7 +108,9 @@ struct TConstraintViolationSummary {
 struct UpdateErrors {
 	1:map<TKeyExtent, i64> failedExtents,
 	2:list<TConstraintViolationSummary> violationSummaries,
-	3:map<TKeyExtent, client.SecurityErrorCode> authorizationFailures
+	3:map<TKeyExtent, client.SecurityErrorCode> authorizationFailures,
+	4:double memoryPressure,
+	5:i64 holdTime
 }
 
 enum TCMStatus {
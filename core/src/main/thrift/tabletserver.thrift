@@ -102,6 +102,14 @@ enum CompactionReason {
    CLOSE
 }
 
+enum TDurability {
+   DEFAULT = 0,
+   SYNC = 1,
+   FLUSH = 2,
+   LOG = 3,
+   NONE = 4
+}
+
 struct ActiveCompaction {
     1:data.TKeyExtent extent
     2:i64 age
@@ -140,7 +148,9 @@ service TabletClientService extends client.ClientService {
                              8:list<binary> authorizations
                              9:bool waitForWrites,
                              10:bool isolated,
-                             12:i64 readaheadThreshold)  throws (1:client.ThriftSecurityException sec, 2:NotServingTabletException nste, 3:TooManyFilesException tmfe),
+                             12:i64 readaheadThreshold,
+                             13:bool noCachePopulation,
+                             14:bool packResults)  throws (1:client.ThriftSecurityException sec, 2:NotServingTabletException nste, 3:TooManyFilesException tmfe),
                              
   data.ScanResult continueScan(2:trace.TInfo tinfo, 1:data.ScanID scanID)  throws (1:NoSuchScanIDException nssi, 2:NotServingTabletException nste, 3:TooManyFilesException tmfe),
   oneway void closeScan(2:trace.TInfo tinfo, 1:data.ScanID scanID),
@@ -153,17 +163,18 @@ service TabletClientService extends client.ClientService {
                                   4:list<data.IterInfo> ssiList,
                                   5:map<string, map<string, string>> ssio,
                                   6:list<binary> authorizations
-                                  7:bool waitForWrites)  throws (1:client.ThriftSecurityException sec),
+                                  7:bool waitForWrites,
+                                  9:bool noCachePopulation)  throws (1:client.ThriftSecurityException sec),
   data.MultiScanResult continueMultiScan(2:trace.TInfo tinfo, 1:data.ScanID scanID) throws (1:NoSuchScanIDException nssi),
   void closeMultiScan(2:trace.TInfo tinfo, 1:data.ScanID scanID) throws (1:NoSuchScanIDException nssi),
   
   //the following calls support a batch update to multiple tablets on a tablet server
-  data.UpdateID startUpdate(2:trace.TInfo tinfo, 1:security.TCredentials credentials) throws (1:client.ThriftSecurityException sec),
+  data.UpdateID startUpdate(2:trace.TInfo tinfo, 1:security.TCredentials credentials, 3:TDurability durability) throws (1:client.ThriftSecurityException sec),
   oneway void applyUpdates(1:trace.TInfo tinfo, 2:data.UpdateID updateID, 3:data.TKeyExtent keyExtent, 4:list<data.TMutation> mutations),
   data.UpdateErrors closeUpdate(2:trace.TInfo tinfo, 1:data.UpdateID updateID) throws (1:NoSuchScanIDException nssi),
 
   //the following call supports making a single update to a tablet
-  void update(4:trace.TInfo tinfo, 1:security.TCredentials credentials, 2:data.TKeyExtent keyExtent, 3:data.TMutation mutation)
+  void update(4:trace.TInfo tinfo, 1:security.TCredentials credentials, 2:data.TKeyExtent keyExtent, 3:data.TMutation mutation, 5:TDurability durability)
     throws (1:client.ThriftSecurityException sec, 
             2:NotServingTabletException nste, 
             3:ConstraintViolationException cve),
@@ -46,6 +46,8 @@ public class BatchWriterConfigTest {
     assertEquals(expectedMaxLatency, defaults.getMaxLatency(TimeUnit.MILLISECONDS));
     assertEquals(expectedTimeout, defaults.getTimeout(TimeUnit.MILLISECONDS));
     assertEquals(expectedMaxWriteThreads, defaults.getMaxWriteThreads());
+    assertEquals(1, defaults.getMaxWriteThreadsPerServer());
+    assertEquals(Durability.DEFAULT, defaults.getDurability());
   }
   
   @Test
@@ -55,11 +57,15 @@ public class BatchWriterConfigTest {
     bwConfig.setMaxLatency(22, TimeUnit.HOURS);
     bwConfig.setTimeout(33, TimeUnit.DAYS);
     bwConfig.setMaxWriteThreads(42);
+    bwConfig.setMaxWriteThreadsPerServer(4);
+    bwConfig.setDurability(Durability.NONE);
     
     assertEquals(1123581321l, bwConfig.getMaxMemory());
     assertEquals(22 * 60 * 60 * 1000l, bwConfig.getMaxLatency(TimeUnit.MILLISECONDS));
     assertEquals(33 * 24 * 60 * 60 * 1000l, bwConfig.getTimeout(TimeUnit.MILLISECONDS));
     assertEquals(42, bwConfig.getMaxWriteThreads());
+    assertEquals(4, bwConfig.getMaxWriteThreadsPerServer());
+    assertEquals(Durability.NONE, bwConfig.getDurability());
   }
   
   @Test
@@ -125,6 +131,12 @@ public class BatchWriterConfigTest {
     bwConfig.setMaxWriteThreads(-1);
   }
   
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroMaxWriteThreadsPerServer() {
+    BatchWriterConfig bwConfig = new BatchWriterConfig();
+    bwConfig.setMaxWriteThreadsPerServer(0);
+  }
+  
   @Test
   public void testSerialize() throws IOException {
     // make sure we aren't testing defaults
@@ -140,6 +152,8 @@ public class BatchWriterConfigTest {
     bwConfig.setTimeout(9898989l, TimeUnit.MILLISECONDS);
     bwConfig.setMaxWriteThreads(42);
     bwConfig.setMaxMemory(1123581321l);
+    bwConfig.setMaxWriteThreadsPerServer(5);
+    bwConfig.setDurability(Durability.FLUSH);
     byte[] bytes = createBytes(bwConfig);
     checkBytes(bwConfig, bytes);
     
@@ -157,6 +171,13 @@ public class BatchWriterConfigTest {
     bytes = createBytes(bwConfig);
     assertEquals("     v#maxWriteThreads=24,timeout=3000", new String(bytes, Constants.UTF8));
     checkBytes(bwConfig, bytes);
+    
+    // test human-readable durability
+    bwConfig = new BatchWriterConfig();
+    bwConfig.setDurability(Durability.LOG);
+    bytes = createBytes(bwConfig);
+    assertEquals("     e#durability=LOG", new String(bytes, Constants.UTF8));
+    checkBytes(bwConfig, bytes);
   }
   
   private byte[] createBytes(BatchWriterConfig bwConfig) throws IOException {
@@ -174,6 +195,8 @@ public class BatchWriterConfigTest {
     assertEquals(bwConfig.getMaxLatency(TimeUnit.MILLISECONDS), createdConfig.getMaxLatency(TimeUnit.MILLISECONDS));
     assertEquals(bwConfig.getTimeout(TimeUnit.MILLISECONDS), createdConfig.getTimeout(TimeUnit.MILLISECONDS));
     assertEquals(bwConfig.getMaxWriteThreads(), createdConfig.getMaxWriteThreads());
+    assertEquals(bwConfig.getMaxWriteThreadsPerServer(), createdConfig.getMaxWriteThreadsPerServer());
+    assertEquals(bwConfig.getDurability(), createdConfig.getDurability());
   }
   
 }
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.client.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.accumulo.core.client.Durability;
+import org.junit.Test;
+
+public class DurabilityImplTest {
+
+  @Test
+  public void testThriftRoundTrip() {
+    for (Durability durability : Durability.values())
+      assertEquals(durability, DurabilityImpl.fromThrift(DurabilityImpl.toThrift(durability)));
+    assertEquals(Durability.DEFAULT, DurabilityImpl.fromThrift(null));
+  }
+
+  @Test
+  public void testFromString() {
+    assertEquals(Durability.SYNC, DurabilityImpl.fromString("sync"));
+    assertEquals(Durability.FLUSH, DurabilityImpl.fromString("flush"));
+    assertEquals(Durability.LOG, DurabilityImpl.fromString("log"));
+    assertEquals(Durability.NONE, DurabilityImpl.fromString("none"));
+  }
+
+  @Test
+  public void testResolve() {
+    assertEquals(Durability.LOG, DurabilityImpl.resolveDurability(Durability.DEFAULT, Durability.LOG));
+    assertEquals(Durability.SYNC, DurabilityImpl.resolveDurability(Durability.SYNC, Durability.NONE));
+    assertEquals(Durability.NONE, DurabilityImpl.resolveDurability(Durability.NONE, Durability.SYNC));
+  }
+
+  @Test
+  public void testMax() {
+    assertEquals(Durability.SYNC, DurabilityImpl.max(Durability.FLUSH, Durability.SYNC));
+    assertEquals(Durability.FLUSH, DurabilityImpl.max(Durability.FLUSH, Durability.LOG));
+    assertEquals(Durability.LOG, DurabilityImpl.max(Durability.NONE, Durability.LOG));
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.client.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.accumulo.core.Constants;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.KeyValue;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.junit.Test;
+
+public class PackedKeyValuesTest {
+
+  private static List<KeyValue> createResults(int rows) {
+    Random rand = new Random(42);
+    List<KeyValue> results = new ArrayList<KeyValue>();
+    for (int r = 0; r < rows; r++) {
+      for (int c = 0; c < 5; c++) {
+        Key key = new Key(String.format("row_%06d", r), "cf" + (c % 2), "cq" + c, new ColumnVisibility(c % 3 == 0 ? "A&B" : ""), 1000 + c);
+        if (c == 4)
+          key.setDeleted(true);
+        byte[] value = new byte[rand.nextInt(20)];
+        rand.nextBytes(value);
+        results.add(new KeyValue(key, value));
+      }
+    }
+    return results;
+  }
+
+  private static void assertEntries(List<KeyValue> expected, List<KeyValue> actual) {
+    assertEquals(expected.size(), actual.size());
+    int i = 0;
+    for (KeyValue kv : actual) {
+      assertEquals(expected.get(i).key, kv.key);
+      assertEquals(expected.get(i).key.isDeleted(), kv.key.isDeleted());
+      assertArrayEquals(expected.get(i).value, kv.value);
+      i++;
+    }
+    assertEquals(expected.size(), i);
+  }
+
+  private void runRoundTrip(boolean compress) {
+    List<KeyValue> results = createResults(100);
+    PackedKeyValues packed = new PackedKeyValues(PackedKeyValues.pack(results, compress));
+
+    assertEquals(results.size(), packed.size());
+    assertEquals(results.get(results.size() - 1).key, packed.getLastKey());
+
+    // iterating twice decodes the buffer twice
+    assertEntries(results, packed);
+    assertEntries(results, packed);
+
+    // random access decodes every entry once
+    for (int i = results.size() - 1; i >= 0; i--)
+      assertEquals(results.get(i).key, packed.get(i).key);
+    assertEntries(results, packed);
+  }
+
+  @Test
+  public void testRoundTrip() {
+    runRoundTrip(false);
+  }
+
+  @Test
+  public void testRoundTripCompressed() {
+    runRoundTrip(true);
+  }
+
+  @Test
+  public void testEmpty() {
+    for (boolean compress : new boolean[] {false, true}) {
+      PackedKeyValues packed = new PackedKeyValues(PackedKeyValues.pack(Collections.<KeyValue> emptyList(), compress));
+      assertEquals(0, packed.size());
+      assertNull(packed.getLastKey());
+      assertTrue(packed.isEmpty());
+      assertTrue(!packed.iterator().hasNext());
+    }
+  }
+
+  @Test
+  public void testSmallerThanKeyValues() {
+    List<KeyValue> results = createResults(100);
+    long unpacked = 0;
+    for (KeyValue kv : results)
+      unpacked += kv.key.getSize() + kv.value.length;
+    ByteBuffer packed = PackedKeyValues.pack(results, false);
+    assertTrue(packed.remaining() < unpacked);
+    assertEquals("row_000099", new String(new PackedKeyValues(packed).getLastKey().getRowData().toArray(), Constants.UTF8));
+  }
+}
@@ -46,5 +46,23 @@ public class ScannerImplTest {
     Scanner s = new ScannerImpl(instance, new Credentials("root", new PasswordToken("")), "foo", new Authorizations());
     s.setReadaheadThreshold(-1);
   }
+  
+  @Test
+  public void testValidReadaheadBatches() {
+    MockInstance instance = new MockInstance();
+    ScannerImpl s = new ScannerImpl(instance, new Credentials("root", new PasswordToken("")), "foo", new Authorizations());
+    Assert.assertEquals(1, s.getReadaheadBatches());
+    s.setReadaheadBatches(1);
+    s.setReadaheadBatches(Integer.MAX_VALUE);
+    
+    Assert.assertEquals(Integer.MAX_VALUE, s.getReadaheadBatches());
+  }
+  
+  @Test(expected = IllegalArgumentException.class)
+  public void testInValidReadaheadBatches() {
+    MockInstance instance = new MockInstance();
+    ScannerImpl s = new ScannerImpl(instance, new Credentials("root", new PasswordToken("")), "foo", new Authorizations());
+    s.setReadaheadBatches(0);
+  }
 
 }
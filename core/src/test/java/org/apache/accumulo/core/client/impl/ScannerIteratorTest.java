@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.client.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.accumulo.core.client.AccumuloException;
+import org.apache.accumulo.core.client.mock.MockInstance;
+import org.apache.accumulo.core.client.security.tokens.PasswordToken;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.KeyValue;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.security.Credentials;
+import org.apache.accumulo.core.util.UtilWaitThread;
+import org.apache.hadoop.io.Text;
+import org.junit.Test;
+
+public class ScannerIteratorTest {
+
+  private static final int ENTRIES_PER_BATCH = 2;
+
+  /**
+   * Returns scripted batches instead of scanning a tablet server. Each script element is a batch, null for the end of the scan, or an exception to throw.
+   */
+  private static class ScriptedScannerIterator extends ScannerIterator {
+    private final List<Object> script;
+    private final AtomicInteger reads = new AtomicInteger(0);
+    private final AtomicInteger maxQueuedAtRead = new AtomicInteger(0);
+
+    ScriptedScannerIterator(int readaheadBatches, Object... script) {
+      this(new ScannerOptions(), readaheadBatches, script);
+    }
+
+    ScriptedScannerIterator(ScannerOptions options, int readaheadBatches, Object... script) {
+      // read ahead starts after the first batch, so no reader runs before this constructor finishes
+      super(new MockInstance(), new Credentials("root", new PasswordToken("")), new Text("foo"), new Authorizations(), new Range(), 1000,
+          Integer.MAX_VALUE, options, false, 1, readaheadBatches);
+      this.script = Arrays.asList(script);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    List<KeyValue> readBatch() throws AccumuloException {
+      int queued = getQueuedBatches();
+      while (true) {
+        int max = maxQueuedAtRead.get();
+        if (queued <= max || maxQueuedAtRead.compareAndSet(max, queued))
+          break;
+      }
+
+      Object next = script.get(reads.getAndIncrement());
+      if (next instanceof AccumuloException)
+        throw (AccumuloException) next;
+      return (List<KeyValue>) next;
+    }
+  }
+
+  private static List<KeyValue> batch(int batch) {
+    List<KeyValue> entries = new ArrayList<KeyValue>();
+    for (int i = 0; i < ENTRIES_PER_BATCH; i++) {
+      entries.add(new KeyValue(key(batch, i), ("v" + batch).getBytes()));
+    }
+    return entries;
+  }
+
+  private static Key key(int batch, int entry) {
+    return new Key(String.format("r%04d_%d", batch, entry));
+  }
+
+  private static Object[] script(int batches, Object end) {
+    Object[] script = new Object[batches + 1];
+    for (int i = 0; i < batches; i++) {
+      script[i] = batch(i);
+    }
+    script[batches] = end;
+    return script;
+  }
+
+  /**
+   * Take the first two batches, which starts read ahead, and wait for the reader to stop.
+   */
+  private static void startReadahead(ScriptedScannerIterator iter, int expectedQueued) {
+    for (int i = 0; i < ENTRIES_PER_BATCH + 1; i++) {
+      assertTrue(iter.hasNext());
+      iter.next();
+    }
+
+    long deadline = System.currentTimeMillis() + 10 * 1000;
+    while ((iter.isReadaheadInProgress() || iter.getQueuedBatches() < expectedQueued) && System.currentTimeMillis() < deadline) {
+      // a reader that delivered the end of the scan does not clear the flag, so stop waiting once the queue is full
+      if (iter.getQueuedBatches() == expectedQueued)
+        break;
+      UtilWaitThread.sleep(10);
+    }
+    assertEquals(expectedQueued, iter.getQueuedBatches());
+  }
+
+  /**
+   * Consume the rest of the scan, starting in the middle of the second batch.
+   */
+  private static void consumeRest(ScriptedScannerIterator iter, int batches, int readaheadBatches) {
+    for (int b = 1; b < batches; b++) {
+      for (int i = b == 1 ? 1 : 0; i < ENTRIES_PER_BATCH; i++) {
+        assertTrue(iter.hasNext());
+        Entry<Key,Value> entry = iter.next();
+        assertEquals(key(b, i), entry.getKey());
+        assertTrue(iter.getQueuedBatches() <= readaheadBatches);
+      }
+    }
+  }
+
+  @Test
+  public void testReadaheadStopsAtCredit() {
+    ScriptedScannerIterator iter = new ScriptedScannerIterator(3, script(10, null));
+
+    // two batches read in line, then three read ahead
+    startReadahead(iter, 3);
+    assertEquals(5, iter.reads.get());
+    assertFalse(iter.isReadaheadInProgress());
+
+    consumeRest(iter, 10, 3);
+    assertFalse(iter.hasNext());
+    assertEquals(11, iter.reads.get());
+    assertTrue(iter.maxQueuedAtRead.get() <= 2);
+  }
+
+  @Test
+  public void testEndDeliveredWithFullQueue() {
+    // the end of the scan takes the last slot of credit
+    ScriptedScannerIterator iter = new ScriptedScannerIterator(3, script(4, null));
+
+    startReadahead(iter, 3);
+    assertEquals(5, iter.reads.get());
+
+    consumeRest(iter, 4, 3);
+    assertFalse(iter.hasNext());
+    assertFalse(iter.hasNext());
+    assertEquals(5, iter.reads.get());
+  }
+
+  @Test
+  public void testExceptionDeliveredWithFullQueue() {
+    AccumuloException failure = new AccumuloException("scripted failure");
+    ScriptedScannerIterator iter = new ScriptedScannerIterator(3, script(4, failure));
+
+    startReadahead(iter, 3);
+    assertEquals(5, iter.reads.get());
+
+    consumeRest(iter, 4, 3);
+    try {
+      iter.hasNext();
+      fail("expected the scan to fail");
+    } catch (RuntimeException e) {
+      assertEquals(failure, e.getCause());
+    }
+    assertFalse(iter.hasNext());
+  }
+
+  @Test
+  public void testBlockCachePopulation() {
+    assertTrue(new ScriptedScannerIterator(1, script(1, null)).getPopulateBlockCache());
+
+    // the setting is sent with every scan request
+    ScannerOptions options = new ScannerOptions();
+    options.setBlockCachePopulation(false);
+    ScriptedScannerIterator iter = new ScriptedScannerIterator(options, 1, script(1, null));
+    assertFalse(iter.getPopulateBlockCache());
+
+    // later changes to the scanner do not affect a running scan
+    options.setBlockCachePopulation(true);
+    assertFalse(iter.getPopulateBlockCache());
+  }
+
+  @Test
+  public void testSingleBatchReadahead() {
+    ScriptedScannerIterator iter = new ScriptedScannerIterator(1, script(6, null));
+
+    // as before batches could be read ahead, one batch is read ahead of the consumer
+    startReadahead(iter, 1);
+    assertEquals(3, iter.reads.get());
+    assertFalse(iter.isReadaheadInProgress());
+
+    consumeRest(iter, 6, 1);
+    assertFalse(iter.hasNext());
+    assertEquals(7, iter.reads.get());
+    // a batch was never requested while another was waiting to be consumed
+    assertEquals(0, iter.maxQueuedAtRead.get());
+  }
+}
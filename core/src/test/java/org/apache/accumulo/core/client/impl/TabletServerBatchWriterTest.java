@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.client.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.accumulo.core.client.impl.TabletServerBatchWriter.ServerLoad;
+import org.junit.Test;
+
+public class TabletServerBatchWriterTest {
+
+  @Test
+  public void testServerLoadBacksOff() {
+    ServerLoad load = new ServerLoad(4, 32 * ServerLoad.MIN_SESSION_BYTES);
+    assertEquals(4, load.getSenders());
+    assertEquals(32 * ServerLoad.MIN_SESSION_BYTES, load.getSessionBytes());
+
+    load.update(0.95, 0);
+    assertEquals(2, load.getSenders());
+    assertEquals(16 * ServerLoad.MIN_SESSION_BYTES, load.getSessionBytes());
+
+    // held commits back off even if the memory pressure has already dropped
+    load.update(0.5, 1000);
+    assertEquals(1, load.getSenders());
+    assertEquals(8 * ServerLoad.MIN_SESSION_BYTES, load.getSessionBytes());
+
+    for (int i = 0; i < 10; i++)
+      load.update(1.0, 5000);
+    assertEquals(1, load.getSenders());
+    assertEquals(ServerLoad.MIN_SESSION_BYTES, load.getSessionBytes());
+  }
+
+  @Test
+  public void testServerLoadRecovers() {
+    ServerLoad load = new ServerLoad(3, 8 * ServerLoad.MIN_SESSION_BYTES);
+    for (int i = 0; i < 5; i++)
+      load.update(0.99, 100);
+    assertEquals(1, load.getSenders());
+
+    // between the thresholds nothing changes
+    load.update(0.8, 0);
+    assertEquals(1, load.getSenders());
+    assertEquals(ServerLoad.MIN_SESSION_BYTES, load.getSessionBytes());
+
+    load.update(0.1, 0);
+    assertEquals(2, load.getSenders());
+    assertEquals(2 * ServerLoad.MIN_SESSION_BYTES, load.getSessionBytes());
+
+    for (int i = 0; i < 10; i++)
+      load.update(0.1, 0);
+    assertEquals(3, load.getSenders());
+    assertEquals(8 * ServerLoad.MIN_SESSION_BYTES, load.getSessionBytes());
+  }
+
+  @Test
+  public void testServerLoadMinimumSession() {
+    ServerLoad load = new ServerLoad(1, 10);
+    assertEquals(ServerLoad.MIN_SESSION_BYTES, load.getSessionBytes());
+  }
+}
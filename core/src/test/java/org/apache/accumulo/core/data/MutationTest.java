@@ -21,6 +21,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
 
@@ -600,6 +601,50 @@ public class MutationTest  {
     assertEquals(m1, m2);
   }
   
+  @Test
+  public void testThriftDataSlice() throws IOException {
+    Mutation m1 = new Mutation("r1");
+    m1.put("cf1", "cq1", "v1");
+    m1.putDelete("cf2", "cq2", 42l);
+    TMutation tm1 = m1.toThrift();
+    
+    // place the serialized data in the middle of a larger buffer, like a frame received by a tablet server
+    byte[] data = new byte[tm1.data.remaining()];
+    tm1.data.duplicate().get(data);
+    byte[] frame = new byte[data.length + 20];
+    Arrays.fill(frame, (byte) 0x7f);
+    System.arraycopy(data, 0, frame, 7, data.length);
+    tm1.setData(ByteBuffer.wrap(frame, 7, data.length));
+    
+    Mutation m2 = new Mutation(tm1);
+    assertEquals(m1, m2);
+    assertEquals(m1.numBytes(), m2.numBytes());
+    assertEquals(m1.getUpdates(), m2.getUpdates());
+    
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    m2.write(new DataOutputStream(bos));
+    Mutation m3 = new Mutation();
+    m3.readFields(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+    assertEquals(m1, m3);
+    assertEquals(m1, new Mutation(m2.toThrift()));
+  }
+  
+  @Test
+  public void testInitialBufferSize() {
+    Mutation m1 = new Mutation("r1");
+    Mutation m2 = new Mutation("r1", 1024);
+    Mutation m3 = new Mutation(new Text("r1"), 4);
+    for (int i = 0; i < 20; i++) {
+      m1.put("cf" + i, "cq", "v" + i);
+      m2.put("cf" + i, "cq", "v" + i);
+      m3.put("cf" + i, "cq", "v" + i);
+    }
+    assertEquals(m1, m2);
+    assertEquals(m1, m3);
+    assertEquals(m1.numBytes(), m2.numBytes());
+    assertEquals(m1.getUpdates(), m3.getUpdates());
+  }
+  
   @Test(expected=IllegalArgumentException.class)
   public void testThrift_Invalid() {
     Mutation m1 = new Mutation("r1");
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.file.blockfile.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class TestFrequencyAdmissionPolicy {
+
+  @Test
+  public void testSketchCounts() {
+    FrequencySketch sketch = new FrequencySketch(1024);
+    assertEquals(0, sketch.frequency("a"));
+    for (int i = 0; i < 5; i++)
+      sketch.increment("a");
+    assertTrue(sketch.frequency("a") >= 5);
+
+    // counters saturate
+    for (int i = 0; i < 100; i++)
+      sketch.increment("b");
+    assertEquals(FrequencySketch.MAX_FREQUENCY, sketch.frequency("b"));
+  }
+
+  @Test
+  public void testSketchDecays() {
+    FrequencySketch sketch = new FrequencySketch(1024);
+    for (int i = 0; i < 20; i++)
+      sketch.increment("hot");
+    assertEquals(FrequencySketch.MAX_FREQUENCY, sketch.frequency("hot"));
+
+    for (int i = 0; i < 10 * 1024; i++)
+      sketch.increment("k" + i);
+    assertTrue(sketch.frequency("hot") < FrequencySketch.MAX_FREQUENCY);
+  }
+
+  @Test
+  public void testLruRejectsOneTimeBlocks() {
+    LruBlockCache cache = new LruBlockCache(100000, 1000, false);
+    cache.setAdmissionPolicy(new FrequencyAdmissionPolicy(100));
+
+    // blocks are always admitted while there is free space
+    assertNull(cache.getBlock("first"));
+    assertNotNull(cache.cacheBlock("first", new byte[1000]));
+
+    for (int i = 0; i < 200; i++) {
+      String name = "scan" + i;
+      assertNull(cache.getBlock(name));
+      cache.cacheBlock(name, new byte[1000]);
+    }
+    assertTrue(cache.getStats().getRejectedCount() > 0);
+    assertEquals(0, cache.getEvictedCount());
+    assertNotNull(cache.getBlock("first"));
+
+    // a block that keeps missing is admitted
+    assertNull(cache.getBlock("hot"));
+    assertNull(cache.getBlock("hot"));
+    assertNotNull(cache.cacheBlock("hot", new byte[1000]));
+    assertNotNull(cache.getBlock("hot"));
+
+    // in-memory blocks are always admitted
+    assertNotNull(cache.cacheBlock("mem", new byte[1000], true));
+  }
+
+  @Test
+  public void testScanBlockCache() {
+    LruBlockCache cache = new LruBlockCache(100000, 1000, false);
+    cache.cacheBlock("cached", new byte[100]);
+
+    ScanBlockCache view = new ScanBlockCache(cache);
+    assertTrue(view.getPopulate());
+    view.setPopulate(false);
+    assertFalse(view.getPopulate());
+
+    assertNotNull(view.getBlock("cached"));
+    assertNull(view.cacheBlock("new", new byte[100]));
+    assertNull(cache.getBlock("new"));
+
+    view.setPopulate(true);
+    assertNotNull(view.cacheBlock("new", new byte[100]));
+    assertNotNull(cache.getBlock("new"));
+  }
+}
@@ -379,6 +379,21 @@ public class TestLruBlockCache extends TestCase {
   }
   
   // test setMaxSize
+  public void testHotBlockNames() throws Exception {
+    
+    LruBlockCache cache = new LruBlockCache(100000, 1000, false);
+    
+    cache.cacheBlock("single1", new byte[100]);
+    cache.cacheBlock("multi", new byte[100]);
+    cache.cacheBlock("single2", new byte[100]);
+    cache.cacheBlock("memory", new byte[100], true);
+    cache.getBlock("multi");
+    
+    assertEquals(Arrays.asList("memory", "multi", "single2", "single1"), cache.getHotBlockNames(10));
+    assertEquals(Arrays.asList("memory", "multi"), cache.getHotBlockNames(2));
+    assertEquals(0, cache.getHotBlockNames(0).size());
+  }
+  
   public void testResizeBlockCache() throws Exception {
     
     long maxSize = 300000;
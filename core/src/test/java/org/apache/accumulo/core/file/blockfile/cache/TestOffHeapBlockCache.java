@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.file.blockfile.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class TestOffHeapBlockCache {
+
+  private static byte[] randomBlock(Random rand, int size) {
+    byte[] buf = new byte[size];
+    rand.nextBytes(buf);
+    return buf;
+  }
+
+  @Test
+  public void testChunkSizes() {
+    List<Integer> sizes = OffHeapBlockCache.computeChunkSizes(8 * 1024);
+    assertEquals(new Integer(1024), sizes.get(0));
+    assertEquals(new Integer(1536), sizes.get(1));
+    assertEquals(new Integer(8 * 1024), sizes.get(sizes.size() - 1));
+    for (int i = 1; i < sizes.size(); i++)
+      assertTrue(sizes.get(i) > sizes.get(i - 1));
+  }
+
+  @Test
+  public void testCacheSimple() {
+    Random rand = new Random(42);
+    OffHeapBlockCache cache = new OffHeapBlockCache(1 << 20, 64 * 1024);
+    try {
+      byte[][] blocks = new byte[50][];
+      for (int i = 0; i < blocks.length; i++) {
+        blocks[i] = randomBlock(rand, 100 + rand.nextInt(8000));
+        assertNull(cache.getBlock("b" + i));
+        assertNotNull(cache.cacheBlock("b" + i, blocks[i]));
+      }
+
+      for (int i = 0; i < blocks.length; i++) {
+        CacheEntry ce = cache.getBlock("b" + i);
+        assertTrue(ce instanceof OffHeapCacheEntry);
+        OffHeapCacheEntry oce = (OffHeapCacheEntry) ce;
+        assertTrue(oce.pin());
+        ByteBuffer bb = oce.getByteBuffer();
+        byte[] copy = new byte[bb.remaining()];
+        bb.get(copy);
+        oce.release();
+        assertArrayEquals(blocks[i], copy);
+        assertArrayEquals(blocks[i], ce.getBuffer());
+      }
+
+      assertEquals(blocks.length, cache.size());
+      assertEquals(0, cache.getEvictedCount());
+      assertEquals(blocks.length, cache.getStats().getHitCount());
+      assertEquals(blocks.length, cache.getStats().getMissCount());
+    } finally {
+      cache.shutdown();
+    }
+  }
+
+  @Test
+  public void testTooLarge() {
+    OffHeapBlockCache cache = new OffHeapBlockCache(1 << 20, 4096);
+    try {
+      assertNull(cache.cacheBlock("big", new byte[4097]));
+      assertNull(cache.getBlock("big"));
+      assertNotNull(cache.cacheBlock("small", new byte[4096]));
+    } finally {
+      cache.shutdown();
+    }
+  }
+
+  @Test
+  public void testEviction() {
+    Random rand = new Random(7);
+    // two slabs, each holding four 2k chunks
+    OffHeapBlockCache cache = new OffHeapBlockCache(16 * 1024, 8 * 1024);
+    try {
+      for (int i = 0; i < 100; i++) {
+        assertNotNull(cache.cacheBlock("b" + i, randomBlock(rand, 2000)));
+        assertTrue(cache.getCurrentSize() <= cache.getMaxSize());
+      }
+      assertTrue(cache.getEvictedCount() > 0);
+      assertTrue(cache.size() <= 8);
+      assertNotNull(cache.getBlock("b99"));
+      assertNull(cache.getBlock("b0"));
+
+      // blocks of a different size take over slabs from the old size class
+      for (int i = 0; i < 100; i++) {
+        assertNotNull(cache.cacheBlock("c" + i, randomBlock(rand, 5000)));
+      }
+      assertNotNull(cache.getBlock("c99"));
+      assertNull(cache.getBlock("b99"));
+    } finally {
+      cache.shutdown();
+    }
+  }
+
+  @Test
+  public void testMultiAccessSurvivesScan() {
+    Random rand = new Random(11);
+    OffHeapBlockCache cache = new OffHeapBlockCache(64 * 1024, 64 * 1024);
+    try {
+      cache.cacheBlock("hot", randomBlock(rand, 1000));
+      assertNotNull(cache.getBlock("hot"));
+      for (int i = 0; i < 500; i++) {
+        cache.cacheBlock("scan" + i, randomBlock(rand, 1000));
+      }
+      assertNotNull(cache.getBlock("hot"));
+    } finally {
+      cache.shutdown();
+    }
+  }
+
+  @Test
+  public void testHotBlockNames() {
+    OffHeapBlockCache cache = new OffHeapBlockCache(64 * 1024, 64 * 1024);
+    try {
+      cache.cacheBlock("single1", new byte[100]);
+      cache.cacheBlock("multi", new byte[100]);
+      cache.cacheBlock("single2", new byte[100]);
+      cache.cacheBlock("memory", new byte[100], true);
+      assertNotNull(cache.getBlock("multi"));
+
+      assertEquals(Arrays.asList("memory", "multi", "single2", "single1"), cache.getHotBlockNames(10));
+      assertEquals(Arrays.asList("memory"), cache.getHotBlockNames(1));
+    } finally {
+      cache.shutdown();
+    }
+  }
+
+  @Test
+  public void testPinnedBlockNotReused() {
+    Random rand = new Random(3);
+    // one slab holding a single chunk
+    OffHeapBlockCache cache = new OffHeapBlockCache(2048, 2048);
+    try {
+      byte[] first = randomBlock(rand, 2000);
+      OffHeapCacheEntry oce = (OffHeapCacheEntry) cache.cacheBlock("first", first);
+      assertTrue(oce.pin());
+
+      // the only chunk is pinned, so the new block can not be cached
+      assertNull(cache.cacheBlock("second", randomBlock(rand, 2000)));
+      assertNull(cache.getBlock("first"));
+
+      byte[] copy = new byte[first.length];
+      oce.getByteBuffer().get(copy);
+      assertArrayEquals(first, copy);
+
+      oce.release();
+      assertFalse(oce.pin());
+      assertNotNull(cache.cacheBlock("second", randomBlock(rand, 2000)));
+    } finally {
+      cache.shutdown();
+    }
+  }
+
+  @Test
+  public void testEvictionWhileReading() throws Exception {
+    // two slabs of 2k chunks, so nearly every new block evicts while readers keep changing access times and priorities
+    final OffHeapBlockCache cache = new OffHeapBlockCache(16 * 1024, 8 * 1024);
+    final AtomicBoolean stop = new AtomicBoolean(false);
+    final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+    try {
+      Thread[] readers = new Thread[4];
+      for (int t = 0; t < readers.length; t++) {
+        final Random rand = new Random(t);
+        readers[t] = new Thread() {
+          @Override
+          public void run() {
+            try {
+              while (!stop.get()) {
+                CacheEntry ce = cache.getBlock("b" + rand.nextInt(200));
+                if (ce != null && ((OffHeapCacheEntry) ce).pin())
+                  ((OffHeapCacheEntry) ce).release();
+              }
+            } catch (Throwable e) {
+              error.compareAndSet(null, e);
+            }
+          }
+        };
+        readers[t].start();
+      }
+
+      Random rand = new Random(13);
+      for (int i = 0; i < 20000; i++) {
+        cache.cacheBlock("b" + rand.nextInt(200), randomBlock(rand, 1500 + rand.nextInt(500)));
+        assertTrue(cache.getCurrentSize() <= cache.getMaxSize());
+      }
+
+      stop.set(true);
+      for (Thread reader : readers)
+        reader.join();
+      assertNull(error.get());
+      assertEquals(0, cache.getPinnedCount());
+      assertTrue(cache.getEvictedCount() > 0);
+    } finally {
+      stop.set(true);
+      cache.shutdown();
+    }
+  }
+}
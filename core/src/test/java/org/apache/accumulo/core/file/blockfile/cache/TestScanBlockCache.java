@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.file.blockfile.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class TestScanBlockCache {
+
+  @Test
+  public void testNoPopulation() {
+    LruBlockCache cache = new LruBlockCache(100000, 1000, false);
+    ScanBlockCache view = new ScanBlockCache(cache);
+    view.setPopulate(false);
+
+    assertNull(view.cacheBlock("a", new byte[10]));
+    assertNull(view.cacheBlock("b", new byte[10], true));
+    assertNull(cache.getBlock("a"));
+    assertNull(cache.getBlock("b"));
+    assertEquals(0, cache.getHotBlockNames(10).size());
+
+    // blocks another reader cached are still returned
+    byte[] block = new byte[] {1, 2, 3};
+    cache.cacheBlock("c", block);
+    CacheEntry entry = view.getBlock("c");
+    assertNotNull(entry);
+    assertArrayEquals(block, entry.getBuffer());
+    assertEquals(1, cache.getStats().getHitCount());
+  }
+
+  @Test
+  public void testPopulation() {
+    LruBlockCache cache = new LruBlockCache(100000, 1000, false);
+    ScanBlockCache view = new ScanBlockCache(cache);
+
+    assertNotNull(view.cacheBlock("a", new byte[10]));
+    assertNotNull(cache.getBlock("a"));
+
+    // a view reused by another scan follows the latest setting
+    view.setPopulate(false);
+    view.cacheBlock("b", new byte[10]);
+    assertNull(cache.getBlock("b"));
+    view.setPopulate(true);
+    view.cacheBlock("b", new byte[10]);
+    assertNotNull(cache.getBlock("b"));
+  }
+
+  @Test
+  public void testShutdownLeavesSharedCache() {
+    LruBlockCache cache = new LruBlockCache(100000, 1000, false);
+    ScanBlockCache view = new ScanBlockCache(cache);
+    view.cacheBlock("a", new byte[10]);
+    view.shutdown();
+
+    assertNotNull(cache.getBlock("a"));
+    assertNotNull(cache.cacheBlock("b", new byte[10]));
+    assertEquals(cache.getMaxSize(), view.getMaxSize());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullCache() {
+    new ScanBlockCache(null);
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.file.rfile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Random;
+
+import org.apache.accumulo.core.conf.AccumuloConfiguration;
+import org.apache.accumulo.core.conf.ConfigurationCopy;
+import org.apache.accumulo.core.conf.Property;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.file.FileOperations;
+import org.apache.accumulo.core.file.FileSKVIterator;
+import org.apache.accumulo.core.file.FileSKVWriter;
+import org.apache.accumulo.core.file.blockfile.cache.LruBlockCache;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedRFileTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder(new File(System.getProperty("user.dir") + "/target"));
+
+  private static final int ROWS = 10000;
+
+  private static Key nk(int row) {
+    return new Key(String.format("r%06d", row), "cf", "cq");
+  }
+
+  private static Value nv(int row) {
+    return new Value(("v" + row).getBytes());
+  }
+
+  private String writeFile(ConfigurationCopy acuconf) throws IOException {
+    Configuration conf = new Configuration();
+    FileSystem fs = FileSystem.getLocal(conf);
+    String file = new File(tempFolder.getRoot(), "test." + RFile.EXTENSION).getAbsolutePath();
+
+    FileSKVWriter writer = FileOperations.getInstance().openWriter(file, fs, conf, acuconf);
+    writer.startDefaultLocalityGroup();
+    for (int i = 0; i < ROWS; i++) {
+      writer.append(nk(i), nv(i));
+    }
+    writer.close();
+    return file;
+  }
+
+  private long readFile(String file, ConfigurationCopy acuconf) throws IOException {
+    Configuration conf = new Configuration();
+    FileSystem fs = FileSystem.getLocal(conf);
+    LruBlockCache indexCache = new LruBlockCache(10000000, 100000);
+    LruBlockCache dataCache = new LruBlockCache(10000000, 100000);
+
+    FileSKVIterator reader = FileOperations.getInstance().openReader(file, false, fs, conf, acuconf, dataCache, indexCache);
+    try {
+      reader.seek(new Range(), Collections.<ByteSequence> emptySet(), false);
+      for (int i = 0; i < ROWS; i++) {
+        assertTrue(reader.hasTop());
+        assertEquals(nk(i), reader.getTopKey());
+        assertEquals(nv(i), reader.getTopValue());
+        reader.next();
+      }
+      assertFalse(reader.hasTop());
+
+      // seek twice into the same blocks so the block index gets built
+      Random rand = new Random(5);
+      for (int i = 0; i < 200; i++) {
+        int row = rand.nextInt(ROWS);
+        reader.seek(new Range(nk(row), null), Collections.<ByteSequence> emptySet(), false);
+        assertTrue(reader.hasTop());
+        assertEquals(nk(row), reader.getTopKey());
+        assertEquals(nv(row), reader.getTopValue());
+        reader.seek(new Range(nk(row), null), Collections.<ByteSequence> emptySet(), false);
+        assertEquals(nk(row), reader.getTopKey());
+      }
+    } finally {
+      reader.close();
+    }
+
+    return dataCache.getStats().getRequestCount();
+  }
+
+  private ConfigurationCopy createConf(String compression, boolean mmap) {
+    ConfigurationCopy acuconf = new ConfigurationCopy(AccumuloConfiguration.getDefaultConfiguration());
+    acuconf.set(Property.TABLE_FILE_COMPRESSION_TYPE, compression);
+    acuconf.set(Property.TABLE_FILE_COMPRESSED_BLOCK_SIZE, "4K");
+    acuconf.set(Property.TSERV_FILES_MMAP, "" + mmap);
+    return acuconf;
+  }
+
+  @Test
+  public void testMappedRead() throws IOException {
+    ConfigurationCopy acuconf = createConf("none", true);
+    String file = writeFile(acuconf);
+
+    // data blocks are read from the mapped file instead of the data cache
+    assertEquals(0, readFile(file, acuconf));
+
+    assertTrue(readFile(file, createConf("none", false)) > 0);
+  }
+
+  @Test
+  public void testCompressedNotMapped() throws IOException {
+    ConfigurationCopy acuconf = createConf("gz", true);
+    String file = writeFile(acuconf);
+
+    assertTrue(readFile(file, acuconf) > 0);
+  }
+}
@@ -33,6 +33,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Random;
 import java.util.Set;
 
@@ -47,8 +48,11 @@ import org.apache.accumulo.core.data.PartialKey;
 import org.apache.accumulo.core.data.Range;
 import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.file.FileSKVIterator;
+import org.apache.accumulo.core.file.blockfile.cache.BlockCache;
 import org.apache.accumulo.core.file.blockfile.cache.LruBlockCache;
+import org.apache.accumulo.core.file.blockfile.cache.OffHeapBlockCache;
 import org.apache.accumulo.core.file.blockfile.impl.CachableBlockFile;
+import org.apache.accumulo.core.file.rfile.MultiLevelIndex.IndexEntry;
 import org.apache.accumulo.core.file.rfile.RFile.Reader;
 import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
 import org.apache.accumulo.core.iterators.system.ColumnFamilySkippingIterator;
@@ -175,11 +179,19 @@ public class RFileTest {
     public SortedKeyValueIterator<Key,Value> iter;
 
     public void openWriter(boolean startDLG) throws IOException {
+      openWriter(startDLG, 0);
+    }
+
+    public void openWriter(boolean startDLG, int restartInterval) throws IOException {
+      openWriter(startDLG, restartInterval, 0);
+    }
+
+    public void openWriter(boolean startDLG, int restartInterval, int dictionarySize) throws IOException {
 
       baos = new ByteArrayOutputStream();
       dos = new FSDataOutputStream(baos, new FileSystem.Statistics("a"));
       CachableBlockFile.Writer _cbw = new CachableBlockFile.Writer(dos, "gz", conf);
-      writer = new RFile.Writer(_cbw, 1000, 1000);
+      writer = new RFile.Writer(_cbw, 1000, 1000, restartInterval, dictionarySize);
 
       if (startDLG)
         writer.startDefaultLocalityGroup();
@@ -199,6 +211,10 @@ public class RFileTest {
     }
 
     public void openReader() throws IOException {
+      openReader(new LruBlockCache(100000000, 100000), new LruBlockCache(100000000, 100000));
+    }
+
+    public void openReader(BlockCache dataCache, BlockCache indexCache) throws IOException {
 
       int fileLength = 0;
       byte[] data = null;
@@ -208,9 +224,6 @@ public class RFileTest {
       in = new FSDataInputStream(bais);
       fileLength = data.length;
 
-      LruBlockCache indexCache = new LruBlockCache(100000000, 100000);
-      LruBlockCache dataCache = new LruBlockCache(100000000, 100000);
-
       CachableBlockFile.Reader _cbr = new CachableBlockFile.Reader(in, fileLength, conf, dataCache, indexCache);
       reader = new RFile.Reader(_cbr);
       iter = new ColumnFamilySkippingIterator(reader);
@@ -259,6 +272,40 @@ public class RFileTest {
     trf.closeReader();
   }
 
+  @Test
+  public void testOffHeapCacheReleasedOnClose() throws IOException {
+    TestRFile trf = new TestRFile();
+    trf.openWriter();
+    for (int i = 0; i < 1000; i++) {
+      trf.writer.append(nk(nf("r", i), "cf1", "cq1", "L1", 55), nv(nf("v", i)));
+    }
+    trf.closeWriter();
+
+    OffHeapBlockCache indexCache = new OffHeapBlockCache(1 << 22, 64 * 1024);
+    OffHeapBlockCache dataCache = new OffHeapBlockCache(1 << 22, 64 * 1024);
+    try {
+      // the first open reads the file's meta blocks from the file, the second finds them in the cache
+      for (int i = 0; i < 2; i++) {
+        trf.openReader(dataCache, indexCache);
+        trf.seek(null);
+        for (int j = 0; j < 1000; j++) {
+          assertTrue(trf.iter.hasTop());
+          trf.iter.next();
+        }
+        assertFalse(trf.iter.hasTop());
+        trf.closeReader();
+
+        assertEquals(0, indexCache.getPinnedCount());
+        assertEquals(0, dataCache.getPinnedCount());
+      }
+      assertTrue(indexCache.getStats().getHitCount() > 0);
+      assertTrue(dataCache.getStats().getHitCount() > 0);
+    } finally {
+      indexCache.shutdown();
+      dataCache.shutdown();
+    }
+  }
+
   @Test
   public void test2() throws IOException {
 
@@ -1467,6 +1514,56 @@ public class RFileTest {
     trf.closeReader();
   }
 
+  @Test
+  public void testFindDataBlocks() throws IOException {
+    TestRFile trf = new TestRFile();
+
+    trf.openWriter(false);
+    trf.writer.startNewLocalityGroup("lg1", ncfs("cf1"));
+    for (int i = 0; i < 1000; i++) {
+      trf.writer.append(nk(String.format("r%06d", i), "cf1", "cq1", "", 1), nv("" + i));
+    }
+    trf.writer.startDefaultLocalityGroup();
+    for (int i = 0; i < 1000; i++) {
+      trf.writer.append(nk(String.format("r%06d", i), "cf3", "cq1", "", 1), nv("" + i));
+    }
+    trf.closeWriter();
+
+    trf.openReader();
+
+    // every data block starts at some offset in the file
+    Set<Long> allOffsets = new HashSet<Long>();
+    for (long offset = 0; offset < trf.baos.size(); offset++) {
+      allOffsets.add(offset);
+    }
+
+    List<IndexEntry> blocks = trf.reader.findDataBlocks(allOffsets);
+    assertTrue(blocks.size() > 4);
+
+    int count = 0;
+    FileSKVIterator indexIter = trf.reader.getIndex();
+    while (indexIter.hasTop()) {
+      count++;
+      indexIter.next();
+    }
+    assertEquals(count, blocks.size());
+
+    for (IndexEntry ie : blocks) {
+      assertTrue(ie.getCompressedSize() > 0);
+      assertTrue(ie.getRawSize() > 0);
+    }
+
+    IndexEntry second = blocks.get(1);
+    List<IndexEntry> found = trf.reader.findDataBlocks(Collections.singleton(second.getOffset()));
+    assertEquals(1, found.size());
+    assertEquals(second.getOffset(), found.get(0).getOffset());
+    assertEquals(second.getCompressedSize(), found.get(0).getCompressedSize());
+
+    assertEquals(0, trf.reader.findDataBlocks(Collections.<Long> emptySet()).size());
+
+    trf.closeReader();
+  }
+
   @Test
   public void testReseekUnconsumed() throws Exception {
     TestRFile trf = new TestRFile();
@@ -1523,6 +1620,89 @@ public class RFileTest {
     trf.closeReader();
   }
 
+  @Test
+  public void testRestartPoints() throws IOException {
+    for (int restartInterval : new int[] {1, 3, 16}) {
+      runRestartPoints(restartInterval, 0);
+    }
+  }
+
+  @Test
+  public void testColumnDictionary() throws IOException {
+    // a dictionary too small to hold every column value, with and without restart points
+    runRestartPoints(0, 4);
+    runRestartPoints(5, 4);
+    runRestartPoints(0, 1000);
+  }
+
+  private void runRestartPoints(int restartInterval, int dictionarySize) throws IOException {
+    ArrayList<Key> keys = new ArrayList<Key>();
+    ArrayList<Value> values = new ArrayList<Value>();
+
+    TestRFile trf = new TestRFile();
+    trf.openWriter(true, restartInterval, dictionarySize);
+    int val = 0;
+    for (int r = 0; r < 200; r++) {
+      // vary the length of rows so that blocks end at different entries
+      String row = nf("r", r) + (r % 7 == 0 ? "_long_row_suffix" : "");
+      for (int c = 0; c < 3; c++) {
+        for (int q = 0; q < 3; q++) {
+          // write the same key many times in some rows, so that restart points fall within runs of equal keys
+          int dups = r % 11 == 0 && q == 1 ? 40 : 1;
+          for (int d = 0; d < dups; d++) {
+            Key k = nk(row, nf("cf", c), nf("cq", q), q == 2 ? "A|B" : "", 5);
+            Value v = nv("" + val++);
+            trf.writer.append(k, v);
+            keys.add(k);
+            values.add(v);
+          }
+        }
+      }
+    }
+    trf.closeWriter();
+
+    trf.openReader();
+
+    // scan everything
+    trf.seek(null);
+    for (int i = 0; i < keys.size(); i++) {
+      assertTrue(trf.iter.hasTop());
+      assertEquals(keys.get(i), trf.iter.getTopKey());
+      assertEquals(values.get(i), trf.iter.getTopValue());
+      trf.iter.next();
+    }
+    assertFalse(trf.iter.hasTop());
+
+    // seek to existing keys and to keys that fall between the keys in the file
+    Random rand = new Random(restartInterval + dictionarySize);
+    for (int i = 0; i < 2000; i++) {
+      int index = rand.nextInt(keys.size());
+      Key seekKey = keys.get(index);
+      if (rand.nextBoolean()) {
+        seekKey = nk(seekKey.getRow().toString(), seekKey.getColumnFamily().toString(), seekKey.getColumnQualifier().toString(), seekKey
+            .getColumnVisibility().toString(), 4);
+        index++;
+        while (index < keys.size() && keys.get(index).equals(keys.get(index - 1)))
+          index++;
+      } else {
+        while (index > 0 && keys.get(index - 1).equals(seekKey))
+          index--;
+      }
+
+      trf.seek(seekKey);
+      for (int j = index; j < Math.min(index + 5, keys.size()); j++) {
+        assertTrue(trf.iter.hasTop());
+        assertEquals(keys.get(j), trf.iter.getTopKey());
+        assertEquals(values.get(j), trf.iter.getTopValue());
+        trf.iter.next();
+      }
+      if (index >= keys.size())
+        assertFalse(trf.iter.hasTop());
+    }
+
+    trf.closeReader();
+  }
+
   @Test(expected = NullPointerException.class)
   public void testMissingUnreleasedVersions() throws Exception {
     runVersionTest(5);
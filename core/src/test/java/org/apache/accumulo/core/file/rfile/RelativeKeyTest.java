@@ -109,6 +109,61 @@ public class RelativeKeyTest {
     assertEquals(expected.getKey(), actual.getKey());
   }
   
+  @Test
+  public void testDictionary() throws IOException {
+    // room for only some of the column values, so others are written with prefix compression
+    ColumnDictionary dictionary = new ColumnDictionary(5);
+    
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(baos);
+    
+    ArrayList<Key> keys = new ArrayList<Key>();
+    Key prev = null;
+    for (int row = 0; row < 10; row++) {
+      for (int cf = 0; cf < 3; cf++) {
+        for (int cq = 0; cq < 4; cq++) {
+          Key k = RFileTest.nk(RFileTest.nf("r_", row), RFileTest.nf("cf_", cf), RFileTest.nf("cq_", cq), cq % 2 == 0 ? "A&B" : "", 7);
+          new RelativeKey(prev, k, dictionary).write(out);
+          RFileTest.nv("" + keys.size()).write(out);
+          keys.add(k);
+          prev = k;
+        }
+      }
+    }
+    
+    assertEquals(5, dictionary.size());
+    
+    // readers get the dictionary from the file, after all keys were written
+    ByteArrayOutputStream dictOut = new ByteArrayOutputStream();
+    dictionary.write(new DataOutputStream(dictOut));
+    ColumnDictionary readDictionary = new ColumnDictionary();
+    readDictionary.readFields(new DataInputStream(new ByteArrayInputStream(dictOut.toByteArray())));
+    assertEquals(5, readDictionary.size());
+    assertEquals(dictionary.getHitRate(), readDictionary.getHitRate(), 0.0);
+    
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(baos.toByteArray()));
+    RelativeKey rk = new RelativeKey();
+    rk.setDictionary(readDictionary);
+    Value val = new Value();
+    for (Key k : keys) {
+      rk.readFields(in);
+      val.readFields(in);
+      assertEquals(k, rk.getKey());
+    }
+    
+    int seekIndex = keys.size() / 2 + 1;
+    in = new DataInputStream(new ByteArrayInputStream(baos.toByteArray()));
+    MutableByteSequence value = new MutableByteSequence(new byte[64], 0, 0);
+    RelativeKey.SkippR skippr = RelativeKey.fastSkip(in, keys.get(seekIndex), value, new Key(), null, readDictionary);
+    assertEquals(seekIndex + 1, skippr.skipped);
+    assertEquals(keys.get(seekIndex - 1), skippr.prevKey);
+    assertEquals(keys.get(seekIndex), skippr.rk.getKey());
+    assertEquals("" + seekIndex, value.toString());
+    
+    skippr.rk.readFields(in);
+    assertEquals(keys.get(seekIndex + 1), skippr.rk.getKey());
+  }
+  
   private static ArrayList<Key> expectedKeys;
   private static ArrayList<Value> expectedValues;
   private static ArrayList<Integer> expectedPositions;
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.file.rfile.bcfile;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.accumulo.core.file.rfile.bcfile.Compression.Algorithm;
+import org.apache.hadoop.io.compress.Compressor;
+import org.apache.hadoop.io.compress.Decompressor;
+import org.apache.hadoop.io.compress.DefaultCodec;
+import org.junit.Test;
+
+public class CompressionTest {
+  
+  private static byte[] roundTrip(Algorithm algorithm, byte[] data) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Compressor compressor = algorithm.getCompressor();
+    OutputStream out = algorithm.createCompressionStream(baos, compressor, 0);
+    out.write(data);
+    out.flush();
+    out.close();
+    algorithm.returnCompressor(compressor);
+    
+    Decompressor decompressor = algorithm.getDecompressor();
+    DataInputStream in = new DataInputStream(algorithm.createDecompressionStream(new ByteArrayInputStream(baos.toByteArray()), decompressor, 1024));
+    byte[] result = new byte[data.length];
+    in.readFully(result);
+    in.close();
+    algorithm.returnDecompressor(decompressor);
+    return result;
+  }
+  
+  private static byte[] testData() {
+    byte[] data = new byte[100000];
+    Random rand = new Random(42);
+    for (int i = 0; i < data.length; i++)
+      data[i] = (byte) ('a' + rand.nextInt(4));
+    return data;
+  }
+  
+  @Test
+  public void testSupportedAlgorithms() throws IOException {
+    byte[] data = testData();
+    
+    for (String name : Compression.getSupportedAlgorithms()) {
+      Algorithm algorithm = Compression.getCompressionAlgorithmByName(name);
+      assertArrayEquals(name, data, roundTrip(algorithm, data));
+      // again, with pooled compressors and decompressors
+      assertArrayEquals(name, data, roundTrip(algorithm, data));
+    }
+  }
+  
+  @Test
+  public void testBuiltInNames() {
+    assertSame(Algorithm.GZ, Compression.getCompressionAlgorithmByName("gz"));
+    assertSame(Algorithm.NONE, Compression.getCompressionAlgorithmByName("none"));
+    assertSame(Algorithm.LZ4, Compression.getCompressionAlgorithmByName("lz4"));
+    assertSame(Algorithm.ZSTANDARD, Compression.getCompressionAlgorithmByName("zstd"));
+    assertTrue(Arrays.asList(Compression.getSupportedAlgorithms()).contains("gz"));
+  }
+  
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownName() {
+    Compression.getCompressionAlgorithmByName("compressiontest-unknown");
+  }
+  
+  @Test
+  public void testConfiguredCodec() throws IOException {
+    System.setProperty("io.compression.codec.compressiontest-deflate.class", DefaultCodec.class.getName());
+    try {
+      Algorithm algorithm = Compression.getCompressionAlgorithmByName("compressiontest-deflate");
+      assertTrue(algorithm.isSupported());
+      assertSame(algorithm, Compression.getCompressionAlgorithmByName("compressiontest-deflate"));
+      byte[] data = testData();
+      assertArrayEquals(data, roundTrip(algorithm, data));
+    } finally {
+      System.clearProperty("io.compression.codec.compressiontest-deflate.class");
+    }
+  }
+  
+  @Test
+  public void testRegisterAlgorithm() {
+    Algorithm algorithm = new Compression.CodecAlgorithm("compressiontest-registered", "io.compression.codec.compressiontest-registered.class", null,
+        DefaultCodec.class.getName());
+    Compression.registerAlgorithm(algorithm);
+    assertSame(algorithm, Compression.getCompressionAlgorithmByName("compressiontest-registered"));
+    assertTrue(Arrays.asList(Compression.getSupportedAlgorithms()).contains("compressiontest-registered"));
+  }
+  
+  @Test(expected = IllegalArgumentException.class)
+  public void testRegisterDuplicate() {
+    Compression.registerAlgorithm(new Compression.CodecAlgorithm("gz", "io.compression.codec.gz.class", null, DefaultCodec.class.getName()));
+  }
+  
+  @Test
+  public void testDecompressorPooled() throws IOException {
+    // not registered, so no other test shares its pool
+    Algorithm algorithm = new Compression.CodecAlgorithm("compressiontest-pooled", "io.compression.codec.compressiontest-pooled.class", null,
+        DefaultCodec.class.getName());
+    Decompressor decompressor = algorithm.getDecompressor();
+    algorithm.returnDecompressor(decompressor);
+    assertSame(decompressor, algorithm.getDecompressor());
+  }
+}
@@ -19,7 +19,10 @@ package org.apache.accumulo.core.iterators.system;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
 import java.util.TreeMap;
 
 import junit.framework.TestCase;
@@ -399,4 +402,68 @@ public class MultiIteratorTest extends TestCase {
     mi.seek(r7, EMPTY_COL_FAMS, false);
     assertFalse(mi.hasTop());
   }
+  
+  public void testRandomMerge() throws IOException {
+    Random rand = new Random(17);
+    
+    for (int numSources : new int[] {1, 2, 3, 7, 8, 32}) {
+      List<TreeMap<Key,Value>> maps = new ArrayList<TreeMap<Key,Value>>();
+      List<Key> expectedKeys = new ArrayList<Key>();
+      List<String> expectedValues = new ArrayList<String>();
+      
+      for (int s = 0; s < numSources; s++) {
+        TreeMap<Key,Value> tm = new TreeMap<Key,Value>();
+        // runs of consecutive rows from each source, with rows repeated across sources
+        int row = rand.nextInt(50);
+        int entries = rand.nextInt(200);
+        for (int e = 0; e < entries; e++) {
+          row += rand.nextInt(10) == 0 ? 1 + rand.nextInt(20) : 1;
+          tm.put(nk(row, 0), new Value((s + ":" + e).getBytes()));
+        }
+        for (Entry<Key,Value> entry : tm.entrySet()) {
+          expectedKeys.add(entry.getKey());
+          expectedValues.add(entry.getValue().toString());
+        }
+        maps.add(tm);
+      }
+      
+      List<SortedKeyValueIterator<Key,Value>> iters = new ArrayList<SortedKeyValueIterator<Key,Value>>();
+      for (TreeMap<Key,Value> map : maps) {
+        iters.add(new SortedMapIterator(map));
+      }
+      MultiIterator mi = new MultiIterator(iters, false);
+      mi.seek(new Range(), EMPTY_COL_FAMS, false);
+      
+      List<Key> keys = new ArrayList<Key>();
+      List<String> values = new ArrayList<String>();
+      while (mi.hasTop()) {
+        keys.add(new Key(mi.getTopKey()));
+        values.add(mi.getTopValue().toString());
+        mi.next();
+      }
+      
+      Collections.sort(expectedKeys);
+      assertEquals(expectedKeys, keys);
+      Collections.sort(expectedValues);
+      Collections.sort(values);
+      assertEquals(expectedValues, values);
+      
+      mi.seek(new Range(nr(100), null), EMPTY_COL_FAMS, false);
+      int count = 0;
+      Key prev = null;
+      while (mi.hasTop()) {
+        assertTrue(mi.getTopKey().getRow().compareTo(nr(100)) >= 0);
+        assertTrue(prev == null || prev.compareTo(mi.getTopKey()) <= 0);
+        prev = new Key(mi.getTopKey());
+        count++;
+        mi.next();
+      }
+      int expectedCount = 0;
+      for (Key k : expectedKeys) {
+        if (k.getRow().compareTo(nr(100)) >= 0)
+          expectedCount++;
+      }
+      assertEquals(expectedCount, count);
+    }
+  }
 }
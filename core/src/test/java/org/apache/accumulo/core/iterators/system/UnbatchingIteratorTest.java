@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.core.iterators.system;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Column;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.DefaultIteratorEnvironment;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.iterators.SortedMapIterator;
+import org.apache.accumulo.core.iterators.WrappingIterator;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.util.LocalityGroupUtil;
+import org.apache.accumulo.core.util.Pair;
+import org.junit.Test;
+
+public class UnbatchingIteratorTest {
+
+  private static final String[] VISIBILITIES = {"", "A", "B", "A&B", "A|C", "(A|B)&C"};
+  private static final Authorizations AUTHS = new Authorizations("A", "C");
+
+  private static TreeMap<Key,Value> randomData(Random rand) {
+    TreeMap<Key,Value> data = new TreeMap<Key,Value>();
+    for (int i = 0; i < 2000; i++) {
+      String vis = VISIBILITIES[rand.nextInt(VISIBILITIES.length)];
+      Key k = new Key(String.format("r%03d", rand.nextInt(200)), "cf" + rand.nextInt(3), "cq" + rand.nextInt(3), vis, rand.nextInt(10));
+      k.setDeleted(rand.nextInt(10) == 0);
+      data.put(k, new Value(Integer.toString(i).getBytes()));
+    }
+    return data;
+  }
+
+  private static Set<Column> columns() {
+    Set<Column> columns = new HashSet<Column>();
+    columns.add(new Column("cf0".getBytes(), null, null));
+    columns.add(new Column("cf1".getBytes(), "cq1".getBytes(), null));
+    return columns;
+  }
+
+  private static SortedKeyValueIterator<Key,Value> perEntryStack(TreeMap<Key,Value> data) throws IOException {
+    ColumnFamilySkippingIterator cfsi = new ColumnFamilySkippingIterator(new DeletingIterator(new SortedMapIterator(data), false));
+    return new VisibilityFilter(new ColumnQualifierFilter(cfsi, columns()), AUTHS, new byte[0]);
+  }
+
+  private static SortedKeyValueIterator<Key,Value> batchStack(TreeMap<Key,Value> data, int capacity) throws IOException {
+    ColumnFamilySkippingIterator cfsi = new ColumnFamilySkippingIterator(new DeletingIterator(new SortedMapIterator(data), false));
+    VisibilityFilter visFilter = new VisibilityFilter(null, AUTHS, new byte[0]);
+    FilteredBatchIterator filtered = new FilteredBatchIterator(new BatchingIterator(cfsi), new ColumnQualifierFilter(null, columns()), visFilter);
+    return new UnbatchingIterator(filtered, capacity);
+  }
+
+  private static List<Pair<Key,Value>> scan(SortedKeyValueIterator<Key,Value> iter, Range range, Set<ByteSequence> families, boolean inclusive)
+      throws IOException {
+    iter.seek(range, families, inclusive);
+    List<Pair<Key,Value>> results = new ArrayList<Pair<Key,Value>>();
+    while (iter.hasTop()) {
+      results.add(new Pair<Key,Value>(new Key(iter.getTopKey()), new Value(iter.getTopValue())));
+      iter.next();
+    }
+    return results;
+  }
+
+  @Test
+  public void testSameAsPerEntryStack() throws IOException {
+    Random rand = new Random(42);
+    TreeMap<Key,Value> data = randomData(rand);
+
+    List<Range> ranges = new ArrayList<Range>();
+    ranges.add(new Range());
+    ranges.add(new Range("r050", "r060"));
+    ranges.add(new Range("r100"));
+    ranges.add(new Range(new Key("r020", "cf1", "cq1"), true, new Key("r150", "cf0", "cq2"), false));
+
+    Set<ByteSequence> families = LocalityGroupUtil.families(Collections.singleton(new Column("cf1".getBytes(), null, null)));
+
+    for (int capacity : new int[] {1, 3, UnbatchingIterator.DEFAULT_CAPACITY}) {
+      SortedKeyValueIterator<Key,Value> batched = batchStack(data, capacity);
+      for (Range range : ranges) {
+        List<Pair<Key,Value>> expected = scan(perEntryStack(data), range, LocalityGroupUtil.EMPTY_CF_SET, false);
+        assertEquals(expected, scan(batched, range, LocalityGroupUtil.EMPTY_CF_SET, false));
+
+        assertEquals(scan(perEntryStack(data), range, families, true), scan(batched, range, families, true));
+        assertEquals(scan(perEntryStack(data), range, families, false), scan(batched, range, families, false));
+      }
+
+      SortedKeyValueIterator<Key,Value> copy = batched.deepCopy(new DefaultIteratorEnvironment());
+      assertEquals(scan(perEntryStack(data), new Range(), LocalityGroupUtil.EMPTY_CF_SET, false),
+          scan(copy, new Range(), LocalityGroupUtil.EMPTY_CF_SET, false));
+    }
+  }
+
+  @Test
+  public void testReadAhead() throws IOException {
+    TreeMap<Key,Value> data = new TreeMap<Key,Value>();
+    for (int i = 0; i < 1000; i++) {
+      data.put(new Key(String.format("r%04d", i)), new Value(new byte[0]));
+    }
+
+    CountingIterator counter = new CountingIterator(new SortedMapIterator(data));
+    UnbatchingIterator iter = new UnbatchingIterator(new BatchingIterator(counter), 64);
+
+    // a lookup only reads the first small batch
+    iter.seek(new Range(), LocalityGroupUtil.EMPTY_CF_SET, false);
+    assertTrue(iter.hasTop());
+    assertEquals(UnbatchingIterator.INITIAL_LIMIT, counter.getCount());
+
+    int count = 0;
+    while (iter.hasTop()) {
+      assertEquals(String.format("r%04d", count), iter.getTopKey().getRow().toString());
+      count++;
+      iter.next();
+    }
+    assertEquals(1000, count);
+  }
+
+  /**
+   * Returns the same value object for every entry, as file iterators do.
+   */
+  private static class ReusedValueIterator extends WrappingIterator {
+    private final Value value = new Value();
+
+    ReusedValueIterator(SortedKeyValueIterator<Key,Value> source) {
+      setSource(source);
+    }
+
+    @Override
+    public Value getTopValue() {
+      value.set(getSource().getTopValue().get());
+      return value;
+    }
+  }
+
+  @Test
+  public void testValueHeldAcrossBatches() throws IOException {
+    TreeMap<Key,Value> data = new TreeMap<Key,Value>();
+    for (int i = 0; i < 100; i++) {
+      data.put(new Key(String.format("r%04d", i)), new Value(Integer.toString(i).getBytes()));
+    }
+
+    UnbatchingIterator iter = new UnbatchingIterator(new BatchingIterator(new ReusedValueIterator(new SortedMapIterator(data))), 4);
+    iter.seek(new Range(), LocalityGroupUtil.EMPTY_CF_SET, false);
+
+    // keep every value, as an iterator that holds its top value across next() would, and check none changed when later batches were read
+    List<Value> held = new ArrayList<Value>();
+    while (iter.hasTop()) {
+      held.add(iter.getTopValue());
+      iter.next();
+    }
+    assertEquals(100, held.size());
+    for (int i = 0; i < held.size(); i++) {
+      assertEquals(Integer.toString(i), held.get(i).toString());
+    }
+  }
+
+  @Test
+  public void testUnconsumedCount() throws IOException {
+    TreeMap<Key,Value> data = new TreeMap<Key,Value>();
+    for (int i = 0; i < 1000; i++) {
+      data.put(new Key(String.format("r%04d", i)), new Value(new byte[0]));
+    }
+
+    CountingIterator counter = new CountingIterator(new SortedMapIterator(data));
+    UnbatchingIterator iter = new UnbatchingIterator(new BatchingIterator(counter), 64);
+
+    // read three entries of the first batch, then seek elsewhere and read a few more
+    iter.seek(new Range(), LocalityGroupUtil.EMPTY_CF_SET, false);
+    for (int i = 0; i < 3; i++)
+      iter.next();
+    iter.seek(new Range("r0500", "r0999"), LocalityGroupUtil.EMPTY_CF_SET, false);
+    for (int i = 0; i < 10; i++)
+      iter.next();
+
+    assertEquals(13, counter.getCount() - iter.getUnconsumedCount());
+  }
+
+  @Test
+  public void testRetain() {
+    KeyValueBatch batch = new KeyValueBatch(8);
+    for (int i = 0; i < 8; i++) {
+      batch.add(new Key("r" + i, "", "", VISIBILITIES[i % VISIBILITIES.length]), new Value(Integer.toString(i).getBytes()));
+    }
+    assertTrue(batch.isFull());
+
+    batch.retain(new VisibilityFilter(null, new Authorizations("A"), new byte[0]));
+
+    List<String> values = new ArrayList<String>();
+    for (int i = 0; i < batch.size(); i++) {
+      values.add(batch.getValue(i).toString());
+      assertEquals("r" + batch.getValue(i), batch.getKey(i).getRow().toString());
+    }
+    assertEquals(Arrays.asList("0", "1", "4", "6", "7"), values);
+    assertFalse(batch.isFull());
+  }
+}
@@ -49,4 +49,60 @@ public class VisibilityFilterTest extends TestCase {
     Logger.getLogger(VisibilityFilter.class).setLevel(prevLevel);
   }
   
+  public void testDefaultVisibility() throws IOException {
+    TreeMap<Key,Value> tm = new TreeMap<Key,Value>();
+    
+    tm.put(new Key("r1", "cf1", "cq1", ""), new Value(new byte[0]));
+    tm.put(new Key("r2", "cf1", "cq1", "A"), new Value(new byte[0]));
+    tm.put(new Key("r3", "cf1", "cq1", "B"), new Value(new byte[0]));
+    tm.put(new Key("r4", "cf1", "cq1", "A&B"), new Value(new byte[0]));
+    tm.put(new Key("r5", "cf1", "cq1", "(A|C)&(B|D)"), new Value(new byte[0]));
+    
+    // the results are shared between filters with the same authorizations, so run each twice
+    for (int i = 0; i < 2; i++) {
+      assertEquals("r1 r2 r5", rows(new VisibilityFilter(new SortedMapIterator(tm), new Authorizations("A", "D"), "".getBytes())));
+      assertEquals("r2 r5", rows(new VisibilityFilter(new SortedMapIterator(tm), new Authorizations("A", "D"), "B".getBytes())));
+      assertEquals("r1 r2 r3 r4 r5", rows(new VisibilityFilter(new SortedMapIterator(tm), new Authorizations("A", "B"), "B".getBytes())));
+      assertEquals("", rows(new VisibilityFilter(new SortedMapIterator(tm), new Authorizations(), "B".getBytes())));
+    }
+  }
+  
+  public void testCacheSizes() throws IOException {
+    TreeMap<Key,Value> tm = new TreeMap<Key,Value>();
+    
+    for (int i = 0; i < 10; i++)
+      tm.put(new Key("r" + i, "cf1", "cq1", "A|L" + i), new Value(new byte[0]));
+    
+    try {
+      VisibilityFilter.setCacheSizes(2, 1, 2);
+      
+      // results are still correct when the caches are far smaller than the expressions and authorizations scanned
+      for (int i = 0; i < 10; i++) {
+        assertEquals("r" + i, rows(new VisibilityFilter(new SortedMapIterator(tm), new Authorizations("L" + i), "".getBytes())));
+        assertTrue(VisibilityFilter.getCachedExpressionCount() <= 2);
+        assertTrue(VisibilityFilter.getCachedAuthorizationsCount() <= 1);
+      }
+      assertEquals("r0 r1 r2 r3 r4 r5 r6 r7 r8 r9", rows(new VisibilityFilter(new SortedMapIterator(tm), new Authorizations("A"), "".getBytes())));
+      
+      try {
+        VisibilityFilter.setCacheSizes(0, 1, 1);
+        fail();
+      } catch (IllegalArgumentException e) {}
+    } finally {
+      VisibilityFilter.setCacheSizes(VisibilityFilter.DEFAULT_MAX_COMPILED_EXPRESSIONS, VisibilityFilter.DEFAULT_MAX_CACHED_AUTHORIZATIONS,
+          VisibilityFilter.DEFAULT_MAX_RESULTS_PER_AUTHORIZATIONS);
+    }
+  }
+  
+  private static String rows(VisibilityFilter filter) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    filter.seek(new Range(), new HashSet<ByteSequence>(), false);
+    while (filter.hasTop()) {
+      if (sb.length() > 0)
+        sb.append(' ');
+      sb.append(filter.getTopKey().getRow());
+      filter.next();
+    }
+    return sb.toString();
+  }
 }
@@ -22,6 +22,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import org.apache.accumulo.core.Constants;
 import org.apache.accumulo.core.util.BadArgumentException;
 import org.apache.accumulo.core.util.ByteArraySet;
 import org.junit.Test;
@@ -123,4 +124,29 @@ public class VisibilityEvaluatorTest {
     assertFalse(ct.evaluate(new ColumnVisibility(quote("五") + "&(" + quote("四") + "|" + quote("三") + ")")));
     assertFalse(ct.evaluate(new ColumnVisibility("\"五\"&(\"四\"|\"三\")")));
   }
+  
+  @Test
+  public void testCompiled() throws VisibilityParseException {
+    VisibilityEvaluator ct = new VisibilityEvaluator(new Authorizations("one", "two", "three", "four", "A#C", "A\"C"));
+    
+    for (String marking : new String[] {"", "one", "five", "one&two", "one&five", "one|five", "five|six", "(one&two)|(foo&bar)", "(one|foo)&three",
+        "((one|foo)|bar)&goober", "((one|foo)|bar)&two", "(one&two)|(one&five)", quote("A#C") + "|" + quote("A?C"), quote("A\"C") + "&" + quote("A#C"),
+        quote("A#C") + "&B"}) {
+      ColumnVisibility cv = new ColumnVisibility(marking);
+      assertEquals(marking, ct.evaluate(cv), ct.evaluate(CompiledVisibility.compile(cv)));
+      assertEquals(marking, ct.evaluate(cv), ct.evaluate(CompiledVisibility.compile(marking.getBytes(Constants.UTF8))));
+    }
+    
+    // more distinct terms than are checked up front
+    StringBuilder and = new StringBuilder("one");
+    StringBuilder or = new StringBuilder("t0");
+    for (int i = 1; i < 100; i++) {
+      and.append("&one");
+      or.append("|t").append(i);
+    }
+    assertTrue(ct.evaluate(CompiledVisibility.compile(new ColumnVisibility(and.toString()))));
+    assertFalse(ct.evaluate(CompiledVisibility.compile(new ColumnVisibility(or.toString()))));
+    assertTrue(ct.evaluate(CompiledVisibility.compile(new ColumnVisibility(or.toString() + "|two"))));
+    assertFalse(ct.evaluate(CompiledVisibility.compile(new ColumnVisibility("two&(" + or.toString() + ")"))));
+  }
 }
@@ -101,6 +101,14 @@ public class NullScanner implements Scanner {
     return 0;
   }
   
+  @Override
+  public void setBlockCachePopulation(boolean populate) {}
+  
+  @Override
+  public boolean getBlockCachePopulation() {
+    return true;
+  }
+  
   @Override
   public void close() {}
 
@@ -0,0 +1,340 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.tserver;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.accumulo.core.Constants;
+import org.apache.accumulo.core.conf.AccumuloConfiguration;
+import org.apache.accumulo.core.data.KeyExtent;
+import org.apache.accumulo.core.file.FileOperations;
+import org.apache.accumulo.core.file.blockfile.ABlockReader;
+import org.apache.accumulo.core.file.blockfile.BlockFileReader;
+import org.apache.accumulo.core.file.blockfile.cache.BlockCache;
+import org.apache.accumulo.core.file.rfile.MultiLevelIndex.IndexEntry;
+import org.apache.accumulo.core.file.rfile.RFile;
+import org.apache.accumulo.core.util.LoggingRunnable;
+import org.apache.accumulo.core.util.NamingThreadFactory;
+import org.apache.accumulo.core.util.UtilWaitThread;
+import org.apache.accumulo.server.conf.ServerConfiguration;
+import org.apache.accumulo.server.fs.FileRef;
+import org.apache.accumulo.server.fs.VolumeManager;
+import org.apache.accumulo.server.util.time.SimpleTimer;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.log4j.Logger;
+
+/**
+ * Saves the names of the blocks in the index and data caches to a local file, so that after a restart the blocks of each tablet the tablet server is assigned
+ * can be read back into the caches before scans ask for them.
+ * 
+ * <p>
+ * The snapshot holds one block name per line, prefixed by the cache it came from. Block names start with the path of their file, so when a tablet is loaded
+ * the saved blocks of its files can be found and read back. Data blocks are cached under their file offset, and their sizes are found by walking the file's
+ * index, which also reads all of the index blocks back. Warming happens on a single background thread and is throttled so it does not compete with scans
+ * for disk bandwidth.
+ */
+public class BlockCacheWarmer {
+
+  private static final Logger log = Logger.getLogger(BlockCacheWarmer.class);
+
+  private static final char INDEX_CACHE = 'I';
+  private static final char DATA_CACHE = 'D';
+
+  private static final String BCFILE_BLOCK_PREFIX = "BCFile.";
+
+  private final ServerConfiguration conf;
+  private final VolumeManager fs;
+  private final BlockCache indexCache;
+  private final BlockCache dataCache;
+  private final File snapshotFile;
+  private final int maxBlocks;
+  private final long bytesPerSecond;
+
+  // saved block names that have not been read back yet
+  private final TreeSet<String> savedIndexBlocks = new TreeSet<String>();
+  private final TreeSet<String> savedDataBlocks = new TreeSet<String>();
+
+  private final ExecutorService warmupThread;
+
+  BlockCacheWarmer(ServerConfiguration conf, VolumeManager fs, BlockCache indexCache, BlockCache dataCache, File snapshotFile, int maxBlocks,
+      long bytesPerSecond) {
+    this.conf = conf;
+    this.fs = fs;
+    this.indexCache = indexCache;
+    this.dataCache = dataCache;
+    this.snapshotFile = snapshotFile;
+    this.maxBlocks = maxBlocks;
+    this.bytesPerSecond = bytesPerSecond;
+
+    NamingThreadFactory threadFactory = new NamingThreadFactory("block cache warm up");
+    ThreadPoolExecutor tpe = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), threadFactory);
+    tpe.allowCoreThreadTimeOut(true);
+    this.warmupThread = tpe;
+  }
+
+  /**
+   * Load the snapshot saved before the last restart, and start periodically saving the contents of the caches.
+   */
+  void start(long saveInterval) {
+    try {
+      load();
+    } catch (IOException e) {
+      log.warn("Unable to read block cache snapshot " + snapshotFile + ", caches will not be warmed", e);
+    }
+
+    SimpleTimer.getInstance().schedule(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          save();
+        } catch (IOException e) {
+          log.warn("Unable to save block cache snapshot " + snapshotFile, e);
+        }
+      }
+    }, saveInterval, saveInterval);
+  }
+
+  synchronized void load() throws IOException {
+    if (!snapshotFile.exists())
+      return;
+
+    BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(snapshotFile), Constants.UTF8));
+    try {
+      String line;
+      while ((line = in.readLine()) != null) {
+        if (line.length() < 2)
+          continue;
+        if (line.charAt(0) == INDEX_CACHE)
+          savedIndexBlocks.add(line.substring(1));
+        else if (line.charAt(0) == DATA_CACHE)
+          savedDataBlocks.add(line.substring(1));
+      }
+    } finally {
+      in.close();
+    }
+
+    log.info("Read " + savedIndexBlocks.size() + " index and " + savedDataBlocks.size() + " data block names from " + snapshotFile);
+  }
+
+  void save() throws IOException {
+    List<String> indexBlocks = indexCache.getHotBlockNames(maxBlocks);
+    List<String> dataBlocks = dataCache.getHotBlockNames(maxBlocks);
+
+    // keep blocks that were saved before the restart, but have not been read back yet, so a quick second restart does not lose them
+    synchronized (this) {
+      addSaved(indexBlocks, savedIndexBlocks);
+      addSaved(dataBlocks, savedDataBlocks);
+    }
+
+    File tmpFile = new File(snapshotFile.getPath() + ".tmp");
+    BufferedWriter out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmpFile), Constants.UTF8));
+    try {
+      write(out, INDEX_CACHE, indexBlocks);
+      write(out, DATA_CACHE, dataBlocks);
+    } finally {
+      out.close();
+    }
+
+    if (!tmpFile.renameTo(snapshotFile))
+      throw new IOException("Unable to rename " + tmpFile + " to " + snapshotFile);
+  }
+
+  private void addSaved(List<String> blocks, SortedSet<String> saved) {
+    if (saved.isEmpty() || blocks.size() >= maxBlocks)
+      return;
+    Set<String> cached = new HashSet<String>(blocks);
+    for (String name : saved) {
+      if (blocks.size() >= maxBlocks)
+        break;
+      if (!cached.contains(name))
+        blocks.add(name);
+    }
+  }
+
+  private static void write(BufferedWriter out, char cache, List<String> blocks) throws IOException {
+    for (String name : blocks) {
+      // a block name containing a line break could not be read back
+      if (name.indexOf('\n') >= 0 || name.indexOf('\r') >= 0)
+        continue;
+      out.write(cache);
+      out.write(name);
+      out.newLine();
+    }
+  }
+
+  /**
+   * Removes and returns the saved block names of a file, which start with the path of the file followed by the kind of block.
+   */
+  private static List<String> takeBlocks(TreeSet<String> saved, String file) {
+    List<String> blocks = new ArrayList<String>();
+    SortedSet<String> names = saved.subSet(file, file + Character.MAX_VALUE);
+    for (String name : names) {
+      if (name.length() > file.length()) {
+        char type = name.charAt(file.length());
+        if (type == 'M' || type == 'R' || type == 'O')
+          blocks.add(name);
+      }
+    }
+    saved.removeAll(blocks);
+    return blocks;
+  }
+
+  /**
+   * Read the saved blocks of a newly loaded tablet's files back into the caches, in the background.
+   */
+  void warm(final KeyExtent extent, Collection<FileRef> files) {
+    final List<String> filesToWarm = new ArrayList<String>();
+    final List<List<String>> indexBlocks = new ArrayList<List<String>>();
+    final List<List<String>> dataBlocks = new ArrayList<List<String>>();
+
+    synchronized (this) {
+      if (savedIndexBlocks.isEmpty() && savedDataBlocks.isEmpty())
+        return;
+
+      for (FileRef ref : files) {
+        String file = ref.path().toString();
+        if (!file.endsWith("." + RFile.EXTENSION))
+          continue;
+        List<String> index = takeBlocks(savedIndexBlocks, file);
+        List<String> data = takeBlocks(savedDataBlocks, file);
+        if (index.isEmpty() && data.isEmpty())
+          continue;
+        filesToWarm.add(file);
+        indexBlocks.add(index);
+        dataBlocks.add(data);
+      }
+    }
+
+    if (filesToWarm.isEmpty())
+      return;
+
+    warmupThread.execute(new LoggingRunnable(log, new Runnable() {
+      @Override
+      public void run() {
+        long start = System.currentTimeMillis();
+        long bytes = 0;
+        for (int i = 0; i < filesToWarm.size(); i++) {
+          try {
+            bytes += warmFile(extent.getTableId().toString(), filesToWarm.get(i), indexBlocks.get(i), dataBlocks.get(i));
+          } catch (FileNotFoundException e) {
+            // the file was compacted away since the snapshot was taken
+            log.debug("Unable to warm block caches for " + filesToWarm.get(i) + " " + e.getMessage());
+          } catch (Exception e) {
+            log.warn("Unable to warm block caches for " + filesToWarm.get(i), e);
+          }
+        }
+        log.debug(String.format("Warmed block caches for %s with %,d bytes in %,d ms", extent, bytes, System.currentTimeMillis() - start));
+      }
+    }));
+  }
+
+  // visible for testing
+  AccumuloConfiguration getTableConfiguration(String tableId) {
+    return conf.getTableConfiguration(tableId);
+  }
+
+  private long warmFile(String tableId, String file, List<String> indexBlocks, List<String> dataBlocks) throws IOException {
+    Path path = new Path(file);
+    FileSystem ns = fs.getFileSystemByPath(path);
+
+    long start = System.currentTimeMillis();
+    long bytes = 0;
+
+    // opening the file loads the root of its index
+    RFile.Reader reader = (RFile.Reader) FileOperations.getInstance().openReader(file, false, ns, ns.getConf(), getTableConfiguration(tableId), dataCache,
+        indexCache);
+    try {
+      BlockFileReader bfr = reader.getBlockFileReader();
+
+      boolean haveRawBlocks = false;
+      for (String name : indexBlocks) {
+        char type = name.charAt(file.length());
+        if (type == 'M') {
+          String metaName = name.substring(file.length() + 1);
+          // BCFile's own blocks are cached when the file is opened, and some of them can not be read by name
+          if (metaName.startsWith(BCFILE_BLOCK_PREFIX))
+            continue;
+          try {
+            ABlockReader meta = bfr.getMetaBlock(metaName);
+            bytes += meta.getRawSize();
+            meta.close();
+          } catch (IOException e) {
+            log.warn("Unable to warm block " + name, e);
+          }
+          throttle(start, bytes);
+        } else if (type == 'R') {
+          haveRawBlocks = true;
+        }
+      }
+
+      Set<Long> dataOffsets = new HashSet<Long>();
+      for (String name : dataBlocks) {
+        if (name.charAt(file.length()) == 'R')
+          dataOffsets.add(Long.parseLong(name.substring(file.length() + 1)));
+      }
+
+      if (haveRawBlocks || !dataOffsets.isEmpty()) {
+        // walking the index loads the rest of it
+        for (IndexEntry ie : reader.findDataBlocks(dataOffsets)) {
+          try {
+            ABlockReader block = bfr.getDataBlock(ie.getOffset(), ie.getCompressedSize(), ie.getRawSize());
+            block.close();
+            bytes += ie.getCompressedSize();
+          } catch (IOException e) {
+            log.warn("Unable to warm data block at offset " + ie.getOffset() + " of " + file, e);
+          }
+          throttle(start, bytes);
+        }
+      }
+    } finally {
+      reader.close();
+    }
+
+    return bytes;
+  }
+
+  /**
+   * Sleep long enough to keep the rate that bytes were read since start under the configured limit.
+   */
+  private void throttle(long start, long bytes) {
+    if (bytesPerSecond > 0) {
+      long wait = bytes * 1000 / bytesPerSecond - (System.currentTimeMillis() - start);
+      if (wait > 0)
+        UtilWaitThread.sleep(wait);
+    }
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.tserver;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Counts the commits in progress against a tablet's commit session without locking. Once a minor compaction replaces the session, the counter is closed so
+ * that no new commits can start against it, and the minor compaction waits for the commits already in progress to finish.
+ */
+public class CommitCounter {
+
+  private static final Logger log = Logger.getLogger(CommitCounter.class);
+
+  // set once the counter is closed, the remaining bits hold the count
+  private static final int CLOSED = 1 << 30;
+
+  private final AtomicInteger count = new AtomicInteger(0);
+
+  /**
+   * @return false if the counter was closed, in which case the commit must use the tablet's current commit session
+   */
+  public boolean tryIncrement() {
+    while (true) {
+      int current = count.get();
+      if ((current & CLOSED) != 0)
+        return false;
+      if (current < 0)
+        throw new IllegalStateException("commitsInProgress = " + current);
+      if (count.compareAndSet(current, current + 1))
+        return true;
+    }
+  }
+
+  public void decrement() {
+    int previous = count.getAndDecrement();
+    if ((previous & ~CLOSED) < 1)
+      throw new IllegalStateException("commitsInProgress = " + (previous & ~CLOSED));
+
+    if (previous == (CLOSED | 1)) {
+      // the last commit finished after the counter was closed, wake anything waiting for it
+      synchronized (this) {
+        notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Prevents new commits from starting. Commits already in progress may still finish.
+   */
+  public void close() {
+    while (true) {
+      int current = count.get();
+      if (count.compareAndSet(current, current | CLOSED))
+        return;
+    }
+  }
+
+  public boolean isClosed() {
+    return (count.get() & CLOSED) != 0;
+  }
+
+  public int getCommitsInProgress() {
+    return count.get() & ~CLOSED;
+  }
+
+  public synchronized void waitForCommitsToFinish() {
+    while (getCommitsInProgress() > 0) {
+      try {
+        wait(50);
+      } catch (InterruptedException e) {
+        log.warn(e, e);
+      }
+    }
+  }
+}
@@ -28,6 +28,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.Semaphore;
 
+import org.apache.accumulo.core.conf.AccumuloConfiguration;
 import org.apache.accumulo.core.conf.Property;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.KeyExtent;
@@ -35,6 +36,7 @@ import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.file.FileOperations;
 import org.apache.accumulo.core.file.FileSKVIterator;
 import org.apache.accumulo.core.file.blockfile.cache.BlockCache;
+import org.apache.accumulo.core.file.blockfile.cache.ScanBlockCache;
 import org.apache.accumulo.core.iterators.IteratorEnvironment;
 import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
 import org.apache.accumulo.core.iterators.system.InterruptibleIterator;
@@ -111,6 +113,10 @@ public class FileManager {
   private BlockCache dataCache = null;
   private BlockCache indexCache = null;
   
+  // each open reader sees the data cache through its own view, so a scan
+  // that reserves the reader can turn off cache population for just itself
+  private HashMap<FileSKVIterator,ScanBlockCache> readerDataCaches;
+  
   private long maxIdleTime;
   
   private final ServerConfiguration conf;
@@ -175,6 +181,7 @@ public class FileManager {
     
     this.openFiles = new HashMap<String,List<OpenReader>>();
     this.reservedReaders = new HashMap<FileSKVIterator,String>();
+    this.readerDataCaches = new HashMap<FileSKVIterator,ScanBlockCache>();
     
     this.maxIdleTime = conf.getConfiguration().getTimeInMillis(Property.TSERV_MAX_IDLE);
     SimpleTimer.getInstance().schedule(new IdleFileCloser(), maxIdleTime, maxIdleTime / 2);
@@ -232,6 +239,11 @@ public class FileManager {
   }
   
   private void closeReaders(List<FileSKVIterator> filesToClose) {
+    synchronized (this) {
+      for (FileSKVIterator reader : filesToClose)
+        readerDataCaches.remove(reader);
+    }
+    
     for (FileSKVIterator reader : filesToClose) {
       try {
         reader.close();
@@ -265,7 +277,7 @@ public class FileManager {
     return reservedReaders.get(reader);
   }
   
-  private List<FileSKVIterator> reserveReaders(Text table, Collection<String> files, boolean continueOnFailure) throws IOException {
+  private List<FileSKVIterator> reserveReaders(Text table, Collection<String> files, boolean continueOnFailure, boolean populateCache) throws IOException {
     
     if (files.size() >= maxOpen) {
       throw new IllegalArgumentException("requested files exceeds max open");
@@ -279,6 +291,7 @@ public class FileManager {
     List<FileSKVIterator> filesToClose = Collections.emptyList();
     List<FileSKVIterator> reservedFiles = new ArrayList<FileSKVIterator>();
     Map<FileSKVIterator,String> readersReserved = new HashMap<FileSKVIterator,String>();
+    Map<FileSKVIterator,ScanBlockCache> newDataCaches = new HashMap<FileSKVIterator,ScanBlockCache>();
     
     filePermits.acquireUninterruptibly(files.size());
     
@@ -311,10 +324,13 @@ public class FileManager {
         Path path = new Path(file);
         FileSystem ns = fs.getFileSystemByPath(path);
         //log.debug("Opening "+file + " path " + path);
-        FileSKVIterator reader = FileOperations.getInstance().openReader(path.toString(), false, ns, ns.getConf(), conf.getTableConfiguration(table.toString()),
-            dataCache, indexCache);
+        ScanBlockCache readerDataCache = dataCache == null ? null : new ScanBlockCache(dataCache);
+        FileSKVIterator reader = FileOperations.getInstance().openReader(path.toString(), false, ns, ns.getConf(), getTableConfiguration(table),
+            readerDataCache, indexCache);
         reservedFiles.add(reader);
         readersReserved.put(reader, file);
+        if (readerDataCache != null)
+          newDataCaches.put(reader, readerDataCache);
       } catch (Exception e) {
         
         ProblemReports.getInstance().report(new ProblemReport(table.toString(), ProblemType.FILE_READ, file, e));
@@ -338,11 +354,23 @@ public class FileManager {
     synchronized (this) {
       // update set of reserved readers
       reservedReaders.putAll(readersReserved);
+      
+      readerDataCaches.putAll(newDataCaches);
+      for (FileSKVIterator reader : reservedFiles) {
+        ScanBlockCache readerDataCache = readerDataCaches.get(reader);
+        if (readerDataCache != null)
+          readerDataCache.setPopulate(populateCache);
+      }
     }
     
     return reservedFiles;
   }
   
+  // visible for testing
+  AccumuloConfiguration getTableConfiguration(Text table) {
+    return conf.getTableConfiguration(table.toString());
+  }
+  
   private void releaseReaders(List<FileSKVIterator> readers, boolean sawIOException) {
     // put files in openFiles
     
@@ -446,6 +474,7 @@ public class FileManager {
     private ArrayList<FileSKVIterator> tabletReservedReaders;
     private KeyExtent tablet;
     private boolean continueOnFailure;
+    private boolean populateCache = true;
     
     ScanFileManager(KeyExtent tablet) {
       tabletReservedReaders = new ArrayList<FileSKVIterator>();
@@ -475,12 +504,20 @@ public class FileManager {
             + " files.size()=" + files.size() + " maxOpen=" + maxOpen + " tablet = " + tablet);
       }
       
-      List<FileSKVIterator> newlyReservedReaders = reserveReaders(tablet.getTableId(), files, continueOnFailure);
+      List<FileSKVIterator> newlyReservedReaders = reserveReaders(tablet.getTableId(), files, continueOnFailure, populateCache);
       
       tabletReservedReaders.addAll(newlyReservedReaders);
       return newlyReservedReaders;
     }
     
+    /**
+     * Open files for a scan, setting whether data blocks read from these and any later opened files are added to the data cache.
+     */
+    synchronized List<InterruptibleIterator> openFiles(Map<FileRef,DataFileValue> files, boolean detachable, boolean populateCache) throws IOException {
+      this.populateCache = populateCache;
+      return openFiles(files, detachable);
+    }
+    
     synchronized List<InterruptibleIterator> openFiles(Map<FileRef,DataFileValue> files, boolean detachable) throws IOException {
       
       List<FileSKVIterator> newlyReservedReaders = openFileRefs(files.keySet());
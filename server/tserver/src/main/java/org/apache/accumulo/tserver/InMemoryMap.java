@@ -206,20 +206,25 @@ public class InMemoryMap {
   }
 
   public InMemoryMap(Map<String,Set<ByteSequence>> lggroups, boolean useNativeMap, String memDumpDir) {
+    this(lggroups, useNativeMap, false, memDumpDir);
+  }
+
+  public InMemoryMap(Map<String,Set<ByteSequence>> lggroups, boolean useNativeMap, boolean useOffHeapMap, String memDumpDir) {
     this.memDumpDir = memDumpDir;
     this.lggroups = lggroups;
     
     if (lggroups.size() == 0)
-      map = newMap(useNativeMap);
+      map = newMap(useNativeMap, useOffHeapMap);
     else
-      map = new LocalityGroupMap(lggroups, useNativeMap);
+      map = new LocalityGroupMap(lggroups, useNativeMap, useOffHeapMap);
   }
   
   public InMemoryMap(AccumuloConfiguration config) throws LocalityGroupConfigurationError {
-    this(LocalityGroupUtil.getLocalityGroups(config), config.getBoolean(Property.TSERV_NATIVEMAP_ENABLED), config.get(Property.TSERV_MEMDUMP_DIR));
+    this(LocalityGroupUtil.getLocalityGroups(config), config.getBoolean(Property.TSERV_NATIVEMAP_ENABLED), config
+        .getBoolean(Property.TSERV_OFFHEAPMAP_ENABLED), config.get(Property.TSERV_MEMDUMP_DIR));
   }
   
-  private static SimpleMap newMap(boolean useNativeMap) {
+  private static SimpleMap newMap(boolean useNativeMap, boolean useOffHeapMap) {
     if (useNativeMap && NativeMap.isLoaded()) {
       try {
         return new NativeMapWrapper();
@@ -228,6 +233,9 @@ public class InMemoryMap {
       }
     }
     
+    if (useOffHeapMap)
+      return new OffHeapMapWrapper();
+    
     return new DefaultMap();
   }
   
@@ -254,18 +262,16 @@ public class InMemoryMap {
     // the last map in the array is the default locality group
     private SimpleMap maps[];
     private Partitioner partitioner;
-    private List<Mutation>[] partitioned;
     private Set<ByteSequence> nonDefaultColumnFamilies;
     
     @SuppressWarnings("unchecked")
-    LocalityGroupMap(Map<String,Set<ByteSequence>> groups, boolean useNativeMap) {
+    LocalityGroupMap(Map<String,Set<ByteSequence>> groups, boolean useNativeMap, boolean useOffHeapMap) {
       this.groupFams = new Map[groups.size()];
       this.maps = new SimpleMap[groups.size() + 1];
-      this.partitioned = new List[groups.size() + 1];
       this.nonDefaultColumnFamilies = new HashSet<ByteSequence>();
       
       for (int i = 0; i < maps.length; i++) {
-        maps[i] = newMap(useNativeMap);
+        maps[i] = newMap(useNativeMap, useOffHeapMap);
       }
 
       int count = 0;
@@ -278,10 +284,6 @@ public class InMemoryMap {
       }
       
       partitioner = new LocalityGroupUtil.Partitioner(this.groupFams);
-      
-      for (int i = 0; i < partitioned.length; i++) {
-        partitioned[i] = new ArrayList<Mutation>();
-      }
     }
 
     @Override
@@ -330,26 +332,22 @@ public class InMemoryMap {
       return sum;
     }
     
+    @SuppressWarnings("unchecked")
     @Override
-    public synchronized void mutate(List<Mutation> mutations, int kvCount) {
-      // this method is synchronized because it reuses objects to avoid allocation,
-      // currently, the method that calls this is synchronized so there is no
-      // loss in parallelism.... synchronization was added here for future proofing
+    public void mutate(List<Mutation> mutations, int kvCount) {
+      // concurrent writers each partition into their own lists, so that writes to the locality groups can proceed in parallel
+      List<Mutation>[] partitioned = new List[maps.length];
+      for (int i = 0; i < partitioned.length; i++) {
+        partitioned[i] = new ArrayList<Mutation>();
+      }
       
-      try{
-        partitioner.partition(mutations, partitioned);
-        
-        for (int i = 0; i < partitioned.length; i++) {
-          if (partitioned[i].size() > 0) {
-            maps[i].mutate(partitioned[i], kvCount);
-            for (Mutation m : partitioned[i])
-              kvCount += m.getUpdates().size();
-          }
-        }
-      } finally {
-        // clear immediately so mutations can be garbage collected
-        for (List<Mutation> list : partitioned) {
-          list.clear();
+      partitioner.partition(mutations, partitioned);
+      
+      for (int i = 0; i < partitioned.length; i++) {
+        if (partitioned[i].size() > 0) {
+          maps[i].mutate(partitioned[i], kvCount);
+          for (Mutation m : partitioned[i])
+            kvCount += m.getUpdates().size();
         }
       }
     }
@@ -459,10 +457,50 @@ public class InMemoryMap {
     }
   }
   
+  private static class OffHeapMapWrapper implements SimpleMap {
+    private OffHeapMap offHeapMap = new OffHeapMap();
+    
+    @Override
+    public Value get(Key key) {
+      return offHeapMap.get(key);
+    }
+    
+    @Override
+    public Iterator<Entry<Key,Value>> iterator(Key startKey) {
+      return offHeapMap.iterator(startKey);
+    }
+    
+    @Override
+    public int size() {
+      return offHeapMap.size();
+    }
+    
+    @Override
+    public InterruptibleIterator skvIterator() {
+      return (InterruptibleIterator) offHeapMap.skvIterator();
+    }
+    
+    @Override
+    public void delete() {
+      offHeapMap.delete();
+    }
+    
+    @Override
+    public long getMemoryUsed() {
+      return offHeapMap.getMemoryUsed();
+    }
+    
+    @Override
+    public void mutate(List<Mutation> mutations, int kvCount) {
+      offHeapMap.mutate(mutations, kvCount);
+    }
+  }
+  
   private AtomicInteger nextKVCount = new AtomicInteger(1);
   private AtomicInteger kvCount = new AtomicInteger(0);
 
-  private Object writeSerializer = new Object();
+  // first to last kv count of writes that were applied to the map, but can not be made visible until every write that started before them is
+  private final Map<Integer,Integer> appliedWrites = new HashMap<Integer,Integer>();
   
   /**
    * Applies changes to a row in the InMemoryMap
@@ -473,21 +511,47 @@ public class InMemoryMap {
     for (int i = 0; i < mutations.size(); i++)
       numKVs += mutations.get(i).size();
     
-    // Can not update mutationCount while writes that started before
-    // are in progress, this would cause partial mutations to be seen.
-    // Also, can not continue until mutation count is updated, because
-    // a read may not see a successful write. Therefore writes must
-    // wait for writes that started before to finish.
-    //
-    // using separate lock from this map, to allow read/write in parallel
-    synchronized (writeSerializer ) {
-      int kv = nextKVCount.getAndAdd(numKVs);
-      try {
-        map.mutate(mutations, kv);
-      } finally {
-        kvCount.set(kv + numKVs - 1);
+    if (numKVs == 0)
+      return;
+    
+    // Each write reserves its own range of kv counts and is applied to the map in parallel with other writes. Can not update kvCount past a write that
+    // is in progress, this would cause partial mutations to be seen. Also, can not return until kvCount covers this write, because a read may not see a
+    // successful write. Therefore writes become visible in the order they reserved their kv counts.
+    int kv = nextKVCount.getAndAdd(numKVs);
+    try {
+      map.mutate(mutations, kv);
+    } finally {
+      publish(kv, kv + numKVs - 1);
+    }
+  }
+  
+  private void publish(int first, int last) {
+    boolean interrupted = false;
+    
+    synchronized (appliedWrites) {
+      appliedWrites.put(first, last);
+      
+      Integer end = appliedWrites.remove(kvCount.get() + 1);
+      if (end != null) {
+        while (end != null) {
+          kvCount.set(end);
+          end = appliedWrites.remove(end + 1);
+        }
+        appliedWrites.notifyAll();
+      }
+      
+      while (kvCount.get() < last) {
+        try {
+          appliedWrites.wait();
+        } catch (InterruptedException e) {
+          // the write is already in the map, so it must still be made visible
+          interrupted = true;
+        }
       }
     }
+    
+    if (interrupted)
+      Thread.currentThread().interrupt();
   }
   
   /**
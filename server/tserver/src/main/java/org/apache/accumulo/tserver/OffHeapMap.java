@@ -0,0 +1,455 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.tserver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.ColumnUpdate;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.IterationInterruptedException;
+import org.apache.accumulo.core.iterators.IteratorEnvironment;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.iterators.system.InterruptibleIterator;
+
+/**
+ * An in memory map written in java that keeps its keys and values outside of the java heap, as an alternative to {@link NativeMap} that does not need a native
+ * library.
+ * 
+ * <p>
+ * Key value pairs are copied into large direct buffers that are carved up sequentially, in the same way the C++ map's block allocator works, so the garbage
+ * collector sees a few large buffers instead of millions of small arrays. The only per entry objects on the java heap are a small reference to the entry and
+ * the node of the ordered index over those references. Entries are never removed or modified, so readers and writers proceed concurrently without locks.
+ * The direct buffers are released by the garbage collector once the map is deleted and no iterator still references them.
+ */
+public class OffHeapMap implements Iterable<Map.Entry<Key,Value>> {
+
+  private static final int BLOCK_SIZE = 1 << 20;
+
+  // an entry is laid out as row, column family, column qualifier, column visibility and value lengths, timestamp, deleted flag and kv count followed by the
+  // row, column family, column qualifier, column visibility and value bytes
+  private static final int TIMESTAMP_OFFSET = 20;
+  private static final int DELETED_OFFSET = 28;
+  private static final int KV_COUNT_OFFSET = 29;
+  private static final int HEADER_SIZE = 33;
+
+  // estimated java heap used by the index for each entry, a skip list node, its share of the skip list's index nodes and an EntryRef
+  private static final int INDEX_OVERHEAD_PER_ENTRY = 88;
+
+  /**
+   * A reference to an entry stored in a block.
+   */
+  private static class EntryRef {
+    final ByteBuffer block;
+    final int offset;
+
+    EntryRef(ByteBuffer block, int offset) {
+      this.block = block;
+      this.offset = offset;
+    }
+
+    int getLength(int field) {
+      return block.getInt(offset + field * 4);
+    }
+
+    long getTimestamp() {
+      return block.getLong(offset + TIMESTAMP_OFFSET);
+    }
+
+    boolean isDeleted() {
+      return block.get(offset + DELETED_OFFSET) != 0;
+    }
+
+    int getKVCount() {
+      return block.getInt(offset + KV_COUNT_OFFSET);
+    }
+
+    private byte[] getBytes(int start, int len) {
+      byte[] data = new byte[len];
+      ByteBuffer dup = block.duplicate();
+      dup.position(start);
+      dup.get(data);
+      return data;
+    }
+
+    MemKey getKey() {
+      int pos = offset + HEADER_SIZE;
+      byte[][] fields = new byte[4][];
+      for (int i = 0; i < fields.length; i++) {
+        int len = getLength(i);
+        fields[i] = getBytes(pos, len);
+        pos += len;
+      }
+      return new MemKey(fields[0], fields[1], fields[2], fields[3], getTimestamp(), isDeleted(), false, getKVCount());
+    }
+
+    Value getValue() {
+      int pos = offset + HEADER_SIZE;
+      for (int i = 0; i < 4; i++)
+        pos += getLength(i);
+      return new Value(getBytes(pos, getLength(4)), false);
+    }
+  }
+
+  private static int entrySize(byte[] row, byte[] cf, byte[] cq, byte[] cv, byte[] value) {
+    return HEADER_SIZE + row.length + cf.length + cq.length + cv.length + value.length;
+  }
+
+  private static void writeEntry(ByteBuffer block, int offset, byte[] row, byte[] cf, byte[] cq, byte[] cv, long ts, boolean del, byte[] value, int kvCount) {
+    block.putInt(offset, row.length);
+    block.putInt(offset + 4, cf.length);
+    block.putInt(offset + 8, cq.length);
+    block.putInt(offset + 12, cv.length);
+    block.putInt(offset + 16, value.length);
+    block.putLong(offset + TIMESTAMP_OFFSET, ts);
+    block.put(offset + DELETED_OFFSET, (byte) (del ? 1 : 0));
+    block.putInt(offset + KV_COUNT_OFFSET, kvCount);
+
+    ByteBuffer dup = block.duplicate();
+    dup.position(offset + HEADER_SIZE);
+    dup.put(row);
+    dup.put(cf);
+    dup.put(cq);
+    dup.put(cv);
+    dup.put(value);
+  }
+
+  /**
+   * Creates a reference to a copy of a key on the java heap, that can be used to search the index. A key that is not a {@link MemKey} sorts before all
+   * entries with an equal key, like {@link MemKeyComparator} orders it.
+   */
+  private static EntryRef searchRef(Key key) {
+    byte[] row = key.getRowData().toArray();
+    byte[] cf = key.getColumnFamilyData().toArray();
+    byte[] cq = key.getColumnQualifierData().toArray();
+    byte[] cv = key.getColumnVisibilityData().toArray();
+    int kvCount = key instanceof MemKey ? ((MemKey) key).kvCount : Integer.MAX_VALUE;
+
+    ByteBuffer buffer = ByteBuffer.allocate(entrySize(row, cf, cq, cv, new byte[0]));
+    writeEntry(buffer, 0, row, cf, cq, cv, key.getTimestamp(), key.isDeleted(), new byte[0], kvCount);
+    return new EntryRef(buffer, 0);
+  }
+
+  /**
+   * Orders entries the way {@link MemKeyComparator} orders the keys they hold, comparing the stored bytes in place.
+   */
+  private static class EntryRefComparator implements Comparator<EntryRef> {
+
+    private static int compareBytes(ByteBuffer b1, int s1, int l1, ByteBuffer b2, int s2, int l2) {
+      int len = Math.min(l1, l2);
+      int i = 0;
+
+      // compare a long at a time, big endian longs compared as unsigned values order the same as their bytes do
+      for (; i + 8 <= len; i += 8) {
+        long v1 = b1.getLong(s1 + i);
+        long v2 = b2.getLong(s2 + i);
+        if (v1 != v2)
+          return (v1 + Long.MIN_VALUE) < (v2 + Long.MIN_VALUE) ? -1 : 1;
+      }
+
+      for (; i < len; i++) {
+        int v1 = b1.get(s1 + i) & 0xff;
+        int v2 = b2.get(s2 + i) & 0xff;
+        if (v1 != v2)
+          return v1 - v2;
+      }
+
+      return l1 - l2;
+    }
+
+    @Override
+    public int compare(EntryRef e1, EntryRef e2) {
+      int pos1 = e1.offset + HEADER_SIZE;
+      int pos2 = e2.offset + HEADER_SIZE;
+
+      // row, column family, column qualifier and column visibility
+      for (int i = 0; i < 4; i++) {
+        int len1 = e1.getLength(i);
+        int len2 = e2.getLength(i);
+        int cmp = compareBytes(e1.block, pos1, len1, e2.block, pos2, len2);
+        if (cmp != 0)
+          return cmp;
+        pos1 += len1;
+        pos2 += len2;
+      }
+
+      // newer timestamps sort first
+      long ts1 = e1.getTimestamp();
+      long ts2 = e2.getTimestamp();
+      if (ts1 != ts2)
+        return ts1 < ts2 ? 1 : -1;
+
+      // deletes sort first
+      boolean del1 = e1.isDeleted();
+      if (del1 != e2.isDeleted())
+        return del1 ? -1 : 1;
+
+      // later updates sort first
+      int kv1 = e1.getKVCount();
+      int kv2 = e2.getKVCount();
+      return kv1 == kv2 ? 0 : (kv1 < kv2 ? 1 : -1);
+    }
+  }
+
+  private final ConcurrentSkipListSet<EntryRef> index = new ConcurrentSkipListSet<EntryRef>(new EntryRefComparator());
+  private final AtomicInteger size = new AtomicInteger();
+  private final AtomicLong blockBytes = new AtomicLong();
+  private ByteBuffer currentBlock;
+  private volatile boolean deleted = false;
+
+  /**
+   * Reserves space for an entry, in the current block when it fits. Entries larger than half a block get a buffer of their own, so that they do not waste the
+   * rest of a block.
+   */
+  private synchronized EntryRef allocate(int len) {
+    if (len > BLOCK_SIZE / 2) {
+      blockBytes.addAndGet(len);
+      return new EntryRef(ByteBuffer.allocateDirect(len), 0);
+    }
+
+    if (currentBlock == null || currentBlock.remaining() < len) {
+      currentBlock = ByteBuffer.allocateDirect(BLOCK_SIZE);
+      blockBytes.addAndGet(BLOCK_SIZE);
+    }
+
+    EntryRef ref = new EntryRef(currentBlock, currentBlock.position());
+    currentBlock.position(currentBlock.position() + len);
+    return ref;
+  }
+
+  private void checkDeleted() {
+    if (deleted)
+      throw new IllegalStateException("Off heap map deleted");
+  }
+
+  private void add(byte[] row, byte[] cf, byte[] cq, byte[] cv, long ts, boolean del, byte[] value, int kvCount) {
+    EntryRef ref = allocate(entrySize(row, cf, cq, cv, value));
+    // the entry is only written to its own space, so this does not need to hold the allocation lock
+    writeEntry(ref.block, ref.offset, row, cf, cq, cv, ts, del, value, kvCount);
+    if (index.add(ref))
+      size.incrementAndGet();
+  }
+
+  public void mutate(List<Mutation> mutations, int kvCount) {
+    checkDeleted();
+
+    for (Mutation m : mutations) {
+      for (ColumnUpdate cu : m.getUpdates()) {
+        add(m.getRow(), cu.getColumnFamily(), cu.getColumnQualifier(), cu.getColumnVisibility(), cu.getTimestamp(), cu.isDeleted(), cu.getValue(), kvCount++);
+      }
+    }
+  }
+
+  /**
+   * Adds a key, replacing the value of an equal key that is already in the map.
+   */
+  public void put(Key key, Value value) {
+    checkDeleted();
+
+    byte[] row = key.getRowData().toArray();
+    byte[] cf = key.getColumnFamilyData().toArray();
+    byte[] cq = key.getColumnQualifierData().toArray();
+    byte[] cv = key.getColumnVisibilityData().toArray();
+    byte[] val = value.get();
+
+    EntryRef ref = allocate(entrySize(row, cf, cq, cv, val));
+    writeEntry(ref.block, ref.offset, row, cf, cq, cv, key.getTimestamp(), key.isDeleted(), val, key instanceof MemKey ? ((MemKey) key).kvCount : 0);
+    if (index.add(ref)) {
+      size.incrementAndGet();
+    } else {
+      // the index compares equal entries as the same, so this removes the old entry
+      index.remove(ref);
+      index.add(ref);
+    }
+  }
+
+  public Value get(Key key) {
+    checkDeleted();
+
+    EntryRef ref = index.ceiling(searchRef(key));
+    if (ref != null && ref.getKey().equals(key))
+      return ref.getValue();
+    return null;
+  }
+
+  public int size() {
+    checkDeleted();
+    return size.get();
+  }
+
+  /**
+   * @return the bytes allocated outside of the java heap plus an estimate of the java heap used by the index
+   */
+  public long getMemoryUsed() {
+    checkDeleted();
+    return blockBytes.get() + (long) size.get() * INDEX_OVERHEAD_PER_ENTRY;
+  }
+
+  private class EntryIterator implements Iterator<Map.Entry<Key,Value>> {
+    private final Iterator<EntryRef> source;
+
+    EntryIterator(Iterator<EntryRef> source) {
+      this.source = source;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return source.hasNext();
+    }
+
+    @Override
+    public Entry<Key,Value> next() {
+      EntryRef ref = source.next();
+      return new SimpleImmutableEntry<Key,Value>(ref.getKey(), ref.getValue());
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  @Override
+  public Iterator<Map.Entry<Key,Value>> iterator() {
+    checkDeleted();
+    return new EntryIterator(index.iterator());
+  }
+
+  public Iterator<Map.Entry<Key,Value>> iterator(Key startKey) {
+    checkDeleted();
+    return new EntryIterator(index.tailSet(searchRef(startKey), true).iterator());
+  }
+
+  /**
+   * Marks the map deleted, after which it can not be read or written. The memory is released by the garbage collector once neither the map nor an iterator
+   * over it is referenced.
+   */
+  public synchronized void delete() {
+    checkDeleted();
+    deleted = true;
+    currentBlock = null;
+  }
+
+  private static class OHMSKVIter implements InterruptibleIterator {
+
+    private OffHeapMap map;
+    private Iterator<Map.Entry<Key,Value>> iter;
+    private Entry<Key,Value> entry;
+
+    private Range range;
+    private AtomicBoolean interruptFlag;
+    private int interruptCheckCount = 0;
+
+    private OHMSKVIter(OffHeapMap map, AtomicBoolean interruptFlag) {
+      this.map = map;
+      this.range = new Range();
+      iter = map.iterator();
+      entry = iter.hasNext() ? iter.next() : null;
+      this.interruptFlag = interruptFlag;
+    }
+
+    @Override
+    public Key getTopKey() {
+      return entry.getKey();
+    }
+
+    @Override
+    public Value getTopValue() {
+      return entry.getValue();
+    }
+
+    @Override
+    public boolean hasTop() {
+      return entry != null;
+    }
+
+    @Override
+    public void next() throws IOException {
+      if (entry == null)
+        throw new IllegalStateException();
+
+      // checking the interrupt flag for every call to next had bad a bad performance impact
+      // so check it every 100th time
+      if (interruptFlag != null && interruptCheckCount++ % 100 == 0 && interruptFlag.get())
+        throw new IterationInterruptedException();
+
+      if (iter.hasNext()) {
+        entry = iter.next();
+        if (range.afterEndKey(entry.getKey()))
+          entry = null;
+      } else
+        entry = null;
+    }
+
+    @Override
+    public void seek(Range range, Collection<ByteSequence> columnFamilies, boolean inclusive) throws IOException {
+      if (interruptFlag != null && interruptFlag.get())
+        throw new IterationInterruptedException();
+
+      this.range = range;
+
+      Key key = range.getStartKey();
+      iter = key == null ? map.iterator() : map.iterator(key);
+
+      if (iter.hasNext()) {
+        entry = iter.next();
+        if (range.afterEndKey(entry.getKey()))
+          entry = null;
+      } else
+        entry = null;
+
+      while (hasTop() && range.beforeStartKey(getTopKey())) {
+        next();
+      }
+    }
+
+    @Override
+    public void init(SortedKeyValueIterator<Key,Value> source, Map<String,String> options, IteratorEnvironment env) throws IOException {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SortedKeyValueIterator<Key,Value> deepCopy(IteratorEnvironment env) {
+      return new OHMSKVIter(map, interruptFlag);
+    }
+
+    @Override
+    public void setInterruptFlag(AtomicBoolean flag) {
+      this.interruptFlag = flag;
+    }
+  }
+
+  public SortedKeyValueIterator<Key,Value> skvIterator() {
+    checkDeleted();
+    return new OHMSKVIter(this, null);
+  }
+}
@@ -17,7 +17,6 @@
 package org.apache.accumulo.tserver;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -30,72 +29,75 @@ import org.apache.accumulo.tserver.ConditionalMutationSet.DeferFilter;
 import org.apache.accumulo.tserver.data.ServerConditionalMutation;
 
 /**
- * 
+ * Locks the rows of conditional mutations while their conditions are checked and they are written. Rows are mapped onto a fixed set of lock stripes, so
+ * acquiring the locks for a batch needs no shared map and no global lock. Two rows that share a stripe contend as if they were the same row, which only
+ * defers one of them to a later pass.
  */
 class RowLocks {
-  
-  private Map<ByteSequence,RowLock> rowLocks = new HashMap<ByteSequence,RowLock>();
-  
+
+  private static final int DEFAULT_STRIPES = 1 << 12;
+
+  private final ReentrantLock[] stripes;
+  private final int mask;
+
   static class RowLock {
     ReentrantLock rlock;
-    int count;
     ByteSequence rowSeq;
-    
+
     RowLock(ReentrantLock rlock, ByteSequence rowSeq) {
       this.rlock = rlock;
-      this.count = 0;
       this.rowSeq = rowSeq;
     }
-    
+
     public boolean tryLock() {
       return rlock.tryLock();
     }
-    
+
     public void lock() {
       rlock.lock();
     }
-    
+
     public void unlock() {
       rlock.unlock();
     }
   }
-  
-  private RowLock getRowLock(ArrayByteSequence rowSeq) {
-      RowLock lock = rowLocks.get(rowSeq);
-      if (lock == null) {
-        lock = new RowLock(new ReentrantLock(), rowSeq);
-        rowLocks.put(rowSeq, lock);
-      }
-      
-      lock.count++;
-      return lock;
+
+  RowLocks() {
+    this(DEFAULT_STRIPES);
   }
-  
-  private void returnRowLock(RowLock lock) {
-      if (lock.count == 0)
-        throw new IllegalStateException();
-      lock.count--;
-      
-      if (lock.count == 0) {
-        rowLocks.remove(lock.rowSeq);
-      }
+
+  /**
+   * @param numStripes
+   *          rounded up to a power of two
+   */
+  RowLocks(int numStripes) {
+    int size = numStripes <= 1 ? 1 : Integer.highestOneBit(numStripes - 1) << 1;
+    stripes = new ReentrantLock[size];
+    for (int i = 0; i < size; i++)
+      stripes[i] = new ReentrantLock();
+    mask = size - 1;
+  }
+
+  private RowLock getRowLock(ArrayByteSequence rowSeq) {
+    int hash = rowSeq.hashCode();
+    // spread the high bits, row hash codes of similar rows differ mostly in the low bits
+    hash ^= (hash >>> 16);
+    return new RowLock(stripes[hash & mask], rowSeq);
   }
-  
+
   List<RowLock> acquireRowlocks(Map<KeyExtent,List<ServerConditionalMutation>> updates, Map<KeyExtent,List<ServerConditionalMutation>> deferred) {
     ArrayList<RowLock> locks = new ArrayList<RowLock>();
-    
-    // assume that mutations are in sorted order to avoid deadlock
-    synchronized (rowLocks) {
-      for (List<ServerConditionalMutation> scml : updates.values()) {
-        for (ServerConditionalMutation scm : scml) {
-          locks.add(getRowLock(new ArrayByteSequence(scm.getRow())));
-        }
+
+    for (List<ServerConditionalMutation> scml : updates.values()) {
+      for (ServerConditionalMutation scm : scml) {
+        locks.add(getRowLock(new ArrayByteSequence(scm.getRow())));
       }
     }
-    
+
     HashSet<ByteSequence> rowsNotLocked = null;
 
-    // acquire as many locks as possible, not blocking on rows that are already locked
+    // acquire as many locks as possible, not blocking on rows that are already locked. A thread never blocks while holding a lock, so the order the stripes
+    // are locked in can not deadlock. The locks are reentrant, so rows in this batch that share a stripe both get it.
     if (locks.size() > 1) {
       for (RowLock rowLock : locks) {
         if (!rowLock.tryLock()) {
@@ -108,9 +110,9 @@ class RowLocks {
       // if there is only one lock, then wait for it
       locks.get(0).lock();
     }
-    
+
     if (rowsNotLocked != null) {
-      
+
       final HashSet<ByteSequence> rnlf = rowsNotLocked;
       // assume will get locks needed, do something expensive otherwise
       ConditionalMutationSet.defer(updates, deferred, new DeferFilter() {
@@ -121,42 +123,27 @@ class RowLocks {
               deferred.add(scm);
             else
               okMutations.add(scm);
-            
+
           }
         }
       });
-      
+
       ArrayList<RowLock> filteredLocks = new ArrayList<RowLock>();
-      ArrayList<RowLock> locksToReturn = new ArrayList<RowLock>();
       for (RowLock rowLock : locks) {
-        if (rowsNotLocked.contains(rowLock.rowSeq)) {
-          locksToReturn.add(rowLock);
-        } else {
+        if (!rowsNotLocked.contains(rowLock.rowSeq)) {
           filteredLocks.add(rowLock);
         }
       }
-      
-      synchronized (rowLocks) {
-        for (RowLock rowLock : locksToReturn) {
-          returnRowLock(rowLock);
-        }
-      }
 
       locks = filteredLocks;
     }
     return locks;
   }
-  
+
   void releaseRowLocks(List<RowLock> locks) {
     for (RowLock rowLock : locks) {
       rowLock.unlock();
     }
-    
-    synchronized (rowLocks) {
-      for (RowLock rowLock : locks) {
-        returnRowLock(rowLock);
-      }
-    }
   }
 
 }
@@ -38,13 +38,16 @@ import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.accumulo.core.Constants;
 import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.Durability;
 import org.apache.accumulo.core.client.IteratorSetting;
+import org.apache.accumulo.core.client.impl.DurabilityImpl;
 import org.apache.accumulo.core.client.impl.ScannerImpl;
 import org.apache.accumulo.core.conf.AccumuloConfiguration;
 import org.apache.accumulo.core.conf.ConfigurationCopy;
@@ -69,14 +72,17 @@ import org.apache.accumulo.core.iterators.IteratorEnvironment;
 import org.apache.accumulo.core.iterators.IteratorUtil;
 import org.apache.accumulo.core.iterators.IteratorUtil.IteratorScope;
 import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.iterators.system.BatchingIterator;
 import org.apache.accumulo.core.iterators.system.ColumnFamilySkippingIterator;
 import org.apache.accumulo.core.iterators.system.ColumnQualifierFilter;
 import org.apache.accumulo.core.iterators.system.DeletingIterator;
+import org.apache.accumulo.core.iterators.system.FilteredBatchIterator;
 import org.apache.accumulo.core.iterators.system.InterruptibleIterator;
 import org.apache.accumulo.core.iterators.system.MultiIterator;
 import org.apache.accumulo.core.iterators.system.SourceSwitchingIterator;
 import org.apache.accumulo.core.iterators.system.SourceSwitchingIterator.DataSource;
 import org.apache.accumulo.core.iterators.system.StatsIterator;
+import org.apache.accumulo.core.iterators.system.UnbatchingIterator;
 import org.apache.accumulo.core.iterators.system.VisibilityFilter;
 import org.apache.accumulo.core.master.thrift.TabletLoadState;
 import org.apache.accumulo.core.metadata.MetadataTable;
@@ -175,13 +181,12 @@ public class Tablet {
 
     private int seq;
     private InMemoryMap memTable;
-    private int commitsInProgress;
-    private long maxCommittedTime = Long.MIN_VALUE;
+    private final CommitCounter commitsInProgress = new CommitCounter();
+    private final AtomicLong maxCommittedTime = new AtomicLong(Long.MIN_VALUE);
 
     private CommitSession(int seq, InMemoryMap imm) {
       this.seq = seq;
       this.memTable = imm;
-      commitsInProgress = 0;
     }
 
     public int getWALogSeq() {
@@ -189,29 +194,22 @@ public class Tablet {
     }
 
     private void decrementCommitsInProgress() {
-      if (commitsInProgress < 1)
-        throw new IllegalStateException("commitsInProgress = " + commitsInProgress);
-
-      commitsInProgress--;
-      if (commitsInProgress == 0)
-        Tablet.this.notifyAll();
+      commitsInProgress.decrement();
     }
 
-    private void incrementCommitsInProgress() {
-      if (commitsInProgress < 0)
-        throw new IllegalStateException("commitsInProgress = " + commitsInProgress);
+    /**
+     * @return false if a minor compaction replaced this session, in which case the tablet's current commit session should be used
+     */
+    private boolean tryIncrementCommitsInProgress() {
+      return commitsInProgress.tryIncrement();
+    }
 
-      commitsInProgress++;
+    private void closeForCommits() {
+      commitsInProgress.close();
     }
 
     private void waitForCommitsToFinish() {
-      while (commitsInProgress > 0) {
-        try {
-          Tablet.this.wait(50);
-        } catch (InterruptedException e) {
-          log.warn(e, e);
-        }
-      }
+      commitsInProgress.waitForCommitsToFinish();
     }
 
     public void abortCommit(List<Mutation> value) {
@@ -226,7 +224,7 @@ public class Tablet {
       return Tablet.this;
     }
 
-    public boolean beginUpdatingLogsUsed(ArrayList<DfsLogger> copy, boolean mincFinish) {
+    public boolean beginUpdatingLogsUsed(Collection<DfsLogger> copy, boolean mincFinish) {
       return Tablet.this.beginUpdatingLogsUsed(memTable, copy, mincFinish);
     }
 
@@ -243,23 +241,31 @@ public class Tablet {
     }
 
     private void updateMaxCommittedTime(long time) {
-      maxCommittedTime = Math.max(time, maxCommittedTime);
+      long current = maxCommittedTime.get();
+      while (time > current && !maxCommittedTime.compareAndSet(current, time)) {
+        current = maxCommittedTime.get();
+      }
     }
 
     private long getMaxCommittedTime() {
-      if (maxCommittedTime == Long.MIN_VALUE)
+      long time = maxCommittedTime.get();
+      if (time == Long.MIN_VALUE)
         throw new IllegalStateException("Tried to read max committed time when it was never set");
-      return maxCommittedTime;
+      return time;
     }
 
   }
 
+  /**
+   * Changes to the memory tables and the commit session are made while holding the tablet lock. The fields are volatile so that writers can find the current
+   * commit session and report memory usage without taking the lock.
+   */
   private class TabletMemory {
-    private InMemoryMap memTable;
-    private InMemoryMap otherMemTable;
-    private InMemoryMap deletingMemTable;
+    private volatile InMemoryMap memTable;
+    private volatile InMemoryMap otherMemTable;
+    private volatile InMemoryMap deletingMemTable;
     private int nextSeq = 1;
-    private CommitSession commitSession;
+    private volatile CommitSession commitSession;
 
     TabletMemory() {
       try {
@@ -299,6 +305,9 @@ public class Tablet {
       commitSession = new CommitSession(nextSeq, memTable);
       nextSeq += 2;
 
+      // writers that still see the old session after this will retry with the new one
+      oldCommitSession.closeForCommits();
+
       tabletResources.updateMemoryUsageStats(memTable.estimatedSizeInBytes(), otherMemTable.estimatedSizeInBytes());
 
       return oldCommitSession;
@@ -359,13 +368,12 @@ public class Tablet {
     }
 
     void updateMemoryUsageStats() {
-      long other = 0;
-      if (otherMemTable != null)
-        other = otherMemTable.estimatedSizeInBytes();
-      else if (deletingMemTable != null)
-        other = deletingMemTable.estimatedSizeInBytes();
+      // called without the tablet lock, so read each table once
+      InMemoryMap other = otherMemTable;
+      if (other == null)
+        other = deletingMemTable;
 
-      tabletResources.updateMemoryUsageStats(memTable.estimatedSizeInBytes(), other);
+      tabletResources.updateMemoryUsageStats(memTable.estimatedSizeInBytes(), other == null ? 0 : other.estimatedSizeInBytes());
     }
 
     List<MemoryIterator> getIterators() {
@@ -393,7 +401,7 @@ public class Tablet {
     }
   }
 
-  private TabletMemory tabletMemory;
+  private volatile TabletMemory tabletMemory;
 
   private final TabletTime tabletTime;
   private long persistedTime;
@@ -413,8 +421,8 @@ public class Tablet {
   private Set<ScanDataSource> activeScans = new HashSet<ScanDataSource>();
 
   private volatile boolean closing = false;
-  private boolean closed = false;
-  private boolean closeComplete = false;
+  private volatile boolean closed = false;
+  private volatile boolean closeComplete = false;
 
   private long lastFlushID = -1;
   private long lastCompactID = -1;
@@ -435,7 +443,8 @@ public class Tablet {
 
   private final String tabletDirectory;
 
-  private int writesInProgress = 0;
+  // writers increment this before checking closed, and close sets closed before waiting for this to reach zero, so neither needs the tablet lock
+  private final AtomicInteger writesInProgress = new AtomicInteger(0);
 
   private static final Logger log = Logger.getLogger(Tablet.class);
   public TabletStatsKeeper timer;
@@ -447,18 +456,18 @@ public class Tablet {
   private long queryBytes = 0;
 
   private Rate ingestRate = new Rate(0.2);
-  private long ingestCount = 0;
+  private final AtomicLong ingestCount = new AtomicLong(0);
 
   private Rate ingestByteRate = new Rate(0.2);
-  private long ingestBytes = 0;
+  private final AtomicLong ingestBytes = new AtomicLong(0);
 
   private byte[] defaultSecurityLabel = new byte[0];
 
   private long lastMinorCompactionFinishTime;
   private long lastMapFileImportTime;
 
-  private volatile long numEntries;
-  private volatile long numEntriesInMemory;
+  private final AtomicLong numEntries = new AtomicLong(0);
+  private final AtomicLong numEntriesInMemory = new AtomicLong(0);
 
   // a count of the amount of data read by the iterators
   private AtomicLong scannedCount = new AtomicLong(0);
@@ -1644,7 +1653,7 @@ public class Tablet {
   }
 
   public LookupResult lookup(List<Range> ranges, HashSet<Column> columns, Authorizations authorizations, ArrayList<KVEntry> results, long maxResultSize,
-      List<IterInfo> ssiList, Map<String,Map<String,String>> ssio, AtomicBoolean interruptFlag) throws IOException {
+      List<IterInfo> ssiList, Map<String,Map<String,String>> ssio, boolean populateCache, AtomicBoolean interruptFlag) throws IOException {
 
     if (ranges.size() == 0) {
       return new LookupResult();
@@ -1660,7 +1669,7 @@ public class Tablet {
       tabletRange.clip(range);
     }
 
-    ScanDataSource dataSource = new ScanDataSource(authorizations, this.defaultSecurityLabel, columns, ssiList, ssio, interruptFlag);
+    ScanDataSource dataSource = new ScanDataSource(authorizations, this.defaultSecurityLabel, columns, ssiList, ssio, populateCache, interruptFlag);
 
     LookupResult result = null;
 
@@ -1773,15 +1782,74 @@ public class Tablet {
   }
 
   Scanner createScanner(Range range, int num, Set<Column> columns, Authorizations authorizations, List<IterInfo> ssiList, Map<String,Map<String,String>> ssio,
-      boolean isolated, AtomicBoolean interruptFlag) {
+      boolean isolated, boolean populateCache, AtomicBoolean interruptFlag) {
     // do a test to see if this range falls within the tablet, if it does not
     // then clip will throw an exception
     extent.toDataRange().clip(range);
 
-    ScanOptions opts = new ScanOptions(num, authorizations, this.defaultSecurityLabel, columns, ssiList, ssio, interruptFlag, isolated);
+    ScanOptions opts = new ScanOptions(num, authorizations, this.defaultSecurityLabel, columns, ssiList, ssio, interruptFlag, isolated, populateCache);
     return new Scanner(range, opts);
   }
 
+  /**
+   * Seeks each range in turn through a single set of data sources and iterators, returning the value of the first entry in each range or null when the range
+   * is empty. The ranges should be sorted so that the files are read in a single forward pass.
+   */
+  List<Value> lookupFirstValues(List<Range> ranges, Authorizations authorizations, List<IterInfo> ssiList, Map<String,Map<String,String>> ssio,
+      AtomicBoolean interruptFlag) throws IOException, TabletClosedException {
+    Range tabletRange = extent.toDataRange();
+    for (Range range : ranges) {
+      // do a test to see if this range falls within the tablet, if it does not
+      // then clip will throw an exception
+      tabletRange.clip(range);
+    }
+
+    ScanOptions opts = new ScanOptions(1, authorizations, this.defaultSecurityLabel, Collections.<Column> emptySet(), ssiList, ssio, interruptFlag, false,
+        true);
+    ScanDataSource dataSource = new ScanDataSource(opts);
+
+    List<Value> values = new ArrayList<Value>(ranges.size());
+    long found = 0;
+    long numBytes = 0;
+
+    try {
+      SortedKeyValueIterator<Key,Value> iter = new SourceSwitchingIterator(dataSource, false);
+      for (Range range : ranges) {
+        iter.seek(range, LocalityGroupUtil.EMPTY_CF_SET, false);
+        if (iter.hasTop()) {
+          // copy, the iterators may reuse the value
+          Value value = new Value(iter.getTopValue().get(), true);
+          values.add(value);
+          found++;
+          numBytes += iter.getTopKey().getSize() + value.getSize();
+        } else {
+          values.add(null);
+        }
+      }
+      return values;
+    } catch (IterationInterruptedException iie) {
+      if (isClosed())
+        throw new TabletClosedException(iie);
+      else
+        throw iie;
+    } catch (IOException ioe) {
+      if (shutdownInProgress()) {
+        log.debug("IOException while shutdown in progress ", ioe);
+        throw new TabletClosedException(ioe); // assume IOException was caused by execution of HDFS shutdown hook
+      }
+
+      dataSource.close(true);
+      throw ioe;
+    } finally {
+      dataSource.close(false);
+
+      synchronized (this) {
+        queryCount += found;
+        queryBytes += numBytes;
+      }
+    }
+  }
+
   class ScanBatch {
     boolean more;
     List<KVEntry> results;
@@ -1912,9 +1980,10 @@ public class Tablet {
     AtomicBoolean interruptFlag;
     int num;
     boolean isolated;
+    boolean populateCache;
 
     ScanOptions(int num, Authorizations authorizations, byte[] defaultLabels, Set<Column> columnSet, List<IterInfo> ssiList,
-        Map<String,Map<String,String>> ssio, AtomicBoolean interruptFlag, boolean isolated) {
+        Map<String,Map<String,String>> ssio, AtomicBoolean interruptFlag, boolean isolated, boolean populateCache) {
       this.num = num;
       this.authorizations = authorizations;
       this.defaultLabels = defaultLabels;
@@ -1923,6 +1992,7 @@ public class Tablet {
       this.ssio = ssio;
       this.interruptFlag = interruptFlag;
       this.isolated = isolated;
+      this.populateCache = populateCache;
     }
 
   }
@@ -1937,13 +2007,14 @@ public class Tablet {
     private long fileReservationId;
     private AtomicBoolean interruptFlag;
     private StatsIterator statsIterator;
+    private UnbatchingIterator unbatchingIterator;
 
     ScanOptions options;
 
     ScanDataSource(Authorizations authorizations, byte[] defaultLabels, HashSet<Column> columnSet, List<IterInfo> ssiList, Map<String,Map<String,String>> ssio,
-        AtomicBoolean interruptFlag) {
+        boolean populateCache, AtomicBoolean interruptFlag) {
       expectedDeletionCount = dataSourceDeletions.get();
-      this.options = new ScanOptions(-1, authorizations, defaultLabels, columnSet, ssiList, ssio, interruptFlag, false);
+      this.options = new ScanOptions(-1, authorizations, defaultLabels, columnSet, ssiList, ssio, interruptFlag, false, populateCache);
       this.interruptFlag = interruptFlag;
     }
 
@@ -1969,6 +2040,7 @@ public class Tablet {
 
         expectedDeletionCount = dataSourceDeletions.get();
         iter = null;
+        reportStats();
 
         return this;
       } else
@@ -2021,7 +2093,7 @@ public class Tablet {
         files = reservation.getSecond();
       }
 
-      Collection<InterruptibleIterator> mapfiles = fileManager.openFiles(files, options.isolated);
+      Collection<InterruptibleIterator> mapfiles = fileManager.openFiles(files, options.isolated, options.populateCache);
 
       List<SortedKeyValueIterator<Key,Value>> iters = new ArrayList<SortedKeyValueIterator<Key,Value>>(mapfiles.size() + memIters.size());
 
@@ -2041,12 +2113,20 @@ public class Tablet {
 
       ColumnFamilySkippingIterator cfsi = new ColumnFamilySkippingIterator(delIter);
 
-      ColumnQualifierFilter colFilter = new ColumnQualifierFilter(cfsi, options.columnSet);
-
-      VisibilityFilter visFilter = new VisibilityFilter(colFilter, options.authorizations, options.defaultLabels);
+      SortedKeyValueIterator<Key,Value> filtered;
+      if (acuTableConf.getBoolean(Property.TABLE_SCAN_BATCHED_FILTERS)) {
+        // the column and visibility filters are applied to batches of entries, so that each entry does not pass through two more levels of iterators
+        ColumnQualifierFilter colFilter = new ColumnQualifierFilter(null, options.columnSet);
+        VisibilityFilter visFilter = new VisibilityFilter(null, options.authorizations, options.defaultLabels);
+        unbatchingIterator = new UnbatchingIterator(new FilteredBatchIterator(new BatchingIterator(cfsi), colFilter, visFilter));
+        filtered = unbatchingIterator;
+      } else {
+        ColumnQualifierFilter colFilter = new ColumnQualifierFilter(cfsi, options.columnSet);
+        filtered = new VisibilityFilter(colFilter, options.authorizations, options.defaultLabels);
+      }
 
       return iterEnv.getTopLevelIterator(IteratorUtil
-          .loadIterators(IteratorScope.scan, visFilter, extent, acuTableConf, options.ssiList, options.ssio, iterEnv));
+          .loadIterators(IteratorScope.scan, filtered, extent, acuTableConf, options.ssiList, options.ssio, iterEnv));
     }
 
     private void close(boolean sawErrors) {
@@ -2069,10 +2149,18 @@ public class Tablet {
         fileManager = null;
       }
 
+      reportStats();
+    }
+
+    private void reportStats() {
       if (statsIterator != null) {
+        // entries read ahead by the batched filters and never used are not counted as scanned
+        if (unbatchingIterator != null)
+          statsIterator.unread(unbatchingIterator.getUnconsumedCount());
         statsIterator.report();
+        statsIterator = null;
+        unbatchingIterator = null;
       }
-
     }
 
     public void interrupt() {
@@ -2172,9 +2260,7 @@ public class Tablet {
         FileRef newMapfileLocation = getNextMapFilename(mergeFile == null ? "F" : "M");
         FileRef tmpFileRef = new FileRef(newMapfileLocation.path() + "_tmp");
         Span span = Trace.start("waitForCommits");
-        synchronized (Tablet.this) {
-          commitSession.waitForCommitsToFinish();
-        }
+        commitSession.waitForCommitsToFinish();
         span.stop();
         span = Trace.start("start");
         while (true) {
@@ -2469,23 +2555,42 @@ public class Tablet {
     }
   }
 
-  private synchronized CommitSession finishPreparingMutations(long time) {
-    if (writesInProgress < 0) {
-      throw new IllegalStateException("waitingForLogs < 0 " + writesInProgress);
+  private CommitSession finishPreparingMutations(long time) {
+    int writes = writesInProgress.incrementAndGet();
+    if (writes < 1) {
+      throw new IllegalStateException("waitingForLogs < 0 " + (writes - 1));
     }
 
-    if (closed || tabletMemory == null) {
+    TabletMemory memory = tabletMemory;
+    if (closed || memory == null) {
       // log.debug("tablet closed, can't commit");
+      finishWrite();
       return null;
     }
 
-    writesInProgress++;
-    CommitSession commitSession = tabletMemory.getCommitSession();
-    commitSession.incrementCommitsInProgress();
+    CommitSession commitSession = memory.getCommitSession();
+    while (!commitSession.tryIncrementCommitsInProgress()) {
+      // a minor compaction replaced the commit session
+      commitSession = memory.getCommitSession();
+    }
     commitSession.updateMaxCommittedTime(time);
     return commitSession;
   }
 
+  private void finishWrite() {
+    int writes = writesInProgress.decrementAndGet();
+    if (writes < 0) {
+      throw new IllegalStateException("writesInProgress < 0 " + writes);
+    }
+
+    if (writes == 0 && closed) {
+      // close may be waiting for writes to finish
+      synchronized (this) {
+        this.notifyAll();
+      }
+    }
+  }
+
   public void checkConstraints() {
     ConstraintChecker cc = constraintChecker.get();
 
@@ -2541,9 +2646,9 @@ public class Tablet {
     return finishPreparingMutations(time);
   }
 
-  public synchronized void abortCommit(CommitSession commitSession, List<Mutation> value) {
-    if (writesInProgress <= 0) {
-      throw new IllegalStateException("waitingForLogs <= 0 " + writesInProgress);
+  public void abortCommit(CommitSession commitSession, List<Mutation> value) {
+    if (writesInProgress.get() <= 0) {
+      throw new IllegalStateException("waitingForLogs <= 0 " + writesInProgress.get());
     }
 
     if (closeComplete || tabletMemory == null) {
@@ -2551,9 +2656,7 @@ public class Tablet {
     }
 
     commitSession.decrementCommitsInProgress();
-    writesInProgress--;
-    if (writesInProgress == 0)
-      this.notifyAll();
+    finishWrite();
   }
 
   public void commit(CommitSession commitSession, List<Mutation> mutations) {
@@ -2567,31 +2670,28 @@ public class Tablet {
       totalBytes += mutation.numBytes();
     }
 
-    tabletMemory.mutate(commitSession, mutations);
+    TabletMemory memory = tabletMemory;
+    memory.mutate(commitSession, mutations);
 
-    synchronized (this) {
-      if (writesInProgress < 1) {
-        throw new IllegalStateException("commiting mutations after logging, but not waiting for any log messages");
-      }
+    if (writesInProgress.get() < 1) {
+      throw new IllegalStateException("commiting mutations after logging, but not waiting for any log messages");
+    }
 
-      if (closed && closeComplete) {
-        throw new IllegalStateException("tablet closed with outstanding messages to the logger");
-      }
+    if (closed && closeComplete) {
+      throw new IllegalStateException("tablet closed with outstanding messages to the logger");
+    }
 
-      tabletMemory.updateMemoryUsageStats();
+    memory.updateMemoryUsageStats();
 
-      // decrement here in case an exception is thrown below
-      writesInProgress--;
-      if (writesInProgress == 0)
-        this.notifyAll();
+    // decrement here in case an exception is thrown below
+    finishWrite();
 
-      commitSession.decrementCommitsInProgress();
+    commitSession.decrementCommitsInProgress();
 
-      numEntries += totalCount;
-      numEntriesInMemory += totalCount;
-      ingestCount += totalCount;
-      ingestBytes += totalBytes;
-    }
+    numEntries.addAndGet(totalCount);
+    numEntriesInMemory.addAndGet(totalCount);
+    ingestCount.addAndGet(totalCount);
+    ingestBytes.addAndGet(totalBytes);
   }
 
   /**
@@ -2698,7 +2798,7 @@ public class Tablet {
     }
 
     // wait for reads and writes to complete
-    while (writesInProgress > 0 || activeScans.size() > 0) {
+    while (writesInProgress.get() > 0 || activeScans.size() > 0) {
       try {
         this.wait(50);
       } catch (InterruptedException e) {
@@ -3419,18 +3519,18 @@ public class Tablet {
       numEntries += tableValue.getNumEntries();
     }
 
-    this.numEntriesInMemory = tabletMemory.getNumEntries();
+    this.numEntriesInMemory.set(tabletMemory.getNumEntries());
     numEntries += tabletMemory.getNumEntries();
 
-    this.numEntries = numEntries;
+    this.numEntries.set(numEntries);
   }
 
   public long getNumEntries() {
-    return numEntries;
+    return numEntries.get();
   }
 
   public long getNumEntriesInMemory() {
-    return numEntriesInMemory;
+    return numEntriesInMemory.get();
   }
 
   public synchronized boolean isClosing() {
@@ -3616,15 +3716,15 @@ public class Tablet {
   }
 
   public long totalIngest() {
-    return this.ingestCount;
+    return this.ingestCount.get();
   }
 
   // synchronized?
   public void updateRates(long now) {
     queryRate.update(now, queryCount);
     queryByteRate.update(now, queryBytes);
-    ingestRate.update(now, ingestCount);
-    ingestByteRate.update(now, ingestBytes);
+    ingestRate.update(now, ingestCount.get());
+    ingestByteRate.update(now, ingestBytes.get());
     scannedRate.update(now, scannedCount.get());
   }
 
@@ -3654,10 +3754,10 @@ public class Tablet {
         throw new IOException("Timeout waiting " + (lockWait / 1000.) + " seconds to get tablet lock");
       }
 
-      if (writesInProgress < 0)
-        throw new IllegalStateException("writesInProgress < 0 " + writesInProgress);
+      if (writesInProgress.get() < 0)
+        throw new IllegalStateException("writesInProgress < 0 " + writesInProgress.get());
 
-      writesInProgress++;
+      writesInProgress.incrementAndGet();
     }
 
     try {
@@ -3670,14 +3770,7 @@ public class Tablet {
         initiateMajorCompaction(MajorCompactionReason.NORMAL);
       }
     } finally {
-      synchronized (this) {
-        if (writesInProgress < 1)
-          throw new IllegalStateException("writesInProgress < 1 " + writesInProgress);
-
-        writesInProgress--;
-        if (writesInProgress == 0)
-          this.notifyAll();
-      }
+      finishWrite();
     }
   }
 
@@ -3869,4 +3962,13 @@ public class Tablet {
   public TableConfiguration getTableConfiguration() {
     return acuTableConf;
   }
+
+  /**
+   * @return the durability updates to this tablet get when the client does not request one
+   */
+  public Durability getDurability() {
+    if (!acuTableConf.getBoolean(Property.TABLE_WALOG_ENABLED))
+      return Durability.NONE;
+    return DurabilityImpl.fromString(acuTableConf.get(Property.TABLE_DURABILITY));
+  }
 }
@@ -63,8 +63,11 @@ import javax.management.StandardMBean;
 import org.apache.accumulo.core.Constants;
 import org.apache.accumulo.core.client.AccumuloException;
 import org.apache.accumulo.core.client.AccumuloSecurityException;
+import org.apache.accumulo.core.client.Durability;
 import org.apache.accumulo.core.client.Instance;
 import org.apache.accumulo.core.client.impl.CompressedIterators;
+import org.apache.accumulo.core.client.impl.DurabilityImpl;
+import org.apache.accumulo.core.client.impl.PackedKeyValues;
 import org.apache.accumulo.core.client.impl.CompressedIterators.IterConfig;
 import org.apache.accumulo.core.client.impl.ScannerImpl;
 import org.apache.accumulo.core.client.impl.TabletType;
@@ -124,6 +127,7 @@ import org.apache.accumulo.core.tabletserver.thrift.NoSuchScanIDException;
 import org.apache.accumulo.core.tabletserver.thrift.NotServingTabletException;
 import org.apache.accumulo.core.tabletserver.thrift.ScanState;
 import org.apache.accumulo.core.tabletserver.thrift.ScanType;
+import org.apache.accumulo.core.tabletserver.thrift.TDurability;
 import org.apache.accumulo.core.tabletserver.thrift.TabletClientService;
 import org.apache.accumulo.core.tabletserver.thrift.TabletClientService.Iface;
 import org.apache.accumulo.core.tabletserver.thrift.TabletClientService.Processor;
@@ -773,6 +777,26 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
 
   }
 
+  /**
+   * A condition of a conditional mutation and the range it reads, ordered by range so that a tablet's conditions can be read in one pass.
+   */
+  private static class ConditionCheck implements Comparable<ConditionCheck> {
+    final ServerConditionalMutation mutation;
+    final TCondition condition;
+    final Range range;
+
+    ConditionCheck(ServerConditionalMutation mutation, TCondition condition, Range range) {
+      this.mutation = mutation;
+      this.condition = condition;
+      this.range = range;
+    }
+
+    @Override
+    public int compareTo(ConditionCheck o) {
+      return range.compareTo(o.range);
+    }
+  }
+
   private static class ConditionalSession extends Session {
     public TCredentials credentials;
     public Authorizations auths;
@@ -801,6 +825,8 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
     public Map<Tablet,List<Mutation>> queuedMutations = new HashMap<Tablet,List<Mutation>>();
     public long queuedMutationSize = 0;
     TservConstraintEnv cenv = null;
+    // the durability requested by the client, overrides the durability of the tables written to unless it is DEFAULT
+    Durability durability = Durability.DEFAULT;
   }
 
   private static class ScanSession extends Session {
@@ -816,6 +842,8 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
     public AtomicBoolean interruptFlag;
     public Scanner scanner;
     public long readaheadThreshold = Constants.SCANNER_DEFAULT_READAHEAD_THRESHOLD;
+    public boolean populateCache = true;
+    public boolean packResults = false;
 
     @Override
     public void cleanup() {
@@ -836,6 +864,7 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
     public List<IterInfo> ssiList;
     public Map<String,Map<String,String>> ssio;
     public Authorizations auths;
+    public boolean populateCache = true;
 
     // stats
     int numRanges;
@@ -923,14 +952,15 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
 
   TransactionWatcher watcher = new TransactionWatcher();
 
+  // shared by the client handler and the write ahead logs
+  private final TabletServerUpdateMetrics updateMetrics = new TabletServerUpdateMetrics();
+
   private class ThriftClientHandler extends ClientServiceHandler implements TabletClientService.Iface {
 
     SessionManager sessionManager;
 
     AccumuloConfiguration acuConf = getSystemConfiguration();
 
-    TabletServerUpdateMetrics updateMetrics = new TabletServerUpdateMetrics();
-
     TabletServerScanMetrics scanMetrics = new TabletServerScanMetrics();
 
     WriteTracker writeTracker = new WriteTracker();
@@ -1113,7 +1143,7 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
                 interruptFlag.set(true);
 
               lookupResult = tablet.lookup(entry.getValue(), session.columnSet, session.auths, results, maxResultsSize - bytesAdded, session.ssiList,
-                  session.ssio, interruptFlag);
+                  session.ssio, session.populateCache, interruptFlag);
 
               // if the tablet was closed it it possible that the
               // interrupt flag was set.... do not want it set for
@@ -1178,7 +1208,8 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
     @Override
     public InitialScan startScan(TInfo tinfo, TCredentials credentials, TKeyExtent textent, TRange range, List<TColumn> columns, int batchSize,
         List<IterInfo> ssiList, Map<String,Map<String,String>> ssio, List<ByteBuffer> authorizations, boolean waitForWrites, boolean isolated,
-        long readaheadThreshold) throws NotServingTabletException, ThriftSecurityException, org.apache.accumulo.core.tabletserver.thrift.TooManyFilesException {
+        long readaheadThreshold, boolean noCachePopulation, boolean packResults) throws NotServingTabletException, ThriftSecurityException,
+        org.apache.accumulo.core.tabletserver.thrift.TooManyFilesException {
 
       if (!security.canScan(credentials, new String(textent.getTable()), range, columns, ssiList, ssio, authorizations))
         throw new ThriftSecurityException(credentials.getPrincipal(), SecurityErrorCode.PERMISSION_DENIED);
@@ -1214,13 +1245,15 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
       scanSession.auths = new Authorizations(authorizations);
       scanSession.interruptFlag = new AtomicBoolean();
       scanSession.readaheadThreshold = readaheadThreshold;
+      scanSession.populateCache = !noCachePopulation;
+      scanSession.packResults = packResults;
 
       for (TColumn tcolumn : columns) {
         scanSession.columnSet.add(new Column(tcolumn));
       }
 
       scanSession.scanner = tablet.createScanner(new Range(range), batchSize, scanSession.columnSet, scanSession.auths, ssiList, ssio, isolated,
-          scanSession.interruptFlag);
+          scanSession.populateCache, scanSession.interruptFlag);
 
       long sid = sessionManager.createSession(scanSession, true);
 
@@ -1283,16 +1316,22 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
         List<TKeyValue> param = Collections.emptyList();
         long timeout = acuConf.getTimeInMillis(Property.TSERV_CLIENT_TIMEOUT);
         sessionManager.removeIfNotAccessed(scanID, timeout);
-        return new ScanResult(param, true);
+        return new ScanResult(param, true, null);
       } catch (Throwable t) {
         sessionManager.removeSession(scanID);
         log.warn("Failed to get next batch", t);
         throw new RuntimeException(t);
       }
 
-      ScanResult scanResult = new ScanResult(Key.compress(bresult.results), bresult.more);
+      ScanResult scanResult;
+      if (scanSession.packResults) {
+        ByteBuffer packed = PackedKeyValues.pack(bresult.results, acuConf.getBoolean(Property.TSERV_SCAN_RESULTS_COMPRESS));
+        scanResult = new ScanResult(Collections.<TKeyValue> emptyList(), bresult.more, packed);
+      } else {
+        scanResult = new ScanResult(Key.compress(bresult.results), bresult.more, null);
+      }
 
-      scanSession.entriesReturned += scanResult.results.size();
+      scanSession.entriesReturned += bresult.results.size();
 
       scanSession.batchCount++;
 
@@ -1326,7 +1365,8 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
 
     @Override
     public InitialMultiScan startMultiScan(TInfo tinfo, TCredentials credentials, Map<TKeyExtent,List<TRange>> tbatch, List<TColumn> tcolumns,
-        List<IterInfo> ssiList, Map<String,Map<String,String>> ssio, List<ByteBuffer> authorizations, boolean waitForWrites) throws ThriftSecurityException {
+        List<IterInfo> ssiList, Map<String,Map<String,String>> ssio, List<ByteBuffer> authorizations, boolean waitForWrites,
+        boolean noCachePopulation) throws ThriftSecurityException {
       // find all of the tables that need to be scanned
       HashSet<String> tables = new HashSet<String>();
       for (TKeyExtent keyExtent : tbatch.keySet()) {
@@ -1364,6 +1404,7 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
       mss.ssiList = ssiList;
       mss.ssio = ssio;
       mss.auths = new Authorizations(authorizations);
+      mss.populateCache = !noCachePopulation;
 
       mss.numTablets = batch.size();
       for (List<Range> ranges : batch.values()) {
@@ -1444,7 +1485,7 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
     }
 
     @Override
-    public long startUpdate(TInfo tinfo, TCredentials credentials) throws ThriftSecurityException {
+    public long startUpdate(TInfo tinfo, TCredentials credentials, TDurability tdurability) throws ThriftSecurityException {
       // Make sure user is real
 
       security.authenticateUser(credentials, credentials);
@@ -1455,6 +1496,7 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
       us.violations = new Violations();
       us.credentials = credentials;
       us.cenv = new TservConstraintEnv(security, us.credentials);
+      us.durability = DurabilityImpl.fromThrift(tdurability);
 
       long sid = sessionManager.createSession(us, false);
 
@@ -1621,7 +1663,7 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
             try {
               long t1 = System.currentTimeMillis();
 
-              logger.logManyTablets(sendables);
+              logger.logManyTablets(sendables, us.durability);
 
               long t2 = System.currentTimeMillis();
               us.walogTimes.addStat(t2 - t1);
@@ -1730,13 +1772,14 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
         log.debug(String.format("Authentication Failures: %d, first %s", us.authFailures.size(), first.toString()));
       }
 
+      // let the client know how close this server is to holding commits, so it can send less before that happens
       return new UpdateErrors(Translator.translate(us.failures, Translator.KET), Translator.translate(violations, Translator.CVST), Translator.translate(
-          us.authFailures, Translator.KET));
+          us.authFailures, Translator.KET), resourceManager.memoryPressure(), resourceManager.holdTime());
     }
 
     @Override
-    public void update(TInfo tinfo, TCredentials credentials, TKeyExtent tkeyExtent, TMutation tmutation) throws NotServingTabletException,
-        ConstraintViolationException, ThriftSecurityException {
+    public void update(TInfo tinfo, TCredentials credentials, TKeyExtent tkeyExtent, TMutation tmutation, TDurability tdurability)
+        throws NotServingTabletException, ConstraintViolationException, ThriftSecurityException {
 
       if (!security.canWrite(credentials, new String(tkeyExtent.getTable())))
         throw new ThriftSecurityException(credentials.getPrincipal(), SecurityErrorCode.PERMISSION_DENIED);
@@ -1770,7 +1813,7 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
           try {
             Span wal = Trace.start("wal");
             try {
-              logger.log(cs, cs.getWALogSeq(), mutation);
+              logger.log(cs, cs.getWALogSeq(), mutation, DurabilityImpl.fromThrift(tdurability));
             } finally {
               wal.stop();
             }
@@ -1808,68 +1851,95 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
             results.add(new TCMResult(scm.getID(), TCMStatus.IGNORED));
           iter.remove();
         } else {
-          List<ServerConditionalMutation> okMutations = new ArrayList<ServerConditionalMutation>(entry.getValue().size());
-
-          for (ServerConditionalMutation scm : entry.getValue()) {
-            if (checkCondition(results, cs, compressedIters, tablet, scm))
-              okMutations.add(scm);
-          }
-
-          entry.setValue(okMutations);
+          entry.setValue(checkConditions(results, cs, compressedIters, tablet, entry.getValue()));
         }
 
       }
     }
 
-    boolean checkCondition(ArrayList<TCMResult> results, ConditionalSession cs, CompressedIterators compressedIters, Tablet tablet,
-        ServerConditionalMutation scm) throws IOException {
-      boolean add = true;
-
-      Set<Column> emptyCols = Collections.emptySet();
-
-      for (TCondition tc : scm.getConditions()) {
+    /**
+     * Checks the conditions of all mutations for a tablet. Conditions that use the same iterators are read together, seeking the tablet's data sources once in
+     * sorted order instead of opening a scanner for each condition.
+     *
+     * @return the mutations whose conditions all passed
+     */
+    private List<ServerConditionalMutation> checkConditions(ArrayList<TCMResult> results, ConditionalSession cs, CompressedIterators compressedIters,
+        Tablet tablet, List<ServerConditionalMutation> scml) throws IOException {
+
+      // the iterator configurations are cached by compressedIters, so conditions with the same iterators share an IterConfig
+      Map<IterConfig,List<ConditionCheck>> checksByIters = new HashMap<IterConfig,List<ConditionCheck>>();
+
+      for (ServerConditionalMutation scm : scml) {
+        Text row = new Text(scm.getRow());
+        for (TCondition tc : scm.getConditions()) {
+          Range range;
+          if (tc.hasTimestamp)
+            range = Range.exact(row, new Text(tc.getCf()), new Text(tc.getCq()), new Text(tc.getCv()), tc.getTs());
+          else
+            range = Range.exact(row, new Text(tc.getCf()), new Text(tc.getCq()), new Text(tc.getCv()));
+
+          IterConfig ic = compressedIters.decompress(tc.iterators);
+          List<ConditionCheck> checks = checksByIters.get(ic);
+          if (checks == null) {
+            checks = new ArrayList<ConditionCheck>();
+            checksByIters.put(ic, checks);
+          }
+          checks.add(new ConditionCheck(scm, tc, range));
+        }
+      }
 
-        Range range;
-        if (tc.hasTimestamp)
-          range = Range.exact(new Text(scm.getRow()), new Text(tc.getCf()), new Text(tc.getCq()), new Text(tc.getCv()), tc.getTs());
-        else
-          range = Range.exact(new Text(scm.getRow()), new Text(tc.getCf()), new Text(tc.getCq()), new Text(tc.getCv()));
+      Map<Long,TCMStatus> failed = new HashMap<Long,TCMStatus>();
 
-        IterConfig ic = compressedIters.decompress(tc.iterators);
+      for (Entry<IterConfig,List<ConditionCheck>> entry : checksByIters.entrySet()) {
+        IterConfig ic = entry.getKey();
+        List<ConditionCheck> checks = entry.getValue();
+        Collections.sort(checks);
 
-        Scanner scanner = tablet.createScanner(range, 1, emptyCols, cs.auths, ic.ssiList, ic.ssio, false, cs.interruptFlag);
+        List<Range> ranges = new ArrayList<Range>(checks.size());
+        for (ConditionCheck check : checks)
+          ranges.add(check.range);
 
+        List<Value> values;
         try {
-          ScanBatch batch = scanner.read();
-
-          Value val = null;
-
-          for (KVEntry entry2 : batch.results) {
-            val = entry2.getValue();
-            break;
-          }
-
-          if ((val == null ^ tc.getVal() == null) || (val != null && !Arrays.equals(tc.getVal(), val.get()))) {
-            results.add(new TCMResult(scm.getID(), TCMStatus.REJECTED));
-            add = false;
-            break;
-          }
-
+          values = tablet.lookupFirstValues(ranges, cs.auths, ic.ssiList, ic.ssio, cs.interruptFlag);
         } catch (TabletClosedException e) {
-          results.add(new TCMResult(scm.getID(), TCMStatus.IGNORED));
-          add = false;
-          break;
+          ignoreConditionChecks(checks, failed);
+          continue;
         } catch (IterationInterruptedException iie) {
-          results.add(new TCMResult(scm.getID(), TCMStatus.IGNORED));
-          add = false;
-          break;
+          ignoreConditionChecks(checks, failed);
+          continue;
         } catch (TooManyFilesException tmfe) {
-          results.add(new TCMResult(scm.getID(), TCMStatus.IGNORED));
-          add = false;
-          break;
+          ignoreConditionChecks(checks, failed);
+          continue;
+        }
+
+        for (int i = 0; i < checks.size(); i++) {
+          ConditionCheck check = checks.get(i);
+          Value val = values.get(i);
+          byte[] expected = check.condition.getVal();
+          if ((val == null ^ expected == null) || (val != null && !Arrays.equals(expected, val.get()))) {
+            if (!failed.containsKey(check.mutation.getID()))
+              failed.put(check.mutation.getID(), TCMStatus.REJECTED);
+          }
         }
       }
-      return add;
+
+      List<ServerConditionalMutation> okMutations = new ArrayList<ServerConditionalMutation>(scml.size());
+      for (ServerConditionalMutation scm : scml) {
+        TCMStatus status = failed.get(scm.getID());
+        if (status == null)
+          okMutations.add(scm);
+        else
+          results.add(new TCMResult(scm.getID(), status));
+      }
+
+      return okMutations;
+    }
+
+    private void ignoreConditionChecks(List<ConditionCheck> checks, Map<Long,TCMStatus> failed) {
+      for (ConditionCheck check : checks)
+        if (!failed.containsKey(check.mutation.getID()))
+          failed.put(check.mutation.getID(), TCMStatus.IGNORED);
     }
 
     private void writeConditionalMutations(Map<KeyExtent,List<ServerConditionalMutation>> updates, ArrayList<TCMResult> results, ConditionalSession sess) {
@@ -1929,7 +1999,7 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
         while (true && sendables.size() > 0) {
           try {
             long t1 = System.currentTimeMillis();
-            logger.logManyTablets(sendables);
+            logger.logManyTablets(sendables, Durability.DEFAULT);
             long t2 = System.currentTimeMillis();
             updateWalogWriteTime(t2 - t1);
             break;
@@ -2918,6 +2988,7 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
             recentlyUnloadedCache.remove(tablet.getExtent());
           }
         }
+        resourceManager.warmBlockCaches(extent, tablet.getDatafiles().keySet());
         tablet = null; // release this reference
         successful = true;
       } catch (Throwable e) {
@@ -3145,6 +3216,7 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
     } catch (UnknownHostException e1) {
       throw new RuntimeException("Failed to start the tablet client service", e1);
     }
+    resourceManager.startBlockCacheWarmer(getClientAddressString());
     announceExistence();
 
     ThreadPoolExecutor distWorkQThreadPool = new SimpleThreadPool(getSystemConfiguration().getCount(Property.TSERV_WORKQ_THREADS), "distributed work queue");
@@ -3447,7 +3519,8 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
     log.info("Tablet server starting on " + hostname);
     security = AuditedSecurityOperation.getInstance();
     clientAddress = HostAndPort.fromParts(hostname, 0);
-    logger = new TabletServerLogger(this, getSystemConfiguration().getMemoryInBytes(Property.TSERV_WALOG_MAX_SIZE));
+    logger = new TabletServerLogger(this, getSystemConfiguration().getMemoryInBytes(Property.TSERV_WALOG_MAX_SIZE),
+        getSystemConfiguration().getCount(Property.TSERV_WAL_COUNT));
 
     try {
       AccumuloVFSClassLoader.getContextManager().setContextConfig(new ContextManager.DefaultContextsConfig(new Iterable<Entry<String,String>>() {
@@ -3882,6 +3955,11 @@ public class TabletServer extends AbstractMetricsImpl implements org.apache.accu
       public AccumuloConfiguration getConfiguration() {
         return getSystemConfiguration();
       }
+
+      @Override
+      public TabletServerUpdateMetrics getUpdateMetrics() {
+        return updateMetrics;
+      }
     };
   }
 
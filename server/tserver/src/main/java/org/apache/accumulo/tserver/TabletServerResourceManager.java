@@ -16,8 +16,10 @@
  */
 package org.apache.accumulo.tserver;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -37,7 +39,12 @@ import org.apache.accumulo.core.client.Instance;
 import org.apache.accumulo.core.conf.AccumuloConfiguration;
 import org.apache.accumulo.core.conf.Property;
 import org.apache.accumulo.core.data.KeyExtent;
+import org.apache.accumulo.core.file.blockfile.cache.BlockCache;
+import org.apache.accumulo.core.file.blockfile.cache.CacheAdmissionPolicy;
+import org.apache.accumulo.core.file.blockfile.cache.FrequencyAdmissionPolicy;
 import org.apache.accumulo.core.file.blockfile.cache.LruBlockCache;
+import org.apache.accumulo.core.file.blockfile.cache.OffHeapBlockCache;
+import org.apache.accumulo.core.iterators.system.VisibilityFilter;
 import org.apache.accumulo.core.metadata.schema.DataFileValue;
 import org.apache.accumulo.core.util.Daemon;
 import org.apache.accumulo.core.util.LoggingRunnable;
@@ -92,8 +99,9 @@ public class TabletServerResourceManager {
 
   private MemoryManagementFramework memMgmt;
 
-  private final LruBlockCache _dCache;
-  private final LruBlockCache _iCache;
+  private final BlockCache _dCache;
+  private final BlockCache _iCache;
+  private volatile BlockCacheWarmer cacheWarmer;
   private final ServerConfiguration conf;
 
   private static final Logger log = Logger.getLogger(TabletServerResourceManager.class);
@@ -152,19 +160,28 @@ public class TabletServerResourceManager {
     final AccumuloConfiguration acuConf = conf.getConfiguration();
 
     long maxMemory = acuConf.getMemoryInBytes(Property.TSERV_MAXMEM);
-    boolean usingNativeMap = acuConf.getBoolean(Property.TSERV_NATIVEMAP_ENABLED) && NativeMap.isLoaded();
+    // maps outside of the java heap do not count against it
+    boolean usingNativeMap = (acuConf.getBoolean(Property.TSERV_NATIVEMAP_ENABLED) && NativeMap.isLoaded())
+        || acuConf.getBoolean(Property.TSERV_OFFHEAPMAP_ENABLED);
 
     long blockSize = acuConf.getMemoryInBytes(Property.TSERV_DEFAULT_BLOCKSIZE);
     long dCacheSize = acuConf.getMemoryInBytes(Property.TSERV_DATACACHE_SIZE);
     long iCacheSize = acuConf.getMemoryInBytes(Property.TSERV_INDEXCACHE_SIZE);
 
-    _iCache = new LruBlockCache(iCacheSize, blockSize);
-    _dCache = new LruBlockCache(dCacheSize, blockSize);
+    _iCache = createBlockCache(acuConf.get(Property.TSERV_INDEXCACHE_TYPE), acuConf.get(Property.TSERV_INDEXCACHE_POLICY), iCacheSize, blockSize);
+    _dCache = createBlockCache(acuConf.get(Property.TSERV_DATACACHE_TYPE), acuConf.get(Property.TSERV_DATACACHE_POLICY), dCacheSize, blockSize);
+
+    // off-heap caches do not count against the java heap
+    long heapCacheSize = 0;
+    if (!(_iCache instanceof OffHeapBlockCache))
+      heapCacheSize += iCacheSize;
+    if (!(_dCache instanceof OffHeapBlockCache))
+      heapCacheSize += dCacheSize;
 
     Runtime runtime = Runtime.getRuntime();
-    if (!usingNativeMap && maxMemory + dCacheSize + iCacheSize > runtime.maxMemory()) {
+    if (!usingNativeMap && maxMemory + heapCacheSize > runtime.maxMemory()) {
       throw new IllegalArgumentException(String.format(
-          "Maximum tablet server map memory %,d and block cache sizes %,d is too large for this JVM configuration %,d", maxMemory, dCacheSize + iCacheSize,
+          "Maximum tablet server map memory %,d and block cache sizes %,d is too large for this JVM configuration %,d", maxMemory, heapCacheSize,
           runtime.maxMemory()));
     }
     runtime.gc();
@@ -189,10 +206,9 @@ public class TabletServerResourceManager {
     defaultMigrationPool = createEs(0, 1, 60, "metadata tablet migration");
     migrationPool = createEs(Property.TSERV_MIGRATE_MAXCONCURRENT, "tablet migration");
 
-    // not sure if concurrent assignments can run safely... even if they could there is probably no benefit at startup because
-    // individual tablet servers are already running assignments concurrently... having each individual tablet server run
-    // concurrent assignments would put more load on the metadata table at startup
-    assignmentPool = createEs(1, "tablet assignment");
+    // user tablets already load concurrently with metadata tablets in the pool below. Loading several at once mostly helps when taking over the tablets of a
+    // failed server, whose write-ahead logs must be replayed
+    assignmentPool = createEs(Property.TSERV_ASSIGNMENT_MAXCONCURRENT, "tablet assignment");
 
     assignMetaDataPool = createEs(0, 1, 60, "metadata tablet assignment");
 
@@ -205,6 +221,9 @@ public class TabletServerResourceManager {
 
     fileManager = new FileManager(conf, fs, maxOpenFiles, _dCache, _iCache);
 
+    VisibilityFilter.setCacheSizes(acuConf.getCount(Property.TSERV_VISIBILITY_CACHE_EXPRESSIONS_MAX),
+        acuConf.getCount(Property.TSERV_VISIBILITY_CACHE_AUTHORIZATIONS_MAX), acuConf.getCount(Property.TSERV_VISIBILITY_CACHE_RESULTS_MAX));
+
     memoryManager = Property.createInstanceFromPropertyName(acuConf, Property.TSERV_MEM_MGMT, MemoryManager.class, new LargestFirstMemoryManager());
     memoryManager.init(conf);
     memMgmt = new MemoryManagementFramework();
@@ -285,7 +304,7 @@ public class TabletServerResourceManager {
 
     }
 
-    private long lastMemTotal = 0;
+    private volatile long lastMemTotal = 0;
 
     private void processTabletMemStats() {
       while (true) {
@@ -378,6 +397,10 @@ public class TabletServerResourceManager {
     public void tabletClosed(KeyExtent extent) {
       tabletReports.remove(extent);
     }
+    
+    double getMemoryPressure() {
+      return maxMem <= 0 ? 0 : lastMemTotal / (double) maxMem;
+    }
   }
 
   private final Object commitHold = new Object();
@@ -417,6 +440,13 @@ public class TabletServerResourceManager {
     }
   }
 
+  /**
+   * @return the fraction of the memory available to in memory maps that was in use at the last memory check; commits are held once it passes 0.95
+   */
+  public double memoryPressure() {
+    return memMgmt.getMemoryPressure();
+  }
+
   public long holdTime() {
     if (!holdCommits)
       return 0;
@@ -706,11 +736,64 @@ public class TabletServerResourceManager {
     }
   }
 
-  public LruBlockCache getIndexCache() {
+  private static BlockCache createBlockCache(String type, String policy, long size, long blockSize) {
+    CacheAdmissionPolicy admissionPolicy;
+    if (policy.equals("lru"))
+      admissionPolicy = null;
+    else if (policy.equals("tinylfu"))
+      admissionPolicy = new FrequencyAdmissionPolicy(size / Math.max(blockSize, 1));
+    else
+      throw new IllegalArgumentException("Unknown block cache policy " + policy);
+
+    if (type.equals("lru")) {
+      LruBlockCache cache = new LruBlockCache(size, blockSize);
+      cache.setAdmissionPolicy(admissionPolicy);
+      return cache;
+    }
+    if (type.equals("offheap")) {
+      OffHeapBlockCache cache = new OffHeapBlockCache(size, blockSize);
+      cache.setAdmissionPolicy(admissionPolicy);
+      return cache;
+    }
+    throw new IllegalArgumentException("Unknown block cache type " + type);
+  }
+
+  /**
+   * Start saving the contents of the block caches, and read the contents saved before the last restart, if cache warm up is configured.
+   */
+  public void startBlockCacheWarmer(String serverAddress) {
+    AccumuloConfiguration acuConf = conf.getConfiguration();
+    String dir = acuConf.get(Property.TSERV_CACHE_WARMUP_DIR);
+    if (dir == null || dir.isEmpty())
+      return;
+
+    File snapshotDir = new File(dir);
+    if (!snapshotDir.isDirectory() && !snapshotDir.mkdirs()) {
+      log.warn("Unable to create block cache warm up directory " + snapshotDir + ", caches will not be warmed");
+      return;
+    }
+
+    File snapshotFile = new File(snapshotDir, "blockcache-" + serverAddress.replace(':', '_'));
+    BlockCacheWarmer warmer = new BlockCacheWarmer(conf, fs, _iCache, _dCache, snapshotFile, acuConf.getCount(Property.TSERV_CACHE_WARMUP_BLOCKS_MAX),
+        acuConf.getMemoryInBytes(Property.TSERV_CACHE_WARMUP_RATE));
+    warmer.start(acuConf.getTimeInMillis(Property.TSERV_CACHE_WARMUP_SAVE_INTERVAL));
+    cacheWarmer = warmer;
+  }
+
+  /**
+   * Read the blocks of a newly loaded tablet's files that were cached before the last restart back into the caches.
+   */
+  public void warmBlockCaches(KeyExtent extent, Collection<FileRef> files) {
+    BlockCacheWarmer warmer = cacheWarmer;
+    if (warmer != null)
+      warmer.warm(extent, files);
+  }
+
+  public BlockCache getIndexCache() {
     return _iCache;
   }
 
-  public LruBlockCache getDataCache() {
+  public BlockCache getDataCache() {
     return _dCache;
   }
 
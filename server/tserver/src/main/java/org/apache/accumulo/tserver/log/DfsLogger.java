@@ -39,6 +39,8 @@ import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingQueue;
 
+import org.apache.accumulo.core.client.Durability;
+import org.apache.accumulo.core.client.impl.DurabilityImpl;
 import org.apache.accumulo.core.conf.AccumuloConfiguration;
 import org.apache.accumulo.core.conf.Property;
 import org.apache.accumulo.core.data.KeyExtent;
@@ -57,9 +59,11 @@ import org.apache.accumulo.server.master.state.TServerInstance;
 import org.apache.accumulo.tserver.TabletMutations;
 import org.apache.accumulo.tserver.logger.LogFileKey;
 import org.apache.accumulo.tserver.logger.LogFileValue;
+import org.apache.accumulo.tserver.metrics.TabletServerUpdateMetrics;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.DataOutputBuffer;
 import org.apache.log4j.Logger;
 
 /**
@@ -115,18 +119,27 @@ public class DfsLogger {
     VolumeManager getFileSystem();
     
     Set<TServerInstance> getCurrentTServers();
+    
+    /**
+     * @return the metrics that write ahead log batching is recorded in, or null
+     */
+    TabletServerUpdateMetrics getUpdateMetrics();
   }
   
   private final LinkedBlockingQueue<DfsLogger.LogWork> workQueue = new LinkedBlockingQueue<DfsLogger.LogWork>();
   
   private final Object closeLock = new Object();
   
-  private static final DfsLogger.LogWork CLOSED_MARKER = new DfsLogger.LogWork(null);
+  private static final DfsLogger.LogWork CLOSED_MARKER = new DfsLogger.LogWork(null, Durability.NONE);
   
   private static final LogFileValue EMPTY = new LogFileValue();
   
   private boolean closed = false;
   
+  /**
+   * Appends the serialized work of many writers to the log in one large write, then flushes or syncs once for all of it, as required by the most durable
+   * work in the batch. This is the only thread that writes to the log after it is opened.
+   */
   private class LogSyncingTask implements Runnable {
     
     @Override
@@ -142,20 +155,43 @@ public class DfsLogger {
         }
         workQueue.drainTo(work);
         
+        long start = System.currentTimeMillis();
+        
+        boolean isClosed;
         synchronized (closeLock) {
-          if (!closed) {
-            try {
-              sync.invoke(logFile);
-            } catch (Exception ex) {
-              log.warn("Exception syncing " + ex);
-              for (DfsLogger.LogWork logWork : work) {
-                logWork.exception = ex;
-              }
+          isClosed = closed;
+        }
+        
+        // the log file is not closed until this thread sees the closed marker, so it can be written without holding the close lock
+        if (!isClosed) {
+          try {
+            Durability durability = Durability.NONE;
+            for (DfsLogger.LogWork logWork : work) {
+              if (logWork.data != null)
+                encryptingLogFile.write(logWork.data, 0, logWork.length);
+              durability = DurabilityImpl.max(durability, logWork.durability);
             }
-          } else {
+            encryptingLogFile.flush();
+            
+            long syncStart = System.currentTimeMillis();
+            if (durability == Durability.SYNC)
+              sync.invoke(logFile);
+            else if (durability == Durability.FLUSH)
+              flush.invoke(logFile);
+            updateMetrics(work, start, System.currentTimeMillis() - syncStart);
+          } catch (ClosedChannelException ex) {
             for (DfsLogger.LogWork logWork : work) {
               logWork.exception = new LogClosedException();
             }
+          } catch (Exception ex) {
+            log.warn("Exception writing or syncing " + ex);
+            for (DfsLogger.LogWork logWork : work) {
+              logWork.exception = ex;
+            }
+          }
+        } else {
+          for (DfsLogger.LogWork logWork : work) {
+            logWork.exception = new LogClosedException();
           }
         }
         
@@ -174,14 +210,38 @@ public class DfsLogger {
         }
       }
     }
+    
+    private void updateMetrics(List<DfsLogger.LogWork> work, long start, long syncTime) {
+      TabletServerUpdateMetrics metrics = conf.getUpdateMetrics();
+      if (metrics == null || !metrics.isEnabled())
+        return;
+      
+      // work is queued in order, so the first waited the longest
+      metrics.add(TabletServerUpdateMetrics.waLogBatchSize, work.size());
+      metrics.add(TabletServerUpdateMetrics.waLogQueueTime, start - work.get(0).queued);
+      metrics.add(TabletServerUpdateMetrics.waLogSyncTime, syncTime);
+    }
   }
   
   static class LogWork {
     CountDownLatch latch;
     volatile Exception exception;
-
-    public LogWork(CountDownLatch latch) {
+    
+    // the serialized log entries, written by the syncing thread
+    final byte[] data;
+    final int length;
+    final Durability durability;
+    final long queued = System.currentTimeMillis();
+    
+    public LogWork(CountDownLatch latch, Durability durability) {
+      this(latch, null, 0, durability);
+    }
+    
+    public LogWork(CountDownLatch latch, byte[] data, int length, Durability durability) {
       this.latch = latch;
+      this.data = data;
+      this.length = length;
+      this.durability = durability;
     }
   }
   
@@ -230,6 +290,7 @@ public class DfsLogger {
   private FSDataOutputStream logFile;
   private DataOutputStream encryptingLogFile = null;
   private Method sync;
+  private Method flush;
   private String logPath;
   
   public DfsLogger(ServerResources conf) throws IOException {
@@ -344,10 +405,13 @@ public class DfsLogger {
         try {
           // sync: send data to datanodes
           sync = logFile.getClass().getMethod("sync");
+          flush = sync;
         } catch (NoSuchMethodException ex) {
           e = ex;
         }
         try {
+          // hflush: send data to datanodes
+          flush = logFile.getClass().getMethod("hflush");
           // hsync: send data to datanodes and sync the data to disk
           sync = logFile.getClass().getMethod("hsync");
           e = null;
@@ -447,51 +511,37 @@ public class DfsLogger {
       }
   }
   
-  public synchronized void defineTablet(int seq, int tid, KeyExtent tablet) throws IOException {
+  public void defineTablet(int seq, int tid, KeyExtent tablet) throws IOException {
     // write this log to the METADATA table
     final LogFileKey key = new LogFileKey();
     key.event = DEFINE_TABLET;
     key.seq = seq;
     key.tid = tid;
     key.tablet = tablet;
-    try {
-      write(key, EMPTY);
-      sync.invoke(logFile);
-    } catch (Exception ex) {
-      log.error(ex);
-      throw new IOException(ex);
-    }
+    logFileData(Collections.singletonList(new Pair<LogFileKey,LogFileValue>(key, EMPTY)), Durability.SYNC).await();
   }
   
   /**
-   * @param key
-   * @param empty2
-   * @throws IOException
+   * Writes directly to the log, only used before the syncing thread is started.
    */
-  private synchronized void write(LogFileKey key, LogFileValue value) throws IOException {
+  private void write(LogFileKey key, LogFileValue value) throws IOException {
     key.write(encryptingLogFile);
     value.write(encryptingLogFile);
     encryptingLogFile.flush();
   }
   
-  public LoggerOperation log(int seq, int tid, Mutation mutation) throws IOException {
-    return logManyTablets(Collections.singletonList(new TabletMutations(tid, seq, Collections.singletonList(mutation))));
+  public LoggerOperation log(int seq, int tid, Mutation mutation, Durability durability) throws IOException {
+    return logManyTablets(Collections.singletonList(new TabletMutations(tid, seq, Collections.singletonList(mutation))), durability);
   }
   
-  private LoggerOperation logFileData(List<Pair<LogFileKey, LogFileValue>> keys) throws IOException {
-    DfsLogger.LogWork work = new DfsLogger.LogWork(new CountDownLatch(1));
-    synchronized (DfsLogger.this) {
-      try {
-        for (Pair<LogFileKey,LogFileValue> pair : keys) {
-          write(pair.getFirst(), pair.getSecond());
-        }
-      } catch (ClosedChannelException ex) {
-        throw new LogClosedException();
-      } catch (Exception e) {
-        log.error(e, e);
-        work.exception = e;
-      }
+  private LoggerOperation logFileData(List<Pair<LogFileKey, LogFileValue>> keys, Durability durability) throws IOException {
+    // serialize in the calling thread, so that concurrent writers encode their mutations in parallel and the syncing thread only copies bytes
+    DataOutputBuffer buffer = new DataOutputBuffer();
+    for (Pair<LogFileKey,LogFileValue> pair : keys) {
+      pair.getFirst().write(buffer);
+      pair.getSecond().write(buffer);
     }
+    DfsLogger.LogWork work = new DfsLogger.LogWork(new CountDownLatch(1), buffer.getData(), buffer.getLength(), durability);
 
     synchronized (closeLock) {
       // use a different lock for close check so that adding to work queue does not need
@@ -505,7 +555,7 @@ public class DfsLogger {
     return new LoggerOperation(work);
   }
   
-  public LoggerOperation logManyTablets(List<TabletMutations> mutations) throws IOException {
+  public LoggerOperation logManyTablets(List<TabletMutations> mutations, Durability durability) throws IOException {
     List<Pair<LogFileKey, LogFileValue>> data = new ArrayList<Pair<LogFileKey, LogFileValue>>();
     for (TabletMutations tabletMutations : mutations) {
       LogFileKey key = new LogFileKey();
@@ -516,7 +566,7 @@ public class DfsLogger {
       value.mutations = tabletMutations.getMutations();
       data.add(new Pair<LogFileKey, LogFileValue>(key, value));
     }
-    return logFileData(data);
+    return logFileData(data, durability);
   }
 
   public LoggerOperation minorCompactionFinished(int seq, int tid, String fqfn) throws IOException {
@@ -524,7 +574,7 @@ public class DfsLogger {
     key.event = COMPACTION_FINISH;
     key.seq = seq;
     key.tid = tid;
-    return logFileData(Collections.singletonList(new Pair<LogFileKey, LogFileValue>(key, EMPTY)));
+    return logFileData(Collections.singletonList(new Pair<LogFileKey, LogFileValue>(key, EMPTY)), Durability.SYNC);
   }
   
   public LoggerOperation minorCompactionStarted(int seq, int tid, String fqfn) throws IOException {
@@ -533,7 +583,7 @@ public class DfsLogger {
     key.seq = seq;
     key.tid = tid;
     key.filename = fqfn;
-    return logFileData(Collections.singletonList(new Pair<LogFileKey, LogFileValue>(key, EMPTY)));
+    return logFileData(Collections.singletonList(new Pair<LogFileKey, LogFileValue>(key, EMPTY)), Durability.SYNC);
   }
 
   public String getLogger() {
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.tserver.log;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.accumulo.tserver.logger.LogEvents;
+import org.apache.accumulo.tserver.logger.LogFileKey;
+import org.apache.accumulo.tserver.logger.LogFileValue;
+import org.apache.hadoop.io.DataInputBuffer;
+import org.apache.hadoop.io.DataOutputBuffer;
+
+/**
+ * One run of a write-ahead log sort. Entries are kept serialized in a single byte array, and only the fields that {@link LogFileKey#compareTo(LogFileKey)}
+ * looks at are kept in primitive arrays, so buffering a run does not create an object per entry. Entries that compare equal keep the order they were added
+ * in.
+ */
+class LogFileSortBuffer {
+
+  // estimated heap used per entry by the arrays below
+  private static final int ENTRY_OVERHEAD = 4 + 1 + 4 + 8 + 4;
+
+  private final DataOutputBuffer data = new DataOutputBuffer();
+  private final DataInputBuffer input = new DataInputBuffer();
+
+  private int[] offsets = new int[1024];
+  private byte[] types = new byte[1024];
+  private int[] tids = new int[1024];
+  private long[] seqs = new long[1024];
+  private int[] order = null;
+  private int size = 0;
+
+  public void add(LogFileKey key, LogFileValue value) throws IOException {
+    if (order != null)
+      throw new IllegalStateException("Can not add to a sorted buffer");
+    if (size == offsets.length) {
+      int capacity = size * 2;
+      offsets = Arrays.copyOf(offsets, capacity);
+      types = Arrays.copyOf(types, capacity);
+      tids = Arrays.copyOf(tids, capacity);
+      seqs = Arrays.copyOf(seqs, capacity);
+    }
+    offsets[size] = data.getLength();
+    key.write(data);
+    value.write(data);
+    types[size] = (byte) LogFileKey.eventType(key.event);
+    if (key.event == LogEvents.OPEN) {
+      // open events compare equal to each other regardless of tid and seq
+      tids[size] = 0;
+      seqs[size] = 0;
+    } else {
+      tids[size] = key.tid;
+      seqs[size] = key.seq;
+    }
+    size++;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public long getMemoryUsed() {
+    return data.getLength() + (long) size * ENTRY_OVERHEAD;
+  }
+
+  public void sort() {
+    int[] sorted = new int[size];
+    for (int i = 0; i < size; i++)
+      sorted[i] = i;
+    mergeSort(sorted, new int[size], 0, size);
+    order = sorted;
+  }
+
+  /**
+   * Deserialize the i'th entry in sorted order into the given key and value.
+   */
+  public void get(int i, LogFileKey key, LogFileValue value) throws IOException {
+    if (order == null)
+      throw new IllegalStateException("Buffer has not been sorted");
+    int entry = order[i];
+    int start = offsets[entry];
+    int end = entry + 1 < size ? offsets[entry + 1] : data.getLength();
+    input.reset(data.getData(), start, end - start);
+    key.readFields(input);
+    value.readFields(input);
+  }
+
+  private int compare(int a, int b) {
+    if (types[a] != types[b])
+      return types[a] - types[b];
+    if (tids[a] != tids[b])
+      return tids[a] < tids[b] ? -1 : 1;
+    if (seqs[a] != seqs[b])
+      return seqs[a] < seqs[b] ? -1 : 1;
+    return 0;
+  }
+
+  private void mergeSort(int[] entries, int[] scratch, int start, int end) {
+    if (end - start < 2)
+      return;
+    int mid = (start + end) >>> 1;
+    mergeSort(entries, scratch, start, mid);
+    mergeSort(entries, scratch, mid, end);
+    if (compare(entries[mid - 1], entries[mid]) <= 0)
+      return;
+    System.arraycopy(entries, start, scratch, start, end - start);
+    int left = start, right = mid;
+    for (int i = start; i < end; i++) {
+      // take from the left on ties to keep the sort stable
+      if (right >= end || (left < mid && compare(scratch[left], scratch[right]) <= 0))
+        entries[i] = scratch[left++];
+      else
+        entries[i] = scratch[right++];
+    }
+  }
+}
@@ -21,11 +21,13 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 
 import org.apache.accumulo.core.Constants;
@@ -33,7 +35,6 @@ import org.apache.accumulo.core.client.Instance;
 import org.apache.accumulo.core.conf.AccumuloConfiguration;
 import org.apache.accumulo.core.conf.Property;
 import org.apache.accumulo.core.master.thrift.RecoveryStatus;
-import org.apache.accumulo.core.util.Pair;
 import org.apache.accumulo.core.util.SimpleThreadPool;
 import org.apache.accumulo.core.zookeeper.ZooUtil;
 import org.apache.accumulo.server.fs.VolumeManager;
@@ -97,7 +98,7 @@ public class LogSorter {
 
     }
 
-    public void sort(String name, Path srcPath, String destPath) {
+    public void sort(String name, Path srcPath, final String destPath) {
 
       synchronized (this) {
         sortStart = System.currentTimeMillis();
@@ -105,6 +106,7 @@ public class LogSorter {
 
       String formerThreadName = Thread.currentThread().getName();
       int part = 0;
+      ThreadPoolExecutor sorters = null;
       try {
 
         // the following call does not throw an exception if the file/dir does not exist
@@ -115,25 +117,43 @@ public class LogSorter {
         this.decryptingInput = inputStreams.getDecryptingInputStream();
 
         final long bufferSize = conf.getMemoryInBytes(Property.TSERV_SORT_BUFFER_SIZE);
+        final int numSorters = conf.getCount(Property.TSERV_SORT_THREADS);
+        // runs are sorted and written while the next run is read, each buffered run gets an equal share of the sort buffer
+        final long runSize = Math.max(1, bufferSize / numSorters);
+        final Semaphore runsBuffered = new Semaphore(numSorters);
+        sorters = new SimpleThreadPool(numSorters, "Sorting " + name);
+        List<Future<Void>> runs = new ArrayList<Future<Void>>();
         Thread.currentThread().setName("Sorting " + name + " for recovery");
-        while (true) {
-          final ArrayList<Pair<LogFileKey,LogFileValue>> buffer = new ArrayList<Pair<LogFileKey,LogFileValue>>();
+        LogFileKey key = new LogFileKey();
+        LogFileValue value = new LogFileValue();
+        boolean more = true;
+        while (more) {
+          runsBuffered.acquire();
+          final LogFileSortBuffer buffer = new LogFileSortBuffer();
           try {
-            long start = input.getPos();
-            while (input.getPos() - start < bufferSize) {
-              LogFileKey key = new LogFileKey();
-              LogFileValue value = new LogFileValue();
+            while (buffer.getMemoryUsed() < runSize) {
               key.readFields(decryptingInput);
               value.readFields(decryptingInput);
-              buffer.add(new Pair<LogFileKey,LogFileValue>(key, value));
+              buffer.add(key, value);
             }
-            writeBuffer(destPath, buffer, part++);
-            buffer.clear();
           } catch (EOFException ex) {
-            writeBuffer(destPath, buffer, part++);
-            break;
+            more = false;
           }
+          final int runPart = part++;
+          runs.add(sorters.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+              try {
+                writeBuffer(destPath, buffer, runPart);
+              } finally {
+                runsBuffered.release();
+              }
+              return null;
+            }
+          }));
         }
+        for (Future<Void> run : runs)
+          run.get();
         fs.create(new Path(destPath, "finished")).close();
         log.info("Finished log sort " + name + " " + getBytesCopied() + " bytes " + part + " parts in " + getSortTime() + "ms");
       } catch (Throwable t) {
@@ -146,6 +166,8 @@ public class LogSorter {
         }
         log.error(t, t);
       } finally {
+        if (sorters != null)
+          sorters.shutdownNow();
         Thread.currentThread().setName(formerThreadName);
         try {
           close();
@@ -158,21 +180,19 @@ public class LogSorter {
       }
     }
 
-    private void writeBuffer(String destPath, ArrayList<Pair<LogFileKey,LogFileValue>> buffer, int part) throws IOException {
-      Path path = new Path(destPath, String.format("part-r-%05d", part++));
+    private void writeBuffer(String destPath, LogFileSortBuffer buffer, int part) throws IOException {
+      Path path = new Path(destPath, String.format("part-r-%05d", part));
       FileSystem ns = fs.getFileSystemByPath(path);
       
       @SuppressWarnings("deprecation")
       MapFile.Writer output = new MapFile.Writer(ns.getConf(), ns, path.toString(), LogFileKey.class, LogFileValue.class);
       try {
-        Collections.sort(buffer, new Comparator<Pair<LogFileKey,LogFileValue>>() {
-          @Override
-          public int compare(Pair<LogFileKey,LogFileValue> o1, Pair<LogFileKey,LogFileValue> o2) {
-            return o1.getFirst().compareTo(o2.getFirst());
-          }
-        });
-        for (Pair<LogFileKey,LogFileValue> entry : buffer) {
-          output.append(entry.getFirst(), entry.getSecond());
+        buffer.sort();
+        LogFileKey key = new LogFileKey();
+        LogFileValue value = new LogFileValue();
+        for (int i = 0; i < buffer.size(); i++) {
+          buffer.get(i, key, value);
+          output.append(key, value);
         }
       } finally {
         output.close();
@@ -104,13 +104,15 @@ public class MultiReader {
       throw new IOException("Sort \"finished\" flag not found in " + directory);
   }
   
-  private static void copy(Writable src, Writable dest) throws IOException {
-    // not exactly efficient...
-    DataOutputBuffer output = new DataOutputBuffer();
-    src.write(output);
-    DataInputBuffer input = new DataInputBuffer();
-    input.reset(output.getData(), output.getLength());
-    dest.readFields(input);
+  // reused by copy(), only called while holding the lock on this reader
+  private final DataOutputBuffer copyOutput = new DataOutputBuffer();
+  private final DataInputBuffer copyInput = new DataInputBuffer();
+  
+  private void copy(Writable src, Writable dest) throws IOException {
+    copyOutput.reset();
+    src.write(copyOutput);
+    copyInput.reset(copyOutput.getData(), copyOutput.getLength());
+    dest.readFields(copyInput);
   }
   
   public synchronized boolean next(WritableComparable key, Writable val) throws IOException {
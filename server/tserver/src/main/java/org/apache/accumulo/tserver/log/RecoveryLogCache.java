@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.tserver.log;
+
+import static org.apache.accumulo.tserver.logger.LogEvents.DEFINE_TABLET;
+import static org.apache.accumulo.tserver.logger.LogEvents.OPEN;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.accumulo.core.data.KeyExtent;
+import org.apache.accumulo.server.fs.VolumeManager;
+import org.apache.accumulo.tserver.logger.LogFileKey;
+import org.apache.accumulo.tserver.logger.LogFileValue;
+import org.apache.hadoop.fs.Path;
+import org.apache.log4j.Logger;
+
+/**
+ * Shares sorted logs between the tablets that recover from them. When a tablet server takes over the tablets of a failed server, every one of those tablets
+ * reads the same sorted logs. The tablets defined in each log are read once and kept, and readers are returned here after each tablet's recovery so that the
+ * next tablet seeks within files that are already open instead of opening every part of the log again. Tablets recovering concurrently each use their own
+ * reader.
+ */
+public class RecoveryLogCache {
+
+  private static final Logger log = Logger.getLogger(RecoveryLogCache.class);
+
+  /**
+   * The start of a sorted log, the OPEN event followed by the DEFINE_TABLET events for every tablet that wrote to it.
+   */
+  static class LogHeader {
+    // null when the log is empty
+    final String tserverSession;
+    private final Map<KeyExtent,LogFileKey> defines;
+
+    private LogHeader(String tserverSession, Map<KeyExtent,LogFileKey> defines) {
+      this.tserverSession = tserverSession;
+      this.defines = defines;
+    }
+
+    /**
+     * @return the DEFINE_TABLET event with the highest tablet id for any of the extents, or null if none of them wrote to this log
+     */
+    LogFileKey getDefinition(KeyExtent... extents) {
+      LogFileKey result = null;
+      for (KeyExtent extent : extents) {
+        LogFileKey key = defines.get(extent);
+        if (key != null && (result == null || key.tid > result.tid || (key.tid == result.tid && key.seq < result.seq)))
+          result = key;
+      }
+      return result;
+    }
+  }
+
+  private static class SortedLog {
+    LogHeader header;
+    List<MultiReader> idleReaders = new ArrayList<MultiReader>();
+    int readersInUse = 0;
+    long lastUsed = System.currentTimeMillis();
+  }
+
+  private final VolumeManager fs;
+  private final Map<Path,SortedLog> logs = new HashMap<Path,SortedLog>();
+
+  public RecoveryLogCache(VolumeManager fs) {
+    this.fs = fs;
+  }
+
+  private synchronized SortedLog getLog(Path logfile) {
+    SortedLog sortedLog = logs.get(logfile);
+    if (sortedLog == null) {
+      sortedLog = new SortedLog();
+      logs.put(logfile, sortedLog);
+    }
+    sortedLog.lastUsed = System.currentTimeMillis();
+    return sortedLog;
+  }
+
+  /**
+   * Reserve a reader for a sorted log. The reader must be given back with {@link #release(Path, MultiReader, boolean)}.
+   */
+  MultiReader reserve(Path logfile) throws IOException {
+    SortedLog sortedLog;
+    synchronized (this) {
+      sortedLog = getLog(logfile);
+      sortedLog.readersInUse++;
+      if (sortedLog.idleReaders.size() > 0)
+        return sortedLog.idleReaders.remove(sortedLog.idleReaders.size() - 1);
+    }
+
+    try {
+      return new MultiReader(fs, logfile);
+    } catch (IOException e) {
+      synchronized (this) {
+        sortedLog.readersInUse--;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Return a reader reserved with {@link #reserve(Path)}, so that it can be used by the next tablet that recovers from the same log.
+   * 
+   * @param reusable
+   *          false if the caller failed while using the reader, which is then closed because it may be positioned anywhere, including part way through the
+   *          header
+   */
+  void release(Path logfile, MultiReader reader, boolean reusable) {
+    synchronized (this) {
+      // a log is not removed while it has readers in use
+      SortedLog sortedLog = logs.get(logfile);
+      if (sortedLog != null) {
+        sortedLog.readersInUse--;
+        sortedLog.lastUsed = System.currentTimeMillis();
+        if (reusable) {
+          sortedLog.idleReaders.add(reader);
+          return;
+        }
+      }
+    }
+    close(reader);
+  }
+
+  // visible for testing
+  synchronized int getIdleReaderCount(Path logfile) {
+    SortedLog sortedLog = logs.get(logfile);
+    return sortedLog == null ? 0 : sortedLog.idleReaders.size();
+  }
+
+  /**
+   * Get the header of a sorted log, reading it with the given reader if no other tablet has read it yet. The reader must not have been read from since it
+   * was reserved. The position of the reader is undefined afterwards.
+   */
+  LogHeader getHeader(Path logfile, MultiReader reader) throws IOException {
+    SortedLog sortedLog = getLog(logfile);
+    // only one tablet reads the header, any others recovering from the same log wait for it
+    synchronized (sortedLog) {
+      if (sortedLog.header == null)
+        sortedLog.header = readHeader(reader);
+      return sortedLog.header;
+    }
+  }
+
+  static LogHeader readHeader(MultiReader reader) throws IOException {
+    LogFileKey key = new LogFileKey();
+    LogFileValue value = new LogFileValue();
+    if (!reader.next(key, value))
+      return new LogHeader(null, new HashMap<KeyExtent,LogFileKey>());
+    if (key.event != OPEN)
+      throw new RuntimeException("First log entry value is not OPEN");
+
+    String tserverSession = key.tserverSession;
+    Map<KeyExtent,LogFileKey> defines = new HashMap<KeyExtent,LogFileKey>();
+
+    // entries are sorted by tablet id, so keep the highest tablet id of each extent... because a tablet may leave a tserver and then come back, in which case
+    // it would have a different tablet id. For that tablet id, keep the minimum sequence #.
+    key = new LogFileKey();
+    while (reader.next(key, value)) {
+      if (key.event != DEFINE_TABLET)
+        break;
+      LogFileKey previous = defines.get(key.tablet);
+      if (previous == null || previous.tid != key.tid) {
+        defines.put(key.tablet, key);
+        key = new LogFileKey();
+      }
+    }
+    return new LogHeader(tserverSession, defines);
+  }
+
+  private static void close(MultiReader reader) {
+    try {
+      reader.close();
+    } catch (IOException ex) {
+      log.warn("Ignoring error closing sorted log", ex);
+    }
+  }
+
+  /**
+   * Close the readers of logs that no tablet has used for the given time and forget their headers.
+   */
+  public void closeIdle(long maxIdleTime) {
+    List<MultiReader> toClose = new ArrayList<MultiReader>();
+    long now = System.currentTimeMillis();
+    synchronized (this) {
+      Iterator<Entry<Path,SortedLog>> iter = logs.entrySet().iterator();
+      while (iter.hasNext()) {
+        SortedLog sortedLog = iter.next().getValue();
+        if (sortedLog.readersInUse == 0 && now - sortedLog.lastUsed >= maxIdleTime) {
+          toClose.addAll(sortedLog.idleReaders);
+          iter.remove();
+        }
+      }
+    }
+
+    for (MultiReader reader : toClose)
+      close(reader);
+  }
+
+  /**
+   * Close the readers of all logs that are not in use.
+   */
+  public void close() {
+    closeIdle(0);
+  }
+}
@@ -18,10 +18,8 @@ package org.apache.accumulo.tserver.log;
 
 import static org.apache.accumulo.tserver.logger.LogEvents.COMPACTION_FINISH;
 import static org.apache.accumulo.tserver.logger.LogEvents.COMPACTION_START;
-import static org.apache.accumulo.tserver.logger.LogEvents.DEFINE_TABLET;
 import static org.apache.accumulo.tserver.logger.LogEvents.MANY_MUTATIONS;
 import static org.apache.accumulo.tserver.logger.LogEvents.MUTATION;
-import static org.apache.accumulo.tserver.logger.LogEvents.OPEN;
 
 import java.io.IOException;
 import java.util.HashSet;
@@ -32,6 +30,7 @@ import org.apache.accumulo.core.data.KeyExtent;
 import org.apache.accumulo.core.data.Mutation;
 import org.apache.accumulo.core.metadata.RootTable;
 import org.apache.accumulo.server.fs.VolumeManager;
+import org.apache.accumulo.tserver.log.RecoveryLogCache.LogHeader;
 import org.apache.accumulo.tserver.logger.LogFileKey;
 import org.apache.accumulo.tserver.logger.LogFileValue;
 import org.apache.hadoop.fs.Path;
@@ -56,10 +55,21 @@ public class SortedLogRecovery {
     public UnusedException() { super(); }
   }
 
-  private VolumeManager fs;
+  private final RecoveryLogCache logs;
+  private final boolean closeLogs;
 
   public SortedLogRecovery(VolumeManager fs) {
-    this.fs = fs;
+    this.logs = new RecoveryLogCache(fs);
+    this.closeLogs = true;
+  }
+
+  /**
+   * @param logs
+   *          shared with other tablets recovering from the same logs, so that each log is opened and its header read only once
+   */
+  public SortedLogRecovery(RecoveryLogCache logs) {
+    this.logs = logs;
+    this.closeLogs = false;
   }
   
   private enum Status {
@@ -92,15 +102,25 @@ public class SortedLogRecovery {
   }
   
   public void recover(KeyExtent extent, List<Path> recoveryLogs, Set<String> tabletFiles, MutationReceiver mr) throws IOException {
+    try {
+      recoverFromLogs(extent, recoveryLogs, tabletFiles, mr);
+    } finally {
+      if (closeLogs)
+        logs.close();
+    }
+  }
+
+  private void recoverFromLogs(KeyExtent extent, List<Path> recoveryLogs, Set<String> tabletFiles, MutationReceiver mr) throws IOException {
     int[] tids = new int[recoveryLogs.size()];
     LastStartToFinish lastStartToFinish = new LastStartToFinish();
     for (int i = 0; i < recoveryLogs.size(); i++) {
       Path logfile = recoveryLogs.get(i);
       log.info("Looking at mutations from " + logfile + " for " + extent);
-      MultiReader reader = new MultiReader(fs, logfile);
+      MultiReader reader = logs.reserve(logfile);
+      boolean succeeded = false;
       try {
         try {
-          tids[i] = findLastStartToFinish(reader, i, extent, tabletFiles, lastStartToFinish);
+          tids[i] = findLastStartToFinish(reader, logs.getHeader(logfile, reader), i, extent, tabletFiles, lastStartToFinish);
         } catch (EmptyMapFileException ex) {
           log.info("Ignoring empty map file " + logfile);
           tids[i] = -1;
@@ -108,12 +128,9 @@ public class SortedLogRecovery {
           log.info("Ignoring log file " + logfile + " appears to be unused by " + extent);
           tids[i] = -1;
         }
+        succeeded = true;
       } finally {
-        try {
-          reader.close();
-        } catch (IOException ex) {
-          log.warn("Ignoring error closing file");
-        }
+        logs.release(logfile, reader, succeeded);
       }
       
     }
@@ -123,15 +140,13 @@ public class SortedLogRecovery {
     
     for (int i = 0; i < recoveryLogs.size(); i++) {
       Path logfile = recoveryLogs.get(i);
-      MultiReader reader = new MultiReader(fs, logfile);
+      MultiReader reader = logs.reserve(logfile);
+      boolean succeeded = false;
       try {
         playbackMutations(reader, tids[i], lastStartToFinish, mr);
+        succeeded = true;
       } finally {
-        try {
-          reader.close();
-        } catch (IOException ex) {
-          log.warn("Ignoring error closing file");
-        }
+        logs.release(logfile, reader, succeeded);
       }
       log.info("Recovery complete for " + extent + " using " + logfile);
     }
@@ -144,55 +159,41 @@ public class SortedLogRecovery {
     return path.getParent().getName() + "/" + path.getName();
   }
 
-  int findLastStartToFinish(MultiReader reader, int fileno, KeyExtent extent, Set<String> tabletFiles, LastStartToFinish lastStartToFinish) throws IOException, EmptyMapFileException, UnusedException {
+  int findLastStartToFinish(MultiReader reader, LogHeader header, int fileno, KeyExtent extent, Set<String> tabletFiles, LastStartToFinish lastStartToFinish)
+      throws IOException, EmptyMapFileException, UnusedException {
 
     HashSet<String> suffixes = new HashSet<String>();
     for (String path : tabletFiles)
       suffixes.add(getPathSuffix(path));
 
-    // Scan for tableId for this extent (should always be in the log)
-    LogFileKey key = new LogFileKey();
-    LogFileValue value = new LogFileValue();
-    int tid = -1;
-    if (!reader.next(key, value))
+    // Look up the tableId for this extent (should always be in the log)
+    if (header.tserverSession == null)
       throw new EmptyMapFileException();
-    if (key.event != OPEN)
-      throw new RuntimeException("First log entry value is not OPEN");
-    
-    if (key.tserverSession.compareTo(lastStartToFinish.tserverSession) != 0) {
+
+    if (header.tserverSession.compareTo(lastStartToFinish.tserverSession) != 0) {
       if (lastStartToFinish.compactionStatus == Status.LOOKING_FOR_FINISH)
         throw new RuntimeException("COMPACTION_FINISH (without preceding COMPACTION_START) is not followed by a successful minor compaction.");
-      lastStartToFinish.update(key.tserverSession);
+      lastStartToFinish.update(header.tserverSession);
     }
     KeyExtent alternative = extent;
     if (extent.isRootTablet()) {
       alternative = RootTable.OLD_EXTENT;
     }
     
-    LogFileKey defineKey = null;
-    
-    // find the maximum tablet id... because a tablet may leave a tserver and then come back, in which case it would have a different tablet id
-    // for the maximum tablet id, find the minimum sequence #... may be ok to find the max seq, but just want to make the code behave like it used to
-    while (reader.next(key, value)) {
-      // LogReader.printEntry(entry);
-      if (key.event != DEFINE_TABLET)
-        break;
-      if (key.tablet.equals(extent) || key.tablet.equals(alternative)) {
-        if (tid != key.tid) {
-          tid = key.tid;
-          defineKey = key;
-          key = new LogFileKey();
-        }
-      }
-    }
-    if (tid < 0) {
+    // the header holds the maximum tablet id... because a tablet may leave a tserver and then come back, in which case it would have a different tablet id
+    LogFileKey defineKey = header.getDefinition(extent, alternative);
+    if (defineKey == null) {
       throw new UnusedException();
     }
+    int tid = defineKey.tid;
     
     log.debug("Found tid, seq " + tid + " " + defineKey.seq);
     
-    // Scan start/stop events for this tablet
-    key = defineKey;
+    // Scan start/stop events for this tablet, the header is shared so do not modify its keys
+    LogFileKey key = new LogFileKey();
+    LogFileValue value = new LogFileValue();
+    key.tid = tid;
+    key.seq = defineKey.seq;
     key.event = COMPACTION_START;
     reader.seek(key);
     while (reader.next(key, value)) {
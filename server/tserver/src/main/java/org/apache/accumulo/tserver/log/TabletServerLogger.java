@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -30,11 +31,14 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.apache.accumulo.core.client.Durability;
+import org.apache.accumulo.core.client.impl.DurabilityImpl;
 import org.apache.accumulo.core.conf.Property;
 import org.apache.accumulo.core.data.KeyExtent;
 import org.apache.accumulo.core.data.Mutation;
 import org.apache.accumulo.core.util.UtilWaitThread;
 import org.apache.accumulo.server.fs.VolumeManager;
+import org.apache.accumulo.server.util.time.SimpleTimer;
 import org.apache.accumulo.tserver.Tablet;
 import org.apache.accumulo.tserver.Tablet.CommitSession;
 import org.apache.accumulo.tserver.TabletMutations;
@@ -46,8 +50,11 @@ import org.apache.log4j.Logger;
 /**
  * Central logging facility for the TServerInfo.
  * 
- * Forwards in-memory updates to remote logs, carefully writing the same data to every log, while maintaining the maximum thread parallelism for greater
- * performance. As new logs are used and minor compactions are performed, the metadata table is kept up-to-date.
+ * Forwards in-memory updates to remote logs, while maintaining the maximum thread parallelism for greater performance. As new logs are used and minor
+ * compactions are performed, the metadata table is kept up-to-date.
+ * 
+ * Several logs may be open at once. Each tablet is assigned to exactly one of them by hashing its extent, so the updates for a tablet are totally ordered
+ * within a single log and recovery only has to consider the logs recorded in the tablet's metadata entries, just as it does when a log is rolled.
  * 
  */
 public class TabletServerLogger {
@@ -57,9 +64,11 @@ public class TabletServerLogger {
   private final AtomicLong logSizeEstimate = new AtomicLong();
   private final long maxSize;
   
+  private final int numLoggers;
+  
   private final TabletServer tserver;
   
-  // The current log set: always updated to a new set with every change of loggers
+  // The current log set: always updated to a new set with every change of loggers. A tablet always writes to the same member of the set, see loggerFor().
   private final List<DfsLogger> loggers = new ArrayList<DfsLogger>();
   
   // The current generation of logSet.
@@ -75,6 +84,9 @@ public class TabletServerLogger {
   private final ReentrantReadWriteLock logSetLock = new ReentrantReadWriteLock();
   
   private final AtomicInteger seqGen = new AtomicInteger();
+
+  // sorted logs shared by the tablets recovering on this server, created on the first recovery
+  private RecoveryLogCache recoveryLogs = null;
   
   private static boolean enabled(Tablet tablet) {
     return tablet.getTableConfiguration().getBoolean(Property.TABLE_WALOG_ENABLED);
@@ -128,9 +140,20 @@ public class TabletServerLogger {
     }
   }
   
-  public TabletServerLogger(TabletServer tserver, long maxSize) {
+  public TabletServerLogger(TabletServer tserver, long maxSize, int numLoggers) {
+    if (numLoggers < 1)
+      throw new IllegalArgumentException("Number of write-ahead logs must be positive: " + numLoggers);
     this.tserver = tserver;
     this.maxSize = maxSize;
+    this.numLoggers = numLoggers;
+  }
+  
+  /**
+   * Choose the log a tablet writes to from the current log set. The choice must only depend on the extent and the size of the set, so that every event for
+   * a tablet in one log set lands in the same log.
+   */
+  static int loggerFor(KeyExtent extent, int numLoggers) {
+    return (extent.hashCode() & Integer.MAX_VALUE) % numLoggers;
   }
   
   private int initializeLoggers(final List<DfsLogger> copy) throws IOException {
@@ -182,12 +205,23 @@ public class TabletServerLogger {
     }
     
     try {
-      DfsLogger alog = new DfsLogger(tserver.getServerConfig());
-      alog.open(tserver.getClientAddressString());
-      loggers.add(alog);
+      for (int i = 0; i < numLoggers; i++) {
+        DfsLogger alog = new DfsLogger(tserver.getServerConfig());
+        alog.open(tserver.getClientAddressString());
+        loggers.add(alog);
+      }
       logSetId.incrementAndGet();
       return;
     } catch (Exception t) {
+      // do not leave a partial log set behind
+      for (DfsLogger logger : loggers) {
+        try {
+          logger.close();
+        } catch (Exception ex) {
+          log.warn("Unable to close partially created log " + logger.getFileName(), ex);
+        }
+      }
+      loggers.clear();
       throw new RuntimeException(t);
     }
   }
@@ -223,7 +257,11 @@ public class TabletServerLogger {
   }
   
   interface Writer {
-    LoggerOperation write(DfsLogger logger, int seq) throws Exception;
+    /**
+     * @param sessions
+     *          the subset of the sessions being written that were assigned to this logger
+     */
+    LoggerOperation write(DfsLogger logger, List<CommitSession> sessions, int seq) throws Exception;
   }
   
   private int write(CommitSession commitSession, boolean mincFinish, Writer writer) throws IOException {
@@ -245,19 +283,36 @@ public class TabletServerLogger {
         ArrayList<DfsLogger> copy = new ArrayList<DfsLogger>();
         currentLogSet = initializeLoggers(copy);
         
+        // route every session to the one logger its tablet uses in this log set
+        Map<DfsLogger,List<CommitSession>> routed = new LinkedHashMap<DfsLogger,List<CommitSession>>();
+        if (!copy.isEmpty()) {
+          for (CommitSession commitSession : sessions) {
+            DfsLogger logger = copy.get(loggerFor(commitSession.getExtent(), copy.size()));
+            List<CommitSession> assigned = routed.get(logger);
+            if (assigned == null) {
+              assigned = new ArrayList<CommitSession>();
+              routed.put(logger, assigned);
+            }
+            assigned.add(commitSession);
+          }
+        }
+        
         // add the logger to the log set for the memory in the tablet,
         // update the metadata table if we've never used this tablet
         
         if (currentLogSet == logSetId.get()) {
-          for (CommitSession commitSession : sessions) {
-            if (commitSession.beginUpdatingLogsUsed(copy, mincFinish)) {
-              try {
-                // Scribble out a tablet definition and then write to the metadata table
-                defineTablet(commitSession);
-                if (currentLogSet == logSetId.get())
-                  tserver.addLoggersToMetadata(copy, commitSession.getExtent(), commitSession.getLogId());
-              } finally {
-                commitSession.finishUpdatingLogsUsed();
+          for (Entry<DfsLogger,List<CommitSession>> entry : routed.entrySet()) {
+            List<DfsLogger> used = Collections.singletonList(entry.getKey());
+            for (CommitSession commitSession : entry.getValue()) {
+              if (commitSession.beginUpdatingLogsUsed(used, mincFinish)) {
+                try {
+                  // Scribble out a tablet definition and then write to the metadata table
+                  defineTablet(commitSession);
+                  if (currentLogSet == logSetId.get())
+                    tserver.addLoggersToMetadata(used, commitSession.getExtent(), commitSession.getLogId());
+                } finally {
+                  commitSession.finishUpdatingLogsUsed();
+                }
               }
             }
           }
@@ -270,9 +325,10 @@ public class TabletServerLogger {
           seq = seqGen.incrementAndGet();
           if (seq < 0)
             throw new RuntimeException("Logger sequence generator wrapped!  Onos!!!11!eleven");
-          ArrayList<LoggerOperation> queuedOperations = new ArrayList<LoggerOperation>(copy.size());
-          for (DfsLogger wal : copy) {
-            LoggerOperation lop = writer.write(wal, seq);
+          // queue the writes to every logger before waiting on any of them, so the logs sync in parallel
+          ArrayList<LoggerOperation> queuedOperations = new ArrayList<LoggerOperation>(routed.size());
+          for (Entry<DfsLogger,List<CommitSession>> entry : routed.entrySet()) {
+            LoggerOperation lop = writer.write(entry.getKey(), entry.getValue(), seq);
             if (lop != null)
               queuedOperations.add(lop);
           }
@@ -311,11 +367,12 @@ public class TabletServerLogger {
         });
       }
     }
-    // if the log gets too big, reset it .. grab the write lock first
+    // if the logs get too big, reset them .. grab the write lock first
+    // the estimate covers the whole log set, which is expected to be spread evenly over its logs
     logSizeEstimate.addAndGet(4 * 3); // event, tid, seq overhead
     testLockAndRun(logSetLock, new TestCallWithWriteLock() {
       boolean test() {
-        return logSizeEstimate.get() > maxSize;
+        return logSizeEstimate.get() > maxSize * numLoggers;
       }
       
       void withWriteLock() throws IOException {
@@ -331,45 +388,58 @@ public class TabletServerLogger {
       return -1;
     return write(commitSession, false, new Writer() {
       @Override
-      public LoggerOperation write(DfsLogger logger, int ignored) throws Exception {
+      public LoggerOperation write(DfsLogger logger, List<CommitSession> sessions, int ignored) throws Exception {
         logger.defineTablet(commitSession.getWALogSeq(), commitSession.getLogId(), commitSession.getExtent());
         return null;
       }
     });
   }
   
-  public int log(final CommitSession commitSession, final int tabletSeq, final Mutation m) throws IOException {
+  public int log(final CommitSession commitSession, final int tabletSeq, final Mutation m, Durability durability) throws IOException {
     if (!enabled(commitSession))
       return -1;
+    final Durability tabletDurability = DurabilityImpl.resolveDurability(durability, commitSession.getTablet().getDurability());
+    if (tabletDurability == Durability.NONE)
+      return -1;
     int seq = write(commitSession, false, new Writer() {
       @Override
-      public LoggerOperation write(DfsLogger logger, int ignored) throws Exception {
-        return logger.log(tabletSeq, commitSession.getLogId(), m);
+      public LoggerOperation write(DfsLogger logger, List<CommitSession> sessions, int ignored) throws Exception {
+        return logger.log(tabletSeq, commitSession.getLogId(), m, tabletDurability);
       }
     });
     logSizeEstimate.addAndGet(m.numBytes());
     return seq;
   }
   
-  public int logManyTablets(Map<CommitSession,List<Mutation>> mutations) throws IOException {
+  /**
+   * @param durability
+   *          the durability requested by the client, tablets use their table's durability when this is {@link Durability#DEFAULT}
+   */
+  public int logManyTablets(Map<CommitSession,List<Mutation>> mutations, Durability durability) throws IOException {
     
     final Map<CommitSession,List<Mutation>> loggables = new HashMap<CommitSession,List<Mutation>>(mutations);
+    final Map<CommitSession,Durability> durabilities = new HashMap<CommitSession,Durability>();
     for (CommitSession t : mutations.keySet()) {
-      if (!enabled(t))
+      Durability tabletDurability = enabled(t) ? DurabilityImpl.resolveDurability(durability, t.getTablet().getDurability()) : Durability.NONE;
+      if (tabletDurability == Durability.NONE)
         loggables.remove(t);
+      else
+        durabilities.put(t, tabletDurability);
     }
     if (loggables.size() == 0)
       return -1;
     
     int seq = write(loggables.keySet(), false, new Writer() {
       @Override
-      public LoggerOperation write(DfsLogger logger, int ignored) throws Exception {
-        List<TabletMutations> copy = new ArrayList<TabletMutations>(loggables.size());
-        for (Entry<CommitSession,List<Mutation>> entry : loggables.entrySet()) {
-          CommitSession cs = entry.getKey();
-          copy.add(new TabletMutations(cs.getLogId(), cs.getWALogSeq(), entry.getValue()));
+      public LoggerOperation write(DfsLogger logger, List<CommitSession> sessions, int ignored) throws Exception {
+        // the write only waits for the most durable of the tablets it contains
+        Durability logDurability = Durability.NONE;
+        List<TabletMutations> copy = new ArrayList<TabletMutations>(sessions.size());
+        for (CommitSession cs : sessions) {
+          copy.add(new TabletMutations(cs.getLogId(), cs.getWALogSeq(), loggables.get(cs)));
+          logDurability = DurabilityImpl.max(logDurability, durabilities.get(cs));
         }
-        return logger.logManyTablets(copy);
+        return logger.logManyTablets(copy, logDurability);
       }
     });
     for (List<Mutation> entry : loggables.values()) {
@@ -391,7 +461,7 @@ public class TabletServerLogger {
     
     int seq = write(commitSession, true, new Writer() {
       @Override
-      public LoggerOperation write(DfsLogger logger, int ignored) throws Exception {
+      public LoggerOperation write(DfsLogger logger, List<CommitSession> sessions, int ignored) throws Exception {
         logger.minorCompactionFinished(walogSeq, commitSession.getLogId(), fullyQualifiedFileName).await();
         return null;
       }
@@ -407,7 +477,7 @@ public class TabletServerLogger {
       return -1;
     write(commitSession, false, new Writer() {
       @Override
-      public LoggerOperation write(DfsLogger logger, int ignored) throws Exception {
+      public LoggerOperation write(DfsLogger logger, List<CommitSession> sessions, int ignored) throws Exception {
         logger.minorCompactionStarted(seq, commitSession.getLogId(), fullyQualifiedFileName).await();
         return null;
       }
@@ -415,11 +485,26 @@ public class TabletServerLogger {
     return seq;
   }
   
+  private synchronized RecoveryLogCache getRecoveryLogs(VolumeManager fs) {
+    if (recoveryLogs == null) {
+      final RecoveryLogCache logs = new RecoveryLogCache(fs);
+      final long maxIdleTime = tserver.getSystemConfiguration().getTimeInMillis(Property.TSERV_MAX_IDLE);
+      SimpleTimer.getInstance().schedule(new Runnable() {
+        @Override
+        public void run() {
+          logs.closeIdle(maxIdleTime);
+        }
+      }, maxIdleTime, Math.max(maxIdleTime / 2, 1000));
+      recoveryLogs = logs;
+    }
+    return recoveryLogs;
+  }
+
   public void recover(VolumeManager fs, Tablet tablet, List<Path> logs, Set<String> tabletFiles, MutationReceiver mr) throws IOException {
     if (!enabled(tablet))
       return;
     try {
-      SortedLogRecovery recovery = new SortedLogRecovery(fs);
+      SortedLogRecovery recovery = new SortedLogRecovery(getRecoveryLogs(fs));
       KeyExtent extent = tablet.getExtent();
       recovery.recover(extent, logs, tabletFiles, mr);
     } catch (Exception e) {
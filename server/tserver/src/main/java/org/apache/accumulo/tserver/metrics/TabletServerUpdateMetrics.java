@@ -121,6 +121,46 @@ public class TabletServerUpdateMetrics extends AbstractMetricsImpl implements Ta
     return this.getMetricAvg(commitTime);
   }
   
+  public long getWALogBatchAvgSize() {
+    return this.getMetricAvg(waLogBatchSize);
+  }
+  
+  public long getWALogBatchMinSize() {
+    return this.getMetricMin(waLogBatchSize);
+  }
+  
+  public long getWALogBatchMaxSize() {
+    return this.getMetricMax(waLogBatchSize);
+  }
+  
+  public long getWALogQueueMinTime() {
+    return this.getMetricMin(waLogQueueTime);
+  }
+  
+  public long getWALogQueueMaxTime() {
+    return this.getMetricMax(waLogQueueTime);
+  }
+  
+  public long getWALogQueueAvgTime() {
+    return this.getMetricAvg(waLogQueueTime);
+  }
+  
+  public long getWALogSyncCount() {
+    return this.getMetricCount(waLogSyncTime);
+  }
+  
+  public long getWALogSyncMinTime() {
+    return this.getMetricMin(waLogSyncTime);
+  }
+  
+  public long getWALogSyncMaxTime() {
+    return this.getMetricMax(waLogSyncTime);
+  }
+  
+  public long getWALogSyncAvgTime() {
+    return this.getMetricAvg(waLogSyncTime);
+  }
+  
   public void reset() {
     createMetric(permissionErrors);
     createMetric(unknownTabletErrors);
@@ -129,6 +169,9 @@ public class TabletServerUpdateMetrics extends AbstractMetricsImpl implements Ta
     createMetric(constraintViolations);
     createMetric(waLogWriteTime);
     createMetric(commitTime);
+    createMetric(waLogBatchSize);
+    createMetric(waLogQueueTime);
+    createMetric(waLogSyncTime);
   }
   
 }
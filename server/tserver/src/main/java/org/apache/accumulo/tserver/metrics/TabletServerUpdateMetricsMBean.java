@@ -25,6 +25,9 @@ public interface TabletServerUpdateMetricsMBean {
   final static String constraintViolations = "constraintViolations";
   final static String waLogWriteTime = "waLogWriteTime";
   final static String commitTime = "commitTime";
+  final static String waLogBatchSize = "waLogBatchSize";
+  final static String waLogQueueTime = "waLogQueueTime";
+  final static String waLogSyncTime = "waLogSyncTime";
   
   long getPermissionErrorCount();
   
@@ -62,5 +65,25 @@ public interface TabletServerUpdateMetricsMBean {
   
   long getCommitAvgTime();
   
+  long getWALogBatchAvgSize();
+  
+  long getWALogBatchMinSize();
+  
+  long getWALogBatchMaxSize();
+  
+  long getWALogQueueMinTime();
+  
+  long getWALogQueueMaxTime();
+  
+  long getWALogQueueAvgTime();
+  
+  long getWALogSyncCount();
+  
+  long getWALogSyncMinTime();
+  
+  long getWALogSyncMaxTime();
+  
+  long getWALogSyncAvgTime();
+  
   void reset();
 }
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.tserver;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.accumulo.core.Constants;
+import org.apache.accumulo.core.conf.AccumuloConfiguration;
+import org.apache.accumulo.core.conf.ConfigurationCopy;
+import org.apache.accumulo.core.conf.Property;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.KeyExtent;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.file.FileOperations;
+import org.apache.accumulo.core.file.FileSKVIterator;
+import org.apache.accumulo.core.file.FileSKVWriter;
+import org.apache.accumulo.core.file.blockfile.cache.LruBlockCache;
+import org.apache.accumulo.core.file.rfile.RFile;
+import org.apache.accumulo.core.util.UtilWaitThread;
+import org.apache.accumulo.server.fs.FileRef;
+import org.apache.accumulo.server.fs.VolumeManagerImpl;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.io.Text;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BlockCacheWarmerTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder(new File(System.getProperty("user.dir") + "/target"));
+
+  private static final int ROWS = 10000;
+
+  private final Configuration conf = new Configuration();
+
+  private final ConfigurationCopy acuconf = new ConfigurationCopy(AccumuloConfiguration.getDefaultConfiguration());
+
+  private String writeFile() throws IOException {
+    acuconf.set(Property.TABLE_FILE_COMPRESSED_BLOCK_SIZE, "4K");
+    FileSystem fs = FileSystem.getLocal(conf);
+    String file = new File(tempFolder.getRoot(), "test." + RFile.EXTENSION).getAbsolutePath();
+
+    FileSKVWriter writer = FileOperations.getInstance().openWriter(file, fs, conf, acuconf);
+    writer.startDefaultLocalityGroup();
+    for (int i = 0; i < ROWS; i++) {
+      writer.append(new Key(String.format("r%06d", i), "cf", "cq"), new Value(("v" + i).getBytes()));
+    }
+    writer.close();
+    return file;
+  }
+
+  private void readFile(String file, LruBlockCache indexCache, LruBlockCache dataCache) throws IOException {
+    FileSKVIterator reader = FileOperations.getInstance().openReader(file, false, FileSystem.getLocal(conf), conf, acuconf, dataCache, indexCache);
+    try {
+      reader.seek(new Range(), Collections.<ByteSequence> emptySet(), false);
+      while (reader.hasTop())
+        reader.next();
+    } finally {
+      reader.close();
+    }
+  }
+
+  private static List<String> missing(LruBlockCache cache, List<String> names) {
+    List<String> missing = new ArrayList<String>();
+    for (String name : names) {
+      if (cache.getBlock(name) == null)
+        missing.add(name);
+    }
+    return missing;
+  }
+
+  private BlockCacheWarmer newWarmer(LruBlockCache indexCache, LruBlockCache dataCache, File snapshot) throws IOException {
+    return new BlockCacheWarmer(null, VolumeManagerImpl.getLocal(), indexCache, dataCache, snapshot, 1000, 0) {
+      @Override
+      AccumuloConfiguration getTableConfiguration(String tableId) {
+        return acuconf;
+      }
+    };
+  }
+
+  @Test
+  public void testWarmAfterRestart() throws Exception {
+    String file = writeFile();
+    File snapshot = new File(tempFolder.getRoot(), "cache.snapshot");
+
+    LruBlockCache indexCache = new LruBlockCache(10000000, 100000);
+    LruBlockCache dataCache = new LruBlockCache(10000000, 100000);
+    readFile(file, indexCache, dataCache);
+
+    List<String> indexBlocks = indexCache.getHotBlockNames(1000);
+    List<String> dataBlocks = dataCache.getHotBlockNames(1000);
+    assertTrue(indexBlocks.contains(file + "MBCFile.metaindex"));
+    assertTrue(dataBlocks.size() > 1);
+
+    newWarmer(indexCache, dataCache, snapshot).save();
+
+    // a saved block that can no longer be read must not stop the rest of the file from being warmed
+    BufferedWriter out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(snapshot, true), Constants.UTF8));
+    out.write("I" + file + "Mno.such.block");
+    out.newLine();
+    out.close();
+
+    // empty caches, as after a restart
+    LruBlockCache newIndexCache = new LruBlockCache(10000000, 100000);
+    LruBlockCache newDataCache = new LruBlockCache(10000000, 100000);
+
+    BlockCacheWarmer warmer = newWarmer(newIndexCache, newDataCache, snapshot);
+    warmer.load();
+    warmer.warm(new KeyExtent(new Text("1"), null, null), Collections.singleton(new FileRef(file)));
+
+    long deadline = System.currentTimeMillis() + 30 * 1000;
+    while (!(missing(newIndexCache, indexBlocks).isEmpty() && missing(newDataCache, dataBlocks).isEmpty()) && System.currentTimeMillis() < deadline)
+      UtilWaitThread.sleep(50);
+
+    assertTrue("index blocks not warmed " + missing(newIndexCache, indexBlocks), missing(newIndexCache, indexBlocks).isEmpty());
+    assertTrue("data blocks not warmed " + missing(newDataCache, dataBlocks), missing(newDataCache, dataBlocks).isEmpty());
+  }
+}
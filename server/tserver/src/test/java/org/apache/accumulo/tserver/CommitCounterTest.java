@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.tserver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class CommitCounterTest {
+
+  @Test
+  public void testIncrementDecrement() {
+    CommitCounter counter = new CommitCounter();
+    assertTrue(counter.tryIncrement());
+    assertTrue(counter.tryIncrement());
+    assertEquals(2, counter.getCommitsInProgress());
+    counter.decrement();
+    counter.decrement();
+    assertEquals(0, counter.getCommitsInProgress());
+    assertFalse(counter.isClosed());
+  }
+
+  @Test
+  public void testClose() {
+    CommitCounter counter = new CommitCounter();
+    assertTrue(counter.tryIncrement());
+    counter.close();
+    assertTrue(counter.isClosed());
+    assertFalse(counter.tryIncrement());
+    assertEquals(1, counter.getCommitsInProgress());
+    counter.decrement();
+    assertEquals(0, counter.getCommitsInProgress());
+    counter.waitForCommitsToFinish();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testDecrementBelowZero() {
+    new CommitCounter().decrement();
+  }
+
+  @Test(timeout = 30000)
+  public void testWaitForCommitsToFinish() throws Exception {
+    final CommitCounter counter = new CommitCounter();
+    final int threads = 8;
+    final CountDownLatch started = new CountDownLatch(threads);
+    final CountDownLatch finish = new CountDownLatch(1);
+    final AtomicInteger finished = new AtomicInteger(0);
+
+    Thread[] writers = new Thread[threads];
+    for (int i = 0; i < threads; i++) {
+      writers[i] = new Thread() {
+        @Override
+        public void run() {
+          assertTrue(counter.tryIncrement());
+          started.countDown();
+          try {
+            finish.await();
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          finished.incrementAndGet();
+          counter.decrement();
+        }
+      };
+      writers[i].start();
+    }
+
+    started.await();
+    counter.close();
+    assertEquals(threads, counter.getCommitsInProgress());
+    finish.countDown();
+    counter.waitForCommitsToFinish();
+    assertEquals(threads, finished.get());
+
+    for (Thread writer : writers)
+      writer.join();
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.tserver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.accumulo.core.conf.AccumuloConfiguration;
+import org.apache.accumulo.core.conf.ConfigurationCopy;
+import org.apache.accumulo.core.conf.Property;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.KeyExtent;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.file.FileOperations;
+import org.apache.accumulo.core.file.FileSKVWriter;
+import org.apache.accumulo.core.file.blockfile.cache.LruBlockCache;
+import org.apache.accumulo.core.file.rfile.RFile;
+import org.apache.accumulo.core.iterators.system.InterruptibleIterator;
+import org.apache.accumulo.core.metadata.schema.DataFileValue;
+import org.apache.accumulo.server.conf.ServerConfiguration;
+import org.apache.accumulo.server.fs.FileRef;
+import org.apache.accumulo.server.fs.VolumeManagerImpl;
+import org.apache.accumulo.tserver.FileManager.ScanFileManager;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.io.Text;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileManagerTest {
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder(new File(System.getProperty("user.dir") + "/target"));
+
+  private static final int ROWS = 10000;
+
+  private static final Range FIRST_HALF = new Range(new Text("r000000"), new Text("r004999"));
+  private static final Range SECOND_HALF = new Range(new Text("r005000"), new Text("r009999"));
+
+  private final Configuration conf = new Configuration();
+
+  private final ConfigurationCopy acuconf = new ConfigurationCopy(AccumuloConfiguration.getDefaultConfiguration());
+
+  private String writeFile() throws IOException {
+    acuconf.set(Property.TABLE_FILE_COMPRESSED_BLOCK_SIZE, "4K");
+    File file = new File(tempFolder.getRoot(), "test." + RFile.EXTENSION);
+
+    FileSKVWriter writer = FileOperations.getInstance().openWriter(file.getAbsolutePath(), FileSystem.getLocal(conf), conf, acuconf);
+    writer.startDefaultLocalityGroup();
+    for (int i = 0; i < ROWS; i++) {
+      writer.append(new Key(String.format("r%06d", i), "cf", "cq"), new Value(("v" + i).getBytes()));
+    }
+    writer.close();
+    return file.toURI().toString();
+  }
+
+  private FileManager createFileManager(LruBlockCache dataCache, LruBlockCache indexCache) {
+    ServerConfiguration serverConf = new ServerConfiguration(null) {
+      @Override
+      public synchronized AccumuloConfiguration getConfiguration() {
+        return acuconf;
+      }
+    };
+    return new FileManager(serverConf, VolumeManagerImpl.getLocal(), 10, dataCache, indexCache) {
+      @Override
+      AccumuloConfiguration getTableConfiguration(Text table) {
+        return acuconf;
+      }
+    };
+  }
+
+  private static int scan(FileManager fileManager, String file, Range range, boolean populateCache) throws IOException {
+    ScanFileManager scanFiles = fileManager.newScanFileManager(new KeyExtent(new Text("1"), null, null));
+    try {
+      List<InterruptibleIterator> iters = scanFiles.openFiles(Collections.singletonMap(new FileRef(file), new DataFileValue(0, 0)), false, populateCache);
+      assertEquals(1, iters.size());
+      InterruptibleIterator iter = iters.get(0);
+      iter.seek(range, Collections.<ByteSequence> emptySet(), false);
+      int count = 0;
+      while (iter.hasTop()) {
+        count++;
+        iter.next();
+      }
+      return count;
+    } finally {
+      scanFiles.releaseOpenFiles(false);
+    }
+  }
+
+  private static int cachedBlocks(LruBlockCache cache) {
+    return cache.getHotBlockNames(100000).size();
+  }
+
+  @Test
+  public void testPopulateCacheOnReservedReader() throws IOException {
+    String file = writeFile();
+    LruBlockCache dataCache = new LruBlockCache(10000000, 100000);
+    LruBlockCache indexCache = new LruBlockCache(10000000, 100000);
+    FileManager fileManager = createFileManager(dataCache, indexCache);
+
+    // a scan that does not populate the cache leaves it empty
+    assertEquals(ROWS / 2, scan(fileManager, file, FIRST_HALF, false));
+    assertEquals(0, cachedBlocks(dataCache));
+
+    // the next scan reserves the same pooled reader and does populate the cache
+    assertEquals(ROWS / 2, scan(fileManager, file, FIRST_HALF, true));
+    int cached = cachedBlocks(dataCache);
+    assertTrue(cached > 1);
+
+    // the reader is reserved again without population, so the second half of the file is not cached
+    assertEquals(ROWS / 2, scan(fileManager, file, SECOND_HALF, false));
+    assertEquals(cached, cachedBlocks(dataCache));
+
+    // but blocks already cached are still used
+    long hits = dataCache.getStats().getHitCount();
+    assertEquals(ROWS / 2, scan(fileManager, file, FIRST_HALF, false));
+    assertTrue(dataCache.getStats().getHitCount() >= hits + cached);
+    assertEquals(cached, cachedBlocks(dataCache));
+  }
+}
@@ -30,9 +30,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.accumulo.core.data.ArrayByteSequence;
 import org.apache.accumulo.core.data.ByteSequence;
@@ -510,4 +513,91 @@ public class InMemoryMapTest {
     ae(iter1, "r5", "cf4:z", 6, "B");
     assertFalse(iter1.hasTop());
   }
+
+  @Test
+  public void testConcurrentWrites() throws Exception {
+    runConcurrentWrites(new InMemoryMap(false, tempFolder.newFolder().getAbsolutePath()));
+
+    Map<String,Set<ByteSequence>> lggroups = new HashMap<String,Set<ByteSequence>>();
+    lggroups.put("lg1", newCFSet("cf0"));
+    runConcurrentWrites(new InMemoryMap(lggroups, false, tempFolder.newFolder().getAbsolutePath()));
+
+    runConcurrentWrites(new InMemoryMap(new HashMap<String,Set<ByteSequence>>(), false, true, tempFolder.newFolder().getAbsolutePath()));
+  }
+
+  private void runConcurrentWrites(final InMemoryMap imm) throws Exception {
+    final int writers = 8;
+    final int mutationsPerWriter = 500;
+    final int columns = 3;
+
+    final AtomicBoolean done = new AtomicBoolean(false);
+    ExecutorService service = Executors.newFixedThreadPool(writers + 1);
+    List<Future<Void>> futures = new ArrayList<Future<Void>>();
+
+    for (int w = 0; w < writers; w++) {
+      final int writer = w;
+      futures.add(service.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          for (int i = 0; i < mutationsPerWriter; i++) {
+            Mutation m = new Mutation(String.format("r%d_%04d", writer, i));
+            for (int c = 0; c < columns; c++)
+              m.put("cf" + c, "cq", "" + i);
+            imm.mutate(Collections.singletonList(m));
+          }
+          return null;
+        }
+      }));
+    }
+
+    // a reader must never see part of a mutation, even when its columns are in different locality groups
+    Future<Void> reader = service.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws Exception {
+        long lastCount = 0;
+        while (!done.get()) {
+          MemoryIterator iter = imm.skvIterator();
+          iter.seek(new Range(), LocalityGroupUtil.EMPTY_CF_SET, false);
+          Map<String,Integer> rowCounts = new HashMap<String,Integer>();
+          long count = 0;
+          while (iter.hasTop()) {
+            String row = iter.getTopKey().getRow().toString();
+            Integer rc = rowCounts.get(row);
+            rowCounts.put(row, rc == null ? 1 : rc + 1);
+            count++;
+            iter.next();
+          }
+          iter.close();
+
+          for (Integer rc : rowCounts.values())
+            assertEquals(columns, rc.intValue());
+          assertTrue(count >= lastCount);
+          lastCount = count;
+        }
+        return null;
+      }
+    });
+
+    for (Future<Void> future : futures)
+      future.get();
+    done.set(true);
+    reader.get();
+    service.shutdown();
+
+    assertEquals(writers * mutationsPerWriter * columns, imm.getNumEntries());
+    // throws if any kv count was not made visible
+    imm.compactionIterator();
+
+    MemoryIterator iter = imm.skvIterator();
+    iter.seek(new Range(), LocalityGroupUtil.EMPTY_CF_SET, false);
+    int count = 0;
+    while (iter.hasTop()) {
+      count++;
+      iter.next();
+    }
+    iter.close();
+    assertEquals(writers * mutationsPerWriter * columns, count);
+
+    imm.delete(0);
+  }
 }
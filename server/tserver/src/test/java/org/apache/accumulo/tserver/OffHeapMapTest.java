@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.tserver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.apache.accumulo.core.data.ColumnUpdate;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
+import org.apache.accumulo.core.security.ColumnVisibility;
+import org.apache.accumulo.core.util.LocalityGroupUtil;
+import org.apache.hadoop.io.Text;
+import org.junit.Test;
+
+public class OffHeapMapTest {
+
+  private static Key nk(int r) {
+    return new Key(new Text(String.format("r%09d", r)));
+  }
+
+  private static Value nv(int v) {
+    return new Value(String.format("r%09d", v).getBytes());
+  }
+
+  @Test
+  public void testPutGet() {
+    OffHeapMap map = new OffHeapMap();
+
+    for (int i = 0; i < 1000; i++)
+      map.put(nk(i), nv(i));
+
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(nv(i), map.get(nk(i)));
+
+      Iterator<Entry<Key,Value>> iter = map.iterator(nk(i));
+      assertTrue(iter.hasNext());
+      assertEquals(nk(i), iter.next().getKey());
+    }
+    assertNull(map.get(nk(-1)));
+    assertNull(map.get(nk(1000)));
+    assertEquals(1000, map.size());
+
+    // putting an existing key replaces its value
+    map.put(nk(5), nv(6));
+    assertEquals(nv(6), map.get(nk(5)));
+    assertEquals(1000, map.size());
+
+    Iterator<Entry<Key,Value>> iter = map.iterator();
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(iter.hasNext());
+      assertEquals(nk(i), iter.next().getKey());
+    }
+    assertFalse(iter.hasNext());
+
+    map.delete();
+  }
+
+  @Test
+  public void testOrdering() throws Exception {
+    Random rand = new Random(42);
+    OffHeapMap map = new OffHeapMap();
+    TreeMap<Key,Value> expected = new TreeMap<Key,Value>(new MemKeyComparator());
+
+    int kvCount = 1;
+    for (int i = 0; i < 200; i++) {
+      List<Mutation> mutations = new ArrayList<Mutation>();
+      for (int j = 0; j < 5; j++) {
+        Mutation m = new Mutation(String.format("r%03d", rand.nextInt(100)));
+        for (int c = 0; c < 1 + rand.nextInt(4); c++) {
+          String cf = "cf" + rand.nextInt(3);
+          // long and short qualifiers exercise comparing a long at a time and the remaining bytes
+          String cq = rand.nextBoolean() ? "q" + rand.nextInt(5) : "a_longer_qualifier_" + rand.nextInt(5);
+          String cv = rand.nextBoolean() ? "" : "A&B";
+          long ts = rand.nextInt(3);
+          if (rand.nextInt(5) == 0)
+            m.putDelete(cf, cq, new ColumnVisibility(cv), ts);
+          else
+            m.put(cf, cq, new ColumnVisibility(cv), ts, "v" + i + "_" + j + "_" + c);
+        }
+        mutations.add(m);
+      }
+
+      map.mutate(mutations, kvCount);
+      for (Mutation m : mutations) {
+        for (ColumnUpdate cu : m.getUpdates()) {
+          expected.put(new MemKey(m.getRow(), cu.getColumnFamily(), cu.getColumnQualifier(), cu.getColumnVisibility(), cu.getTimestamp(), cu.isDeleted(),
+              true, kvCount++), new Value(cu.getValue()));
+        }
+      }
+    }
+
+    assertEquals(expected.size(), map.size());
+
+    Iterator<Entry<Key,Value>> iter = map.iterator();
+    for (Entry<Key,Value> entry : expected.entrySet()) {
+      assertTrue(iter.hasNext());
+      Entry<Key,Value> actual = iter.next();
+      assertEquals(entry.getKey(), actual.getKey());
+      assertEquals(((MemKey) entry.getKey()).kvCount, ((MemKey) actual.getKey()).kvCount);
+      assertEquals(entry.getValue(), actual.getValue());
+    }
+    assertFalse(iter.hasNext());
+
+    SortedKeyValueIterator<Key,Value> skvi = map.skvIterator();
+    for (int i = 0; i < 100; i++) {
+      Key start = new Key(String.format("r%03d", rand.nextInt(110)), "cf" + rand.nextInt(3));
+      Key end = new Key(String.format("r%03d", rand.nextInt(110)));
+      if (start.compareTo(end) > 0)
+        continue;
+
+      Range range = new Range(start, true, end, false);
+      skvi.seek(range, LocalityGroupUtil.EMPTY_CF_SET, false);
+      for (Entry<Key,Value> entry : expected.tailMap(start).entrySet()) {
+        if (range.afterEndKey(entry.getKey()))
+          break;
+        assertTrue(skvi.hasTop());
+        assertEquals(entry.getKey(), skvi.getTopKey());
+        assertEquals(entry.getValue(), skvi.getTopValue());
+        skvi.next();
+      }
+      assertFalse(skvi.hasTop());
+    }
+
+    map.delete();
+  }
+
+  @Test
+  public void testLargeValues() {
+    OffHeapMap map = new OffHeapMap();
+
+    byte[] big = new byte[3 << 20];
+    new Random(7).nextBytes(big);
+    map.put(nk(1), new Value(big));
+    map.put(nk(0), nv(0));
+    map.put(nk(2), nv(2));
+
+    assertEquals(new Value(big), map.get(nk(1)));
+    assertEquals(nv(2), map.get(nk(2)));
+    assertTrue(map.getMemoryUsed() >= big.length);
+
+    map.delete();
+  }
+
+  @Test
+  public void testDelete() throws Exception {
+    OffHeapMap map = new OffHeapMap();
+    map.put(nk(0), nv(0));
+
+    SortedKeyValueIterator<Key,Value> skvi = map.skvIterator();
+    map.delete();
+
+    // an iterator created before the delete still reads the entries it already has
+    assertTrue(skvi.hasTop());
+    assertEquals(nk(0), skvi.getTopKey());
+
+    try {
+      map.get(nk(0));
+      fail();
+    } catch (IllegalStateException e) {}
+
+    try {
+      skvi.seek(new Range(), LocalityGroupUtil.EMPTY_CF_SET, false);
+      fail();
+    } catch (IllegalStateException e) {}
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.tserver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.accumulo.core.data.KeyExtent;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.thrift.TCondition;
+import org.apache.accumulo.core.data.thrift.TConditionalMutation;
+import org.apache.accumulo.tserver.RowLocks.RowLock;
+import org.apache.accumulo.tserver.data.ServerConditionalMutation;
+import org.apache.hadoop.io.Text;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RowLocksTest {
+
+  private static final KeyExtent EXTENT = new KeyExtent(new Text("1"), null, null);
+
+  // row locks are owned by the thread that acquired them, so other writers run here
+  private ExecutorService otherThread;
+
+  @Before
+  public void startThread() {
+    otherThread = Executors.newSingleThreadExecutor();
+  }
+
+  @After
+  public void stopThread() {
+    otherThread.shutdownNow();
+  }
+
+  private static Map<KeyExtent,List<ServerConditionalMutation>> updates(String... rows) {
+    List<ServerConditionalMutation> scml = new ArrayList<ServerConditionalMutation>();
+    long id = 0;
+    for (String row : rows) {
+      Mutation m = new Mutation(row);
+      m.put("cf", "cq", "v");
+      scml.add(new ServerConditionalMutation(new TConditionalMutation(Collections.<TCondition> emptyList(), m.toThrift(), id++)));
+    }
+    Map<KeyExtent,List<ServerConditionalMutation>> updates = new HashMap<KeyExtent,List<ServerConditionalMutation>>();
+    updates.put(EXTENT, scml);
+    return updates;
+  }
+
+  private static List<String> rows(Map<KeyExtent,List<ServerConditionalMutation>> updates) {
+    List<String> rows = new ArrayList<String>();
+    List<ServerConditionalMutation> scml = updates.get(EXTENT);
+    if (scml != null)
+      for (ServerConditionalMutation scm : scml)
+        rows.add(new String(scm.getRow()));
+    return rows;
+  }
+
+  private List<RowLock> acquireInOtherThread(final RowLocks rowLocks, final Map<KeyExtent,List<ServerConditionalMutation>> updates,
+      final Map<KeyExtent,List<ServerConditionalMutation>> deferred) throws Exception {
+    return otherThread.submit(new Callable<List<RowLock>>() {
+      @Override
+      public List<RowLock> call() {
+        return rowLocks.acquireRowlocks(updates, deferred);
+      }
+    }).get();
+  }
+
+  private void releaseInOtherThread(final RowLocks rowLocks, final List<RowLock> locks) throws Exception {
+    otherThread.submit(new Callable<Void>() {
+      @Override
+      public Void call() {
+        rowLocks.releaseRowLocks(locks);
+        return null;
+      }
+    }).get();
+  }
+
+  @Test
+  public void testDeferLockedRows() throws Exception {
+    RowLocks rowLocks = new RowLocks();
+
+    List<RowLock> held = acquireInOtherThread(rowLocks, updates("r1", "r3"), new HashMap<KeyExtent,List<ServerConditionalMutation>>());
+    assertEquals(2, held.size());
+
+    Map<KeyExtent,List<ServerConditionalMutation>> updates = updates("r1", "r2", "r3");
+    Map<KeyExtent,List<ServerConditionalMutation>> deferred = new HashMap<KeyExtent,List<ServerConditionalMutation>>();
+    List<RowLock> locks = rowLocks.acquireRowlocks(updates, deferred);
+
+    assertEquals(1, locks.size());
+    assertEquals(Arrays.asList("r2"), rows(updates));
+    assertEquals(Arrays.asList("r1", "r3"), rows(deferred));
+    rowLocks.releaseRowLocks(locks);
+
+    releaseInOtherThread(rowLocks, held);
+
+    deferred = new HashMap<KeyExtent,List<ServerConditionalMutation>>();
+    updates = updates("r1", "r3");
+    locks = rowLocks.acquireRowlocks(updates, deferred);
+    assertEquals(2, locks.size());
+    assertTrue(deferred.isEmpty());
+    rowLocks.releaseRowLocks(locks);
+  }
+
+  @Test
+  public void testSharedStripe() throws Exception {
+    // every row maps to the only stripe
+    RowLocks rowLocks = new RowLocks(1);
+
+    Map<KeyExtent,List<ServerConditionalMutation>> deferred = new HashMap<KeyExtent,List<ServerConditionalMutation>>();
+    List<RowLock> locks = rowLocks.acquireRowlocks(updates("r1", "r2"), deferred);
+    assertEquals(2, locks.size());
+    assertTrue(deferred.isEmpty());
+
+    Map<KeyExtent,List<ServerConditionalMutation>> otherUpdates = updates("r5", "r6");
+    List<RowLock> otherLocks = acquireInOtherThread(rowLocks, otherUpdates, deferred);
+    assertEquals(0, otherLocks.size());
+    assertEquals(Arrays.asList("r5", "r6"), rows(deferred));
+
+    rowLocks.releaseRowLocks(locks);
+
+    deferred = new HashMap<KeyExtent,List<ServerConditionalMutation>>();
+    otherLocks = acquireInOtherThread(rowLocks, updates("r5", "r6"), deferred);
+    assertEquals(2, otherLocks.size());
+    releaseInOtherThread(rowLocks, otherLocks);
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.tserver.log;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.accumulo.core.data.KeyExtent;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.server.data.ServerMutation;
+import org.apache.accumulo.tserver.logger.LogEvents;
+import org.apache.accumulo.tserver.logger.LogFileKey;
+import org.apache.accumulo.tserver.logger.LogFileValue;
+import org.apache.hadoop.io.Text;
+import org.junit.Test;
+
+public class LogFileSortBufferTest {
+
+  private static class Entry implements Comparable<Entry> {
+    final LogFileKey key;
+    final LogFileValue value;
+
+    Entry(LogFileKey key, LogFileValue value) {
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public int compareTo(Entry o) {
+      return key.compareTo(o.key);
+    }
+  }
+
+  private static Entry randomEntry(Random rand, int i) {
+    LogFileKey key = new LogFileKey();
+    LogFileValue value = new LogFileValue();
+    LogEvents[] events = LogEvents.values();
+    key.event = events[rand.nextInt(events.length)];
+    key.tid = rand.nextInt(10);
+    key.seq = rand.nextInt(100);
+    switch (key.event) {
+      case OPEN:
+        key.tserverSession = "session" + i;
+        break;
+      case DEFINE_TABLET:
+        key.tablet = new KeyExtent(new Text("t" + key.tid), null, null);
+        break;
+      case COMPACTION_START:
+        key.filename = "/t/f" + i;
+        break;
+      case MUTATION:
+      case MANY_MUTATIONS:
+        List<Mutation> mutations = new ArrayList<Mutation>();
+        for (int j = rand.nextInt(3) + 1; j > 0; j--) {
+          Mutation m = new ServerMutation(new Text("row" + i));
+          m.put("cf", "cq" + j, "v" + i);
+          mutations.add(m);
+        }
+        value.mutations = mutations;
+        break;
+      default:
+        break;
+    }
+    return new Entry(key, value);
+  }
+
+  @Test
+  public void testSortMatchesKeyOrder() throws Exception {
+    Random rand = new Random(42);
+    List<Entry> expected = new ArrayList<Entry>();
+    LogFileSortBuffer buffer = new LogFileSortBuffer();
+    for (int i = 0; i < 5000; i++) {
+      Entry entry = randomEntry(rand, i);
+      expected.add(entry);
+      buffer.add(entry.key, entry.value);
+    }
+    assertEquals(expected.size(), buffer.size());
+
+    // Collections.sort is stable, as is the buffer
+    Collections.sort(expected);
+    buffer.sort();
+
+    LogFileKey key = new LogFileKey();
+    LogFileValue value = new LogFileValue();
+    for (int i = 0; i < expected.size(); i++) {
+      buffer.get(i, key, value);
+      Entry entry = expected.get(i);
+      assertEquals(entry.key.toString(), key.toString());
+      assertEquals(entry.value.mutations, value.mutations);
+    }
+  }
+
+  @Test
+  public void testEmpty() throws Exception {
+    LogFileSortBuffer buffer = new LogFileSortBuffer();
+    buffer.sort();
+    assertEquals(0, buffer.size());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testAddAfterSort() throws Exception {
+    LogFileSortBuffer buffer = new LogFileSortBuffer();
+    buffer.sort();
+    Entry entry = randomEntry(new Random(), 0);
+    buffer.add(entry.key, entry.value);
+  }
+}
@@ -120,20 +120,8 @@ public class SortedLogRecoveryTest {
     final String workdir = "file://" + root.getRoot().getAbsolutePath() + "/workdir";
     VolumeManager fs = VolumeManagerImpl.getLocal();
     fs.deleteRecursively(new Path(workdir));
-    ArrayList<Path> dirs = new ArrayList<Path>();
     try {
-      for (Entry<String,KeyValue[]> entry : logs.entrySet()) {
-        String path = workdir + "/" + entry.getKey();
-        FileSystem ns = fs.getFileSystemByPath(new Path(path));
-        @SuppressWarnings("deprecation")
-        Writer map = new MapFile.Writer(ns.getConf(), ns, path + "/log1", LogFileKey.class, LogFileValue.class);
-        for (KeyValue lfe : entry.getValue()) {
-          map.append(lfe.key, lfe.value);
-        }
-        map.close();
-        ns.create(new Path(path, "finished")).close();
-        dirs.add(new Path(path));
-      }
+      List<Path> dirs = writeLogs(fs, workdir, logs);
       // Recover
       SortedLogRecovery recovery = new SortedLogRecovery(fs);
       CaptureMutations capture = new CaptureMutations();
@@ -144,6 +132,23 @@ public class SortedLogRecoveryTest {
     }
   }
 
+  private static List<Path> writeLogs(VolumeManager fs, String workdir, Map<String,KeyValue[]> logs) throws IOException {
+    ArrayList<Path> dirs = new ArrayList<Path>();
+    for (Entry<String,KeyValue[]> entry : logs.entrySet()) {
+      String path = workdir + "/" + entry.getKey();
+      FileSystem ns = fs.getFileSystemByPath(new Path(path));
+      @SuppressWarnings("deprecation")
+      Writer map = new MapFile.Writer(ns.getConf(), ns, path + "/log1", LogFileKey.class, LogFileValue.class);
+      for (KeyValue lfe : entry.getValue()) {
+        map.append(lfe.key, lfe.value);
+      }
+      map.close();
+      ns.create(new Path(path, "finished")).close();
+      dirs.add(new Path(path));
+    }
+    return dirs;
+  }
+
   @Test
   public void testCompactionCrossesLogs() throws IOException {
     Mutation ignored = new ServerMutation(new Text("ignored"));
@@ -333,6 +338,35 @@ public class SortedLogRecoveryTest {
     Assert.assertEquals(m, mutations.get(0));
   }
 
+  @Test
+  public void testTabletsSpreadAcrossLogs() throws IOException {
+    // a tablet server with two open logs, the tablet only ever writes to one log of each log set
+    KeyExtent other = new KeyExtent(new Text("other"), null, null);
+    Mutation ignored = new ServerMutation(new Text("ignored"));
+    ignored.put(cf, cq, value);
+    Mutation m = new ServerMutation(new Text("row1"));
+    m.put(cf, cq, value);
+    Mutation m2 = new ServerMutation(new Text("row2"));
+    m2.put(cf, cq, value);
+    KeyValue set1a[] = new KeyValue[] {createKeyValue(OPEN, 0, -1, "1a"), createKeyValue(DEFINE_TABLET, 1, 1, extent),
+        createKeyValue(COMPACTION_START, 3, 1, "/t1/f1"), createKeyValue(COMPACTION_FINISH, 4, 1, null), createKeyValue(MUTATION, 2, 1, ignored),
+        createKeyValue(MUTATION, 5, 1, m),};
+    KeyValue set1b[] = new KeyValue[] {createKeyValue(OPEN, 0, -1, "1b"), createKeyValue(DEFINE_TABLET, 1, 2, other),
+        createKeyValue(MUTATION, 2, 2, ignored), createKeyValue(MUTATION, 3, 2, ignored),};
+    KeyValue set2a[] = new KeyValue[] {createKeyValue(OPEN, 0, -1, "2a"), createKeyValue(DEFINE_TABLET, 1, 1, extent),
+        createKeyValue(MUTATION, 7, 1, m2),};
+    Map<String,KeyValue[]> logs = new TreeMap<String,KeyValue[]>();
+    logs.put("set1a", set1a);
+    logs.put("set1b", set1b);
+    logs.put("set2a", set2a);
+    // Recover
+    List<Mutation> mutations = recover(logs, extent);
+    // Verify recovered data
+    Assert.assertEquals(2, mutations.size());
+    Assert.assertEquals(m, mutations.get(0));
+    Assert.assertEquals(m2, mutations.get(1));
+  }
+
   @Test
   public void testGetMutationsAfterCompactionStart() throws IOException {
     // Create a test log
@@ -657,4 +691,106 @@ public class SortedLogRecoveryTest {
       }
     }
   }
+
+  @Test
+  public void testSharedLogs() throws IOException {
+    KeyExtent extent2 = new KeyExtent(new Text("table"), new Text("m"), null);
+    Mutation m1 = new ServerMutation(new Text("row1"));
+    m1.put(cf, cq, value);
+    Mutation m2 = new ServerMutation(new Text("row2"));
+    m2.put(cf, cq, value);
+    Mutation m3 = new ServerMutation(new Text("row3"));
+    m3.put(cf, cq, value);
+    // extent was defined twice, recovery uses the highest tablet id
+    KeyValue entries[] = new KeyValue[] {createKeyValue(OPEN, 0, -1, "1"), createKeyValue(DEFINE_TABLET, 1, 1, extent),
+        createKeyValue(DEFINE_TABLET, 2, 2, extent2), createKeyValue(DEFINE_TABLET, 5, 3, extent), createKeyValue(MUTATION, 3, 1, m1),
+        createKeyValue(MUTATION, 4, 2, m2), createKeyValue(MUTATION, 6, 3, m3)};
+    KeyValue entries2[] = new KeyValue[] {createKeyValue(OPEN, 0, -1, "1"), createKeyValue(DEFINE_TABLET, 7, 4, extent2),
+        createKeyValue(MUTATION, 8, 4, m1)};
+    Map<String,KeyValue[]> logs = new TreeMap<String,KeyValue[]>();
+    logs.put("entries", entries);
+    logs.put("entries2", entries2);
+
+    TemporaryFolder root = new TemporaryFolder(new File(System.getProperty("user.dir") + "/target"));
+    root.create();
+    final String workdir = "file://" + root.getRoot().getAbsolutePath() + "/workdir";
+    VolumeManager fs = VolumeManagerImpl.getLocal();
+    fs.deleteRecursively(new Path(workdir));
+    RecoveryLogCache cache = new RecoveryLogCache(fs);
+    try {
+      List<Path> dirs = writeLogs(fs, workdir, logs);
+
+      CaptureMutations capture = new CaptureMutations();
+      new SortedLogRecovery(cache).recover(extent, dirs, new HashSet<String>(), capture);
+      Assert.assertEquals(Arrays.asList(m3), capture.result);
+
+      capture = new CaptureMutations();
+      new SortedLogRecovery(cache).recover(extent2, dirs, new HashSet<String>(), capture);
+      Assert.assertEquals(Arrays.asList(m2, m1), capture.result);
+
+      // readers were returned to the cache and are reused
+      capture = new CaptureMutations();
+      new SortedLogRecovery(cache).recover(extent2, dirs, new HashSet<String>(), capture);
+      Assert.assertEquals(Arrays.asList(m2, m1), capture.result);
+    } finally {
+      cache.close();
+      root.delete();
+    }
+  }
+
+  @Test
+  public void testFailedReaderNotReused() throws IOException {
+    Mutation m1 = new ServerMutation(new Text("row1"));
+    m1.put(cf, cq, value);
+    Mutation m2 = new ServerMutation(new Text("row2"));
+    m2.put(cf, cq, value);
+    KeyValue entries[] = new KeyValue[] {createKeyValue(OPEN, 0, -1, "1"), createKeyValue(DEFINE_TABLET, 1, 1, extent), createKeyValue(MUTATION, 2, 1, m1),
+        createKeyValue(MUTATION, 3, 1, m2)};
+    Map<String,KeyValue[]> logs = new TreeMap<String,KeyValue[]>();
+    logs.put("entries", entries);
+
+    TemporaryFolder root = new TemporaryFolder(new File(System.getProperty("user.dir") + "/target"));
+    root.create();
+    final String workdir = "file://" + root.getRoot().getAbsolutePath() + "/workdir";
+    VolumeManager fs = VolumeManagerImpl.getLocal();
+    fs.deleteRecursively(new Path(workdir));
+    RecoveryLogCache cache = new RecoveryLogCache(fs);
+    try {
+      List<Path> dirs = writeLogs(fs, workdir, logs);
+      Path logfile = dirs.get(0);
+
+      // a tablet fails after reading part of the log, before the header was stored
+      MultiReader reader = cache.reserve(logfile);
+      Assert.assertTrue(reader.next(new LogFileKey(), new LogFileValue()));
+      cache.release(logfile, reader, false);
+      Assert.assertEquals(0, cache.getIdleReaderCount(logfile));
+
+      // the next tablet gets a new reader and reads the header from the start
+      reader = cache.reserve(logfile);
+      RecoveryLogCache.LogHeader header = cache.getHeader(logfile, reader);
+      Assert.assertEquals("1", header.tserverSession);
+      Assert.assertNotNull(header.getDefinition(extent));
+      cache.release(logfile, reader, true);
+      Assert.assertEquals(1, cache.getIdleReaderCount(logfile));
+
+      // a recovery that fails during playback does not return its reader
+      try {
+        new SortedLogRecovery(cache).recover(extent, dirs, new HashSet<String>(), new MutationReceiver() {
+          @Override
+          public void receive(Mutation m) {
+            throw new IllegalStateException("failed to apply mutation");
+          }
+        });
+        Assert.fail("expected the recovery to fail");
+      } catch (IllegalStateException e) {}
+      Assert.assertEquals(0, cache.getIdleReaderCount(logfile));
+
+      CaptureMutations capture = new CaptureMutations();
+      new SortedLogRecovery(cache).recover(extent, dirs, new HashSet<String>(), capture);
+      Assert.assertEquals(Arrays.asList(m1, m2), capture.result);
+    } finally {
+      cache.close();
+      root.delete();
+    }
+  }
 }
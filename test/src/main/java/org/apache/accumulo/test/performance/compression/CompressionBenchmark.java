@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.test.performance.compression;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.accumulo.core.cli.Help;
+import org.apache.accumulo.core.file.rfile.bcfile.BCFile;
+import org.apache.accumulo.core.file.rfile.bcfile.Compression;
+import org.apache.accumulo.core.file.rfile.bcfile.Compression.Algorithm;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.compress.Compressor;
+import org.apache.hadoop.io.compress.Decompressor;
+
+import com.beust.jcommander.Parameter;
+
+/**
+ * Compares the compression algorithms on the data blocks of existing RFiles, such as those written by {@link org.apache.accumulo.test.CreateRFiles}. Each
+ * data block is decompressed once, then every algorithm compresses and decompresses each block the way RFile does. Reports the throughput of both in
+ * uncompressed bytes per second and the compression ratio.
+ */
+public class CompressionBenchmark {
+
+  static class Opts extends Help {
+    @Parameter(names = "--files", description = "RFiles, or directories of RFiles, to read data blocks from", required = true, variableArity = true)
+    List<String> files = new ArrayList<String>();
+    @Parameter(names = "--algorithms", description = "compression algorithms to compare, defaults to every supported algorithm", variableArity = true)
+    List<String> algorithms = new ArrayList<String>();
+    @Parameter(names = "--iterations", description = "number of times to compress and decompress the blocks with each algorithm")
+    int iterations = 3;
+  }
+
+  private static void readBlocks(FileSystem fs, Path path, Configuration conf, List<byte[]> blocks) throws Exception {
+    long len = fs.getFileStatus(path).getLen();
+    FSDataInputStream in = fs.open(path);
+    try {
+      BCFile.Reader reader = new BCFile.Reader(in, len, conf);
+      for (int i = 0; i < reader.getBlockCount(); i++) {
+        BCFile.Reader.BlockReader block = reader.getDataBlock(i);
+        byte[] data = new byte[(int) block.getRawSize()];
+        block.readFully(data);
+        block.close();
+        blocks.add(data);
+      }
+      reader.close();
+    } finally {
+      in.close();
+    }
+  }
+
+  private static void run(Algorithm algorithm, List<byte[]> blocks, long rawBytes) throws Exception {
+    List<byte[]> compressed = new ArrayList<byte[]>(blocks.size());
+    long compressedBytes = 0;
+
+    long t1 = System.nanoTime();
+    for (byte[] block : blocks) {
+      ByteArrayOutputStream baos = new ByteArrayOutputStream(block.length);
+      Compressor compressor = algorithm.getCompressor();
+      OutputStream out = algorithm.createCompressionStream(baos, compressor, 0);
+      out.write(block);
+      out.flush();
+      out.close();
+      algorithm.returnCompressor(compressor);
+      compressed.add(baos.toByteArray());
+      compressedBytes += baos.size();
+    }
+    long t2 = System.nanoTime();
+
+    byte[] buffer = new byte[0];
+    for (int i = 0; i < blocks.size(); i++) {
+      int rawSize = blocks.get(i).length;
+      if (buffer.length < rawSize)
+        buffer = new byte[rawSize];
+      Decompressor decompressor = algorithm.getDecompressor();
+      DataInputStream in = new DataInputStream(algorithm.createDecompressionStream(new ByteArrayInputStream(compressed.get(i)), decompressor, 0));
+      in.readFully(buffer, 0, rawSize);
+      in.close();
+      algorithm.returnDecompressor(decompressor);
+    }
+    long t3 = System.nanoTime();
+
+    System.out.printf("%-8s compress %,10.1f MB/s  decompress %,10.1f MB/s  ratio %6.2f%n", algorithm.getName(), rawBytes / ((t2 - t1) / 1000.0),
+        rawBytes / ((t3 - t2) / 1000.0), rawBytes / (double) compressedBytes);
+  }
+
+  public static void main(String[] args) throws Exception {
+    Opts opts = new Opts();
+    opts.parseArgs(CompressionBenchmark.class.getName(), args);
+
+    Configuration conf = new Configuration();
+
+    List<byte[]> blocks = new ArrayList<byte[]>();
+    for (String file : opts.files) {
+      Path path = new Path(file);
+      FileSystem fs = path.getFileSystem(conf);
+      if (fs.getFileStatus(path).isDir()) {
+        for (FileStatus child : fs.listStatus(path)) {
+          if (!child.isDir())
+            readBlocks(fs, child.getPath(), conf, blocks);
+        }
+      } else {
+        readBlocks(fs, path, conf, blocks);
+      }
+    }
+
+    long rawBytes = 0;
+    for (byte[] block : blocks)
+      rawBytes += block.length;
+    System.out.printf("%,d data blocks, %,d uncompressed bytes%n", blocks.size(), rawBytes);
+
+    List<String> algorithms = opts.algorithms.isEmpty() ? Arrays.asList(Compression.getSupportedAlgorithms()) : opts.algorithms;
+    for (int i = 0; i < opts.iterations; i++) {
+      for (String name : algorithms) {
+        run(Compression.getCompressionAlgorithmByName(name), blocks, rawBytes);
+      }
+    }
+  }
+}
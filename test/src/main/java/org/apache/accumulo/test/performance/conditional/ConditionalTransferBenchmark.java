@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.test.performance.conditional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.accumulo.core.Constants;
+import org.apache.accumulo.core.cli.ClientOnRequiredTable;
+import org.apache.accumulo.core.client.ConditionalWriter;
+import org.apache.accumulo.core.client.ConditionalWriter.Result;
+import org.apache.accumulo.core.client.ConditionalWriter.Status;
+import org.apache.accumulo.core.client.ConditionalWriterConfig;
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.data.Condition;
+import org.apache.accumulo.core.data.ConditionalMutation;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.util.SimpleThreadPool;
+import org.apache.hadoop.io.Text;
+
+import com.beust.jcommander.Parameter;
+
+/**
+ * Measures conditional writer throughput with the bank transfer workload of the conditional random walk test. Every bank is a row holding a balance and a
+ * sequence number for each account, and a transfer conditionally updates two accounts of a bank if neither sequence number changed.
+ *
+ * <p>
+ * Each thread owns a disjoint set of banks and sends a batch of transfers, each to a different bank, through a shared conditional writer. Since no other
+ * writer changes a thread's banks, transfers are normally accepted and the benchmark measures the cost of checking conditions and locking rows on the tablet
+ * servers. The table is created and loaded if it does not exist, and the total balance is verified at the end.
+ */
+public class ConditionalTransferBenchmark {
+
+  private static final int INITIAL_BALANCE = 100;
+
+  static class Opts extends ClientOnRequiredTable {
+    @Parameter(names = "--banks", description = "number of banks, one row each")
+    int banks = 1000;
+    @Parameter(names = "--accounts", description = "number of accounts in each bank")
+    int accounts = 100;
+    @Parameter(names = "--threads", description = "number of threads sending transfers")
+    int threads = 4;
+    @Parameter(names = "--batch", description = "number of transfers each thread sends to the conditional writer at once")
+    int batch = 100;
+    @Parameter(names = "--transfers", description = "number of transfers each thread sends")
+    long transfers = 100000;
+    @Parameter(names = "--writeThreads", description = "number of threads the conditional writer uses")
+    int writeThreads = 3;
+  }
+
+  static String getBank(int b) {
+    return String.format("b%06d", b);
+  }
+
+  static String getAccount(int a) {
+    return String.format("acct%06d", a);
+  }
+
+  static String getSeq(int s) {
+    return String.format("%06d", s);
+  }
+
+  private static class Accounts {
+    final int[][] bal;
+    final int[][] seq;
+
+    Accounts(int banks, int accounts) {
+      bal = new int[banks][accounts];
+      seq = new int[banks][accounts];
+    }
+
+    void load(Connector conn, String table, int bank) throws Exception {
+      Scanner scanner = conn.createScanner(table, Authorizations.EMPTY);
+      scanner.setRange(new Range(getBank(bank)));
+      for (Entry<Key,Value> entry : scanner) {
+        int acct = Integer.parseInt(entry.getKey().getColumnFamily().toString().substring(4));
+        String cq = entry.getKey().getColumnQualifier().toString();
+        int val = Integer.parseInt(entry.getValue().toString());
+        if (cq.equals("bal"))
+          bal[bank][acct] = val;
+        else if (cq.equals("seq"))
+          seq[bank][acct] = val;
+      }
+    }
+  }
+
+  private static class Transfer {
+    final int bank;
+    final int acct1;
+    final int acct2;
+    final int amt;
+
+    Transfer(int bank, int acct1, int acct2, int amt) {
+      this.bank = bank;
+      this.acct1 = acct1;
+      this.acct2 = acct2;
+      this.amt = amt;
+    }
+  }
+
+  private static class TransferTask implements Runnable {
+    private final Opts opts;
+    private final ConditionalWriter cw;
+    private final Accounts accounts;
+    private final List<Integer> banks;
+    private final Random rand;
+    private final AtomicLong accepted;
+    private final AtomicLong rejected;
+
+    TransferTask(Opts opts, ConditionalWriter cw, Accounts accounts, List<Integer> banks, long seed, AtomicLong accepted, AtomicLong rejected) {
+      this.opts = opts;
+      this.cw = cw;
+      this.accounts = accounts;
+      this.banks = banks;
+      this.rand = new Random(seed);
+      this.accepted = accepted;
+      this.rejected = rejected;
+    }
+
+    @Override
+    public void run() {
+      try {
+        Connector conn = opts.getConnector();
+        long sent = 0;
+        while (sent < opts.transfers && banks.size() > 0) {
+          // a row can only be changed once per batch, so every transfer in a batch goes to a different bank
+          Collections.shuffle(banks, rand);
+          int count = (int) Math.min(Math.min(opts.batch, banks.size()), opts.transfers - sent);
+
+          List<ConditionalMutation> mutations = new ArrayList<ConditionalMutation>(count);
+          // the writer returns copies of the mutations, so find the transfer by its row
+          Map<String,Transfer> transfers = new HashMap<String,Transfer>();
+          for (int i = 0; i < count; i++) {
+            int bank = banks.get(i);
+            int acct1 = rand.nextInt(opts.accounts);
+            int acct2 = rand.nextInt(opts.accounts - 1);
+            if (acct2 >= acct1)
+              acct2++;
+            int amt = Math.min(rand.nextInt(50), accounts.bal[bank][acct1]);
+
+            int[] seq = accounts.seq[bank];
+            int[] bal = accounts.bal[bank];
+            ConditionalMutation cm = new ConditionalMutation(getBank(bank), new Condition(getAccount(acct1), "seq").setValue(getSeq(seq[acct1])),
+                new Condition(getAccount(acct2), "seq").setValue(getSeq(seq[acct2])));
+            cm.put(getAccount(acct1), "bal", (bal[acct1] - amt) + "");
+            cm.put(getAccount(acct2), "bal", (bal[acct2] + amt) + "");
+            cm.put(getAccount(acct1), "seq", getSeq(seq[acct1] + 1));
+            cm.put(getAccount(acct2), "seq", getSeq(seq[acct2] + 1));
+
+            mutations.add(cm);
+            transfers.put(getBank(bank), new Transfer(bank, acct1, acct2, amt));
+          }
+
+          Iterator<Result> results = cw.write(mutations.iterator());
+          while (results.hasNext()) {
+            Result result = results.next();
+            Transfer transfer = transfers.get(new String(result.getMutation().getRow(), Constants.UTF8));
+            if (result.getStatus() == Status.ACCEPTED) {
+              accounts.bal[transfer.bank][transfer.acct1] -= transfer.amt;
+              accounts.bal[transfer.bank][transfer.acct2] += transfer.amt;
+              accounts.seq[transfer.bank][transfer.acct1]++;
+              accounts.seq[transfer.bank][transfer.acct2]++;
+              accepted.incrementAndGet();
+            } else {
+              // the transfer may or may not have been applied, so read the bank back
+              accounts.load(conn, opts.tableName, transfer.bank);
+              rejected.incrementAndGet();
+            }
+          }
+
+          sent += count;
+        }
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    }
+  }
+
+  private static void createTable(Connector conn, Opts opts) throws Exception {
+    conn.tableOperations().create(opts.tableName);
+
+    // add some splits to spread the banks out a little
+    TreeSet<Text> splits = new TreeSet<Text>();
+    for (int i = 1; i < 10; i++)
+      splits.add(new Text(getBank((int) (opts.banks * .1 * i))));
+    conn.tableOperations().addSplits(opts.tableName, splits);
+
+    ConditionalWriter cw = conn.createConditionalWriter(opts.tableName, new ConditionalWriterConfig());
+    try {
+      for (int bank = 0; bank < opts.banks; bank++) {
+        ConditionalMutation cm = new ConditionalMutation(getBank(bank));
+        for (int acct = 0; acct < opts.accounts; acct++) {
+          cm.addCondition(new Condition(getAccount(acct), "seq"));
+          cm.put(getAccount(acct), "bal", INITIAL_BALANCE + "");
+          cm.put(getAccount(acct), "seq", getSeq(0));
+        }
+        Status status = cw.write(cm).getStatus();
+        if (status != Status.ACCEPTED)
+          throw new IllegalStateException("Failed to create " + getBank(bank) + " " + status);
+      }
+    } finally {
+      cw.close();
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Opts opts = new Opts();
+    opts.parseArgs(ConditionalTransferBenchmark.class.getName(), args);
+
+    if (opts.accounts < 2)
+      throw new IllegalArgumentException("Need at least two accounts per bank");
+
+    Connector conn = opts.getConnector();
+    if (!conn.tableOperations().exists(opts.tableName)) {
+      long t1 = System.currentTimeMillis();
+      createTable(conn, opts);
+      System.out.printf("created %,d banks in %,d ms%n", opts.banks, System.currentTimeMillis() - t1);
+    }
+
+    Accounts accounts = new Accounts(opts.banks, opts.accounts);
+    for (int bank = 0; bank < opts.banks; bank++)
+      accounts.load(conn, opts.tableName, bank);
+
+    List<List<Integer>> banksPerThread = new ArrayList<List<Integer>>();
+    for (int i = 0; i < opts.threads; i++)
+      banksPerThread.add(new ArrayList<Integer>());
+    for (int bank = 0; bank < opts.banks; bank++)
+      banksPerThread.get(bank % opts.threads).add(bank);
+
+    AtomicLong accepted = new AtomicLong(0);
+    AtomicLong rejected = new AtomicLong(0);
+
+    ConditionalWriter cw = conn.createConditionalWriter(opts.tableName, new ConditionalWriterConfig().setMaxWriteThreads(opts.writeThreads));
+    ExecutorService threads = new SimpleThreadPool(opts.threads, "transfers");
+    try {
+      long t1 = System.currentTimeMillis();
+      List<Future<?>> futures = new ArrayList<Future<?>>();
+      for (int i = 0; i < opts.threads; i++)
+        futures.add(threads.submit(new TransferTask(opts, cw, accounts, banksPerThread.get(i), i, accepted, rejected)));
+      for (Future<?> future : futures)
+        future.get();
+      long t2 = System.currentTimeMillis();
+
+      long total = accepted.get() + rejected.get();
+      System.out.printf("%,12d transfers %,8d ms %,12.0f transfers/sec %,12d accepted %,12d not accepted%n", total, t2 - t1, total
+          / ((t2 - t1) / 1000.0 + .0001), accepted.get(), rejected.get());
+    } finally {
+      threads.shutdownNow();
+      cw.close();
+    }
+
+    long sum = 0;
+    Scanner scanner = conn.createScanner(opts.tableName, Authorizations.EMPTY);
+    for (Entry<Key,Value> entry : scanner)
+      if (entry.getKey().getColumnQualifier().toString().equals("bal"))
+        sum += Integer.parseInt(entry.getValue().toString());
+
+    long expected = (long) opts.banks * opts.accounts * INITIAL_BALANCE;
+    if (sum != expected)
+      throw new IllegalStateException("Total balance " + sum + " does not match expected " + expected);
+  }
+}
@@ -39,6 +39,7 @@ import org.apache.accumulo.core.client.Instance;
 import org.apache.accumulo.core.client.Scanner;
 import org.apache.accumulo.core.client.impl.Tables;
 import org.apache.accumulo.core.conf.AccumuloConfiguration;
+import org.apache.accumulo.core.conf.Property;
 import org.apache.accumulo.core.data.ArrayByteSequence;
 import org.apache.accumulo.core.data.ByteSequence;
 import org.apache.accumulo.core.data.Column;
@@ -53,10 +54,13 @@ import org.apache.accumulo.core.iterators.IteratorUtil;
 import org.apache.accumulo.core.iterators.IteratorUtil.IteratorScope;
 import org.apache.accumulo.core.iterators.SortedKeyValueIterator;
 import org.apache.accumulo.core.iterators.SortedMapIterator;
+import org.apache.accumulo.core.iterators.system.BatchingIterator;
 import org.apache.accumulo.core.iterators.system.ColumnFamilySkippingIterator;
 import org.apache.accumulo.core.iterators.system.ColumnQualifierFilter;
 import org.apache.accumulo.core.iterators.system.DeletingIterator;
+import org.apache.accumulo.core.iterators.system.FilteredBatchIterator;
 import org.apache.accumulo.core.iterators.system.MultiIterator;
+import org.apache.accumulo.core.iterators.system.UnbatchingIterator;
 import org.apache.accumulo.core.iterators.system.VisibilityFilter;
 import org.apache.accumulo.core.metadata.MetadataServicer;
 import org.apache.accumulo.core.security.Authorizations;
@@ -179,7 +183,7 @@ public class CollectTabletStats {
         Test test = new Test(ke) {
           @Override
           public int runTest() throws Exception {
-            return readFilesUsingIterStack(fs, sconf, files, opts.auths, ke, columns, false);
+            return readFilesUsingIterStack(fs, sconf, files, opts.auths, ke, columns, false, false);
           }
         };
         
@@ -190,6 +194,7 @@ public class CollectTabletStats {
     }
     
     for (int i = 0; i < opts.iterations; i++) {
+      
       ArrayList<Test> tests = new ArrayList<Test>();
       
       for (final KeyExtent ke : tabletsToTest) {
@@ -197,7 +202,25 @@ public class CollectTabletStats {
         Test test = new Test(ke) {
           @Override
           public int runTest() throws Exception {
-            return readFilesUsingIterStack(fs, sconf, files, opts.auths, ke, columns, true);
+            return readFilesUsingIterStack(fs, sconf, files, opts.auths, ke, columns, false, true);
+          }
+        };
+        
+        tests.add(test);
+      }
+      
+      runTest("read tablet files w/ batched system iter stack", tests, opts.numThreads, threadPool);
+    }
+    
+    for (int i = 0; i < opts.iterations; i++) {
+      ArrayList<Test> tests = new ArrayList<Test>();
+      
+      for (final KeyExtent ke : tabletsToTest) {
+        final List<FileRef> files = tabletFiles.get(ke);
+        Test test = new Test(ke) {
+          @Override
+          public int runTest() throws Exception {
+            return readFilesUsingIterStack(fs, sconf, files, opts.auths, ke, columns, true, false);
           }
         };
         
@@ -416,9 +439,13 @@ public class CollectTabletStats {
     
   }
   
+  /**
+   * @param batched
+   *          filter columns and visibilities in batches as the tablet server does, instead of one entry at a time
+   */
   private static SortedKeyValueIterator<Key,Value> createScanIterator(KeyExtent ke, Collection<SortedKeyValueIterator<Key,Value>> mapfiles,
       Authorizations authorizations, byte[] defaultLabels, HashSet<Column> columnSet, List<IterInfo> ssiList, Map<String,Map<String,String>> ssio,
-      boolean useTableIterators, TableConfiguration conf) throws IOException {
+      boolean useTableIterators, TableConfiguration conf, boolean batched) throws IOException {
     
     SortedMapIterator smi = new SortedMapIterator(new TreeMap<Key,Value>());
     
@@ -430,8 +457,14 @@ public class CollectTabletStats {
     MultiIterator multiIter = new MultiIterator(iters, ke);
     DeletingIterator delIter = new DeletingIterator(multiIter, false);
     ColumnFamilySkippingIterator cfsi = new ColumnFamilySkippingIterator(delIter);
-    ColumnQualifierFilter colFilter = new ColumnQualifierFilter(cfsi, columnSet);
-    VisibilityFilter visFilter = new VisibilityFilter(colFilter, authorizations, defaultLabels);
+    SortedKeyValueIterator<Key,Value> visFilter;
+    if (batched) {
+      visFilter = new UnbatchingIterator(new FilteredBatchIterator(new BatchingIterator(cfsi), new ColumnQualifierFilter(null, columnSet),
+          new VisibilityFilter(null, authorizations, defaultLabels)));
+    } else {
+      ColumnQualifierFilter colFilter = new ColumnQualifierFilter(cfsi, columnSet);
+      visFilter = new VisibilityFilter(colFilter, authorizations, defaultLabels);
+    }
     
     if (useTableIterators)
       return IteratorUtil.loadIterators(IteratorScope.scan, visFilter, ke, conf, ssiList, ssio, null);
@@ -468,7 +501,7 @@ public class CollectTabletStats {
   }
   
   private static int readFilesUsingIterStack(VolumeManager fs, ServerConfiguration aconf, List<FileRef> files, Authorizations auths, KeyExtent ke,
-      String[] columns, boolean useTableIterators) throws Exception {
+      String[] columns, boolean useTableIterators, boolean batched) throws Exception {
     
     SortedKeyValueIterator<Key,Value> reader;
     
@@ -482,7 +515,10 @@ public class CollectTabletStats {
     List<IterInfo> emptyIterinfo = Collections.emptyList();
     Map<String,Map<String,String>> emptySsio = Collections.emptyMap();
     TableConfiguration tconf = aconf.getTableConfiguration(ke.getTableId().toString());
-    reader = createScanIterator(ke, readers, auths, new byte[] {}, new HashSet<Column>(), emptyIterinfo, emptySsio, useTableIterators, tconf);
+    // with the table's iterators, filter the way a tablet server would for this table
+    if (useTableIterators)
+      batched = tconf.getBoolean(Property.TABLE_SCAN_BATCHED_FILTERS);
+    reader = createScanIterator(ke, readers, auths, new byte[] {}, new HashSet<Column>(), emptyIterinfo, emptySsio, useTableIterators, tconf, batched);
     
     HashSet<ByteSequence> columnSet = createColumnBSS(columns);
     
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.test.performance.scan;
+
+import java.io.File;
+import java.util.Collections;
+
+import org.apache.accumulo.core.cli.Help;
+import org.apache.accumulo.core.conf.AccumuloConfiguration;
+import org.apache.accumulo.core.conf.ConfigurationCopy;
+import org.apache.accumulo.core.conf.Property;
+import org.apache.accumulo.core.data.ByteSequence;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Range;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.file.FileOperations;
+import org.apache.accumulo.core.file.FileSKVIterator;
+import org.apache.accumulo.core.file.FileSKVWriter;
+import org.apache.accumulo.core.file.rfile.RFile;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.FileSystem.Statistics;
+
+import com.beust.jcommander.Parameter;
+
+/**
+ * Compares reading an uncompressed RFile on the local filesystem through the filesystem input streams with reading it in place from a memory mapped file.
+ * Reports the bytes that passed through filesystem streams for each key read, next to the bytes of the keys and values themselves, which are copied once
+ * by either read path.
+ */
+public class MappedRFileReadBenchmark {
+
+  static class Opts extends Help {
+    @Parameter(names = "--dir", description = "local directory to write the test file in")
+    String dir = System.getProperty("java.io.tmpdir");
+    @Parameter(names = "--entries", description = "number of entries to write")
+    int entries = 1000000;
+    @Parameter(names = "--iterations", description = "number of times to read the file with each read path")
+    int iterations = 5;
+  }
+
+  private static long streamBytesRead() {
+    long bytes = 0;
+    for (Statistics stats : FileSystem.getAllStatistics()) {
+      if (stats.getScheme().equals("file"))
+        bytes += stats.getBytesRead();
+    }
+    return bytes;
+  }
+
+  private static void read(String desc, String file, FileSystem fs, Configuration conf, AccumuloConfiguration acuconf) throws Exception {
+    long streamBytes = streamBytesRead();
+    long keyValueBytes = 0;
+    long count = 0;
+    long t1 = System.currentTimeMillis();
+
+    FileSKVIterator reader = FileOperations.getInstance().openReader(file, false, fs, conf, acuconf, null, null);
+    reader.seek(new Range(), Collections.<ByteSequence> emptySet(), false);
+    while (reader.hasTop()) {
+      Key key = reader.getTopKey();
+      keyValueBytes += key.getSize() + reader.getTopValue().getSize();
+      count++;
+      reader.next();
+    }
+    reader.close();
+
+    long t2 = System.currentTimeMillis();
+    streamBytes = streamBytesRead() - streamBytes;
+
+    System.out.printf("%-8s %,12d keys %,8d ms %,12.0f keys/sec  stream bytes/key %6.1f  key value bytes/key %6.1f%n", desc, count, t2 - t1, count
+        / ((t2 - t1) / 1000.0 + .0001), streamBytes / (double) count, keyValueBytes / (double) count);
+  }
+
+  public static void main(String[] args) throws Exception {
+    Opts opts = new Opts();
+    opts.parseArgs(MappedRFileReadBenchmark.class.getName(), args);
+
+    Configuration conf = new Configuration();
+    FileSystem fs = FileSystem.getLocal(conf);
+
+    ConfigurationCopy streamConf = new ConfigurationCopy(AccumuloConfiguration.getDefaultConfiguration());
+    streamConf.set(Property.TABLE_FILE_COMPRESSION_TYPE, "none");
+    ConfigurationCopy mappedConf = new ConfigurationCopy(streamConf);
+    mappedConf.set(Property.TSERV_FILES_MMAP, "true");
+
+    File file = new File(opts.dir, "mmap-benchmark-" + System.currentTimeMillis() + "." + RFile.EXTENSION);
+    file.deleteOnExit();
+    new File(file.getParent(), "." + file.getName() + ".crc").deleteOnExit();
+
+    FileSKVWriter writer = FileOperations.getInstance().openWriter(file.getAbsolutePath(), fs, conf, streamConf);
+    writer.startDefaultLocalityGroup();
+    for (int i = 0; i < opts.entries; i++) {
+      writer.append(new Key(String.format("row_%010d", i), "cf" + (i % 10), String.format("cq_%06d", i % 100000)), new Value(("value" + i).getBytes()));
+    }
+    writer.close();
+
+    for (int i = 0; i < opts.iterations; i++) {
+      read("stream", file.getAbsolutePath(), fs, conf, streamConf);
+      read("mapped", file.getAbsolutePath(), fs, conf, mappedConf);
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.test.performance.scan;
+
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.apache.accumulo.core.cli.BatchWriterOpts;
+import org.apache.accumulo.core.cli.ClientOnRequiredTable;
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.impl.ScannerImpl;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.security.Credentials;
+
+import com.beust.jcommander.Parameter;
+
+/**
+ * Measures the throughput of a single scanner over a whole table while varying how many batches the scanner may read ahead. With one batch the scanner asks
+ * for the next batch only after the previous one was handed to the application, as scanners do by default. The table is created and loaded if it
+ * does not exist, and an optional delay per entry stands in for the time an application spends on each entry.
+ */
+public class ScanReadaheadBenchmark {
+
+  static class Opts extends ClientOnRequiredTable {
+    @Parameter(names = "--entries", description = "number of entries to write when the table does not exist")
+    long entries = 2000000;
+    @Parameter(names = "--valueSize", description = "size of each value written")
+    int valueSize = 100;
+    @Parameter(names = "--batchSize", description = "scanner batch size")
+    int batchSize = 1000;
+    @Parameter(names = "--readahead", description = "comma separated numbers of batches to read ahead, each measured in turn")
+    String readahead = "1,2,4,8";
+    @Parameter(names = "--workNanos", description = "time the application spends on each entry")
+    long workNanos = 0;
+    @Parameter(names = "--iterations", description = "number of scans with each read ahead setting")
+    int iterations = 3;
+  }
+
+  private static void load(Connector conn, Opts opts, BatchWriterOpts bwOpts) throws Exception {
+    conn.tableOperations().create(opts.tableName);
+    Random rand = new Random(42);
+    BatchWriter bw = conn.createBatchWriter(opts.tableName, bwOpts.getBatchWriterConfig());
+    for (long i = 0; i < opts.entries; i++) {
+      byte[] value = new byte[opts.valueSize];
+      rand.nextBytes(value);
+      Mutation m = new Mutation(String.format("r%012d", i));
+      m.put("cf", "cq", new Value(value));
+      bw.addMutation(m);
+    }
+    bw.close();
+    conn.tableOperations().flush(opts.tableName, null, null, true);
+  }
+
+  private static void work(long nanos) {
+    if (nanos > 0) {
+      long end = System.nanoTime() + nanos;
+      while (System.nanoTime() < end) {}
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Opts opts = new Opts();
+    BatchWriterOpts bwOpts = new BatchWriterOpts();
+    opts.parseArgs(ScanReadaheadBenchmark.class.getName(), args, bwOpts);
+
+    Connector conn = opts.getConnector();
+    if (!conn.tableOperations().exists(opts.tableName)) {
+      long t1 = System.currentTimeMillis();
+      load(conn, opts, bwOpts);
+      System.out.printf("loaded %,d entries in %,d ms%n", opts.entries, System.currentTimeMillis() - t1);
+    }
+
+    String tableId = conn.tableOperations().tableIdMap().get(opts.tableName);
+    Credentials credentials = new Credentials(opts.principal, opts.getToken());
+
+    for (String batches : opts.readahead.split(",")) {
+      for (int i = 0; i < opts.iterations; i++) {
+        ScannerImpl scanner = new ScannerImpl(conn.getInstance(), credentials, tableId, opts.auths);
+        scanner.setBatchSize(opts.batchSize);
+        scanner.setReadaheadBatches(Integer.parseInt(batches.trim()));
+
+        long count = 0;
+        long bytes = 0;
+        long t1 = System.currentTimeMillis();
+        for (Entry<Key,Value> entry : scanner) {
+          bytes += entry.getKey().getSize() + entry.getValue().getSize();
+          count++;
+          work(opts.workNanos);
+        }
+        long t2 = System.currentTimeMillis();
+
+        double secs = Math.max(t2 - t1, 1) / 1000.0;
+        System.out.printf("readahead %s: %,d entries in %,d ms, %,.0f entries/sec, %,.2f MB/sec%n", batches.trim(), count, t2 - t1, count / secs, bytes
+            / secs / (1 << 20));
+      }
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.test.performance.thrift;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.accumulo.core.cli.BatchWriterOpts;
+import org.apache.accumulo.core.cli.ClientOnRequiredTable;
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.util.FastFormat;
+import org.apache.accumulo.core.util.SimpleThreadPool;
+
+import com.beust.jcommander.Parameter;
+
+/**
+ * Measures how fast a batch writer can push mutations to tablet servers that do no work. Start a {@link NullTserver} for the table first, then run this with
+ * different batch writer options, such as --batchThreads and --batchThreadsPerServer, to compare client side throughput.
+ */
+public class NullTserverWriteBenchmark {
+
+  static class Opts extends ClientOnRequiredTable {
+    @Parameter(names = "--mutations", description = "number of mutations to write in each iteration")
+    long mutations = 1000000;
+    @Parameter(names = "--adders", description = "number of threads adding mutations to the batch writer")
+    int adders = 1;
+    @Parameter(names = "--size", description = "size of the value in each mutation")
+    int size = 50;
+    @Parameter(names = "--iterations", description = "number of times to write the mutations")
+    int iterations = 3;
+  }
+
+  private static class AddTask implements Runnable {
+    private final BatchWriter bw;
+    private final long count;
+    private final int size;
+    private final Random rand;
+
+    AddTask(BatchWriter bw, long count, int size, long seed) {
+      this.bw = bw;
+      this.count = count;
+      this.size = size;
+      this.rand = new Random(seed);
+    }
+
+    @Override
+    public void run() {
+      byte[] value = new byte[size];
+      try {
+        for (long i = 0; i < count; i++) {
+          Mutation m = new Mutation(FastFormat.toZeroPaddedString(rand.nextLong() & 0x7fffffffffffffffl, 16, 16, new byte[0]));
+          rand.nextBytes(value);
+          m.put("cf", "cq", new Value(value));
+          bw.addMutation(m);
+        }
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Opts opts = new Opts();
+    BatchWriterOpts bwOpts = new BatchWriterOpts();
+    opts.parseArgs(NullTserverWriteBenchmark.class.getName(), args, bwOpts);
+
+    Connector conn = opts.getConnector();
+    ExecutorService adders = new SimpleThreadPool(opts.adders, "adders");
+    try {
+      for (int iteration = 0; iteration < opts.iterations; iteration++) {
+        long t1 = System.currentTimeMillis();
+        BatchWriter bw = conn.createBatchWriter(opts.tableName, bwOpts.getBatchWriterConfig());
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (int i = 0; i < opts.adders; i++) {
+          futures.add(adders.submit(new AddTask(bw, opts.mutations / opts.adders, opts.size, iteration * opts.adders + i)));
+        }
+        for (Future<?> future : futures) {
+          future.get();
+        }
+        bw.close();
+        long t2 = System.currentTimeMillis();
+
+        long written = opts.mutations / opts.adders * opts.adders;
+        System.out.printf("%,12d mutations %,8d ms %,12.0f mutations/sec%n", written, t2 - t1, written / ((t2 - t1) / 1000.0 + .0001));
+      }
+    } finally {
+      adders.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.accumulo.test.functional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.accumulo.core.client.BatchWriter;
+import org.apache.accumulo.core.client.BatchWriterConfig;
+import org.apache.accumulo.core.client.Connector;
+import org.apache.accumulo.core.client.Scanner;
+import org.apache.accumulo.core.client.security.tokens.PasswordToken;
+import org.apache.accumulo.core.conf.Property;
+import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Value;
+import org.apache.accumulo.core.master.thrift.TabletServerStatus;
+import org.apache.accumulo.core.security.Authorizations;
+import org.apache.accumulo.core.security.Credentials;
+import org.apache.accumulo.core.tabletserver.thrift.TabletClientService;
+import org.apache.accumulo.core.util.ThriftUtil;
+import org.apache.accumulo.minicluster.impl.MiniAccumuloConfigImpl;
+import org.apache.accumulo.trace.instrument.Tracer;
+import org.junit.Test;
+
+/**
+ * Checks that a scan which turns off block cache population reads cached blocks but does not add any, using the data cache statistics of the only tablet
+ * server.
+ */
+public class BlockCachePopulationIT extends ConfigurableMacIT {
+
+  private static final int ROWS = 20000;
+
+  @Override
+  public void configure(MiniAccumuloConfigImpl cfg) {
+    cfg.setNumTservers(1);
+    Map<String,String> siteConfig = new HashMap<String,String>();
+    siteConfig.put(Property.TSERV_DATACACHE_SIZE.getKey(), "32M");
+    cfg.setSiteConfig(siteConfig);
+  }
+
+  private TabletServerStatus getStatus(Connector c) throws Exception {
+    List<String> tservers = c.instanceOperations().getTabletServers();
+    assertEquals(1, tservers.size());
+    TabletClientService.Client client = ThriftUtil.getTServerClient(tservers.get(0), c.getInstance().getConfiguration());
+    try {
+      Credentials creds = new Credentials("root", new PasswordToken(ROOT_PASSWORD));
+      return client.getTabletServerStatus(Tracer.traceInfo(), creds.toThrift(c.getInstance()));
+    } finally {
+      ThriftUtil.returnClient(client);
+    }
+  }
+
+  /**
+   * @return the data cache hits of the scans
+   */
+  private long scan(Connector c, String table, boolean populate, int times) throws Exception {
+    long before = getStatus(c).dataCacheHits;
+    for (int i = 0; i < times; i++) {
+      Scanner scanner = c.createScanner(table, Authorizations.EMPTY);
+      scanner.setBlockCachePopulation(populate);
+      int count = 0;
+      for (@SuppressWarnings("unused")
+      Entry<Key,Value> entry : scanner)
+        count++;
+      assertEquals(ROWS, count);
+    }
+    return getStatus(c).dataCacheHits - before;
+  }
+
+  @Test(timeout = 4 * 60 * 1000)
+  public void test() throws Exception {
+    Connector c = getConnector();
+    String table = getTableNames(1)[0];
+    c.tableOperations().create(table);
+    c.tableOperations().setProperty(table, Property.TABLE_BLOCKCACHE_ENABLED.getKey(), "true");
+    c.tableOperations().setProperty(table, Property.TABLE_FILE_COMPRESSED_BLOCK_SIZE.getKey(), "4K");
+
+    BatchWriter bw = c.createBatchWriter(table, new BatchWriterConfig());
+    for (int i = 0; i < ROWS; i++) {
+      Mutation m = new Mutation(String.format("r%06d", i));
+      m.put("cf", "cq", "value" + i);
+      bw.addMutation(m);
+    }
+    bw.close();
+    c.tableOperations().flush(table, null, null, true);
+
+    // scans that do not populate the cache find nothing of this table in it; other hits come from the metadata tables
+    long hitsWithoutPopulation = scan(c, table, false, 3);
+
+    // once one scan populates the cache, each later scan reads every data block from it
+    scan(c, table, true, 1);
+    long hitsWithPopulation = scan(c, table, true, 3);
+
+    assertTrue("hits without population " + hitsWithoutPopulation + " with population " + hitsWithPopulation,
+        hitsWithPopulation > 2 * hitsWithoutPopulation + 3 * 10);
+  }
+}